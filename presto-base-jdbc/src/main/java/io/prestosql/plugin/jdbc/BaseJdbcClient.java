@@ -22,14 +22,19 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.connector.AggregateFunction;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.FixedSplitSource;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.TableStatistics;
 import io.prestosql.spi.type.CharType;
@@ -45,6 +50,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -97,6 +103,7 @@ import static java.util.Collections.nCopies;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.joining;
 
 public class BaseJdbcClient
         implements JdbcClient
@@ -115,6 +122,9 @@ public class BaseJdbcClient
             .put(DATE, WriteMapping.longMapping("date", dateWriteFunction()))
             .build();
 
+    private static final JdbcTypeHandle BIGINT_TYPE_HANDLE = new JdbcTypeHandle(Types.BIGINT, Optional.of("bigint"), 0, 0, Optional.empty());
+    private static final JdbcTypeHandle DOUBLE_TYPE_HANDLE = new JdbcTypeHandle(Types.DOUBLE, Optional.of("double precision"), 0, 0, Optional.empty());
+
     protected final ConnectionFactory connectionFactory;
     protected final String identifierQuote;
     protected final boolean caseInsensitiveNameMatching;
@@ -302,13 +312,10 @@ public class BaseJdbcClient
                 this,
                 session,
                 connection,
-                table.getCatalogName(),
-                table.getSchemaName(),
-                table.getTableName(),
+                table,
                 columns,
-                table.getConstraint(),
                 split.getAdditionalPredicate(),
-                tryApplyLimit(table.getLimit()));
+                tryApplySortOrder(table.getSortOrder()).andThen(tryApplyLimit(table.getLimit())));
     }
 
     @Override
@@ -761,6 +768,144 @@ public class BaseJdbcClient
         throw new PrestoException(JDBC_ERROR, "limitFunction() is implemented without isLimitGuaranteed()");
     }
 
+    protected Function<String, String> tryApplySortOrder(Optional<List<JdbcSortItem>> sortOrder)
+    {
+        if (!sortOrder.isPresent()) {
+            return Function.identity();
+        }
+        String orderBy = sortOrder.get().stream()
+                .map(this::toOrderByItem)
+                .collect(joining(", "));
+        return sql -> sql + " ORDER BY " + orderBy;
+    }
+
+    protected String toOrderByItem(JdbcSortItem sortItem)
+    {
+        // null ordering is emulated, as the default placement of nulls differs between databases
+        String column = quoted(sortItem.getColumn().getColumnName());
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return format(
+                "CASE WHEN %s IS NULL THEN %s ELSE %s END, %s %s",
+                column,
+                sortOrder.isNullsFirst() ? 0 : 1,
+                sortOrder.isNullsFirst() ? 1 : 0,
+                column,
+                sortOrder.isAscending() ? "ASC" : "DESC");
+    }
+
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        // text columns are not sorted remotely, as the collation of the remote database may differ from the Presto ordering
+        return supportsLimit() && sortOrder.stream()
+                .map(JdbcSortItem::getColumn)
+                .noneMatch(column -> column.getExpression().isPresent() || column.getColumnType() instanceof CharType || column.getColumnType() instanceof VarcharType);
+    }
+
+    @Override
+    public boolean supportsAggregationPushdown(ConnectorSession session, List<List<JdbcColumnHandle>> groupingSets)
+    {
+        // text columns are not grouped remotely, as the collation of the remote database may consider different values equal
+        return groupingSets.size() == 1 && groupingSets.get(0).stream()
+                .map(JdbcColumnHandle::getColumnType)
+                .noneMatch(type -> type instanceof CharType || type instanceof VarcharType);
+    }
+
+    @Override
+    public boolean supportsJoin(ConnectorSession session, JoinType joinType, List<JdbcJoinCondition> conditions)
+    {
+        return isJoinTypeSupported(joinType) && conditions.stream().allMatch(this::isJoinConditionSupported);
+    }
+
+    protected boolean isJoinTypeSupported(JoinType joinType)
+    {
+        // full outer joins are not supported by all databases
+        return joinType != JoinType.FULL_OUTER;
+    }
+
+    protected boolean isJoinConditionSupported(JdbcJoinCondition condition)
+    {
+        // text columns are not compared remotely, as the collation of the remote database may consider different values equal,
+        // and columns of different types are not compared remotely, as the implicit coercions of the remote database may differ
+        Type leftType = condition.getLeftColumn().getColumnType();
+        Type rightType = condition.getRightColumn().getColumnType();
+        return condition.getOperator() != JoinCondition.Operator.IS_DISTINCT_FROM &&
+                leftType.equals(rightType) &&
+                !(leftType instanceof CharType) &&
+                !(leftType instanceof VarcharType);
+    }
+
+    @Override
+    public Optional<JdbcExpression> implementAggregation(ConnectorSession session, AggregateFunction aggregate, Map<String, ColumnHandle> assignments)
+    {
+        if (aggregate.isDistinct()) {
+            return Optional.empty();
+        }
+        if (aggregate.getInputs().isEmpty()) {
+            if (aggregate.getFunctionName().equals("count")) {
+                return Optional.of(new JdbcExpression(format("%s(*)", countFunction()), BIGINT_TYPE_HANDLE, BIGINT));
+            }
+            return Optional.empty();
+        }
+        if (aggregate.getInputs().size() != 1 || !(aggregate.getInputs().get(0) instanceof Variable)) {
+            return Optional.empty();
+        }
+
+        JdbcColumnHandle column = (JdbcColumnHandle) assignments.get(((Variable) aggregate.getInputs().get(0)).getName());
+        if (column.getExpression().isPresent()) {
+            return Optional.empty();
+        }
+        if (!isAggregationSupported(aggregate.getFunctionName(), column.getColumnType())) {
+            return Optional.empty();
+        }
+        String argument = quoted(column.getColumnName());
+        switch (aggregate.getFunctionName()) {
+            case "count":
+                return Optional.of(new JdbcExpression(format("%s(%s)", countFunction(), argument), BIGINT_TYPE_HANDLE, BIGINT));
+            case "min":
+            case "max":
+                return Optional.of(new JdbcExpression(format("%s(%s)", aggregate.getFunctionName(), argument), column.getJdbcTypeHandle(), column.getColumnType()));
+            case "sum":
+            case "avg":
+                return Optional.of(new JdbcExpression(format("%s(%s)", aggregate.getFunctionName(), argument), DOUBLE_TYPE_HANDLE, DOUBLE));
+            default:
+                throw new IllegalStateException("Unsupported aggregate function: " + aggregate.getFunctionName());
+        }
+    }
+
+    /**
+     * Whether the remote database computes the aggregate function over a column of the type with
+     * exactly the result type of Presto, and can not fail or overflow where Presto would not.
+     * Other aggregates are computed by Presto.
+     */
+    protected boolean isAggregationSupported(String functionName, Type inputType)
+    {
+        switch (functionName) {
+            case "count":
+                return true;
+            case "min":
+            case "max":
+                // floating point and text values are ordered differently by the remote databases
+                return inputType.equals(TINYINT) || inputType.equals(SMALLINT) || inputType.equals(INTEGER) || inputType.equals(BIGINT) || inputType.equals(DATE) || inputType instanceof DecimalType;
+            case "sum":
+                // sums of integers and decimals are wider in the remote databases, which do not fail on
+                // values that overflow the bigint or decimal(38) result of Presto
+            case "avg":
+                // averages of integers and decimals are rounded differently by the remote databases
+                return inputType.equals(DOUBLE);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The remote aggregate function counting rows as a bigint.
+     */
+    protected String countFunction()
+    {
+        return "count";
+    }
+
     protected String quoted(String name)
     {
         name = name.replace(identifierQuote, identifierQuote + identifierQuote);
@@ -21,6 +21,7 @@ import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.type.Type;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
@@ -32,18 +33,27 @@ public final class JdbcColumnHandle
     private final JdbcTypeHandle jdbcTypeHandle;
     private final Type columnType;
     private final boolean nullable;
+    // SQL expression producing the column, for columns that are not stored in the remote table
+    private final Optional<String> expression;
+
+    public JdbcColumnHandle(String columnName, JdbcTypeHandle jdbcTypeHandle, Type columnType, boolean nullable)
+    {
+        this(columnName, jdbcTypeHandle, columnType, nullable, Optional.empty());
+    }
 
     @JsonCreator
     public JdbcColumnHandle(
             @JsonProperty("columnName") String columnName,
             @JsonProperty("jdbcTypeHandle") JdbcTypeHandle jdbcTypeHandle,
             @JsonProperty("columnType") Type columnType,
-            @JsonProperty("nullable") boolean nullable)
+            @JsonProperty("nullable") boolean nullable,
+            @JsonProperty("expression") Optional<String> expression)
     {
         this.columnName = requireNonNull(columnName, "columnName is null");
         this.jdbcTypeHandle = requireNonNull(jdbcTypeHandle, "jdbcTypeHandle is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
         this.nullable = nullable;
+        this.expression = requireNonNull(expression, "expression is null");
     }
 
     @JsonProperty
@@ -70,6 +80,12 @@ public final class JdbcColumnHandle
         return nullable;
     }
 
+    @JsonProperty
+    public Optional<String> getExpression()
+    {
+        return expression;
+    }
+
     public ColumnMetadata getColumnMetadata()
     {
         return new ColumnMetadata(columnName, columnType, nullable, null, null, false, emptyMap());
@@ -97,9 +113,10 @@ public final class JdbcColumnHandle
     @Override
     public String toString()
     {
-        return Joiner.on(":").join(
+        return Joiner.on(":").skipNulls().join(
                 columnName,
                 columnType.getDisplayName(),
-                jdbcTypeHandle.getJdbcTypeName());
+                jdbcTypeHandle.getJdbcTypeName(),
+                expression.orElse(null));
     }
 }
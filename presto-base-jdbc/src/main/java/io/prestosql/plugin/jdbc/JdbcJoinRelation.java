@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.connector.JoinType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Join of two tables of the same remote database, computed by the remote database.
+ * Every column of the joined relation is a named projection of a column of one of the sides.
+ */
+public final class JdbcJoinRelation
+{
+    private final JoinType joinType;
+    private final JdbcTableHandle left;
+    private final JdbcTableHandle right;
+    private final List<JdbcJoinCondition> conditions;
+    // columns of the joined relation, by name, and the columns of the sides producing them
+    private final Map<String, JdbcColumnHandle> leftOutputs;
+    private final Map<String, JdbcColumnHandle> rightOutputs;
+
+    @JsonCreator
+    public JdbcJoinRelation(
+            @JsonProperty("joinType") JoinType joinType,
+            @JsonProperty("left") JdbcTableHandle left,
+            @JsonProperty("right") JdbcTableHandle right,
+            @JsonProperty("conditions") List<JdbcJoinCondition> conditions,
+            @JsonProperty("leftOutputs") Map<String, JdbcColumnHandle> leftOutputs,
+            @JsonProperty("rightOutputs") Map<String, JdbcColumnHandle> rightOutputs)
+    {
+        this.joinType = requireNonNull(joinType, "joinType is null");
+        this.left = requireNonNull(left, "left is null");
+        this.right = requireNonNull(right, "right is null");
+        this.conditions = ImmutableList.copyOf(requireNonNull(conditions, "conditions is null"));
+        checkArgument(!conditions.isEmpty(), "conditions is empty");
+        this.leftOutputs = ImmutableMap.copyOf(requireNonNull(leftOutputs, "leftOutputs is null"));
+        this.rightOutputs = ImmutableMap.copyOf(requireNonNull(rightOutputs, "rightOutputs is null"));
+        checkArgument(!leftOutputs.isEmpty() || !rightOutputs.isEmpty(), "join has no outputs");
+    }
+
+    @JsonProperty
+    public JoinType getJoinType()
+    {
+        return joinType;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getLeft()
+    {
+        return left;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getRight()
+    {
+        return right;
+    }
+
+    @JsonProperty
+    public List<JdbcJoinCondition> getConditions()
+    {
+        return conditions;
+    }
+
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getLeftOutputs()
+    {
+        return leftOutputs;
+    }
+
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getRightOutputs()
+    {
+        return rightOutputs;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JdbcJoinRelation that = (JdbcJoinRelation) o;
+        return joinType == that.joinType &&
+                left.equals(that.left) &&
+                right.equals(that.right) &&
+                conditions.equals(that.conditions) &&
+                leftOutputs.equals(that.leftOutputs) &&
+                rightOutputs.equals(that.rightOutputs);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(joinType, left, right, conditions, leftOutputs, rightOutputs);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("joinType", joinType)
+                .add("left", left)
+                .add("right", right)
+                .add("conditions", conditions)
+                .toString();
+    }
+}
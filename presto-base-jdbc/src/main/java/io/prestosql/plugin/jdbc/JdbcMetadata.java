@@ -15,8 +15,12 @@ package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.Assignment;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
@@ -30,10 +34,17 @@ import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.LimitApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.ComputedStatistics;
 import io.prestosql.spi.statistics.TableStatistics;
@@ -43,24 +54,33 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.spi.StandardErrorCode.PERMISSION_DENIED;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadata
         implements ConnectorMetadata
 {
+    private static final String SYNTHETIC_COLUMN_NAME_PREFIX = "_presto_generated_";
+
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
+    private final boolean aggregationPushdownEnabled;
+    private final boolean joinPushdownEnabled;
 
     private final AtomicReference<Runnable> rollbackAction = new AtomicReference<>();
+    private final AtomicInteger nextSyntheticColumnId = new AtomicInteger();
 
-    public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable)
+    public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable, boolean aggregationPushdownEnabled, boolean joinPushdownEnabled)
     {
         this.jdbcClient = requireNonNull(jdbcClient, "client is null");
         this.allowDropTable = allowDropTable;
+        this.aggregationPushdownEnabled = aggregationPushdownEnabled;
+        this.joinPushdownEnabled = joinPushdownEnabled;
     }
 
     @Override
@@ -87,6 +107,11 @@ public class JdbcMetadata
     {
         JdbcTableHandle handle = (JdbcTableHandle) table;
 
+        if (handle.getGroupingSets().isPresent() || handle.getSortOrder().isPresent()) {
+            // the predicate applies to the aggregated rows or to the top rows, which can not be filtered in the WHERE clause
+            return Optional.empty();
+        }
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
         if (oldDomain.equals(newDomain)) {
@@ -99,7 +124,10 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 newDomain,
-                handle.getLimit());
+                handle.getLimit(),
+                handle.getGroupingSets(),
+                handle.getSortOrder(),
+                handle.getJoin());
 
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
@@ -123,11 +151,199 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 handle.getConstraint(),
-                OptionalLong.of(limit));
+                OptionalLong.of(limit),
+                handle.getGroupingSets(),
+                handle.getSortOrder(),
+                handle.getJoin());
 
         return Optional.of(new LimitApplicationResult<>(handle, jdbcClient.isLimitGuaranteed()));
     }
 
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        List<JdbcSortItem> sortOrder = sortItems.stream()
+                .map(sortItem -> new JdbcSortItem((JdbcColumnHandle) assignments.get(sortItem.getName()), sortItem.getSortOrder()))
+                .collect(toImmutableList());
+        if (!jdbcClient.supportsTopN(session, sortOrder)) {
+            return Optional.empty();
+        }
+
+        if (handle.getSortOrder().isPresent()) {
+            if (!handle.getSortOrder().get().equals(sortOrder) || handle.getLimit().getAsLong() <= topNCount) {
+                return Optional.empty();
+            }
+        }
+        else if (handle.getLimit().isPresent()) {
+            // the rows limited in arbitrary order can not be sorted remotely
+            return Optional.empty();
+        }
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                OptionalLong.of(topNCount),
+                handle.getGroupingSets(),
+                Optional.of(sortOrder),
+                handle.getJoin());
+
+        return Optional.of(new TopNApplicationResult<>(handle, jdbcClient.isLimitGuaranteed()));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        if (!aggregationPushdownEnabled) {
+            return Optional.empty();
+        }
+
+        // the remote query can compute a single level of aggregation, over all of the rows of the table
+        if (handle.getGroupingSets().isPresent() || handle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        List<List<JdbcColumnHandle>> groupingColumns = groupingSets.stream()
+                .map(groupingSet -> groupingSet.stream()
+                        .map(JdbcColumnHandle.class::cast)
+                        .collect(toImmutableList()))
+                .collect(toImmutableList());
+        if (!jdbcClient.supportsAggregationPushdown(session, groupingColumns)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+        ImmutableList.Builder<Assignment> resultAssignments = ImmutableList.builder();
+        for (AggregateFunction aggregate : aggregates) {
+            Optional<JdbcExpression> expression = jdbcClient.implementAggregation(session, aggregate, assignments);
+            // the remote result is only used when it has exactly the type of the Presto result
+            if (!expression.isPresent() || !expression.get().getType().equals(aggregate.getOutputType())) {
+                return Optional.empty();
+            }
+
+            String columnName = SYNTHETIC_COLUMN_NAME_PREFIX + nextSyntheticColumnId.getAndIncrement();
+            JdbcColumnHandle column = new JdbcColumnHandle(
+                    columnName,
+                    expression.get().getJdbcTypeHandle(),
+                    aggregate.getOutputType(),
+                    true,
+                    Optional.of(expression.get().getExpression()));
+            projections.add(new Variable(columnName, aggregate.getOutputType()));
+            resultAssignments.add(new Assignment(columnName, column, aggregate.getOutputType()));
+        }
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                handle.getLimit(),
+                Optional.of(groupingColumns),
+                handle.getSortOrder(),
+                handle.getJoin());
+
+        return Optional.of(new AggregationApplicationResult<>(handle, projections.build(), resultAssignments.build(), ImmutableMap.of()));
+    }
+
+    @Override
+    public Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments)
+    {
+        JdbcTableHandle leftHandle = (JdbcTableHandle) left;
+        JdbcTableHandle rightHandle = (JdbcTableHandle) right;
+
+        if (!joinPushdownEnabled || joinConditions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // the sides are joined as filtered relations, so they can not be limited, sorted or aggregated
+        if (!isJoinable(leftHandle) || !isJoinable(rightHandle)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcJoinCondition> conditions = ImmutableList.builder();
+        for (JoinCondition condition : joinConditions) {
+            if (!(condition.getLeftExpression() instanceof Variable) || !(condition.getRightExpression() instanceof Variable)) {
+                return Optional.empty();
+            }
+            conditions.add(new JdbcJoinCondition(
+                    (JdbcColumnHandle) leftAssignments.get(((Variable) condition.getLeftExpression()).getName()),
+                    condition.getOperator(),
+                    (JdbcColumnHandle) rightAssignments.get(((Variable) condition.getRightExpression()).getName())));
+        }
+        if (!jdbcClient.supportsJoin(session, joinType, conditions.build())) {
+            return Optional.empty();
+        }
+
+        // the columns of both sides are renamed, as their names may conflict
+        boolean leftNullable = joinType == JoinType.RIGHT_OUTER || joinType == JoinType.FULL_OUTER;
+        boolean rightNullable = joinType == JoinType.LEFT_OUTER || joinType == JoinType.FULL_OUTER;
+        ImmutableMap.Builder<String, JdbcColumnHandle> leftOutputs = ImmutableMap.builder();
+        ImmutableMap.Builder<ColumnHandle, ColumnHandle> leftColumns = ImmutableMap.builder();
+        for (ColumnHandle column : ImmutableSet.copyOf(leftAssignments.values())) {
+            JdbcColumnHandle output = createJoinOutputColumn((JdbcColumnHandle) column, leftNullable);
+            leftOutputs.put(output.getColumnName(), (JdbcColumnHandle) column);
+            leftColumns.put(column, output);
+        }
+        ImmutableMap.Builder<String, JdbcColumnHandle> rightOutputs = ImmutableMap.builder();
+        ImmutableMap.Builder<ColumnHandle, ColumnHandle> rightColumns = ImmutableMap.builder();
+        for (ColumnHandle column : ImmutableSet.copyOf(rightAssignments.values())) {
+            JdbcColumnHandle output = createJoinOutputColumn((JdbcColumnHandle) column, rightNullable);
+            rightOutputs.put(output.getColumnName(), (JdbcColumnHandle) column);
+            rightColumns.put(column, output);
+        }
+
+        JdbcTableHandle handle = new JdbcTableHandle(
+                leftHandle.getSchemaTableName(),
+                leftHandle.getCatalogName(),
+                leftHandle.getSchemaName(),
+                leftHandle.getTableName(),
+                TupleDomain.all(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(new JdbcJoinRelation(joinType, leftHandle, rightHandle, conditions.build(), leftOutputs.build(), rightOutputs.build())));
+
+        return Optional.of(new JoinApplicationResult<>(handle, leftColumns.build(), rightColumns.build()));
+    }
+
+    private static boolean isJoinable(JdbcTableHandle handle)
+    {
+        return !handle.getLimit().isPresent() && !handle.getSortOrder().isPresent() && !handle.getGroupingSets().isPresent();
+    }
+
+    private JdbcColumnHandle createJoinOutputColumn(JdbcColumnHandle column, boolean nullable)
+    {
+        return new JdbcColumnHandle(
+                SYNTHETIC_COLUMN_NAME_PREFIX + nextSyntheticColumnId.getAndIncrement(),
+                column.getJdbcTypeHandle(),
+                column.getColumnType(),
+                column.isNullable() || nullable);
+    }
+
     @Override
     public boolean usesLegacyTableLayouts()
     {
@@ -19,6 +19,8 @@ import io.airlift.configuration.ConfigDescription;
 public class JdbcMetadataConfig
 {
     private boolean allowDropTable;
+    private boolean aggregationPushdownEnabled = true;
+    private boolean joinPushdownEnabled = true;
 
     public boolean isAllowDropTable()
     {
@@ -32,4 +34,30 @@ public class JdbcMetadataConfig
         this.allowDropTable = allowDropTable;
         return this;
     }
+
+    public boolean isAggregationPushdownEnabled()
+    {
+        return aggregationPushdownEnabled;
+    }
+
+    @Config("aggregation-pushdown.enabled")
+    @ConfigDescription("Compute aggregations in the remote database, when possible")
+    public JdbcMetadataConfig setAggregationPushdownEnabled(boolean aggregationPushdownEnabled)
+    {
+        this.aggregationPushdownEnabled = aggregationPushdownEnabled;
+        return this;
+    }
+
+    public boolean isJoinPushdownEnabled()
+    {
+        return joinPushdownEnabled;
+    }
+
+    @Config("join-pushdown.enabled")
+    @ConfigDescription("Compute joins of tables of the same database in the remote database, when possible")
+    public JdbcMetadataConfig setJoinPushdownEnabled(boolean joinPushdownEnabled)
+    {
+        this.joinPushdownEnabled = joinPushdownEnabled;
+        return this;
+    }
 }
@@ -21,6 +21,8 @@ public class JdbcMetadataFactory
 {
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
+    private final boolean aggregationPushdownEnabled;
+    private final boolean joinPushdownEnabled;
 
     @Inject
     public JdbcMetadataFactory(JdbcClient jdbcClient, JdbcMetadataConfig config)
@@ -28,10 +30,12 @@ public class JdbcMetadataFactory
         this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
         requireNonNull(config, "config is null");
         this.allowDropTable = config.isAllowDropTable();
+        this.aggregationPushdownEnabled = config.isAggregationPushdownEnabled();
+        this.joinPushdownEnabled = config.isJoinPushdownEnabled();
     }
 
     public JdbcMetadata create()
     {
-        return new JdbcMetadata(jdbcClient, allowDropTable);
+        return new JdbcMetadata(jdbcClient, allowDropTable, aggregationPushdownEnabled, joinPushdownEnabled);
     }
 }
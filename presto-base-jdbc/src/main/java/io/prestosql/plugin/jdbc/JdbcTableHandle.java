@@ -16,6 +16,7 @@ package io.prestosql.plugin.jdbc;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
@@ -23,9 +24,12 @@ import io.prestosql.spi.predicate.TupleDomain;
 
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public final class JdbcTableHandle
@@ -39,10 +43,16 @@ public final class JdbcTableHandle
     private final String tableName;
     private final TupleDomain<ColumnHandle> constraint;
     private final OptionalLong limit;
+    // grouping sets of the aggregation computed by the remote database, if any
+    private final Optional<List<List<JdbcColumnHandle>>> groupingSets;
+    // order of the rows returned by the remote database, only used together with the limit
+    private final Optional<List<JdbcSortItem>> sortOrder;
+    // join computed by the remote database, in which case the names of the table are the names of the left table of the join
+    private final Optional<JdbcJoinRelation> join;
 
     public JdbcTableHandle(SchemaTableName schemaTableName, @Nullable String catalogName, @Nullable String schemaName, String tableName)
     {
-        this(schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), OptionalLong.empty());
+        this(schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), OptionalLong.empty(), Optional.empty(), Optional.empty(), Optional.empty());
     }
 
     @JsonCreator
@@ -52,7 +62,10 @@ public final class JdbcTableHandle
             @JsonProperty("schemaName") @Nullable String schemaName,
             @JsonProperty("tableName") String tableName,
             @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
-            @JsonProperty("limit") OptionalLong limit)
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("groupingSets") Optional<List<List<JdbcColumnHandle>>> groupingSets,
+            @JsonProperty("sortOrder") Optional<List<JdbcSortItem>> sortOrder,
+            @JsonProperty("join") Optional<JdbcJoinRelation> join)
     {
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.catalogName = catalogName;
@@ -60,6 +73,11 @@ public final class JdbcTableHandle
         this.tableName = requireNonNull(tableName, "tableName is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.limit = requireNonNull(limit, "limit is null");
+        this.groupingSets = requireNonNull(groupingSets, "groupingSets is null").map(sets -> sets.stream()
+                .map(ImmutableList::copyOf)
+                .collect(toImmutableList()));
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
+        this.join = requireNonNull(join, "join is null");
     }
 
     @JsonProperty
@@ -100,6 +118,24 @@ public final class JdbcTableHandle
         return limit;
     }
 
+    @JsonProperty
+    public Optional<List<List<JdbcColumnHandle>>> getGroupingSets()
+    {
+        return groupingSets;
+    }
+
+    @JsonProperty
+    public Optional<List<JdbcSortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public Optional<JdbcJoinRelation> getJoin()
+    {
+        return join;
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -110,13 +146,14 @@ public final class JdbcTableHandle
             return false;
         }
         JdbcTableHandle o = (JdbcTableHandle) obj;
-        return Objects.equals(this.schemaTableName, o.schemaTableName);
+        return Objects.equals(this.schemaTableName, o.schemaTableName) &&
+                Objects.equals(this.join, o.join);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(schemaTableName);
+        return Objects.hash(schemaTableName, join);
     }
 
     @Override
@@ -126,6 +163,9 @@ public final class JdbcTableHandle
         builder.append(schemaTableName).append(" ");
         Joiner.on(".").skipNulls().appendTo(builder, catalogName, schemaName, tableName);
         limit.ifPresent(value -> builder.append(" limit=").append(value));
+        groupingSets.ifPresent(value -> builder.append(" groupingSets=").append(value));
+        sortOrder.ifPresent(value -> builder.append(" sortOrder=").append(value));
+        join.ifPresent(value -> builder.append(" join=").append(value));
         return builder.toString();
     }
 }
@@ -20,6 +20,7 @@ import io.airlift.slice.Slice;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -29,10 +30,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -95,12 +101,78 @@ public class QueryBuilder
             Optional<String> additionalPredicate,
             Function<String, String> sqlFunction)
             throws SQLException
+    {
+        return buildSql(client, session, connection, catalog, schema, table, columns, tupleDomain, additionalPredicate, Optional.empty(), sqlFunction);
+    }
+
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            String catalog,
+            String schema,
+            String table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Optional<List<List<JdbcColumnHandle>>> groupingSets,
+            Function<String, String> sqlFunction)
+            throws SQLException
+    {
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = buildQuery(client, session, connection, toTableName(catalog, schema, table), columns, tupleDomain, additionalPredicate, groupingSets, accumulator);
+        return prepareStatement(client, session, connection, sqlFunction.apply(sql), accumulator);
+    }
+
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            JdbcTableHandle table,
+            List<JdbcColumnHandle> columns,
+            Optional<String> additionalPredicate,
+            Function<String, String> sqlFunction)
+            throws SQLException
+    {
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = buildQuery(client, session, connection, table, columns, additionalPredicate, accumulator);
+        return prepareStatement(client, session, connection, sqlFunction.apply(sql), accumulator);
+    }
+
+    private String buildQuery(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            JdbcTableHandle table,
+            List<JdbcColumnHandle> columns,
+            Optional<String> additionalPredicate,
+            List<TypeAndValue> accumulator)
+    {
+        String relation;
+        if (table.getJoin().isPresent()) {
+            relation = toJoinRelation(client, session, connection, table.getJoin().get(), accumulator);
+        }
+        else {
+            relation = toTableName(table.getCatalogName(), table.getSchemaName(), table.getTableName());
+        }
+        return buildQuery(client, session, connection, relation, columns, table.getConstraint(), additionalPredicate, table.getGroupingSets(), accumulator);
+    }
+
+    private String buildQuery(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            String relation,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Optional<List<List<JdbcColumnHandle>>> groupingSets,
+            List<TypeAndValue> accumulator)
     {
         StringBuilder sql = new StringBuilder();
 
         String columnNames = columns.stream()
-                .map(JdbcColumnHandle::getColumnName)
-                .map(this::quote)
+                .map(this::toSelectExpression)
                 .collect(joining(", "));
 
         sql.append("SELECT ");
@@ -110,15 +182,7 @@ public class QueryBuilder
         }
 
         sql.append(" FROM ");
-        if (!isNullOrEmpty(catalog)) {
-            sql.append(quote(catalog)).append('.');
-        }
-        if (!isNullOrEmpty(schema)) {
-            sql.append(quote(schema)).append('.');
-        }
-        sql.append(quote(table));
-
-        List<TypeAndValue> accumulator = new ArrayList<>();
+        sql.append(relation);
 
         List<String> clauses = toConjuncts(client, session, connection, columns, tupleDomain, accumulator);
         if (additionalPredicate.isPresent()) {
@@ -131,8 +195,86 @@ public class QueryBuilder
             sql.append(" WHERE ")
                     .append(Joiner.on(" AND ").join(clauses));
         }
+        if (groupingSets.isPresent()) {
+            checkArgument(groupingSets.get().size() == 1, "Only a single grouping set is supported: %s", groupingSets.get());
+            List<JdbcColumnHandle> groupingColumns = getOnlyElement(groupingSets.get());
+            if (!groupingColumns.isEmpty()) {
+                sql.append(" GROUP BY ")
+                        .append(groupingColumns.stream()
+                                .map(JdbcColumnHandle::getColumnName)
+                                .map(this::quote)
+                                .collect(joining(", ")));
+            }
+        }
+        return sql.toString();
+    }
 
-        String query = sqlFunction.apply(sql.toString());
+    private String toTableName(String catalog, String schema, String table)
+    {
+        StringBuilder name = new StringBuilder();
+        if (!isNullOrEmpty(catalog)) {
+            name.append(quote(catalog)).append('.');
+        }
+        if (!isNullOrEmpty(schema)) {
+            name.append(quote(schema)).append('.');
+        }
+        name.append(quote(table));
+        return name.toString();
+    }
+
+    private String toJoinRelation(JdbcClient client, ConnectorSession session, Connection connection, JdbcJoinRelation join, List<TypeAndValue> accumulator)
+    {
+        List<String> outputs = new ArrayList<>();
+        join.getLeftOutputs().forEach((name, column) -> outputs.add("l." + quote(column.getColumnName()) + " AS " + quote(name)));
+        join.getRightOutputs().forEach((name, column) -> outputs.add("r." + quote(column.getColumnName()) + " AS " + quote(name)));
+
+        // the sides are built in the order they appear in the SQL, so that the parameters are bound in the same order
+        List<JdbcColumnHandle> leftColumns = getJoinSideColumns(join.getLeft(), join.getLeftOutputs().values(), join.getConditions().stream().map(JdbcJoinCondition::getLeftColumn));
+        String left = buildQuery(client, session, connection, join.getLeft(), leftColumns, Optional.empty(), accumulator);
+        List<JdbcColumnHandle> rightColumns = getJoinSideColumns(join.getRight(), join.getRightOutputs().values(), join.getConditions().stream().map(JdbcJoinCondition::getRightColumn));
+        String right = buildQuery(client, session, connection, join.getRight(), rightColumns, Optional.empty(), accumulator);
+
+        String conditions = join.getConditions().stream()
+                .map(condition -> format(
+                        "l.%s %s r.%s",
+                        quote(condition.getLeftColumn().getColumnName()),
+                        condition.getOperator().getValue(),
+                        quote(condition.getRightColumn().getColumnName())))
+                .collect(joining(" AND "));
+
+        return format("(SELECT %s FROM (%s) l %s (%s) r ON %s) o", String.join(", ", outputs), left, toJoinKeyword(join.getJoinType()), right, conditions);
+    }
+
+    private static List<JdbcColumnHandle> getJoinSideColumns(JdbcTableHandle side, Collection<JdbcColumnHandle> outputs, Stream<JdbcColumnHandle> conditionColumns)
+    {
+        // the constrained columns must be selected as well, as the predicates are only built for the selected columns
+        Set<JdbcColumnHandle> columns = new LinkedHashSet<>(outputs);
+        conditionColumns.forEach(columns::add);
+        side.getConstraint().getDomains().ifPresent(domains -> domains.keySet().stream()
+                .map(JdbcColumnHandle.class::cast)
+                .forEach(columns::add));
+        return ImmutableList.copyOf(columns);
+    }
+
+    private static String toJoinKeyword(JoinType joinType)
+    {
+        switch (joinType) {
+            case INNER:
+                return "INNER JOIN";
+            case LEFT_OUTER:
+                return "LEFT JOIN";
+            case RIGHT_OUTER:
+                return "RIGHT JOIN";
+            case FULL_OUTER:
+                return "FULL JOIN";
+            default:
+                throw new IllegalArgumentException("Unsupported join type: " + joinType);
+        }
+    }
+
+    private PreparedStatement prepareStatement(JdbcClient client, ConnectorSession session, Connection connection, String query, List<TypeAndValue> accumulator)
+            throws SQLException
+    {
         PreparedStatement statement = client.getPreparedStatement(connection, query);
 
         for (int i = 0; i < accumulator.size(); i++) {
@@ -167,6 +309,13 @@ public class QueryBuilder
         return statement;
     }
 
+    private String toSelectExpression(JdbcColumnHandle column)
+    {
+        return column.getExpression()
+                .map(expression -> expression + " AS " + quote(column.getColumnName()))
+                .orElseGet(() -> quote(column.getColumnName()));
+    }
+
     private static Domain pushDownDomain(JdbcClient client, ConnectorSession session, Connection connection, JdbcColumnHandle column, Domain domain)
     {
         return client.toPrestoType(session, connection, column.getJdbcTypeHandle())
@@ -16,6 +16,8 @@ package io.prestosql.plugin.jdbc;
 import io.airlift.testing.EquivalenceTester;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+
 import static io.prestosql.plugin.jdbc.MetadataUtil.COLUMN_CODEC;
 import static io.prestosql.plugin.jdbc.MetadataUtil.assertJsonRoundTrip;
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
@@ -29,6 +31,7 @@ public class TestJdbcColumnHandle
     public void testJsonRoundTrip()
     {
         assertJsonRoundTrip(COLUMN_CODEC, new JdbcColumnHandle("columnName", JDBC_VARCHAR, VARCHAR, true));
+        assertJsonRoundTrip(COLUMN_CODEC, new JdbcColumnHandle("columnName", JDBC_BIGINT, BIGINT, true, Optional.of("count(*)")));
     }
 
     @Test
@@ -13,10 +13,15 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import io.prestosql.sql.planner.plan.AggregationNode;
 import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.Test;
 
 import static io.airlift.tpch.TpchTable.ORDERS;
 import static io.prestosql.plugin.jdbc.JdbcQueryRunner.createJdbcQueryRunner;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestJdbcIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
@@ -25,4 +30,84 @@ public class TestJdbcIntegrationSmokeTest
     {
         super(() -> createJdbcQueryRunner(ORDERS));
     }
+
+    @Test
+    public void testAggregationPushdown()
+    {
+        assertAggregationPushedDown("SELECT custkey, count(*), count(orderkey), min(orderkey), max(orderkey), sum(totalprice) FROM orders GROUP BY custkey");
+        assertAggregationPushedDown("SELECT count(*), max(orderdate) FROM orders");
+
+        // the remote sum of integers is wider than bigint, and does not fail on overflow
+        assertQuery("SELECT custkey, sum(orderkey) FROM orders GROUP BY custkey");
+        assertTrue(explain("SELECT custkey, sum(orderkey) FROM orders GROUP BY custkey").contains("Aggregate"));
+
+        // text columns are grouped by Presto
+        assertQuery("SELECT orderstatus, count(*) FROM orders GROUP BY orderstatus");
+        assertTrue(explain("SELECT orderstatus, count(*) FROM orders GROUP BY orderstatus").contains("Aggregate"));
+
+        // the aggregation is computed by Presto over the rows filtered by Presto
+        assertQuery("SELECT custkey, count(*) FROM orders WHERE orderstatus = 'F' GROUP BY custkey");
+        assertQuery("SELECT custkey, count(*) FROM orders GROUP BY custkey HAVING count(*) > 10");
+        assertQuery("SELECT count(DISTINCT custkey) FROM orders");
+    }
+
+    @Test
+    public void testAggregationPushdownPlan()
+    {
+        // the optimizer offers the aggregation to the connector through the projection of the aggregated columns
+        String sql = "SELECT sum(totalprice) FROM orders GROUP BY custkey";
+        assertQuery(getSession(), sql, sql, plan -> assertFalse(
+                searchFrom(plan.getRoot()).where(AggregationNode.class::isInstance).matches(),
+                "aggregation was not pushed down"));
+    }
+
+    @Test
+    public void testTopNPushdown()
+    {
+        assertTopNPushedDown("SELECT orderkey FROM orders ORDER BY orderkey DESC LIMIT 10");
+        assertTopNPushedDown("SELECT orderkey, custkey FROM orders ORDER BY custkey ASC NULLS LAST, orderkey DESC NULLS FIRST LIMIT 10");
+
+        // text columns are sorted by Presto
+        assertQueryOrdered("SELECT orderkey, orderstatus FROM orders ORDER BY orderstatus, orderkey LIMIT 10");
+        assertTrue(explain("SELECT orderkey, orderstatus FROM orders ORDER BY orderstatus, orderkey LIMIT 10").contains("TopN"));
+    }
+
+    @Test
+    public void testJoinPushdown()
+    {
+        assertJoinPushedDown("SELECT o1.orderkey, o2.custkey FROM orders o1 JOIN orders o2 ON o1.orderkey = o2.orderkey");
+        assertJoinPushedDown("SELECT o1.orderkey, o2.orderkey FROM orders o1 LEFT JOIN orders o2 ON o1.orderkey = o2.custkey");
+        assertJoinPushedDown("SELECT o1.orderkey, o2.orderkey FROM orders o1 JOIN orders o2 ON o1.custkey = o2.custkey AND o1.orderkey < o2.orderkey WHERE o1.custkey < 10");
+        assertJoinPushedDown("SELECT count(*) FROM orders o1 JOIN orders o2 ON o1.orderkey = o2.orderkey WHERE o2.orderdate > DATE '1995-01-01'");
+
+        // text columns are compared by Presto
+        assertQuery("SELECT o1.orderkey FROM orders o1 JOIN orders o2 ON o1.orderkey = o2.orderkey AND o1.orderstatus = o2.orderstatus");
+        assertTrue(explain("SELECT o1.orderkey FROM orders o1 JOIN orders o2 ON o1.orderkey = o2.orderkey AND o1.orderstatus = o2.orderstatus").contains("Join["));
+
+        // the rows of the side padded with nulls are filtered by Presto before the join
+        assertQuery("SELECT o1.orderkey, o2.orderkey FROM orders o1 LEFT JOIN (SELECT * FROM orders WHERE orderstatus = 'F') o2 ON o1.orderkey = o2.orderkey");
+    }
+
+    private void assertJoinPushedDown(String sql)
+    {
+        assertQuery(sql);
+        assertFalse(explain(sql).contains("Join["), "join was not pushed down: " + sql);
+    }
+
+    private void assertTopNPushedDown(String sql)
+    {
+        assertQueryOrdered(sql);
+        assertFalse(explain(sql).contains("TopN"), "topN was not pushed down: " + sql);
+    }
+
+    private void assertAggregationPushedDown(String sql)
+    {
+        assertQuery(sql);
+        assertFalse(explain(sql).contains("Aggregate"), "aggregation was not pushed down: " + sql);
+    }
+
+    private String explain(String sql)
+    {
+        return (String) computeActual("EXPLAIN " + sql).getOnlyValue();
+    }
 }
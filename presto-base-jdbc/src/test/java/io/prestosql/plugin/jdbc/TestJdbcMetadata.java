@@ -17,26 +17,48 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
+import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
 import static io.prestosql.spi.StandardErrorCode.NOT_FOUND;
 import static io.prestosql.spi.StandardErrorCode.PERMISSION_DENIED;
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static io.prestosql.spi.block.SortOrder.DESC_NULLS_LAST;
+import static io.prestosql.spi.connector.JoinCondition.Operator.EQUAL;
+import static io.prestosql.spi.connector.JoinType.FULL_OUTER;
+import static io.prestosql.spi.connector.JoinType.INNER;
+import static io.prestosql.spi.connector.JoinType.LEFT_OUTER;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.spi.type.VarcharType.createVarcharType;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static java.util.Collections.emptyMap;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -53,7 +75,7 @@ public class TestJdbcMetadata
             throws Exception
     {
         database = new TestingDatabase();
-        metadata = new JdbcMetadata(database.getJdbcClient(), false);
+        metadata = new JdbcMetadata(database.getJdbcClient(), false, true, true);
         tableHandle = metadata.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
     }
 
@@ -210,6 +232,121 @@ public class TestJdbcMetadata
         assertEquals(layout.getColumns().get(0), new ColumnMetadata("text", VARCHAR));
     }
 
+    @Test
+    public void testApplyAggregation()
+    {
+        Map<String, ColumnHandle> assignments = metadata.getColumnHandles(SESSION, tableHandle);
+        ColumnHandle text = assignments.get("text");
+        ColumnHandle value = assignments.get("value");
+        List<AggregateFunction> aggregates = ImmutableList.of(
+                new AggregateFunction("count", BIGINT, ImmutableList.of(), false),
+                new AggregateFunction("max", BIGINT, ImmutableList.of(new Variable("value", BIGINT)), false));
+
+        AggregationApplicationResult<ConnectorTableHandle> result = metadata.applyAggregation(SESSION, tableHandle, aggregates, assignments, ImmutableList.of(ImmutableList.of()))
+                .orElseThrow(() -> new AssertionError("aggregation was not pushed down"));
+        assertEquals(result.getProjections().size(), 2);
+        assertEquals(result.getAssignments().size(), 2);
+        assertEquals(((JdbcColumnHandle) result.getAssignments().get(0).getColumn()).getExpression(), Optional.of("count(*)"));
+        assertEquals(((JdbcColumnHandle) result.getAssignments().get(1).getColumn()).getExpression(), Optional.of("max(\"VALUE\")"));
+
+        JdbcTableHandle aggregated = (JdbcTableHandle) result.getHandle();
+        assertEquals(aggregated.getGroupingSets(), Optional.of(ImmutableList.of(ImmutableList.of())));
+        // the aggregated relation can not be aggregated or filtered again
+        assertFalse(metadata.applyAggregation(SESSION, aggregated, aggregates, assignments, ImmutableList.of(ImmutableList.of())).isPresent());
+        assertFalse(metadata.applyFilter(SESSION, aggregated, new Constraint(TupleDomain.withColumnDomains(ImmutableMap.of(value, Domain.singleValue(BIGINT, 1L))))).isPresent());
+
+        // grouping on text columns and unsupported functions are not pushed down
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, aggregates, assignments, ImmutableList.of(ImmutableList.of(text))).isPresent());
+        assertFalse(metadata.applyAggregation(
+                SESSION,
+                tableHandle,
+                ImmutableList.of(new AggregateFunction("approx_distinct", BIGINT, ImmutableList.of(new Variable("value", BIGINT)), false)),
+                assignments,
+                ImmutableList.of(ImmutableList.of(value))).isPresent());
+        // the remote sum of integers does not have the result type and the overflow behavior of Presto
+        assertFalse(metadata.applyAggregation(
+                SESSION,
+                tableHandle,
+                ImmutableList.of(new AggregateFunction("sum", BIGINT, ImmutableList.of(new Variable("value", BIGINT)), false)),
+                assignments,
+                ImmutableList.of(ImmutableList.of(value))).isPresent());
+
+        metadata = new JdbcMetadata(database.getJdbcClient(), false, false, true);
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, aggregates, assignments, ImmutableList.of(ImmutableList.of(value))).isPresent());
+    }
+
+    @Test
+    public void testApplyTopN()
+    {
+        Map<String, ColumnHandle> assignments = metadata.getColumnHandles(SESSION, tableHandle);
+        List<SortItem> sortItems = ImmutableList.of(new SortItem("value", DESC_NULLS_LAST));
+
+        TopNApplicationResult<ConnectorTableHandle> result = metadata.applyTopN(SESSION, tableHandle, 10, sortItems, assignments)
+                .orElseThrow(() -> new AssertionError("topN was not pushed down"));
+        assertTrue(result.isTopNGuaranteed());
+        JdbcTableHandle topN = (JdbcTableHandle) result.getHandle();
+        assertEquals(topN.getLimit(), OptionalLong.of(10));
+        assertEquals(topN.getSortOrder(), Optional.of(ImmutableList.of(new JdbcSortItem((JdbcColumnHandle) assignments.get("value"), DESC_NULLS_LAST))));
+
+        // the same order with a lower count can be applied again, while a different order can not
+        assertTrue(metadata.applyTopN(SESSION, topN, 5, sortItems, assignments).isPresent());
+        assertFalse(metadata.applyTopN(SESSION, topN, 20, sortItems, assignments).isPresent());
+        assertFalse(metadata.applyTopN(SESSION, topN, 5, ImmutableList.of(new SortItem("value", ASC_NULLS_FIRST)), assignments).isPresent());
+        // the top rows can not be filtered remotely
+        assertFalse(metadata.applyFilter(SESSION, topN, new Constraint(TupleDomain.withColumnDomains(ImmutableMap.of(assignments.get("value"), Domain.singleValue(BIGINT, 1L))))).isPresent());
+
+        // rows limited in arbitrary order can not be sorted, and text columns are sorted by Presto
+        JdbcTableHandle limited = (JdbcTableHandle) metadata.applyLimit(SESSION, tableHandle, 10).get().getHandle();
+        assertFalse(metadata.applyTopN(SESSION, limited, 5, sortItems, assignments).isPresent());
+        assertFalse(metadata.applyTopN(SESSION, tableHandle, 10, ImmutableList.of(new SortItem("text", ASC_NULLS_FIRST)), assignments).isPresent());
+    }
+
+    @Test
+    public void testApplyJoin()
+    {
+        JdbcTableHandle orders = metadata.getTableHandle(SESSION, new SchemaTableName("tpch", "orders"));
+        JdbcTableHandle lineitem = metadata.getTableHandle(SESSION, new SchemaTableName("tpch", "lineitem"));
+        Map<String, ColumnHandle> ordersAssignments = metadata.getColumnHandles(SESSION, orders);
+        Map<String, ColumnHandle> lineitemAssignments = metadata.getColumnHandles(SESSION, lineitem);
+        List<JoinCondition> conditions = ImmutableList.of(new JoinCondition(EQUAL, new Variable("orderkey", BIGINT), new Variable("orderkey", BIGINT)));
+
+        JoinApplicationResult<ConnectorTableHandle> result = metadata.applyJoin(SESSION, LEFT_OUTER, orders, lineitem, conditions, ordersAssignments, lineitemAssignments)
+                .orElseThrow(() -> new AssertionError("join was not pushed down"));
+        JdbcTableHandle joined = (JdbcTableHandle) result.getHandle();
+        JdbcJoinRelation join = joined.getJoin().orElseThrow(() -> new AssertionError("join is missing"));
+        assertEquals(join.getJoinType(), LEFT_OUTER);
+        assertEquals(join.getConditions(), ImmutableList.of(new JdbcJoinCondition(
+                (JdbcColumnHandle) ordersAssignments.get("orderkey"),
+                EQUAL,
+                (JdbcColumnHandle) lineitemAssignments.get("orderkey"))));
+        assertEquals(result.getLeftColumnHandles().keySet(), ImmutableSet.copyOf(ordersAssignments.values()));
+        assertEquals(result.getRightColumnHandles().keySet(), ImmutableSet.copyOf(lineitemAssignments.values()));
+        // the columns of the side padded with nulls become nullable
+        assertTrue(((JdbcColumnHandle) result.getRightColumnHandles().get(lineitemAssignments.get("orderkey"))).isNullable());
+
+        // the joined relation can be filtered and joined again
+        assertTrue(metadata.applyFilter(SESSION, joined, new Constraint(TupleDomain.withColumnDomains(ImmutableMap.of(
+                result.getLeftColumnHandles().get(ordersAssignments.get("custkey")),
+                Domain.singleValue(BIGINT, 1L))))).isPresent());
+
+        // limited sides, text columns and full outer joins are not pushed down
+        JdbcTableHandle limited = (JdbcTableHandle) metadata.applyLimit(SESSION, lineitem, 10).get().getHandle();
+        assertFalse(metadata.applyJoin(SESSION, LEFT_OUTER, orders, limited, conditions, ordersAssignments, lineitemAssignments).isPresent());
+        assertFalse(metadata.applyJoin(SESSION, FULL_OUTER, orders, lineitem, conditions, ordersAssignments, lineitemAssignments).isPresent());
+        Map<String, ColumnHandle> numbersAssignments = metadata.getColumnHandles(SESSION, tableHandle);
+        assertFalse(metadata.applyJoin(
+                SESSION,
+                INNER,
+                tableHandle,
+                tableHandle,
+                ImmutableList.of(new JoinCondition(EQUAL, new Variable("text", VARCHAR), new Variable("text", VARCHAR))),
+                numbersAssignments,
+                numbersAssignments).isPresent());
+
+        metadata = new JdbcMetadata(database.getJdbcClient(), false, true, false);
+        assertFalse(metadata.applyJoin(SESSION, LEFT_OUTER, orders, lineitem, conditions, ordersAssignments, lineitemAssignments).isPresent());
+    }
+
     @Test
     public void testDropTableTable()
     {
@@ -221,7 +358,7 @@ public class TestJdbcMetadata
             assertEquals(e.getErrorCode(), PERMISSION_DENIED.toErrorCode());
         }
 
-        metadata = new JdbcMetadata(database.getJdbcClient(), true);
+        metadata = new JdbcMetadata(database.getJdbcClient(), true, true, true);
         metadata.dropTable(SESSION, tableHandle);
 
         try {
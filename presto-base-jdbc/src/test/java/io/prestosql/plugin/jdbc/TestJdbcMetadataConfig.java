@@ -28,7 +28,9 @@ public class TestJdbcMetadataConfig
     public void testDefaults()
     {
         assertRecordedDefaults(recordDefaults(JdbcMetadataConfig.class)
-                .setAllowDropTable(false));
+                .setAllowDropTable(false)
+                .setAggregationPushdownEnabled(true)
+                .setJoinPushdownEnabled(true));
     }
 
     @Test
@@ -36,10 +38,14 @@ public class TestJdbcMetadataConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("allow-drop-table", "true")
+                .put("aggregation-pushdown.enabled", "false")
+                .put("join-pushdown.enabled", "false")
                 .build();
 
         JdbcMetadataConfig expected = new JdbcMetadataConfig()
-                .setAllowDropTable(true);
+                .setAllowDropTable(true)
+                .setAggregationPushdownEnabled(false)
+                .setJoinPushdownEnabled(false);
 
         assertFullMapping(properties, expected);
     }
@@ -32,6 +32,7 @@ import org.testng.annotations.Test;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.OptionalLong;
 
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -186,7 +187,10 @@ public class TestJdbcRecordSetProvider
                 jdbcTableHandle.getSchemaName(),
                 jdbcTableHandle.getTableName(),
                 domain,
-                OptionalLong.empty());
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
 
         ConnectorSplitSource splits = jdbcClient.getSplits(IDENTITY, jdbcTableHandle);
         JdbcSplit split = (JdbcSplit) getOnlyElement(getFutureValue(splits.getNextBatch(NOT_PARTITIONED, 1000)).getSplits());
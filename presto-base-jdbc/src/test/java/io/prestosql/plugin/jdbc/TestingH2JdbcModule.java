@@ -37,7 +37,7 @@ class TestingH2JdbcModule
     @Provides
     public JdbcClient provideJdbcClient(BaseJdbcConfig config)
     {
-        return new BaseJdbcClient(config, "\"", new DriverConnectionFactory(new Driver(), config));
+        return new TestingH2JdbcClient(config, new DriverConnectionFactory(new Driver(), config));
     }
 
     public static Map<String, String> createProperties()
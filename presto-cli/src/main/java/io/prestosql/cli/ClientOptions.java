@@ -149,6 +149,9 @@ public class ClientOptions
     @Option(name = "--ignore-errors", title = "ignore errors", description = "Continue processing in batch mode when an error occurs (default is to exit immediately)")
     public boolean ignoreErrors;
 
+    @Option(name = "--spooled-results", title = "spooled results", description = "Download large query results from the workers when the server spools them")
+    public boolean spooledResults;
+
     public enum OutputFormat
     {
         ALIGNED,
@@ -183,7 +186,8 @@ public class ClientOptions
                 emptyMap(),
                 toExtraCredentials(extraCredentials),
                 null,
-                clientRequestTimeout);
+                clientRequestTimeout,
+                spooledResults);
     }
 
     public static URI parseServer(String server)
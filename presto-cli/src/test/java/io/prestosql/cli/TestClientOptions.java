@@ -23,6 +23,8 @@ import java.util.Optional;
 
 import static io.airlift.airline.SingleCommand.singleCommand;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestClientOptions
 {
@@ -32,6 +34,7 @@ public class TestClientOptions
         ClientSession session = new ClientOptions().toClientSession();
         assertEquals(session.getServer().toString(), "http://localhost:8080");
         assertEquals(session.getSource(), "presto-cli");
+        assertFalse(session.isSpooledResults());
     }
 
     @Test
@@ -43,6 +46,15 @@ public class TestClientOptions
         assertEquals(session.getSource(), "test");
     }
 
+    @Test
+    public void testSpooledResults()
+    {
+        ClientOptions options = new ClientOptions();
+        options.spooledResults = true;
+        ClientSession session = options.toClientSession();
+        assertTrue(session.isSpooledResults());
+    }
+
     @Test
     public void testTraceToken()
     {
@@ -102,7 +102,8 @@ public class TestQueryRunner
                         ImmutableMap.of(),
                         ImmutableMap.of(),
                         null,
-                        new Duration(2, MINUTES)));
+                        new Duration(2, MINUTES),
+                        false));
         try (Query query = queryRunner.startQuery("first query will introduce a cookie")) {
             query.renderOutput(nullPrintStream(), nullPrintStream(), CSV, false, false);
         }
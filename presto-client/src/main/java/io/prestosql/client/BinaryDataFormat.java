@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.airlift.json.ObjectMapperProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.client.FixJsonDataUtils.fixValue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Columnar binary encoding of query result data, used instead of the JSON
+ * {@code data} rows when the client advertises {@link ClientCapabilities#BINARY_RESULTS}.
+ * <p>
+ * The encoded data starts with the little-endian int size of the uncompressed data,
+ * followed by the zlib compressed data, which is laid out as:
+ * <pre>
+ * int rowCount
+ * int columnCount
+ * for each column:
+ *     byte encoding
+ *     byte[rowCount] null flags
+ *     the values of the non-null rows, in the column encoding
+ * </pre>
+ * Values are little-endian. {@link #STRING_VALUES} and {@link #JSON_VALUES} values are
+ * written as an int length followed by UTF-8 bytes, and decode to the same values as
+ * the JSON {@code data} rows.
+ */
+public final class BinaryDataFormat
+{
+    public static final byte LONG_VALUES = 1;
+    public static final byte DOUBLE_VALUES = 2;
+    public static final byte REAL_VALUES = 3;
+    public static final byte BOOLEAN_VALUES = 4;
+    public static final byte STRING_VALUES = 5;
+    public static final byte JSON_VALUES = 6;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapperProvider().get();
+
+    private BinaryDataFormat() {}
+
+    public static byte[] compress(byte[] data)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 2 + Integer.BYTES);
+            output.write(data.length);
+            output.write(data.length >>> 8);
+            output.write(data.length >>> 16);
+            output.write(data.length >>> 24);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    static Iterable<List<Object>> decodeData(List<Column> columns, byte[] compressed)
+    {
+        requireNonNull(columns, "columns is null");
+        ByteBuffer input = ByteBuffer.wrap(decompress(compressed)).order(ByteOrder.LITTLE_ENDIAN);
+
+        int rowCount = input.getInt();
+        int columnCount = input.getInt();
+        checkArgument(columnCount == columns.size(), "row/column size mismatch");
+
+        Object[][] rows = new Object[rowCount][columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            ClientTypeSignature signature = columns.get(column).getTypeSignature();
+            byte encoding = input.get();
+            byte[] nulls = new byte[rowCount];
+            input.get(nulls);
+            for (int row = 0; row < rowCount; row++) {
+                if (nulls[row] == 0) {
+                    rows[row][column] = fixValue(signature, readValue(encoding, input));
+                }
+            }
+        }
+        checkArgument(!input.hasRemaining(), "Unexpected data after the last column");
+
+        List<List<Object>> data = new ArrayList<>(rowCount);
+        for (Object[] row : rows) {
+            data.add(unmodifiableList(Arrays.asList(row))); // allow nulls in list
+        }
+        return unmodifiableList(data);
+    }
+
+    private static Object readValue(byte encoding, ByteBuffer input)
+    {
+        switch (encoding) {
+            case LONG_VALUES:
+                return input.getLong();
+            case DOUBLE_VALUES:
+                return input.getDouble();
+            case REAL_VALUES:
+                return Float.intBitsToFloat(input.getInt());
+            case BOOLEAN_VALUES:
+                return input.get() != 0;
+            case STRING_VALUES:
+                return new String(readBytes(input), UTF_8);
+            case JSON_VALUES:
+                try {
+                    return OBJECT_MAPPER.readValue(readBytes(input), Object.class);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown value encoding: " + encoding);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer input)
+    {
+        byte[] bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] decompress(byte[] compressed)
+    {
+        ByteBuffer header = ByteBuffer.wrap(compressed).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] data = new byte[header.getInt()];
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed, Integer.BYTES, compressed.length - Integer.BYTES);
+            int length = 0;
+            while (length < data.length) {
+                int inflated = inflater.inflate(data, length, data.length - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Binary data is truncated");
+                }
+                length += inflated;
+            }
+            return data;
+        }
+        catch (DataFormatException e) {
+            throw new IllegalArgumentException("Binary data is corrupt", e);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+}
@@ -15,5 +15,9 @@ package io.prestosql.client;
 
 public enum ClientCapabilities
 {
-    PATH;
+    PATH,
+    // Whether the result data can be sent in the columnar BinaryDataFormat instead of JSON rows
+    BINARY_RESULTS,
+    // Whether the result data can be returned as segments which the client downloads from the workers
+    SPOOLED_RESULTS;
 }
@@ -51,6 +51,7 @@ public class ClientSession
     private final Map<String, String> extraCredentials;
     private final String transactionId;
     private final Duration clientRequestTimeout;
+    private final boolean spooledResults;
 
     public static Builder builder(ClientSession clientSession)
     {
@@ -82,7 +83,8 @@ public class ClientSession
             Map<String, ClientSelectedRole> roles,
             Map<String, String> extraCredentials,
             String transactionId,
-            Duration clientRequestTimeout)
+            Duration clientRequestTimeout,
+            boolean spooledResults)
     {
         this.server = requireNonNull(server, "server is null");
         this.user = user;
@@ -102,6 +104,7 @@ public class ClientSession
         this.roles = ImmutableMap.copyOf(requireNonNull(roles, "roles is null"));
         this.extraCredentials = ImmutableMap.copyOf(requireNonNull(extraCredentials, "extraCredentials is null"));
         this.clientRequestTimeout = clientRequestTimeout;
+        this.spooledResults = spooledResults;
 
         for (String clientTag : clientTags) {
             checkArgument(!clientTag.contains(","), "client tag cannot contain ','");
@@ -230,6 +233,15 @@ public class ClientSession
         return clientRequestTimeout;
     }
 
+    /**
+     * Returns whether the client accepts large results as segments, which it downloads
+     * from the workers instead of receiving the data through the coordinator.
+     */
+    public boolean isSpooledResults()
+    {
+        return spooledResults;
+    }
+
     @Override
     public String toString()
     {
@@ -246,6 +258,7 @@ public class ClientSession
                 .add("locale", locale)
                 .add("properties", properties)
                 .add("transactionId", transactionId)
+                .add("spooledResults", spooledResults)
                 .omitNullValues()
                 .toString();
     }
@@ -270,6 +283,7 @@ public class ClientSession
         private Map<String, String> credentials;
         private String transactionId;
         private Duration clientRequestTimeout;
+        private boolean spooledResults;
 
         private Builder(ClientSession clientSession)
         {
@@ -292,6 +306,7 @@ public class ClientSession
             credentials = clientSession.getExtraCredentials();
             transactionId = clientSession.getTransactionId();
             clientRequestTimeout = clientSession.getClientRequestTimeout();
+            spooledResults = clientSession.isSpooledResults();
         }
 
         public Builder withCatalog(String catalog)
@@ -348,6 +363,12 @@ public class ClientSession
             return this;
         }
 
+        public Builder withSpooledResults(boolean spooledResults)
+        {
+            this.spooledResults = spooledResults;
+            return this;
+        }
+
         public ClientSession build()
         {
             return new ClientSession(
@@ -368,7 +389,8 @@ public class ClientSession
                     roles,
                     credentials,
                     transactionId,
-                    clientRequestTimeout);
+                    clientRequestTimeout,
+                    spooledResults);
         }
     }
 }
@@ -27,6 +27,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Iterables.unmodifiableIterable;
+import static io.prestosql.client.BinaryDataFormat.decodeData;
 import static io.prestosql.client.FixJsonDataUtils.fixData;
 import static java.util.Objects.requireNonNull;
 
@@ -40,6 +41,8 @@ public class QueryResults
     private final URI nextUri;
     private final List<Column> columns;
     private final Iterable<List<Object>> data;
+    private final byte[] binaryData;
+    private final List<URI> segments;
     private final StatementStats stats;
     private final QueryError error;
     private final List<Warning> warnings;
@@ -54,6 +57,8 @@ public class QueryResults
             @JsonProperty("nextUri") URI nextUri,
             @JsonProperty("columns") List<Column> columns,
             @JsonProperty("data") List<List<Object>> data,
+            @JsonProperty("binaryData") byte[] binaryData,
+            @JsonProperty("segments") List<URI> segments,
             @JsonProperty("stats") StatementStats stats,
             @JsonProperty("error") QueryError error,
             @JsonProperty("warnings") List<Warning> warnings,
@@ -66,7 +71,9 @@ public class QueryResults
                 partialCancelUri,
                 nextUri,
                 columns,
-                fixData(columns, data),
+                (binaryData != null) ? decodeData(columns, binaryData) : fixData(columns, data),
+                null,
+                segments,
                 stats,
                 error,
                 firstNonNull(warnings, ImmutableList.of()),
@@ -86,6 +93,24 @@ public class QueryResults
             List<Warning> warnings,
             String updateType,
             Long updateCount)
+    {
+        this(id, infoUri, partialCancelUri, nextUri, columns, data, null, null, stats, error, warnings, updateType, updateCount);
+    }
+
+    public QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            Iterable<List<Object>> data,
+            byte[] binaryData,
+            List<URI> segments,
+            StatementStats stats,
+            QueryError error,
+            List<Warning> warnings,
+            String updateType,
+            Long updateCount)
     {
         this.id = requireNonNull(id, "id is null");
         this.infoUri = requireNonNull(infoUri, "infoUri is null");
@@ -93,7 +118,13 @@ public class QueryResults
         this.nextUri = nextUri;
         this.columns = (columns != null) ? ImmutableList.copyOf(columns) : null;
         this.data = (data != null) ? unmodifiableIterable(data) : null;
+        this.binaryData = binaryData;
+        this.segments = (segments != null) ? ImmutableList.copyOf(segments) : null;
         checkArgument(data == null || columns != null, "data present without columns");
+        checkArgument(binaryData == null || columns != null, "binary data present without columns");
+        checkArgument(segments == null || columns != null, "segments present without columns");
+        checkArgument(data == null || binaryData == null, "both data and binary data present");
+        checkArgument(segments == null || (data == null && binaryData == null), "both data and segments present");
         this.stats = requireNonNull(stats, "stats is null");
         this.error = error;
         this.warnings = ImmutableList.copyOf(requireNonNull(warnings, "warnings is null"));
@@ -147,6 +178,29 @@ public class QueryResults
         return data;
     }
 
+    /**
+     * Returns the result data in the {@link BinaryDataFormat}, which is decoded into
+     * {@link #getData()} when the results are read by the client.
+     */
+    @Nullable
+    @JsonProperty
+    public byte[] getBinaryData()
+    {
+        return binaryData;
+    }
+
+    /**
+     * Returns the URIs of the result segments, in the {@link BinaryDataFormat}, which
+     * hold the result data when the results are spooled on the workers. The client
+     * downloads the segments in order and deletes them afterwards.
+     */
+    @Nullable
+    @JsonProperty
+    public List<URI> getSegments()
+    {
+        return segments;
+    }
+
     @JsonProperty
     @Override
     public StatementStats getStats()
@@ -194,7 +248,8 @@ public class QueryResults
                 .add("partialCancelUri", partialCancelUri)
                 .add("nextUri", nextUri)
                 .add("columns", columns)
-                .add("hasData", data != null)
+                .add("hasData", data != null || binaryData != null)
+                .add("segments", segments)
                 .add("stats", stats)
                 .add("error", error)
                 .add("updateType", updateType)
@@ -17,15 +17,22 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import io.airlift.json.JsonCodec;
 import io.airlift.units.Duration;
+import okhttp3.Authenticator;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.CookieJar;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -36,12 +43,16 @@ import java.net.URI;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -49,6 +60,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
 import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.prestosql.client.ClientCapabilities.SPOOLED_RESULTS;
 import static io.prestosql.client.PrestoHeaders.PRESTO_ADDED_PREPARE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CATALOG;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
@@ -95,6 +107,7 @@ class StatementClientV1
             firstNonNull(StatementClientV1.class.getPackage().getImplementationVersion(), "unknown");
 
     private final OkHttpClient httpClient;
+    private final OkHttpClient segmentHttpClient;
     private final String query;
     private final AtomicReference<QueryResults> currentResults = new AtomicReference<>();
     private final AtomicReference<String> setCatalog = new AtomicReference<>();
@@ -121,11 +134,12 @@ class StatementClientV1
         requireNonNull(query, "query is null");
 
         this.httpClient = httpClient;
+        this.segmentHttpClient = createSegmentHttpClient(httpClient);
         this.timeZone = session.getTimeZone();
         this.query = query;
         this.requestTimeoutNanos = session.getClientRequestTimeout();
         this.user = session.getUser();
-        this.clientCapabilities = Joiner.on(",").join(ClientCapabilities.values());
+        this.clientCapabilities = Joiner.on(",").join(getClientCapabilities(session));
 
         Request request = buildQueryRequest(session, query);
 
@@ -138,6 +152,30 @@ class StatementClientV1
         processResponse(response.getHeaders(), response.getValue());
     }
 
+    /**
+     * Result segments are downloaded from the workers, which must not receive the credentials
+     * for the coordinator. The segment URIs carry their own token instead.
+     */
+    private static OkHttpClient createSegmentHttpClient(OkHttpClient httpClient)
+    {
+        OkHttpClient.Builder builder = httpClient.newBuilder()
+                .authenticator(Authenticator.NONE)
+                .cookieJar(CookieJar.NO_COOKIES);
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        return builder.build();
+    }
+
+    private static Set<ClientCapabilities> getClientCapabilities(ClientSession session)
+    {
+        Set<ClientCapabilities> capabilities = EnumSet.allOf(ClientCapabilities.class);
+        // spooled results are downloaded from the workers, which the client has to opt into
+        if (!session.isSpooledResults()) {
+            capabilities.remove(SPOOLED_RESULTS);
+        }
+        return capabilities;
+    }
+
     private Request buildQueryRequest(ClientSession session, String query)
     {
         HttpUrl url = HttpUrl.get(session.getServer());
@@ -335,6 +373,13 @@ class StatementClientV1
                 .url(url);
     }
 
+    private static Request.Builder prepareSegmentRequest(URI segment)
+    {
+        return new Request.Builder()
+                .addHeader(USER_AGENT, USER_AGENT_VALUE)
+                .url(HttpUrl.get(segment));
+    }
+
     @Override
     public boolean advance()
     {
@@ -446,7 +491,98 @@ class StatementClientV1
             clearTransactionId.set(true);
         }
 
-        currentResults.set(results);
+        currentResults.set(fetchSegments(results));
+    }
+
+    /**
+     * Downloads the result segments of spooled results in parallel and returns the results
+     * with the decoded segment data. The segments are deleted once they are downloaded, or
+     * when the download of any of them fails.
+     */
+    private QueryResults fetchSegments(QueryResults results)
+    {
+        List<URI> segments = results.getSegments();
+        if (segments == null) {
+            return results;
+        }
+
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (URI segment : segments) {
+            futures.add(fetchSegment(segment));
+        }
+
+        List<Iterable<List<Object>>> data = new ArrayList<>();
+        try {
+            for (CompletableFuture<byte[]> future : futures) {
+                data.add(BinaryDataFormat.decodeData(results.getColumns(), future.get()));
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+            throw new RuntimeException("StatementClient thread was interrupted");
+        }
+        catch (ExecutionException e) {
+            state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+            throw new RuntimeException("Error fetching result segment", e.getCause());
+        }
+        catch (RuntimeException e) {
+            state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+            throw e;
+        }
+        finally {
+            // stop the downloads which are still running after a failure
+            futures.forEach(future -> future.cancel(true));
+            segments.forEach(this::deleteSegmentAsync);
+        }
+
+        return new QueryResults(
+                results.getId(),
+                results.getInfoUri(),
+                results.getPartialCancelUri(),
+                results.getNextUri(),
+                results.getColumns(),
+                Iterables.concat(data),
+                results.getStats(),
+                results.getError(),
+                results.getWarnings(),
+                results.getUpdateType(),
+                results.getUpdateCount());
+    }
+
+    private CompletableFuture<byte[]> fetchSegment(URI segment)
+    {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        Request request = prepareSegmentRequest(segment).build();
+        Call segmentCall = segmentHttpClient.newCall(request);
+        future.whenComplete((data, failure) -> {
+            if (future.isCancelled()) {
+                segmentCall.cancel();
+            }
+        });
+        segmentCall.enqueue(new Callback()
+        {
+            @Override
+            public void onFailure(Call call, IOException e)
+            {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response)
+            {
+                try (ResponseBody body = response.body()) {
+                    if (response.code() != HTTP_OK) {
+                        throw new IOException(format("Error fetching result segment %s: HTTP %s", segment, response.code()));
+                    }
+                    future.complete(body.bytes());
+                }
+                catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
     }
 
     private RuntimeException requestFailedException(String task, Request request, JsonResponse<QueryResults> response)
@@ -503,6 +639,27 @@ class StatementClientV1
         }
     }
 
+    private void deleteSegmentAsync(URI segment)
+    {
+        Request request = prepareSegmentRequest(segment)
+                .delete()
+                .build();
+        segmentHttpClient.newCall(request).enqueue(new Callback()
+        {
+            @Override
+            public void onFailure(Call call, IOException e)
+            {
+                // the segment expires on the server
+            }
+
+            @Override
+            public void onResponse(Call call, Response response)
+            {
+                response.close();
+            }
+        });
+    }
+
     private static String urlEncode(String value)
     {
         try {
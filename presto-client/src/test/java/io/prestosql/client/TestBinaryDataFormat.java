@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static io.prestosql.client.BinaryDataFormat.BOOLEAN_VALUES;
+import static io.prestosql.client.BinaryDataFormat.DOUBLE_VALUES;
+import static io.prestosql.client.BinaryDataFormat.JSON_VALUES;
+import static io.prestosql.client.BinaryDataFormat.LONG_VALUES;
+import static io.prestosql.client.BinaryDataFormat.REAL_VALUES;
+import static io.prestosql.client.BinaryDataFormat.STRING_VALUES;
+import static io.prestosql.client.BinaryDataFormat.compress;
+import static io.prestosql.client.BinaryDataFormat.decodeData;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestBinaryDataFormat
+{
+    @Test
+    public void testRoundTrip()
+    {
+        List<Column> columns = ImmutableList.of(
+                column("bigint"),
+                column("integer"),
+                column("double"),
+                column("real"),
+                column("boolean"),
+                column("varchar"),
+                column("decimal", new ClientTypeSignature("decimal", ImmutableList.of(ClientTypeSignatureParameter.ofLong(4), ClientTypeSignatureParameter.ofLong(2)))),
+                column("array(bigint)", new ClientTypeSignature("array", ImmutableList.of(ClientTypeSignatureParameter.ofType(new ClientTypeSignature("bigint"))))),
+                column("map(varchar,bigint)", new ClientTypeSignature("map", ImmutableList.of(
+                        ClientTypeSignatureParameter.ofType(new ClientTypeSignature("varchar")),
+                        ClientTypeSignatureParameter.ofType(new ClientTypeSignature("bigint"))))),
+                column("row(foo bigint,bar varchar)", new ClientTypeSignature("row", ImmutableList.of(
+                        ClientTypeSignatureParameter.ofNamedType(new NamedClientTypeSignature(Optional.of(new RowFieldName("foo", false)), new ClientTypeSignature("bigint"))),
+                        ClientTypeSignatureParameter.ofNamedType(new NamedClientTypeSignature(Optional.of(new RowFieldName("bar", false)), new ClientTypeSignature("varchar")))))),
+                column("varbinary"));
+
+        ByteBuffer output = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        output.putInt(3);
+        output.putInt(columns.size());
+
+        // bigint
+        output.put(LONG_VALUES);
+        writeNulls(output, false, true, false);
+        output.putLong(1);
+        output.putLong(-5);
+
+        // integer
+        output.put(LONG_VALUES);
+        writeNulls(output, false, false, true);
+        output.putLong(7);
+        output.putLong(Integer.MIN_VALUE);
+
+        // double
+        output.put(DOUBLE_VALUES);
+        writeNulls(output, true, false, false);
+        output.putDouble(2.25);
+        output.putDouble(-0.5);
+
+        // real
+        output.put(REAL_VALUES);
+        writeNulls(output, false, true, false);
+        output.putInt(Float.floatToIntBits(1.25f));
+        output.putInt(Float.floatToIntBits(Float.NaN));
+
+        // boolean
+        output.put(BOOLEAN_VALUES);
+        writeNulls(output, false, false, true);
+        output.put((byte) 1);
+        output.put((byte) 0);
+
+        // varchar
+        output.put(STRING_VALUES);
+        writeNulls(output, false, true, false);
+        writeString(output, "abc");
+        writeString(output, "über");
+
+        // decimal
+        output.put(STRING_VALUES);
+        writeNulls(output, true, true, false);
+        writeString(output, "12.34");
+
+        // the types without a dedicated encoding are written as the JSON of their value
+        output.put(JSON_VALUES);
+        writeNulls(output, false, true, false);
+        writeString(output, "[1,2]");
+        writeString(output, "[]");
+
+        output.put(JSON_VALUES);
+        writeNulls(output, false, false, true);
+        writeString(output, "{\"a\":1}");
+        writeString(output, "{}");
+
+        output.put(JSON_VALUES);
+        writeNulls(output, false, true, true);
+        writeString(output, "[1,\"x\"]");
+
+        output.put(JSON_VALUES);
+        writeNulls(output, true, false, true);
+        writeString(output, "\"AQI=\"");
+
+        List<List<Object>> rows = newArrayList(decodeData(columns, compress(Arrays.copyOf(output.array(), output.position()))));
+        assertEquals(rows.size(), 3);
+
+        assertEquals(rows.get(0).subList(0, 10), Arrays.asList(
+                1L,
+                7,
+                null,
+                1.25f,
+                true,
+                "abc",
+                null,
+                ImmutableList.of(1L, 2L),
+                ImmutableMap.of("a", 1L),
+                ImmutableMap.of("foo", 1L, "bar", "x")));
+        assertNull(rows.get(0).get(10));
+
+        assertEquals(rows.get(1).subList(0, 10), Arrays.asList(
+                null,
+                Integer.MIN_VALUE,
+                2.25,
+                null,
+                false,
+                null,
+                null,
+                null,
+                ImmutableMap.of(),
+                null));
+        assertEquals((byte[]) rows.get(1).get(10), new byte[] {1, 2});
+
+        assertEquals(rows.get(2), Arrays.asList(
+                -5L,
+                null,
+                -0.5,
+                Float.NaN,
+                null,
+                "über",
+                "12.34",
+                ImmutableList.of(),
+                null,
+                null,
+                null));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        ByteBuffer output = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        output.putInt(0);
+        output.putInt(1);
+        output.put(LONG_VALUES);
+
+        List<List<Object>> rows = newArrayList(decodeData(ImmutableList.of(column("bigint")), compress(Arrays.copyOf(output.array(), output.position()))));
+        assertEquals(rows.size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "row/column size mismatch")
+    public void testColumnCountMismatch()
+    {
+        ByteBuffer output = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        output.putInt(0);
+        output.putInt(2);
+        output.put(LONG_VALUES);
+        output.put(LONG_VALUES);
+
+        decodeData(ImmutableList.of(column("bigint")), compress(Arrays.copyOf(output.array(), output.position())));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Binary data is truncated")
+    public void testTruncated()
+    {
+        ByteBuffer output = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        output.putInt(1);
+        output.putInt(1);
+        output.put(LONG_VALUES);
+        output.put((byte) 0);
+        output.putLong(42);
+
+        byte[] compressed = compress(Arrays.copyOf(output.array(), output.position()));
+        decodeData(ImmutableList.of(column("bigint")), Arrays.copyOf(compressed, Integer.BYTES + 2));
+    }
+
+    private static Column column(String type)
+    {
+        return column(type, new ClientTypeSignature(type));
+    }
+
+    private static Column column(String type, ClientTypeSignature signature)
+    {
+        return new Column("col", type, signature);
+    }
+
+    private static void writeNulls(ByteBuffer output, boolean... nulls)
+    {
+        for (boolean isNull : nulls) {
+            output.put((byte) (isNull ? 1 : 0));
+        }
+    }
+
+    private static void writeString(ByteBuffer output, String value)
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.putInt(bytes.length);
+        output.put(bytes);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.json.JsonCodec;
+import io.airlift.units.Duration;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.net.HttpHeaders.AUTHORIZATION;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.prestosql.client.BinaryDataFormat.LONG_VALUES;
+import static io.prestosql.client.BinaryDataFormat.compress;
+import static io.prestosql.client.ClientStandardTypes.BIGINT;
+import static io.prestosql.client.PrestoHeaders.PRESTO_CLIENT_CAPABILITIES;
+import static io.prestosql.client.PrestoHeaders.PRESTO_USER;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestStatementClientV1
+{
+    private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+    private static final String QUERY_ID = "20160128_214710_00012_rk68b";
+
+    private MockWebServer server;
+    private OkHttpClient httpClient;
+
+    @BeforeMethod
+    public void setup()
+            throws IOException
+    {
+        server = new MockWebServer();
+        server.start();
+        httpClient = new OkHttpClient();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown()
+            throws IOException
+    {
+        server.close();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    @Test
+    public void testSpooledResultsNotAdvertisedByDefault()
+            throws Exception
+    {
+        server.enqueue(jsonResponse(finishedResults()));
+
+        try (StatementClient client = new StatementClientV1(httpClient, createClientSession(false), "SELECT 1")) {
+            assertEquals(client.currentStatusInfo().getId(), QUERY_ID);
+        }
+        assertEquals(server.takeRequest().getHeader(PRESTO_CLIENT_CAPABILITIES), "PATH,BINARY_RESULTS");
+    }
+
+    @Test
+    public void testSpooledResultsAdvertised()
+            throws Exception
+    {
+        server.enqueue(jsonResponse(finishedResults()));
+
+        try (StatementClient client = new StatementClientV1(httpClient, createClientSession(true), "SELECT 1")) {
+            assertEquals(client.currentStatusInfo().getId(), QUERY_ID);
+        }
+        assertEquals(server.takeRequest().getHeader(PRESTO_CLIENT_CAPABILITIES), "PATH,BINARY_RESULTS,SPOOLED_RESULTS");
+    }
+
+    @Test
+    public void testSegmentRequestsWithoutCredentials()
+            throws Exception
+    {
+        OkHttpClient authenticatingClient = httpClient.newBuilder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .header(AUTHORIZATION, "Bearer secret")
+                        .build()))
+                .build();
+
+        URI segment = server.url("/v1/segment/1?token=abc").uri();
+        server.enqueue(jsonResponse(runningResults()));
+        server.enqueue(jsonResponse(segmentResults(segment)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(encodeSegment(1, 2))));
+        server.enqueue(new MockResponse().setResponseCode(204));
+
+        try (StatementClient client = new StatementClientV1(authenticatingClient, createClientSession(true), "SELECT 1")) {
+            assertTrue(client.advance());
+            assertEquals(ImmutableList.copyOf(client.currentData().getData()), ImmutableList.of(ImmutableList.of(1L), ImmutableList.of(2L)));
+        }
+
+        RecordedRequest query = server.takeRequest();
+        assertEquals(query.getHeader(AUTHORIZATION), "Bearer secret");
+        assertEquals(query.getHeader(PRESTO_USER), "user");
+        assertEquals(server.takeRequest().getHeader(AUTHORIZATION), "Bearer secret");
+
+        RecordedRequest download = server.takeRequest();
+        assertEquals(download.getMethod(), "GET");
+        assertEquals(download.getPath(), "/v1/segment/1?token=abc");
+        assertNull(download.getHeader(AUTHORIZATION));
+        assertNull(download.getHeader(PRESTO_USER));
+
+        RecordedRequest delete = server.takeRequest(10, SECONDS);
+        assertEquals(delete.getMethod(), "DELETE");
+        assertEquals(delete.getPath(), "/v1/segment/1?token=abc");
+        assertNull(delete.getHeader(AUTHORIZATION));
+        assertNull(delete.getHeader(PRESTO_USER));
+    }
+
+    @Test
+    public void testFetchSegments()
+            throws Exception
+    {
+        URI first = server.url("/v1/segment/1?token=a").uri();
+        URI second = server.url("/v1/segment/2?token=b").uri();
+        server.setDispatcher(new SegmentDispatcher(
+                segmentResults(first, second),
+                ImmutableMap.of(
+                        "/v1/segment/1?token=a", new MockResponse().setBody(new Buffer().write(encodeSegment(1, 2))),
+                        "/v1/segment/2?token=b", new MockResponse().setBody(new Buffer().write(encodeSegment(3))))));
+
+        try (StatementClient client = new StatementClientV1(httpClient, createClientSession(true), "SELECT 1")) {
+            assertTrue(client.advance());
+            // the rows of the segments are returned in the order of the segments
+            assertEquals(
+                    ImmutableList.copyOf(client.currentData().getData()),
+                    ImmutableList.of(ImmutableList.of(1L), ImmutableList.of(2L), ImmutableList.of(3L)));
+        }
+
+        assertEquals(takeSegmentDeletes(2), ImmutableSet.of("/v1/segment/1?token=a", "/v1/segment/2?token=b"));
+    }
+
+    @Test
+    public void testFetchSegmentsFailure()
+            throws Exception
+    {
+        URI first = server.url("/v1/segment/1?token=a").uri();
+        URI second = server.url("/v1/segment/2?token=b").uri();
+        server.setDispatcher(new SegmentDispatcher(
+                segmentResults(first, second),
+                ImmutableMap.of(
+                        "/v1/segment/1?token=a", new MockResponse().setResponseCode(500),
+                        // the download is cancelled long before the body is sent
+                        "/v1/segment/2?token=b", new MockResponse()
+                                .setBody(new Buffer().write(encodeSegment(3)))
+                                .setBodyDelay(1, MINUTES))));
+
+        try (StatementClient client = new StatementClientV1(httpClient, createClientSession(true), "SELECT 1")) {
+            try {
+                client.advance();
+                fail("expected exception");
+            }
+            catch (RuntimeException e) {
+                assertEquals(e.getMessage(), "Error fetching result segment");
+            }
+            assertTrue(client.isClientError());
+        }
+
+        // every segment of the response is deleted, including the one which was still being downloaded
+        assertEquals(takeSegmentDeletes(2), ImmutableSet.of("/v1/segment/1?token=a", "/v1/segment/2?token=b"));
+    }
+
+    private Set<String> takeSegmentDeletes(int count)
+            throws InterruptedException
+    {
+        ImmutableSet.Builder<String> deletes = ImmutableSet.builder();
+        int found = 0;
+        while (found < count) {
+            RecordedRequest request = server.takeRequest(10, SECONDS);
+            assertNotNull(request, "segment was not deleted");
+            // the failed query is also cancelled with a delete of its next URI
+            if (request.getMethod().equals("DELETE") && request.getPath().startsWith("/v1/segment/")) {
+                deletes.add(request.getPath());
+                found++;
+            }
+        }
+        return deletes.build();
+    }
+
+    private class SegmentDispatcher
+            extends Dispatcher
+    {
+        private final QueryResults segmentResults;
+        private final Map<String, MockResponse> segmentResponses;
+
+        public SegmentDispatcher(QueryResults segmentResults, Map<String, MockResponse> segmentResponses)
+        {
+            this.segmentResults = segmentResults;
+            this.segmentResponses = segmentResponses;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request)
+        {
+            if (request.getPath().equals("/v1/statement")) {
+                return jsonResponse(runningResults());
+            }
+            if (request.getPath().startsWith("/v1/statement/")) {
+                return jsonResponse(segmentResults);
+            }
+            if (request.getMethod().equals("DELETE")) {
+                return new MockResponse().setResponseCode(204);
+            }
+            return segmentResponses.getOrDefault(request.getPath(), new MockResponse().setResponseCode(404));
+        }
+    }
+
+    private QueryResults runningResults()
+    {
+        return new QueryResults(
+                QUERY_ID,
+                server.url("/query.html?" + QUERY_ID).uri(),
+                null,
+                server.url("/v1/statement/" + QUERY_ID + "/1").uri(),
+                null,
+                null,
+                StatementStats.builder().setState("RUNNING").build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+    }
+
+    private QueryResults segmentResults(URI... segments)
+    {
+        return new QueryResults(
+                QUERY_ID,
+                server.url("/query.html?" + QUERY_ID).uri(),
+                null,
+                null,
+                ImmutableList.of(new Column("_col0", BIGINT, new ClientTypeSignature(BIGINT))),
+                null,
+                null,
+                ImmutableList.copyOf(segments),
+                StatementStats.builder().setState("FINISHED").build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+    }
+
+    private static byte[] encodeSegment(long... values)
+    {
+        ByteBuffer output = ByteBuffer.allocate(Integer.BYTES * 2 + 1 + values.length * (1 + Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        output.putInt(values.length);
+        output.putInt(1);
+        output.put(LONG_VALUES);
+        for (int i = 0; i < values.length; i++) {
+            output.put((byte) 0);
+        }
+        for (long value : values) {
+            output.putLong(value);
+        }
+        return compress(output.array());
+    }
+
+    private QueryResults finishedResults()
+    {
+        return new QueryResults(
+                QUERY_ID,
+                server.url("/query.html?" + QUERY_ID).uri(),
+                null,
+                null,
+                ImmutableList.of(new Column("_col0", BIGINT, new ClientTypeSignature(BIGINT))),
+                ImmutableList.of(ImmutableList.of(123)),
+                StatementStats.builder().setState("FINISHED").build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+    }
+
+    private static MockResponse jsonResponse(QueryResults results)
+    {
+        return new MockResponse()
+                .addHeader(CONTENT_TYPE, "application/json")
+                .setBody(QUERY_RESULTS_CODEC.toJson(results));
+    }
+
+    private ClientSession createClientSession(boolean spooledResults)
+    {
+        return new ClientSession(
+                server.url("/").uri(),
+                "user",
+                "source",
+                Optional.empty(),
+                ImmutableSet.of(),
+                null,
+                "catalog",
+                "schema",
+                null,
+                ZoneId.of("America/Los_Angeles"),
+                Locale.ENGLISH,
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                ImmutableMap.of(),
+                null,
+                new Duration(2, MINUTES),
+                spooledResults);
+    }
+}
@@ -26,15 +26,24 @@ import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
 import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.Type;
 
 import javax.inject.Inject;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchMetadata
@@ -146,6 +155,10 @@ public class ElasticsearchMetadata
     public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(ConnectorSession session, ConnectorTableHandle table, Constraint constraint)
     {
         ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+        if (handle.getSortOrder().isPresent()) {
+            // the predicate applies to the top rows, which can not be filtered in the search query
+            return Optional.empty();
+        }
 
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
@@ -156,11 +169,51 @@ public class ElasticsearchMetadata
         handle = new ElasticsearchTableHandle(
                 handle.getSchemaName(),
                 handle.getTableName(),
-                handle.getConstraint());
+                handle.getConstraint(),
+                handle.getLimit(),
+                handle.getSortOrder());
 
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
 
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+
+        List<ElasticsearchSortItem> sortOrder = sortItems.stream()
+                .map(sortItem -> new ElasticsearchSortItem((ElasticsearchColumnHandle) assignments.get(sortItem.getName()), sortItem.getSortOrder()))
+                .collect(toImmutableList());
+        if (!sortOrder.stream().map(ElasticsearchSortItem::getColumn).allMatch(ElasticsearchMetadata::isSortable)) {
+            return Optional.empty();
+        }
+        if (handle.getSortOrder().isPresent() && (!handle.getSortOrder().get().equals(sortOrder) || handle.getLimit().getAsLong() <= topNCount)) {
+            return Optional.empty();
+        }
+
+        handle = new ElasticsearchTableHandle(
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                OptionalLong.of(topNCount),
+                Optional.of(sortOrder));
+
+        // every shard is searched separately, so the top rows of the splits still have to be merged
+        return Optional.of(new TopNApplicationResult<>(handle, false));
+    }
+
+    private static boolean isSortable(ElasticsearchColumnHandle column)
+    {
+        // text fields are analyzed, so only the numeric and boolean values are sorted by Elasticsearch
+        Type type = column.getColumnType();
+        return !column.getIsList() && (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE) || type.equals(BOOLEAN));
+    }
+
     private Optional<ConnectorTableMetadata> getTableMetadata(SchemaTableName tableName)
     {
         ElasticsearchTableDescription table = client.getTable(tableName.getSchemaName(), tableName.getTableName());
@@ -17,6 +17,7 @@ import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.units.Duration;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
@@ -33,11 +34,15 @@ import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -50,10 +55,14 @@ import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static org.elasticsearch.action.search.SearchType.QUERY_THEN_FETCH;
+import static org.elasticsearch.search.sort.SortOrder.ASC;
+import static org.elasticsearch.search.sort.SortOrder.DESC;
 
 public class ElasticsearchQueryBuilder
 {
@@ -64,6 +73,8 @@ public class ElasticsearchQueryBuilder
     private final TransportClient client;
     private final int shard;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final OptionalLong limit;
+    private final Optional<List<ElasticsearchSortItem>> sortOrder;
     private final List<ElasticsearchColumnHandle> columns;
     private final String index;
     private final String type;
@@ -76,6 +87,8 @@ public class ElasticsearchQueryBuilder
 
         columns = columnHandles;
         tupleDomain = table.getConstraint();
+        limit = table.getLimit();
+        sortOrder = table.getSortOrder();
         index = split.getIndex();
         shard = split.getShard();
         type = split.getType();
@@ -109,7 +122,8 @@ public class ElasticsearchQueryBuilder
                 .setFetchSource(fields.toArray(new String[0]), null)
                 .setQuery(buildSearchQuery())
                 .setPreference("_shards:" + shard)
-                .setSize(scrollSize);
+                .setSize(limit.isPresent() ? toIntExact(min(scrollSize, limit.getAsLong())) : scrollSize);
+        sortOrder.ifPresent(sortItems -> sortItems.forEach(sortItem -> searchRequestBuilder.addSort(buildSort(sortItem))));
         LOG.debug("Elasticsearch Request: %s", searchRequestBuilder);
         return searchRequestBuilder;
     }
@@ -140,6 +154,14 @@ public class ElasticsearchQueryBuilder
         return new MatchAllQueryBuilder();
     }
 
+    private static SortBuilder<?> buildSort(ElasticsearchSortItem sortItem)
+    {
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return SortBuilders.fieldSort(sortItem.getColumn().getColumnJsonPath())
+                .order(sortOrder.isAscending() ? ASC : DESC)
+                .missing(sortOrder.isNullsFirst() ? "_first" : "_last");
+    }
+
     private QueryBuilder buildPredicate(String columnName, Domain domain, Type type)
     {
         checkArgument(domain.getType().isOrderable(), "Domain type must be orderable");
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -46,6 +47,7 @@ import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -57,6 +59,7 @@ public class ElasticsearchRecordCursor
     private final List<ElasticsearchColumnHandle> columnHandles;
     private final Map<String, Integer> jsonPathToIndex = new HashMap<>();
     private final int maxHits;
+    private final OptionalLong limit;
     private final Iterator<SearchHit> searchHits;
     private final Duration requestTimeout;
     private final int maxAttempts;
@@ -73,6 +76,7 @@ public class ElasticsearchRecordCursor
 
         this.columnHandles = columnHandles;
         this.maxHits = config.getMaxHits();
+        this.limit = table.getLimit();
         this.requestTimeout = config.getRequestTimeout();
         this.maxAttempts = config.getMaxRequestRetries();
         this.maxRetryTime = config.getMaxRetryTime();
@@ -217,15 +221,22 @@ public class ElasticsearchRecordCursor
     {
         SearchResponse response = getSearchResponse(queryBuilder);
 
-        if (response.getHits().getTotalHits() > maxHits) {
+        // only the top hits are fetched when the search is sorted and limited
+        long hitsToFetch = min(response.getHits().getTotalHits(), limit.orElse(Long.MAX_VALUE));
+        if (hitsToFetch > maxHits) {
             throw new PrestoException(ELASTICSEARCH_MAX_HITS_EXCEEDED,
-                    format("The number of hits for the query (%d) exceeds the configured max hits (%d)", response.getHits().getTotalHits(), maxHits));
+                    format("The number of hits for the query (%d) exceeds the configured max hits (%d)", hitsToFetch, maxHits));
         }
 
         ImmutableList.Builder<SearchHit> result = ImmutableList.builder();
+        long fetchedHits = 0;
         while (true) {
             for (SearchHit hit : response.getHits().getHits()) {
                 result.add(hit);
+                fetchedHits++;
+                if (fetchedHits >= hitsToFetch) {
+                    return result.build();
+                }
             }
             response = getScrollResponse(queryBuilder, response.getScrollId());
             if (response.getHits().getHits().length == 0) {
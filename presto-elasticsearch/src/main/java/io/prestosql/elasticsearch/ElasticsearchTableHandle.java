@@ -16,12 +16,16 @@ package io.prestosql.elasticsearch;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.TupleDomain;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
@@ -31,22 +35,28 @@ public final class ElasticsearchTableHandle
 {
     private final SchemaTableName schemaTableName;
     private final TupleDomain<ColumnHandle> constraint;
+    private final OptionalLong limit;
+    private final Optional<List<ElasticsearchSortItem>> sortOrder;
 
     public ElasticsearchTableHandle(String schemaName, String tableName)
     {
-        this(schemaName, tableName, TupleDomain.all());
+        this(schemaName, tableName, TupleDomain.all(), OptionalLong.empty(), Optional.empty());
     }
 
     @JsonCreator
     public ElasticsearchTableHandle(
             @JsonProperty("schemaName") String schemaName,
             @JsonProperty("tableName") String tableName,
-            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint)
+            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("sortOrder") Optional<List<ElasticsearchSortItem>> sortOrder)
     {
         requireNonNull(schemaName, "schemaName is null");
         requireNonNull(tableName, "tableName is null");
         this.schemaTableName = new SchemaTableName(schemaName.toLowerCase(ENGLISH), tableName.toLowerCase(ENGLISH));
         this.constraint = requireNonNull(constraint, "constraint is null");
+        this.limit = requireNonNull(limit, "limit is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
     }
 
     @JsonProperty
@@ -67,6 +77,18 @@ public final class ElasticsearchTableHandle
         return constraint;
     }
 
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    @JsonProperty
+    public Optional<List<ElasticsearchSortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return schemaTableName;
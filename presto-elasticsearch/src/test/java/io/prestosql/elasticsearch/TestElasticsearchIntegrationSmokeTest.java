@@ -93,6 +93,15 @@ public class TestElasticsearchIntegrationSmokeTest
         assertEquals(actualResult, expectedColumns, format("%s != %s", actualResult, expectedColumns));
     }
 
+    @Test
+    public void testTopN()
+    {
+        assertQueryOrdered("SELECT orderkey, totalprice FROM orders ORDER BY totalprice DESC LIMIT 10");
+        assertQueryOrdered("SELECT orderkey, custkey FROM orders ORDER BY custkey ASC NULLS LAST, orderkey DESC LIMIT 10");
+        assertQueryOrdered("SELECT orderkey FROM orders WHERE custkey = 100 ORDER BY orderkey LIMIT 3");
+        assertQueryOrdered("SELECT orderkey, orderstatus FROM orders ORDER BY orderstatus, orderkey LIMIT 10");
+    }
+
     @Test
     public void testMixedCaseFields()
     {
@@ -35,6 +35,8 @@ import io.prestosql.plugin.hive.util.ResumableTasks;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
@@ -59,6 +61,7 @@ import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
@@ -66,6 +69,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.IntPredicate;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -110,6 +114,7 @@ public class BackgroundHiveSplitLoader
 
     private final Table table;
     private final TupleDomain<? extends ColumnHandle> compactEffectivePredicate;
+    private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
     private final Optional<BucketSplitInfo> tableBucketInfo;
     private final HdfsEnvironment hdfsEnvironment;
     private final HdfsContext hdfsContext;
@@ -146,6 +151,7 @@ public class BackgroundHiveSplitLoader
             Table table,
             Iterable<HivePartitionMetadata> partitions,
             TupleDomain<? extends ColumnHandle> compactEffectivePredicate,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
             Optional<BucketSplitInfo> tableBucketInfo,
             ConnectorSession session,
             HdfsEnvironment hdfsEnvironment,
@@ -157,6 +163,7 @@ public class BackgroundHiveSplitLoader
     {
         this.table = table;
         this.compactEffectivePredicate = compactEffectivePredicate;
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
         this.tableBucketInfo = tableBucketInfo;
         this.loaderConcurrency = loaderConcurrency;
         this.session = session;
@@ -268,6 +275,10 @@ public class BackgroundHiveSplitLoader
             if (partition == null) {
                 return COMPLETED_FUTURE;
             }
+            // the dynamic filter can be collected while the splits are being loaded, so check it for every partition
+            if (!partitionMatches(partition.getHivePartition(), dynamicFilter.get())) {
+                return COMPLETED_FUTURE;
+            }
             return loadPartition(partition);
         }
 
@@ -283,6 +294,21 @@ public class BackgroundHiveSplitLoader
         return COMPLETED_FUTURE;
     }
 
+    private static boolean partitionMatches(HivePartition partition, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        if (!dynamicFilter.getDomains().isPresent()) {
+            return false;
+        }
+        Map<ColumnHandle, Domain> domains = dynamicFilter.getDomains().get();
+        for (Map.Entry<ColumnHandle, NullableValue> entry : partition.getKeys().entrySet()) {
+            Domain domain = domains.get(entry.getKey());
+            if (domain != null && !domain.includesNullableValue(entry.getValue().getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private ListenableFuture<?> loadPartition(HivePartitionMetadata partition)
             throws IOException
     {
@@ -20,16 +20,19 @@ import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.type.TypeManager;
 import io.prestosql.spi.type.TypeSignature;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY;
+import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HiveType.HIVE_INT;
 import static io.prestosql.plugin.hive.HiveType.HIVE_LONG;
 import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 public class HiveColumnHandle
@@ -60,6 +63,18 @@ public class HiveColumnHandle
     private final int hiveColumnIndex;
     private final ColumnType columnType;
     private final Optional<String> comment;
+    private final Optional<HiveColumnProjectionInfo> projectionInfo;
+
+    public HiveColumnHandle(
+            String name,
+            HiveType hiveType,
+            TypeSignature typeSignature,
+            int hiveColumnIndex,
+            ColumnType columnType,
+            Optional<String> comment)
+    {
+        this(name, hiveType, typeSignature, hiveColumnIndex, columnType, comment, Optional.empty());
+    }
 
     @JsonCreator
     public HiveColumnHandle(
@@ -68,7 +83,8 @@ public class HiveColumnHandle
             @JsonProperty("typeSignature") TypeSignature typeSignature,
             @JsonProperty("hiveColumnIndex") int hiveColumnIndex,
             @JsonProperty("columnType") ColumnType columnType,
-            @JsonProperty("comment") Optional<String> comment)
+            @JsonProperty("comment") Optional<String> comment,
+            @JsonProperty("projectionInfo") Optional<HiveColumnProjectionInfo> projectionInfo)
     {
         this.name = requireNonNull(name, "name is null");
         checkArgument(hiveColumnIndex >= 0 || columnType == PARTITION_KEY || columnType == SYNTHESIZED, "hiveColumnIndex is negative");
@@ -77,6 +93,28 @@ public class HiveColumnHandle
         this.typeName = requireNonNull(typeSignature, "type is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
         this.comment = requireNonNull(comment, "comment is null");
+        this.projectionInfo = requireNonNull(projectionInfo, "projectionInfo is null");
+        checkArgument(!projectionInfo.isPresent() || columnType == REGULAR, "only regular columns can be projected");
+    }
+
+    /**
+     * Creates a handle for the struct field of {@code baseColumn} reached by following the given field indices.
+     */
+    public static HiveColumnHandle createProjectedColumnHandle(HiveColumnHandle baseColumn, List<Integer> dereferenceIndices)
+    {
+        checkArgument(baseColumn.getColumnType() == REGULAR, "%s is not a regular column", baseColumn);
+        checkArgument(!baseColumn.isProjected(), "%s is already projected", baseColumn);
+        HiveType hiveType = baseColumn.getHiveType().getHiveTypeForDereferences(dereferenceIndices)
+                .orElseThrow(() -> new IllegalArgumentException(format("invalid dereferences %s for %s", dereferenceIndices, baseColumn)));
+        List<String> dereferenceNames = baseColumn.getHiveType().getHiveDereferenceNames(dereferenceIndices);
+        return new HiveColumnHandle(
+                baseColumn.getName() + "#" + String.join("#", dereferenceNames),
+                hiveType,
+                hiveType.getTypeSignature(),
+                baseColumn.getHiveColumnIndex(),
+                REGULAR,
+                baseColumn.getComment(),
+                Optional.of(new HiveColumnProjectionInfo(baseColumn.getName(), baseColumn.getHiveType(), dereferenceIndices, dereferenceNames)));
     }
 
     @JsonProperty
@@ -130,10 +168,33 @@ public class HiveColumnHandle
         return columnType;
     }
 
+    @JsonProperty
+    public Optional<HiveColumnProjectionInfo> getProjectionInfo()
+    {
+        return projectionInfo;
+    }
+
+    public boolean isProjected()
+    {
+        return projectionInfo.isPresent();
+    }
+
+    /**
+     * Returns the column this column is projected from, or this column if it is not projected.
+     */
+    public HiveColumnHandle getBaseColumn()
+    {
+        if (!projectionInfo.isPresent()) {
+            return this;
+        }
+        HiveType baseHiveType = projectionInfo.get().getBaseHiveType();
+        return new HiveColumnHandle(projectionInfo.get().getBaseColumnName(), baseHiveType, baseHiveType.getTypeSignature(), hiveColumnIndex, columnType, comment);
+    }
+
     @Override
     public int hashCode()
     {
-        return Objects.hash(name, hiveColumnIndex, hiveType, columnType, comment);
+        return Objects.hash(name, hiveColumnIndex, hiveType, columnType, comment, projectionInfo);
     }
 
     @Override
@@ -150,7 +211,8 @@ public class HiveColumnHandle
                 Objects.equals(this.hiveColumnIndex, other.hiveColumnIndex) &&
                 Objects.equals(this.hiveType, other.hiveType) &&
                 Objects.equals(this.columnType, other.columnType) &&
-                Objects.equals(this.comment, other.comment);
+                Objects.equals(this.comment, other.comment) &&
+                Objects.equals(this.projectionInfo, other.projectionInfo);
     }
 
     @Override
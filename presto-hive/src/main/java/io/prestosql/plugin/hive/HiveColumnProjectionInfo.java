@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Describes a column that is a (possibly nested) struct field of a base column,
+ * so that only that field needs to be read from the file.
+ */
+public class HiveColumnProjectionInfo
+{
+    private final String baseColumnName;
+    private final HiveType baseHiveType;
+    private final List<Integer> dereferenceIndices;
+    private final List<String> dereferenceNames;
+
+    @JsonCreator
+    public HiveColumnProjectionInfo(
+            @JsonProperty("baseColumnName") String baseColumnName,
+            @JsonProperty("baseHiveType") HiveType baseHiveType,
+            @JsonProperty("dereferenceIndices") List<Integer> dereferenceIndices,
+            @JsonProperty("dereferenceNames") List<String> dereferenceNames)
+    {
+        this.baseColumnName = requireNonNull(baseColumnName, "baseColumnName is null");
+        this.baseHiveType = requireNonNull(baseHiveType, "baseHiveType is null");
+        this.dereferenceIndices = ImmutableList.copyOf(requireNonNull(dereferenceIndices, "dereferenceIndices is null"));
+        this.dereferenceNames = ImmutableList.copyOf(requireNonNull(dereferenceNames, "dereferenceNames is null"));
+        checkArgument(!dereferenceIndices.isEmpty(), "dereferenceIndices is empty");
+        checkArgument(dereferenceIndices.size() == dereferenceNames.size(), "dereferenceIndices and dereferenceNames have different sizes");
+    }
+
+    @JsonProperty
+    public String getBaseColumnName()
+    {
+        return baseColumnName;
+    }
+
+    @JsonProperty
+    public HiveType getBaseHiveType()
+    {
+        return baseHiveType;
+    }
+
+    @JsonProperty
+    public List<Integer> getDereferenceIndices()
+    {
+        return dereferenceIndices;
+    }
+
+    @JsonProperty
+    public List<String> getDereferenceNames()
+    {
+        return dereferenceNames;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HiveColumnProjectionInfo that = (HiveColumnProjectionInfo) o;
+        return Objects.equals(baseColumnName, that.baseColumnName) &&
+                Objects.equals(baseHiveType, that.baseHiveType) &&
+                Objects.equals(dereferenceIndices, that.dereferenceIndices) &&
+                Objects.equals(dereferenceNames, that.dereferenceNames);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(baseColumnName, baseHiveType, dereferenceIndices, dereferenceNames);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("baseColumnName", baseColumnName)
+                .add("baseHiveType", baseHiveType)
+                .add("dereferenceIndices", dereferenceIndices)
+                .add("dereferenceNames", dereferenceNames)
+                .toString();
+    }
+}
@@ -111,6 +111,7 @@ public class HiveConfig
     private boolean useParquetColumnNames;
     private boolean failOnCorruptedParquetStatistics = true;
     private DataSize parquetMaxReadBlockSize = new DataSize(16, MEGABYTE);
+    private boolean parquetPageFilteringEnabled = true;
 
     private boolean assumeCanonicalPartitionKeys;
 
@@ -160,6 +161,8 @@ public class HiveConfig
     private boolean isTemporaryStagingDirectoryEnabled = true;
     private String temporaryStagingDirectoryPath = "/tmp/presto-${USER}";
 
+    private boolean projectionPushdownEnabled = true;
+
     private Duration fileStatusCacheExpireAfterWrite = new Duration(1, TimeUnit.MINUTES);
     private long fileStatusCacheMaxSize = 1000 * 1000;
     private List<String> fileStatusCacheTables = ImmutableList.of();
@@ -960,6 +963,19 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isParquetPageFilteringEnabled()
+    {
+        return parquetPageFilteringEnabled;
+    }
+
+    @Config("hive.parquet.page-filtering.enabled")
+    @ConfigDescription("Skip Parquet data pages using the statistics in the page headers")
+    public HiveConfig setParquetPageFilteringEnabled(boolean parquetPageFilteringEnabled)
+    {
+        this.parquetPageFilteringEnabled = parquetPageFilteringEnabled;
+        return this;
+    }
+
     public boolean isOptimizeMismatchedBucketCount()
     {
         return optimizeMismatchedBucketCount;
@@ -1307,4 +1323,17 @@ public class HiveConfig
     {
         return temporaryStagingDirectoryPath;
     }
+
+    @Config("hive.projection-pushdown-enabled")
+    @ConfigDescription("Read only the referenced fields of struct columns")
+    public HiveConfig setProjectionPushdownEnabled(boolean projectionPushdownEnabled)
+    {
+        this.projectionPushdownEnabled = projectionPushdownEnabled;
+        return this;
+    }
+
+    public boolean isProjectionPushdownEnabled()
+    {
+        return projectionPushdownEnabled;
+    }
 }
@@ -46,6 +46,7 @@ import io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil;
 import io.prestosql.plugin.hive.statistics.HiveStatisticsProvider;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.Assignment;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
@@ -64,12 +65,16 @@ import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.DiscretePredicates;
 import io.prestosql.spi.connector.InMemoryRecordSet;
+import io.prestosql.spi.connector.ProjectionApplicationResult;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
 import io.prestosql.spi.connector.SystemTable;
 import io.prestosql.spi.connector.TableNotFoundException;
 import io.prestosql.spi.connector.ViewNotFoundException;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.FieldDereference;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -99,6 +104,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -131,6 +137,7 @@ import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HiveColumnHandle.PATH_COLUMN_NAME;
+import static io.prestosql.plugin.hive.HiveColumnHandle.createProjectedColumnHandle;
 import static io.prestosql.plugin.hive.HiveColumnHandle.updateRowIdHandle;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_COLUMN_ORDER_MISMATCH;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_CONCURRENT_MODIFICATION_DETECTED;
@@ -145,6 +152,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.isBucketExecutionEn
 import static io.prestosql.plugin.hive.HiveSessionProperties.isCollectColumnStatisticsOnWrite;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isCreateEmptyBucketFiles;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOptimizedMismatchedBucketCount;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isProjectionPushdownEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isRespectTableFormat;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isSortedWritingEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isStatisticsEnabled;
@@ -1698,6 +1706,54 @@ public class HiveMetadata
         return Optional.of(new ConstraintApplicationResult<>(newHandle, partitionResult.getUnenforcedConstraint()));
     }
 
+    @Override
+    public Optional<ProjectionApplicationResult<ConnectorTableHandle>> applyProjection(ConnectorSession session, ConnectorTableHandle handle, List<ConnectorExpression> projections, Map<String, ColumnHandle> assignments)
+    {
+        if (!isProjectionPushdownEnabled(session)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ConnectorExpression> newProjections = ImmutableList.builder();
+        Map<String, Assignment> newAssignments = new LinkedHashMap<>();
+        boolean pushed = false;
+        for (ConnectorExpression projection : projections) {
+            List<Integer> dereferences = new ArrayList<>();
+            ConnectorExpression target = projection;
+            while (target instanceof FieldDereference) {
+                dereferences.add(0, ((FieldDereference) target).getField());
+                target = ((FieldDereference) target).getTarget();
+            }
+            if (!(target instanceof Variable)) {
+                return Optional.empty();
+            }
+
+            String variable = ((Variable) target).getName();
+            HiveColumnHandle column = (HiveColumnHandle) assignments.get(variable);
+            if (!dereferences.isEmpty() && column.getColumnType() == REGULAR && !column.isProjected()) {
+                column = createProjectedColumnHandle(column, dereferences);
+                variable = column.getName();
+                if (assignments.containsKey(variable)) {
+                    // the name of the projected column clashes with one of the variables
+                    return Optional.empty();
+                }
+                pushed = true;
+            }
+            else if (!dereferences.isEmpty()) {
+                // keep the dereferences in the engine
+                newProjections.add(projection);
+                newAssignments.putIfAbsent(variable, new Assignment(variable, column, target.getType()));
+                continue;
+            }
+            newProjections.add(new Variable(variable, projection.getType()));
+            newAssignments.putIfAbsent(variable, new Assignment(variable, column, projection.getType()));
+        }
+
+        if (!pushed) {
+            return Optional.empty();
+        }
+        return Optional.of(new ProjectionApplicationResult<>(handle, newProjections.build(), ImmutableList.copyOf(newAssignments.values())));
+    }
+
     @Override
     public Optional<ConnectorPartitioningHandle> getCommonPartitioningHandle(ConnectorSession session, ConnectorPartitioningHandle left, ConnectorPartitioningHandle right)
     {
@@ -20,6 +20,9 @@ import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import io.airlift.event.client.EventClient;
+import io.prestosql.plugin.hive.cache.FileMetadataCache;
+import io.prestosql.plugin.hive.cache.HiveCacheConfig;
+import io.prestosql.plugin.hive.cache.LocalFileCache;
 import io.prestosql.plugin.hive.metastore.SemiTransactionalHiveMetastore;
 import io.prestosql.plugin.hive.orc.OrcPageSourceFactory;
 import io.prestosql.plugin.hive.parquet.ParquetPageSourceFactory;
@@ -96,6 +99,12 @@ public class HiveModule
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
 
+        configBinder(binder).bindConfig(HiveCacheConfig.class);
+        binder.bind(LocalFileCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(LocalFileCache.class).withGeneratedName();
+        binder.bind(FileMetadataCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FileMetadataCache.class).withGeneratedName();
+
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(ParquetPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -109,6 +118,7 @@ public class HiveModule
         fileWriterFactoryBinder.addBinding().to(RcFileFileWriterFactory.class).in(Scopes.SINGLETON);
 
         configBinder(binder).bindConfig(ParquetFileWriterConfig.class);
+        fileWriterFactoryBinder.addBinding().to(ParquetFileWriterFactory.class).in(Scopes.SINGLETON);
     }
 
     @ForHive
@@ -17,6 +17,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
 import io.prestosql.plugin.hive.HiveSplit.BucketConversion;
+import io.prestosql.plugin.hive.orc.OrcPageSourceFactory;
+import io.prestosql.plugin.hive.parquet.ParquetPageSourceFactory;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorPageSourceProvider;
@@ -24,13 +26,17 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import io.prestosql.spi.connector.FixedPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
 import org.joda.time.DateTimeZone;
 
 import javax.inject.Inject;
@@ -51,7 +57,11 @@ import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMapping.toColumnHandles;
+import static io.prestosql.plugin.hive.HiveUtil.getDeserializerClassName;
 import static io.prestosql.plugin.hive.HiveUtil.getPrefilledColumnValue;
+import static io.prestosql.plugin.hive.HiveUtil.isDeserializerClass;
+import static io.prestosql.plugin.hive.HiveUtil.parsePartitionValue;
+import static io.prestosql.plugin.hive.parquet.ParquetPageSourceFactory.PARQUET_SERDE_CLASS_NAMES;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -83,6 +93,12 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns)
+    {
+        return createPageSource(transaction, session, split, table, columns, TupleDomain.all());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
     {
         HiveTableHandle hiveTable = (HiveTableHandle) table;
 
@@ -93,8 +109,28 @@ public class HivePageSourceProvider
         HiveSplit hiveSplit = (HiveSplit) split;
         Path path = new Path(hiveSplit.getPath());
 
+        // the split was enumerated before the dynamic filter was known, so prune its partition here
+        // the readers evaluate the predicate against whole columns, so skip the projected ones
+        TupleDomain<HiveColumnHandle> hiveDynamicFilter = dynamicFilter
+                .transform(HiveColumnHandle.class::cast)
+                .transform(column -> column.isProjected() ? null : column);
+        if (!partitionMatches(hiveSplit, hiveDynamicFilter)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
+        TupleDomain<HiveColumnHandle> effectivePredicate = hiveTable.getCompactEffectivePredicate()
+                .intersect(hiveDynamicFilter.simplify());
+        if (effectivePredicate.isNone()) {
+            return new FixedPageSource(ImmutableList.of());
+        }
+
         Configuration configuration = hdfsEnvironment.getConfiguration(new HdfsContext(session, hiveSplit.getDatabase(), hiveSplit.getTable()), path);
 
+        // read the base columns of the projected struct fields
+        Optional<ReaderProjections> readerProjections = ReaderProjections.projectBaseColumns(hiveColumns, column -> canPruneStructFields(hiveSplit, column));
+        if (readerProjections.isPresent()) {
+            hiveColumns = readerProjections.get().getReaderColumns();
+        }
+
         Optional<ConnectorPageSource> pageSource = createHivePageSource(
                 cursorProviders,
                 pageSourceFactories,
@@ -105,8 +141,9 @@ public class HivePageSourceProvider
                 hiveSplit.getStart(),
                 hiveSplit.getLength(),
                 hiveSplit.getFileSize(),
+                hiveSplit.getFileModifiedTime(),
                 hiveSplit.getSchema(),
-                hiveTable.getCompactEffectivePredicate(),
+                effectivePredicate,
                 hiveColumns,
                 hiveSplit.getPartitionKeys(),
                 hiveStorageTimeZone,
@@ -115,11 +152,54 @@ public class HivePageSourceProvider
                 hiveSplit.getBucketConversion(),
                 hiveSplit.isS3SelectPushdownEnabled());
         if (pageSource.isPresent()) {
+            if (readerProjections.isPresent()) {
+                return new ReaderProjectionsAdapter(pageSource.get(), readerProjections.get(), typeManager);
+            }
             return pageSource.get();
         }
         throw new RuntimeException("Could not find a file reader for split " + hiveSplit);
     }
 
+    /**
+     * Only the native ORC and Parquet readers resolve struct fields by name, and can thus be given a struct type with
+     * only the referenced fields. Coercions from the partition schema expect the full struct type.
+     */
+    private boolean canPruneStructFields(HiveSplit hiveSplit, HiveColumnHandle column)
+    {
+        if (hiveSplit.getColumnCoercions().containsKey(column.getHiveColumnIndex())) {
+            return false;
+        }
+        Properties schema = hiveSplit.getSchema();
+        if (isDeserializerClass(schema, OrcSerde.class)) {
+            return pageSourceFactories.stream().anyMatch(OrcPageSourceFactory.class::isInstance);
+        }
+        if (PARQUET_SERDE_CLASS_NAMES.contains(getDeserializerClassName(schema))) {
+            return pageSourceFactories.stream().anyMatch(ParquetPageSourceFactory.class::isInstance);
+        }
+        return false;
+    }
+
+    private boolean partitionMatches(HiveSplit hiveSplit, TupleDomain<HiveColumnHandle> dynamicFilter)
+    {
+        if (!dynamicFilter.getDomains().isPresent()) {
+            return false;
+        }
+        Map<String, HivePartitionKey> partitionKeys = uniqueIndex(hiveSplit.getPartitionKeys(), HivePartitionKey::getName);
+        for (Map.Entry<HiveColumnHandle, Domain> entry : dynamicFilter.getDomains().get().entrySet()) {
+            HiveColumnHandle column = entry.getKey();
+            HivePartitionKey partitionKey = partitionKeys.get(column.getName());
+            if (column.getColumnType() != PARTITION_KEY || partitionKey == null) {
+                continue;
+            }
+            Type type = typeManager.getType(column.getTypeSignature());
+            NullableValue value = parsePartitionValue(hiveSplit.getPartitionName(), partitionKey.getValue(), type, hiveStorageTimeZone);
+            if (!entry.getValue().includesNullableValue(value.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static Optional<ConnectorPageSource> createHivePageSource(
             Set<HiveRecordCursorProvider> cursorProviders,
             Set<HivePageSourceFactory> pageSourceFactories,
@@ -130,6 +210,7 @@ public class HivePageSourceProvider
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             List<HiveColumnHandle> hiveColumns,
@@ -168,6 +249,7 @@ public class HivePageSourceProvider
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     toColumnHandles(regularAndInterimColumnMappings, true),
                     effectivePredicate,
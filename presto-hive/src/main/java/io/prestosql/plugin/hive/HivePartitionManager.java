@@ -243,6 +243,10 @@ public class HivePartitionManager
         effectivePredicate.getDomains().ifPresent(domains -> {
             for (Map.Entry<ColumnHandle, Domain> entry : domains.entrySet()) {
                 HiveColumnHandle hiveColumnHandle = (HiveColumnHandle) entry.getKey();
+                if (hiveColumnHandle.isProjected()) {
+                    // the readers evaluate the predicate against the whole base column
+                    continue;
+                }
 
                 ValueSet values = entry.getValue().getValues();
                 ValueSet compactValueSet = values.getValuesProcessor().<Optional<ValueSet>>transform(
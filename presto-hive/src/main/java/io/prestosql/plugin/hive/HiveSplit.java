@@ -38,6 +38,7 @@ public class HiveSplit
     private final long start;
     private final long length;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
@@ -59,6 +60,7 @@ public class HiveSplit
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("fileSize") long fileSize,
+            @JsonProperty("fileModifiedTime") long fileModifiedTime,
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
@@ -89,6 +91,7 @@ public class HiveSplit
         this.start = start;
         this.length = length;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
@@ -141,6 +144,12 @@ public class HiveSplit
         return fileSize;
     }
 
+    @JsonProperty
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     @JsonProperty
     public Properties getSchema()
     {
@@ -196,6 +205,27 @@ public class HiveSplit
         return s3SelectPushdownEnabled;
     }
 
+    public HiveSplit withAddresses(List<HostAddress> addresses)
+    {
+        return new HiveSplit(
+                database,
+                table,
+                partitionName,
+                path,
+                start,
+                length,
+                fileSize,
+                fileModifiedTime,
+                schema,
+                partitionKeys,
+                addresses,
+                bucketNumber,
+                forceLocalScheduling,
+                columnCoercions,
+                bucketConversion,
+                s3SelectPushdownEnabled);
+    }
+
     @Override
     public Object getInfo()
     {
@@ -204,6 +234,7 @@ public class HiveSplit
                 .put("start", start)
                 .put("length", length)
                 .put("fileSize", fileSize)
+                .put("fileModifiedTime", fileModifiedTime)
                 .put("hosts", addresses)
                 .put("database", database)
                 .put("table", table)
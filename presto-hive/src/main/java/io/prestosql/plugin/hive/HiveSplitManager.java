@@ -22,12 +22,16 @@ import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
 import io.prestosql.plugin.hive.HiveBucketing.HiveBucketFilter;
+import io.prestosql.plugin.hive.cache.HiveCacheConfig;
+import io.prestosql.plugin.hive.cache.SoftAffinitySplitSource;
 import io.prestosql.plugin.hive.metastore.Column;
 import io.prestosql.plugin.hive.metastore.Partition;
 import io.prestosql.plugin.hive.metastore.SemiTransactionalHiveMetastore;
 import io.prestosql.plugin.hive.metastore.Table;
+import io.prestosql.spi.NodeManager;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.VersionEmbedder;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitManager;
 import io.prestosql.spi.connector.ConnectorSplitSource;
@@ -36,6 +40,7 @@ import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.predicate.TupleDomain;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -50,6 +55,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -93,6 +99,8 @@ public class HiveSplitManager
     private final int splitLoaderConcurrency;
     private final int maxSplitsPerSecond;
     private final boolean recursiveDfsWalkerEnabled;
+    private final NodeManager nodeManager;
+    private final boolean softAffinitySchedulingEnabled;
     private final CounterStat highMemorySplitSourceCounter;
 
     @Inject
@@ -105,7 +113,9 @@ public class HiveSplitManager
             DirectoryLister directoryLister,
             @ForHive ExecutorService executorService,
             VersionEmbedder versionEmbedder,
-            CoercionPolicy coercionPolicy)
+            CoercionPolicy coercionPolicy,
+            NodeManager nodeManager,
+            HiveCacheConfig cacheConfig)
     {
         this(
                 metastoreProvider,
@@ -123,7 +133,9 @@ public class HiveSplitManager
                 hiveConfig.getMaxInitialSplits(),
                 hiveConfig.getSplitLoaderConcurrency(),
                 hiveConfig.getMaxSplitsPerSecond(),
-                hiveConfig.getRecursiveDirWalkerEnabled());
+                hiveConfig.getRecursiveDirWalkerEnabled(),
+                nodeManager,
+                cacheConfig.isEnabled() && cacheConfig.isSoftAffinitySchedulingEnabled());
     }
 
     public HiveSplitManager(
@@ -142,7 +154,9 @@ public class HiveSplitManager
             int maxInitialSplits,
             int splitLoaderConcurrency,
             @Nullable Integer maxSplitsPerSecond,
-            boolean recursiveDfsWalkerEnabled)
+            boolean recursiveDfsWalkerEnabled,
+            NodeManager nodeManager,
+            boolean softAffinitySchedulingEnabled)
     {
         this.metastoreProvider = requireNonNull(metastoreProvider, "metastore is null");
         this.partitionManager = requireNonNull(partitionManager, "partitionManager is null");
@@ -161,6 +175,8 @@ public class HiveSplitManager
         this.splitLoaderConcurrency = splitLoaderConcurrency;
         this.maxSplitsPerSecond = firstNonNull(maxSplitsPerSecond, Integer.MAX_VALUE);
         this.recursiveDfsWalkerEnabled = recursiveDfsWalkerEnabled;
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+        this.softAffinitySchedulingEnabled = softAffinitySchedulingEnabled;
     }
 
     @Override
@@ -169,6 +185,17 @@ public class HiveSplitManager
             ConnectorSession session,
             ConnectorTableHandle tableHandle,
             SplitSchedulingStrategy splitSchedulingStrategy)
+    {
+        return getSplits(transaction, session, tableHandle, splitSchedulingStrategy, TupleDomain::all);
+    }
+
+    @Override
+    public ConnectorSplitSource getSplits(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorTableHandle tableHandle,
+            SplitSchedulingStrategy splitSchedulingStrategy,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
     {
         HiveTableHandle hiveTable = (HiveTableHandle) tableHandle;
         SchemaTableName tableName = hiveTable.getSchemaTableName();
@@ -210,6 +237,7 @@ public class HiveSplitManager
                 table,
                 hivePartitions,
                 hiveTable.getCompactEffectivePredicate(),
+                dynamicFilter,
                 createBucketSplitInfo(bucketHandle, bucketFilter),
                 session,
                 hdfsEnvironment,
@@ -252,6 +280,9 @@ public class HiveSplitManager
         }
         hiveSplitLoader.start(splitSource);
 
+        if (softAffinitySchedulingEnabled) {
+            return new SoftAffinitySplitSource(splitSource, nodeManager);
+        }
         return splitSource;
     }
 
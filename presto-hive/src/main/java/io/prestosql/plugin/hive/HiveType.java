@@ -33,10 +33,15 @@ import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.VarcharTypeInfo;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
@@ -62,6 +67,7 @@ import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.byteTypeInf
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.dateTypeInfo;
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.doubleTypeInfo;
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.floatTypeInfo;
+import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.getStructTypeInfo;
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.intTypeInfo;
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.longTypeInfo;
 import static org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory.shortTypeInfo;
@@ -151,6 +157,76 @@ public final class HiveType
         return hiveTypeName.toString();
     }
 
+    /**
+     * Returns the type of the struct field reached by following the given field indices,
+     * or empty if the dereferences do not match the struct fields of this type.
+     */
+    public Optional<HiveType> getHiveTypeForDereferences(List<Integer> dereferences)
+    {
+        TypeInfo typeInfo = getTypeInfo();
+        for (int fieldIndex : dereferences) {
+            if (!(typeInfo instanceof StructTypeInfo)) {
+                return Optional.empty();
+            }
+            List<TypeInfo> fieldTypes = ((StructTypeInfo) typeInfo).getAllStructFieldTypeInfos();
+            if (fieldIndex < 0 || fieldIndex >= fieldTypes.size()) {
+                return Optional.empty();
+            }
+            typeInfo = fieldTypes.get(fieldIndex);
+        }
+        return Optional.of(toHiveType(typeInfo));
+    }
+
+    /**
+     * Returns the names of the struct fields reached by following the given field indices.
+     */
+    public List<String> getHiveDereferenceNames(List<Integer> dereferences)
+    {
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        TypeInfo typeInfo = getTypeInfo();
+        for (int fieldIndex : dereferences) {
+            checkArgument(typeInfo instanceof StructTypeInfo, "%s is not a struct type", typeInfo);
+            StructTypeInfo structTypeInfo = (StructTypeInfo) typeInfo;
+            checkArgument(fieldIndex >= 0 && fieldIndex < structTypeInfo.getAllStructFieldNames().size(), "invalid field index %s for %s", fieldIndex, typeInfo);
+            names.add(structTypeInfo.getAllStructFieldNames().get(fieldIndex));
+            typeInfo = structTypeInfo.getAllStructFieldTypeInfos().get(fieldIndex);
+        }
+        return names.build();
+    }
+
+    /**
+     * Returns this type with only the struct fields that are reached by the given dereferences.
+     * A field is kept whole if it is the target of one of the dereferences.
+     */
+    public HiveType pruneStructFields(Collection<List<Integer>> dereferences)
+    {
+        return toHiveType(pruneStructFields(typeInfo, dereferences));
+    }
+
+    private static TypeInfo pruneStructFields(TypeInfo typeInfo, Collection<List<Integer>> dereferences)
+    {
+        if (dereferences.stream().anyMatch(List::isEmpty)) {
+            return typeInfo;
+        }
+        checkArgument(typeInfo instanceof StructTypeInfo, "%s is not a struct type", typeInfo);
+        StructTypeInfo structTypeInfo = (StructTypeInfo) typeInfo;
+
+        // keep the fields in their original order
+        Map<Integer, List<List<Integer>>> fieldDereferences = new TreeMap<>();
+        for (List<Integer> dereference : dereferences) {
+            fieldDereferences.computeIfAbsent(dereference.get(0), field -> new ArrayList<>())
+                    .add(dereference.subList(1, dereference.size()));
+        }
+
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        ImmutableList.Builder<TypeInfo> types = ImmutableList.builder();
+        fieldDereferences.forEach((field, nestedDereferences) -> {
+            names.add(structTypeInfo.getAllStructFieldNames().get(field));
+            types.add(pruneStructFields(structTypeInfo.getAllStructFieldTypeInfos().get(field), nestedDereferences));
+        });
+        return getStructTypeInfo(names.build(), types.build());
+    }
+
     public boolean isSupportedType()
     {
         return isSupportedType(getTypeInfo());
@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 import org.apache.parquet.hadoop.ParquetWriter;
 
@@ -23,6 +24,9 @@ public class ParquetFileWriterConfig
 {
     private DataSize blockSize = new DataSize(ParquetWriter.DEFAULT_BLOCK_SIZE, BYTE);
     private DataSize pageSize = new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE);
+    private boolean dictionaryEnabled = ParquetWriter.DEFAULT_IS_DICTIONARY_ENABLED;
+    private DataSize dictionaryPageSize = new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE);
+    private boolean optimizedWriterEnabled;
 
     public DataSize getBlockSize()
     {
@@ -47,4 +51,42 @@ public class ParquetFileWriterConfig
         this.pageSize = pageSize;
         return this;
     }
+
+    public boolean isDictionaryEnabled()
+    {
+        return dictionaryEnabled;
+    }
+
+    @Config("hive.parquet.writer.dictionary-enabled")
+    public ParquetFileWriterConfig setDictionaryEnabled(boolean dictionaryEnabled)
+    {
+        this.dictionaryEnabled = dictionaryEnabled;
+        return this;
+    }
+
+    public DataSize getDictionaryPageSize()
+    {
+        return dictionaryPageSize;
+    }
+
+    @Config("hive.parquet.writer.dictionary-page-size")
+    @ConfigDescription("Maximum size of a dictionary page before the column falls back to plain encoding")
+    public ParquetFileWriterConfig setDictionaryPageSize(DataSize dictionaryPageSize)
+    {
+        this.dictionaryPageSize = dictionaryPageSize;
+        return this;
+    }
+
+    public boolean isOptimizedWriterEnabled()
+    {
+        return optimizedWriterEnabled;
+    }
+
+    @Config("hive.parquet.optimized-writer.enabled")
+    @ConfigDescription("Experimental: write Parquet files with the native Presto writer")
+    public ParquetFileWriterConfig setOptimizedWriterEnabled(boolean optimizedWriterEnabled)
+    {
+        this.optimizedWriterEnabled = optimizedWriterEnabled;
+        return this;
+    }
 }
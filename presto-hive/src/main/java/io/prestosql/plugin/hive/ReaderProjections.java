@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Maps the columns requested from a page source, some of which may be projected struct fields,
+ * onto the base columns that are read from the file. When allowed, the struct type of a base column
+ * is pruned to the referenced fields, so that readers resolving struct fields by name skip the others.
+ */
+public class ReaderProjections
+{
+    private final List<HiveColumnHandle> requestedColumns;
+    private final List<HiveColumnHandle> readerColumns;
+    private final int[] readerColumnIndices;
+    private final List<List<Integer>> readerDereferences;
+
+    private ReaderProjections(List<HiveColumnHandle> requestedColumns, List<HiveColumnHandle> readerColumns, int[] readerColumnIndices, List<List<Integer>> readerDereferences)
+    {
+        this.requestedColumns = ImmutableList.copyOf(requireNonNull(requestedColumns, "requestedColumns is null"));
+        this.readerColumns = ImmutableList.copyOf(requireNonNull(readerColumns, "readerColumns is null"));
+        this.readerColumnIndices = requireNonNull(readerColumnIndices, "readerColumnIndices is null").clone();
+        this.readerDereferences = ImmutableList.copyOf(requireNonNull(readerDereferences, "readerDereferences is null"));
+    }
+
+    /**
+     * Returns empty if none of the columns is projected.
+     *
+     * @param canPruneStructFields whether the reader used for a base column can be given a pruned struct type
+     */
+    public static Optional<ReaderProjections> projectBaseColumns(List<HiveColumnHandle> columns, Predicate<HiveColumnHandle> canPruneStructFields)
+    {
+        if (columns.stream().noneMatch(HiveColumnHandle::isProjected)) {
+            return Optional.empty();
+        }
+
+        Map<HiveColumnHandle, List<HiveColumnHandle>> columnsByBaseColumn = new LinkedHashMap<>();
+        for (HiveColumnHandle column : columns) {
+            columnsByBaseColumn.computeIfAbsent(column.getBaseColumn(), baseColumn -> new ArrayList<>()).add(column);
+        }
+
+        List<HiveColumnHandle> readerColumns = new ArrayList<>();
+        Map<HiveColumnHandle, Integer> readerColumnIndexByBaseColumn = new LinkedHashMap<>();
+        columnsByBaseColumn.forEach((baseColumn, requestedColumns) -> {
+            HiveColumnHandle readerColumn = baseColumn;
+            if (requestedColumns.stream().allMatch(HiveColumnHandle::isProjected) && canPruneStructFields.test(baseColumn)) {
+                HiveType prunedHiveType = baseColumn.getHiveType().pruneStructFields(requestedColumns.stream()
+                        .map(column -> column.getProjectionInfo().get().getDereferenceIndices())
+                        .collect(toImmutableList()));
+                readerColumn = new HiveColumnHandle(
+                        baseColumn.getName(),
+                        prunedHiveType,
+                        prunedHiveType.getTypeSignature(),
+                        baseColumn.getHiveColumnIndex(),
+                        baseColumn.getColumnType(),
+                        baseColumn.getComment());
+            }
+            readerColumnIndexByBaseColumn.put(baseColumn, readerColumns.size());
+            readerColumns.add(readerColumn);
+        });
+
+        int[] readerColumnIndices = new int[columns.size()];
+        ImmutableList.Builder<List<Integer>> readerDereferences = ImmutableList.builder();
+        for (int i = 0; i < columns.size(); i++) {
+            HiveColumnHandle column = columns.get(i);
+            readerColumnIndices[i] = readerColumnIndexByBaseColumn.get(column.getBaseColumn());
+            if (column.isProjected()) {
+                HiveType readerType = readerColumns.get(readerColumnIndices[i]).getHiveType();
+                readerDereferences.add(getDereferencesByName(readerType, column.getProjectionInfo().get().getDereferenceNames()));
+            }
+            else {
+                readerDereferences.add(ImmutableList.of());
+            }
+        }
+
+        return Optional.of(new ReaderProjections(columns, readerColumns, readerColumnIndices, readerDereferences.build()));
+    }
+
+    private static List<Integer> getDereferencesByName(HiveType hiveType, List<String> names)
+    {
+        ImmutableList.Builder<Integer> dereferences = ImmutableList.builder();
+        TypeInfo typeInfo = hiveType.getTypeInfo();
+        for (String name : names) {
+            checkState(typeInfo instanceof StructTypeInfo, "%s is not a struct type", typeInfo);
+            StructTypeInfo structTypeInfo = (StructTypeInfo) typeInfo;
+            int field = structTypeInfo.getAllStructFieldNames().indexOf(name);
+            checkState(field >= 0, "field %s not found in %s", name, typeInfo);
+            dereferences.add(field);
+            typeInfo = structTypeInfo.getAllStructFieldTypeInfos().get(field);
+        }
+        return dereferences.build();
+    }
+
+    public List<HiveColumnHandle> getRequestedColumns()
+    {
+        return requestedColumns;
+    }
+
+    public List<HiveColumnHandle> getReaderColumns()
+    {
+        return readerColumns;
+    }
+
+    /**
+     * Returns the index in {@link #getReaderColumns()} the requested column is produced from.
+     */
+    public int getReaderColumnIndex(int column)
+    {
+        return readerColumnIndices[column];
+    }
+
+    /**
+     * Returns the struct fields to follow in the reader column to produce the requested column.
+     */
+    public List<Integer> getReaderDereferences(int column)
+    {
+        return readerDereferences.get(column);
+    }
+}
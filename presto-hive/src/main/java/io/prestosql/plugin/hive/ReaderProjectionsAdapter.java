@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.ColumnarRow;
+import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.TypeManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.prestosql.spi.block.ColumnarRow.toColumnarRow;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Produces the requested, possibly projected, columns from the pages of a page source
+ * that reads the base columns described by {@link ReaderProjections}.
+ */
+public class ReaderProjectionsAdapter
+        implements ConnectorPageSource
+{
+    private final ConnectorPageSource delegate;
+    private final ReaderProjections projections;
+    private final Type[] types;
+
+    public ReaderProjectionsAdapter(ConnectorPageSource delegate, ReaderProjections projections, TypeManager typeManager)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.projections = requireNonNull(projections, "projections is null");
+        requireNonNull(typeManager, "typeManager is null");
+
+        List<HiveColumnHandle> columns = projections.getRequestedColumns();
+        this.types = new Type[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            types[i] = typeManager.getType(columns.get(i).getTypeSignature());
+        }
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        Page page = delegate.getNextPage();
+        if (page == null) {
+            return null;
+        }
+
+        Block[] blocks = new Block[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Block block = page.getBlock(projections.getReaderColumnIndex(i));
+            List<Integer> dereferences = projections.getReaderDereferences(i);
+            if (dereferences.isEmpty()) {
+                blocks[i] = block;
+            }
+            else if (block instanceof LazyBlock && !((LazyBlock) block).isLoaded()) {
+                blocks[i] = new LazyBlock(page.getPositionCount(), new DereferenceLazyBlockLoader(block, dereferences, types[i]));
+            }
+            else {
+                blocks[i] = dereference(block, dereferences, types[i]);
+            }
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return delegate.isBlocked();
+    }
+
+    @Override
+    public String toString()
+    {
+        return delegate.toString();
+    }
+
+    static Block dereference(Block block, List<Integer> dereferences, Type type)
+    {
+        Block current = block.getLoadedBlock();
+        int positionCount = current.getPositionCount();
+
+        // position of each row in the current field block, or -1 if a struct on the way is null; null if all structs are present
+        int[] positions = null;
+        for (int field : dereferences) {
+            ColumnarRow row = toColumnarRow(current);
+            if (current.mayHaveNull()) {
+                // the field blocks only contain the positions of the non-null structs
+                int[] fieldPositions = new int[current.getPositionCount()];
+                int nonNullPosition = 0;
+                for (int position = 0; position < fieldPositions.length; position++) {
+                    fieldPositions[position] = row.isNull(position) ? -1 : nonNullPosition++;
+                }
+                if (positions == null) {
+                    positions = fieldPositions;
+                }
+                else {
+                    for (int position = 0; position < positionCount; position++) {
+                        if (positions[position] >= 0) {
+                            positions[position] = fieldPositions[positions[position]];
+                        }
+                    }
+                }
+            }
+            current = row.getField(field);
+        }
+
+        if (positions == null) {
+            return current;
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            if (positions[position] < 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.appendTo(current, positions[position], blockBuilder);
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static final class DereferenceLazyBlockLoader
+            implements LazyBlockLoader<LazyBlock>
+    {
+        private final List<Integer> dereferences;
+        private final Type type;
+        private Block block;
+
+        public DereferenceLazyBlockLoader(Block block, List<Integer> dereferences, Type type)
+        {
+            this.block = requireNonNull(block, "block is null");
+            this.dereferences = requireNonNull(dereferences, "dereferences is null");
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        @Override
+        public void load(LazyBlock lazyBlock)
+        {
+            if (block == null) {
+                return;
+            }
+
+            lazyBlock.setBlock(dereference(block, dereferences, type));
+
+            // clear reference to loader to free resources, since load was successful
+            block = null;
+        }
+    }
+}
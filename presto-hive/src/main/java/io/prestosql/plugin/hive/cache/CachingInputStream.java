@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves the positioned reads, which the ORC and Parquet readers use, from the {@link LocalFileCache}.
+ * Sequential reads go to the underlying stream.
+ */
+class CachingInputStream
+        extends FSInputStream
+{
+    private final LocalFileCache cache;
+    private final FileIdentity file;
+    private final FSDataInputStream delegate;
+
+    public CachingInputStream(LocalFileCache cache, FileIdentity file, FSDataInputStream delegate)
+    {
+        this.cache = requireNonNull(cache, "cache is null");
+        this.file = requireNonNull(file, "file is null");
+        this.delegate = requireNonNull(delegate, "delegate is null");
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= file.getLength()) {
+            return -1;
+        }
+        int readLength = toIntExact(min(length, file.getLength() - position));
+        cache.read(file, delegate, position, buffer, offset, readLength);
+        return readLength;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (position < 0 || position + length > file.getLength()) {
+            throw new EOFException("Read of " + length + " bytes at position " + position + " is past the end of " + file.getPath());
+        }
+        if (length > 0) {
+            cache.read(file, delegate, position, buffer, offset, length);
+        }
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer)
+            throws IOException
+    {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void seek(long position)
+            throws IOException
+    {
+        delegate.seek(position);
+    }
+
+    @Override
+    public long getPos()
+            throws IOException
+    {
+        return delegate.getPos();
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPosition)
+            throws IOException
+    {
+        return delegate.seekToNewSource(targetPosition);
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        return delegate.read();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        return delegate.read(buffer, offset, length);
+    }
+
+    @Override
+    public int available()
+            throws IOException
+    {
+        return delegate.available();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.prestosql.orc.OrcFileTail;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches the decoded metadata of ORC and Parquet files across queries, keyed by the identity of the file.
+ */
+public class FileMetadataCache
+{
+    // rough sizes of the decoded Parquet metadata objects, including their statistics
+    private static final long PARQUET_FILE_METADATA_SIZE = 1024;
+    private static final long PARQUET_COLUMN_SIZE = 256;
+    private static final long PARQUET_COLUMN_CHUNK_SIZE = 512;
+
+    private final boolean enabled;
+    private final Cache<FileIdentity, CachedMetadata> cache;
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    @Inject
+    public FileMetadataCache(HiveCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isFileMetadataCacheEnabled();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getFileMetadataCacheMaxSize().toBytes())
+                .weigher((Weigher<FileIdentity, CachedMetadata>) (file, metadata) -> metadata.getRetainedSize())
+                .removalListener(this::metadataRemoved)
+                .recordStats()
+                .build();
+    }
+
+    public OrcFileTail getOrcFileTail(FileIdentity file, MetadataLoader<OrcFileTail> loader)
+            throws IOException
+    {
+        return get(file, OrcFileTail.class, loader, OrcFileTail::getSerializedSize);
+    }
+
+    public ParquetMetadata getParquetMetadata(FileIdentity file, MetadataLoader<ParquetMetadata> loader)
+            throws IOException
+    {
+        return get(file, ParquetMetadata.class, loader, FileMetadataCache::estimateRetainedSize);
+    }
+
+    private <T> T get(FileIdentity file, Class<T> type, MetadataLoader<T> loader, ToLongFunction<T> retainedSize)
+            throws IOException
+    {
+        if (!enabled) {
+            return loader.load();
+        }
+
+        CachedMetadata cached = cache.getIfPresent(file);
+        if (cached != null && type.isInstance(cached.getMetadata())) {
+            return type.cast(cached.getMetadata());
+        }
+
+        // the metadata is loaded outside of the cache, so a slow file system does not block other readers of the file
+        T metadata = loader.load();
+        int size = toIntExact(min(retainedSize.applyAsLong(metadata), Integer.MAX_VALUE));
+        cachedBytes.addAndGet(size);
+        cache.put(file, new CachedMetadata(metadata, size));
+        return metadata;
+    }
+
+    private void metadataRemoved(RemovalNotification<FileIdentity, CachedMetadata> notification)
+    {
+        CachedMetadata metadata = notification.getValue();
+        if (metadata != null) {
+            cachedBytes.addAndGet(-metadata.getRetainedSize());
+        }
+    }
+
+    private static long estimateRetainedSize(ParquetMetadata metadata)
+    {
+        long columnChunks = 0;
+        for (BlockMetaData block : metadata.getBlocks()) {
+            columnChunks += block.getColumns().size();
+        }
+        return PARQUET_FILE_METADATA_SIZE +
+                metadata.getFileMetaData().getSchema().getColumns().size() * PARQUET_COLUMN_SIZE +
+                columnChunks * PARQUET_COLUMN_CHUNK_SIZE;
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public Double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    public interface MetadataLoader<T>
+    {
+        T load()
+                throws IOException;
+    }
+
+    private static final class CachedMetadata
+    {
+        private final Object metadata;
+        private final int retainedSize;
+
+        public CachedMetadata(Object metadata, int retainedSize)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+            this.retainedSize = retainedSize;
+        }
+
+        public Object getMetadata()
+        {
+            return metadata;
+        }
+
+        public int getRetainedSize()
+        {
+            return retainedSize;
+        }
+    }
+}
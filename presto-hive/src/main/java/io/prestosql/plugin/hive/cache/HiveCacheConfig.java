@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class HiveCacheConfig
+{
+    private boolean enabled;
+    private String location;
+    private DataSize maxSize = new DataSize(10, GIGABYTE);
+    private DataSize blockSize = new DataSize(1, MEGABYTE);
+    private boolean softAffinitySchedulingEnabled = true;
+    private boolean fileMetadataCacheEnabled = true;
+    private DataSize fileMetadataCacheMaxSize = new DataSize(128, MEGABYTE);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.cache.enabled")
+    @ConfigDescription("Cache the data read from remote file systems on local disk")
+    public HiveCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public String getLocation()
+    {
+        return location;
+    }
+
+    @Config("hive.cache.location")
+    @ConfigDescription("Local directory of the data cache; its contents are deleted on startup")
+    public HiveCacheConfig setLocation(String location)
+    {
+        this.location = location;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("hive.cache.max-size")
+    @ConfigDescription("Maximum size of the data cache on local disk")
+    public HiveCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Config("hive.cache.block-size")
+    @ConfigDescription("Size of the aligned file blocks the data cache stores")
+    public HiveCacheConfig setBlockSize(DataSize blockSize)
+    {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public boolean isSoftAffinitySchedulingEnabled()
+    {
+        return softAffinitySchedulingEnabled;
+    }
+
+    @Config("hive.cache.soft-affinity-scheduling.enabled")
+    @ConfigDescription("Prefer scheduling the splits of a file on the same worker, so that its cached data is reused")
+    public HiveCacheConfig setSoftAffinitySchedulingEnabled(boolean softAffinitySchedulingEnabled)
+    {
+        this.softAffinitySchedulingEnabled = softAffinitySchedulingEnabled;
+        return this;
+    }
+
+    public boolean isFileMetadataCacheEnabled()
+    {
+        return fileMetadataCacheEnabled;
+    }
+
+    @Config("hive.cache.file-metadata.enabled")
+    @ConfigDescription("Cache the ORC file tails and Parquet footers across queries")
+    public HiveCacheConfig setFileMetadataCacheEnabled(boolean fileMetadataCacheEnabled)
+    {
+        this.fileMetadataCacheEnabled = fileMetadataCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getFileMetadataCacheMaxSize()
+    {
+        return fileMetadataCacheMaxSize;
+    }
+
+    @Config("hive.cache.file-metadata.max-size")
+    @ConfigDescription("Maximum estimated size of the cached file metadata")
+    public HiveCacheConfig setFileMetadataCacheMaxSize(DataSize fileMetadataCacheMaxSize)
+    {
+        this.fileMetadataCacheMaxSize = fileMetadataCacheMaxSize;
+        return this;
+    }
+}
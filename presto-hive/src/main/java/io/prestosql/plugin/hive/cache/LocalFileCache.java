@@ -0,0 +1,389 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.MoreFiles.deleteDirectoryContents;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker local cache of file data on local disk.
+ * <p>
+ * Files are cached in aligned blocks of a fixed size, keyed by the identity of the file
+ * and the index of the block, so a file that is rewritten is never served from stale blocks.
+ * The blocks are evicted in LRU order once the cache reaches its maximum size.
+ */
+public class LocalFileCache
+{
+    private static final Logger log = Logger.get(LocalFileCache.class);
+
+    // the block files are spread over this many subdirectories
+    private static final int DIRECTORY_COUNT = 128;
+
+    private final boolean enabled;
+    private final File directory;
+    private final int blockSize;
+    private final Cache<BlockKey, CachedBlock> blocks;
+    private final AtomicLong nextBlockFileId = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat cacheReadBytes = new CounterStat();
+    private final CounterStat remoteReadBytes = new CounterStat();
+    private final CounterStat writeFailures = new CounterStat();
+
+    @Inject
+    public LocalFileCache(HiveCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.blockSize = toIntExact(config.getBlockSize().toBytes());
+        this.blocks = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((Weigher<BlockKey, CachedBlock>) (key, block) -> block.getLength())
+                .removalListener(this::blockRemoved)
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            checkArgument(config.getLocation() != null, "hive.cache.location must be set when the cache is enabled");
+            this.directory = new File(config.getLocation());
+            initializeDirectory(directory);
+        }
+        else {
+            this.directory = null;
+        }
+    }
+
+    /**
+     * Opens the file; the positioned reads of the returned stream go through the cache when it is enabled.
+     */
+    public FSDataInputStream open(FileSystem fileSystem, Path path, FileIdentity file)
+            throws IOException
+    {
+        FSDataInputStream inputStream = fileSystem.open(path);
+        if (!enabled) {
+            return inputStream;
+        }
+        return new FSDataInputStream(new CachingInputStream(this, file, inputStream));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Reads {@code length} bytes at {@code position} of the file, from the cached blocks if present,
+     * otherwise from {@code source}. Consecutive missing blocks are fetched with a single read.
+     */
+    void read(FileIdentity file, FSDataInputStream source, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        long end = position + length;
+        checkArgument(end <= file.getLength(), "read past the end of %s", file);
+
+        long blockIndex = position / blockSize;
+        while (position < end) {
+            long blockStart = blockIndex * blockSize;
+            BlockKey key = new BlockKey(file, blockIndex);
+            CachedBlock block = blocks.getIfPresent(key);
+            if (block != null) {
+                int readLength = toIntExact(min(end, blockStart + block.getLength()) - position);
+                if (block.read(position - blockStart, buffer, offset, readLength)) {
+                    hits.update(1);
+                    cacheReadBytes.update(readLength);
+                    position += readLength;
+                    offset += readLength;
+                    blockIndex++;
+                    continue;
+                }
+                // the block file is gone or unreadable
+                blocks.invalidate(key);
+            }
+
+            long lastBlockIndex = blockIndex;
+            while ((lastBlockIndex + 1) * blockSize < end && !blocks.asMap().containsKey(new BlockKey(file, lastBlockIndex + 1))) {
+                lastBlockIndex++;
+            }
+            long runEnd = min((lastBlockIndex + 1) * blockSize, file.getLength());
+            byte[] data = new byte[toIntExact(runEnd - blockStart)];
+            source.readFully(blockStart, data, 0, data.length);
+            misses.update(lastBlockIndex - blockIndex + 1);
+            remoteReadBytes.update(data.length);
+
+            int readLength = toIntExact(min(end, runEnd) - position);
+            System.arraycopy(data, toIntExact(position - blockStart), buffer, offset, readLength);
+            position += readLength;
+            offset += readLength;
+
+            for (long index = blockIndex; index <= lastBlockIndex; index++) {
+                int dataOffset = toIntExact((index - blockIndex) * blockSize);
+                storeBlock(new BlockKey(file, index), data, dataOffset, min(blockSize, data.length - dataOffset));
+            }
+            blockIndex = lastBlockIndex + 1;
+        }
+    }
+
+    private void storeBlock(BlockKey key, byte[] data, int offset, int length)
+    {
+        long fileId = nextBlockFileId.getAndIncrement();
+        File blockFile = new File(new File(directory, subdirectoryName(fileId % DIRECTORY_COUNT)), "block-" + fileId);
+        try (OutputStream output = new FileOutputStream(blockFile)) {
+            output.write(data, offset, length);
+        }
+        catch (IOException e) {
+            writeFailures.update(1);
+            log.warn(e, "Error writing cache block %s", blockFile);
+            deleteBlockFile(blockFile);
+            return;
+        }
+
+        CachedBlock block = new CachedBlock(blockFile, length);
+        cachedBytes.addAndGet(length);
+        if (blocks.asMap().putIfAbsent(key, block) != null) {
+            // another reader cached the block concurrently
+            cachedBytes.addAndGet(-length);
+            deleteBlockFile(blockFile);
+        }
+    }
+
+    private void blockRemoved(RemovalNotification<BlockKey, CachedBlock> notification)
+    {
+        CachedBlock block = notification.getValue();
+        if (block != null) {
+            cachedBytes.addAndGet(-block.getLength());
+            deleteBlockFile(block.getFile());
+        }
+    }
+
+    private static void deleteBlockFile(File file)
+    {
+        if (!file.delete() && file.exists()) {
+            log.warn("Could not delete cache block %s", file);
+        }
+    }
+
+    private static void initializeDirectory(File directory)
+    {
+        try {
+            // the index of the cached blocks is not persisted, so blocks left by a previous run are unusable
+            if (directory.exists()) {
+                deleteDirectoryContents(directory.toPath(), ALLOW_INSECURE);
+            }
+            for (int i = 0; i < DIRECTORY_COUNT; i++) {
+                Files.createDirectories(new File(directory, subdirectoryName(i)).toPath());
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Error initializing cache directory " + directory, e);
+        }
+    }
+
+    private static String subdirectoryName(long index)
+    {
+        return format("%02x", index);
+    }
+
+    @VisibleForTesting
+    long getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        blocks.invalidateAll();
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getCachedBlockCount()
+    {
+        return blocks.size();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return blocks.stats().evictionCount();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        long hitCount = hits.getTotalCount();
+        long requestCount = hitCount + misses.getTotalCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCacheReadBytes()
+    {
+        return cacheReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRemoteReadBytes()
+    {
+        return remoteReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getWriteFailures()
+    {
+        return writeFailures;
+    }
+
+    private static final class BlockKey
+    {
+        private final FileIdentity file;
+        private final long blockIndex;
+
+        public BlockKey(FileIdentity file, long blockIndex)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.blockIndex = blockIndex;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BlockKey that = (BlockKey) o;
+            return blockIndex == that.blockIndex &&
+                    file.equals(that.file);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(file, blockIndex);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("file", file)
+                    .add("blockIndex", blockIndex)
+                    .toString();
+        }
+    }
+
+    private static final class CachedBlock
+    {
+        private final File file;
+        private final int length;
+
+        public CachedBlock(File file, int length)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.length = length;
+        }
+
+        public File getFile()
+        {
+            return file;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+
+        /**
+         * Returns false if the block could not be read, e.g. because it was evicted concurrently.
+         */
+        public boolean read(long blockOffset, byte[] buffer, int offset, int length)
+        {
+            try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+                ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+                long position = blockOffset;
+                while (target.hasRemaining()) {
+                    int bytesRead = channel.read(target, position);
+                    if (bytesRead < 0) {
+                        return false;
+                    }
+                    position += bytesRead;
+                }
+                return true;
+            }
+            catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
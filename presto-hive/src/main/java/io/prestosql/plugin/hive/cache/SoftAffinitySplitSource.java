@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import io.prestosql.plugin.hive.HiveSplit;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.Node;
+import io.prestosql.spi.NodeManager;
+import io.prestosql.spi.connector.ConnectorPartitionHandle;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.spi.connector.ConnectorSplitSource;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.hash.Hashing.consistentHash;
+import static com.google.common.hash.Hashing.murmur3_128;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sets the address of each split to a worker chosen by a consistent hash of the file path,
+ * so that the splits of a file tend to run on the worker that has the file in its {@link LocalFileCache}.
+ * The scheduler still assigns the split elsewhere when that worker is busy.
+ */
+public class SoftAffinitySplitSource
+        implements ConnectorSplitSource
+{
+    private static final HashFunction HASH_FUNCTION = murmur3_128();
+
+    private final ConnectorSplitSource delegate;
+    private final NodeManager nodeManager;
+
+    public SoftAffinitySplitSource(ConnectorSplitSource delegate, NodeManager nodeManager)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+    }
+
+    @Override
+    public CompletableFuture<ConnectorSplitBatch> getNextBatch(ConnectorPartitionHandle partitionHandle, int maxSize)
+    {
+        return delegate.getNextBatch(partitionHandle, maxSize)
+                .thenApply(batch -> new ConnectorSplitBatch(assignPreferredWorkers(batch.getSplits()), batch.isNoMoreSplits()));
+    }
+
+    private List<ConnectorSplit> assignPreferredWorkers(List<ConnectorSplit> splits)
+    {
+        if (splits.isEmpty()) {
+            return splits;
+        }
+        // workers are ordered by identifier, so that all queries pick the same worker for a file
+        List<HostAddress> workers = nodeManager.getWorkerNodes().stream()
+                .sorted(Comparator.comparing(Node::getNodeIdentifier))
+                .map(Node::getHostAndPort)
+                .collect(toImmutableList());
+        if (workers.isEmpty()) {
+            return splits;
+        }
+
+        ImmutableList.Builder<ConnectorSplit> result = ImmutableList.builder();
+        for (ConnectorSplit split : splits) {
+            HiveSplit hiveSplit = (HiveSplit) split;
+            if (!hiveSplit.isRemotelyAccessible()) {
+                result.add(hiveSplit);
+                continue;
+            }
+            int worker = consistentHash(HASH_FUNCTION.hashString(hiveSplit.getPath(), UTF_8), workers.size());
+            result.add(hiveSplit.withAddresses(ImmutableList.of(workers.get(worker))));
+        }
+        return result.build();
+    }
+
+    @Override
+    public void close()
+    {
+        delegate.close();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return delegate.isFinished();
+    }
+}
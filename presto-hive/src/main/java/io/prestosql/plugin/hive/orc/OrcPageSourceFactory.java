@@ -19,6 +19,7 @@ import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
+import io.prestosql.orc.OrcFileTail;
 import io.prestosql.orc.OrcPredicate;
 import io.prestosql.orc.OrcReader;
 import io.prestosql.orc.OrcRecordReader;
@@ -29,6 +30,10 @@ import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
 import io.prestosql.plugin.hive.HivePageSourceFactory;
+import io.prestosql.plugin.hive.cache.FileIdentity;
+import io.prestosql.plugin.hive.cache.FileMetadataCache;
+import io.prestosql.plugin.hive.cache.HiveCacheConfig;
+import io.prestosql.plugin.hive.cache.LocalFileCache;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorSession;
@@ -81,19 +86,46 @@ public class OrcPageSourceFactory
     private final boolean useOrcColumnNames;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final LocalFileCache fileCache;
+    private final FileMetadataCache metadataCache;
 
     @Inject
-    public OrcPageSourceFactory(TypeManager typeManager, HiveConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    public OrcPageSourceFactory(
+            TypeManager typeManager,
+            HiveConfig config,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            LocalFileCache fileCache,
+            FileMetadataCache metadataCache)
     {
-        this(typeManager, requireNonNull(config, "config is null").isUseOrcColumnNames(), hdfsEnvironment, stats);
+        this(typeManager, requireNonNull(config, "config is null").isUseOrcColumnNames(), hdfsEnvironment, stats, fileCache, metadataCache);
     }
 
     public OrcPageSourceFactory(TypeManager typeManager, boolean useOrcColumnNames, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    {
+        this(
+                typeManager,
+                useOrcColumnNames,
+                hdfsEnvironment,
+                stats,
+                new LocalFileCache(new HiveCacheConfig()),
+                new FileMetadataCache(new HiveCacheConfig().setFileMetadataCacheEnabled(false)));
+    }
+
+    public OrcPageSourceFactory(
+            TypeManager typeManager,
+            boolean useOrcColumnNames,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            LocalFileCache fileCache,
+            FileMetadataCache metadataCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.useOrcColumnNames = useOrcColumnNames;
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
     }
 
     @Override
@@ -104,6 +136,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -126,6 +159,7 @@ public class OrcPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 columns,
                 useOrcColumnNames,
                 effectivePredicate,
@@ -138,7 +172,9 @@ public class OrcPageSourceFactory
                 getOrcMaxReadBlockSize(session),
                 getOrcLazyReadSmallRanges(session),
                 isOrcBloomFiltersEnabled(session),
-                stats));
+                stats,
+                fileCache,
+                metadataCache));
     }
 
     public static OrcPageSource createOrcPageSource(
@@ -149,6 +185,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             List<HiveColumnHandle> columns,
             boolean useOrcColumnNames,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -161,12 +198,15 @@ public class OrcPageSourceFactory
             DataSize maxReadBlockSize,
             boolean lazyReadSmallRanges,
             boolean orcBloomFiltersEnabled,
-            FileFormatDataSourceStats stats)
+            FileFormatDataSourceStats stats,
+            LocalFileCache fileCache,
+            FileMetadataCache metadataCache)
     {
+        FileIdentity fileIdentity = new FileIdentity(path.toString(), fileSize, fileModifiedTime);
         OrcDataSource orcDataSource;
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
-            FSDataInputStream inputStream = fileSystem.open(path);
+            FSDataInputStream inputStream = fileCache.open(fileSystem, path, fileIdentity);
             orcDataSource = new HdfsOrcDataSource(
                     new OrcDataSourceId(path.toString()),
                     fileSize,
@@ -187,7 +227,9 @@ public class OrcPageSourceFactory
 
         AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
-            OrcReader reader = new OrcReader(orcDataSource, maxMergeDistance, tinyStripeThreshold, maxReadBlockSize);
+            OrcDataSource tailDataSource = orcDataSource;
+            OrcFileTail fileTail = metadataCache.getOrcFileTail(fileIdentity, () -> OrcReader.readFileTail(tailDataSource));
+            OrcReader reader = new OrcReader(orcDataSource, fileTail, maxMergeDistance, tinyStripeThreshold, maxReadBlockSize);
 
             List<HiveColumnHandle> physicalColumns = getPhysicalHiveColumnHandles(columns, useOrcColumnNames, reader, path);
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
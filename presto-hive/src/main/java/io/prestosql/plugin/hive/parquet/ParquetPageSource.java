@@ -180,7 +180,11 @@ public class ParquetPageSource
             closeWithSuppression(e);
             throw e;
         }
-        catch (RuntimeException e) {
+        catch (ParquetCorruptionException e) {
+            closeWithSuppression(e);
+            throw new PrestoException(HIVE_BAD_DATA, e);
+        }
+        catch (IOException | RuntimeException e) {
             closeWithSuppression(e);
             throw new PrestoException(HIVE_CURSOR_ERROR, e);
         }
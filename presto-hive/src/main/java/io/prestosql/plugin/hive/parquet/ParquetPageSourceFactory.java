@@ -28,6 +28,10 @@ import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HivePageSourceFactory;
+import io.prestosql.plugin.hive.cache.FileIdentity;
+import io.prestosql.plugin.hive.cache.FileMetadataCache;
+import io.prestosql.plugin.hive.cache.HiveCacheConfig;
+import io.prestosql.plugin.hive.cache.LocalFileCache;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorSession;
@@ -72,6 +76,7 @@ import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getParquetMaxReadBlockSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isFailOnCorruptedParquetStatistics;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isParquetPageFilteringEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static io.prestosql.plugin.hive.HiveUtil.getDeserializerClassName;
 import static io.prestosql.plugin.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
@@ -83,7 +88,7 @@ import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Cate
 public class ParquetPageSourceFactory
         implements HivePageSourceFactory
 {
-    private static final Set<String> PARQUET_SERDE_CLASS_NAMES = ImmutableSet.<String>builder()
+    public static final Set<String> PARQUET_SERDE_CLASS_NAMES = ImmutableSet.<String>builder()
             .add("org.apache.hadoop.hive.ql.io.parquet.serde.ParquetHiveSerDe")
             .add("parquet.hive.serde.ParquetHiveSerDe")
             .build();
@@ -91,13 +96,32 @@ public class ParquetPageSourceFactory
     private final TypeManager typeManager;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final LocalFileCache fileCache;
+    private final FileMetadataCache metadataCache;
 
-    @Inject
     public ParquetPageSourceFactory(TypeManager typeManager, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    {
+        this(
+                typeManager,
+                hdfsEnvironment,
+                stats,
+                new LocalFileCache(new HiveCacheConfig()),
+                new FileMetadataCache(new HiveCacheConfig().setFileMetadataCacheEnabled(false)));
+    }
+
+    @Inject
+    public ParquetPageSourceFactory(
+            TypeManager typeManager,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            LocalFileCache fileCache,
+            FileMetadataCache metadataCache)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileCache = requireNonNull(fileCache, "fileCache is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
     }
 
     @Override
@@ -108,6 +132,7 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -125,14 +150,18 @@ public class ParquetPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 schema,
                 columns,
                 isUseParquetColumnNames(session),
                 isFailOnCorruptedParquetStatistics(session),
                 getParquetMaxReadBlockSize(session),
+                isParquetPageFilteringEnabled(session),
                 typeManager,
                 effectivePredicate,
-                stats));
+                stats,
+                fileCache,
+                metadataCache));
     }
 
     public static ParquetPageSource createParquetPageSource(
@@ -143,22 +172,27 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             boolean useParquetColumnNames,
             boolean failOnCorruptedParquetStatistics,
             DataSize maxReadBlockSize,
+            boolean pageFilteringEnabled,
             TypeManager typeManager,
             TupleDomain<HiveColumnHandle> effectivePredicate,
-            FileFormatDataSourceStats stats)
+            FileFormatDataSourceStats stats,
+            LocalFileCache fileCache,
+            FileMetadataCache metadataCache)
     {
         AggregatedMemoryContext systemMemoryContext = newSimpleAggregatedMemoryContext();
 
         ParquetDataSource dataSource = null;
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(user, path, configuration);
-            FSDataInputStream inputStream = fileSystem.open(path);
-            ParquetMetadata parquetMetadata = MetadataReader.readFooter(inputStream, path, fileSize);
+            FileIdentity fileIdentity = new FileIdentity(path.toString(), fileSize, fileModifiedTime);
+            FSDataInputStream inputStream = fileCache.open(fileSystem, path, fileIdentity);
+            ParquetMetadata parquetMetadata = metadataCache.getParquetMetadata(fileIdentity, () -> MetadataReader.readFooter(inputStream, path, fileSize));
             FileMetaData fileMetaData = parquetMetadata.getFileMetaData();
             MessageType fileSchema = fileMetaData.getSchema();
             dataSource = buildHdfsParquetDataSource(inputStream, path, fileSize, stats);
@@ -190,12 +224,19 @@ public class ParquetPageSourceFactory
                 }
             }
             MessageColumnIO messageColumnIO = getColumnIO(fileSchema, requestedSchema);
+            Set<ColumnDescriptor> pagePredicateColumns = ImmutableSet.of();
+            if (pageFilteringEnabled && parquetTupleDomain.getDomains().isPresent()) {
+                pagePredicateColumns = parquetTupleDomain.getDomains().get().keySet();
+            }
             ParquetReader parquetReader = new ParquetReader(
                     messageColumnIO,
                     blocks.build(),
                     dataSource,
                     systemMemoryContext,
-                    maxReadBlockSize);
+                    maxReadBlockSize,
+                    parquetPredicate,
+                    pagePredicateColumns,
+                    failOnCorruptedParquetStatistics);
 
             return new ParquetPageSource(
                     parquetReader,
@@ -26,9 +26,11 @@ import io.prestosql.plugin.hive.authentication.NoHdfsAuthentication;
 import io.prestosql.plugin.hive.metastore.Column;
 import io.prestosql.plugin.hive.metastore.StorageFormat;
 import io.prestosql.plugin.hive.metastore.Table;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.testing.TestingConnectorSession;
 import org.apache.hadoop.conf.Configuration;
@@ -56,6 +58,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
@@ -65,6 +68,7 @@ import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.BackgroundHiveSplitLoader.BucketSplitInfo.createBucketSplitInfo;
 import static io.prestosql.plugin.hive.BackgroundHiveSplitLoader.getBucketNumber;
+import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY;
 import static io.prestosql.plugin.hive.HiveColumnHandle.pathColumnHandle;
 import static io.prestosql.plugin.hive.HiveTestUtils.SESSION;
 import static io.prestosql.plugin.hive.HiveType.HIVE_INT;
@@ -208,6 +212,38 @@ public class TestBackgroundHiveSplitLoader
         assertThrows(RuntimeException.class, () -> hiveSplitSource.isFinished());
     }
 
+    @Test
+    public void testDynamicFilterPrunesPartition()
+            throws Exception
+    {
+        HiveColumnHandle partitionColumn = new HiveColumnHandle("partitionColumn", HIVE_INT, INTEGER.getTypeSignature(), 0, PARTITION_KEY, Optional.empty());
+        HivePartition partition = new HivePartition(
+                new SchemaTableName("testSchema", "table_name"),
+                "partitionColumn=1",
+                ImmutableMap.of(partitionColumn, NullableValue.of(INTEGER, 1L)));
+
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = backgroundHiveSplitLoader(
+                TEST_FILES,
+                partition,
+                () -> withColumnDomains(ImmutableMap.of(partitionColumn, Domain.singleValue(INTEGER, 2L))));
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+        assertEquals(drain(hiveSplitSource).size(), 0);
+
+        backgroundHiveSplitLoader = backgroundHiveSplitLoader(
+                TEST_FILES,
+                partition,
+                () -> withColumnDomains(ImmutableMap.of(partitionColumn, Domain.multipleValues(INTEGER, ImmutableList.of(1L, 2L)))));
+        hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+        assertEquals(drain(hiveSplitSource).size(), 2);
+
+        backgroundHiveSplitLoader = backgroundHiveSplitLoader(TEST_FILES, partition, TupleDomain::none);
+        hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+        assertEquals(drain(hiveSplitSource).size(), 0);
+    }
+
     @Test
     public void testCachedDirectoryLister()
             throws Exception
@@ -320,6 +356,7 @@ public class TestBackgroundHiveSplitLoader
                 table,
                 hivePartitionMetadatas,
                 compactEffectivePredicate,
+                TupleDomain::all,
                 createBucketSplitInfo(bucketHandle, hiveBucketFilter),
                 connectorSession,
                 new TestingHdfsEnvironment(files),
@@ -330,6 +367,35 @@ public class TestBackgroundHiveSplitLoader
                 false);
     }
 
+    private static BackgroundHiveSplitLoader backgroundHiveSplitLoader(
+            List<LocatedFileStatus> files,
+            HivePartition partition,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+    {
+        List<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.of(
+                new HivePartitionMetadata(
+                        partition,
+                        Optional.empty(),
+                        ImmutableMap.of()));
+
+        ConnectorSession connectorSession = new TestingConnectorSession(
+                new HiveSessionProperties(new HiveConfig().setMaxSplitSize(new DataSize(1.0, GIGABYTE)), new OrcFileWriterConfig(), new ParquetFileWriterConfig()).getSessionProperties());
+
+        return new BackgroundHiveSplitLoader(
+                SIMPLE_TABLE,
+                hivePartitionMetadatas,
+                TupleDomain.all(),
+                dynamicFilter,
+                Optional.empty(),
+                connectorSession,
+                new TestingHdfsEnvironment(files),
+                new NamenodeStats(),
+                new CachingDirectoryLister(new HiveConfig()),
+                EXECUTOR,
+                2,
+                false);
+    }
+
     private static BackgroundHiveSplitLoader backgroundHiveSplitLoader(List<LocatedFileStatus> files, DirectoryLister directoryLister)
     {
         List<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.of(
@@ -345,6 +411,7 @@ public class TestBackgroundHiveSplitLoader
                 SIMPLE_TABLE,
                 hivePartitionMetadatas,
                 TupleDomain.none(),
+                TupleDomain::all,
                 Optional.empty(),
                 connectorSession,
                 new TestingHdfsEnvironment(files),
@@ -364,6 +431,7 @@ public class TestBackgroundHiveSplitLoader
                 SIMPLE_TABLE,
                 createPartitionMetadataWithOfflinePartitions(),
                 TupleDomain.all(),
+                TupleDomain::all,
                 createBucketSplitInfo(Optional.empty(), Optional.empty()),
                 connectorSession,
                 new TestingHdfsEnvironment(TEST_FILES),
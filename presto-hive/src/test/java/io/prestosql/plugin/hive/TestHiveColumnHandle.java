@@ -13,6 +13,7 @@
  */
 package io.prestosql.plugin.hive;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import io.prestosql.spi.type.StandardTypes;
 import org.testng.annotations.Test;
@@ -49,6 +50,20 @@ public class TestHiveColumnHandle
         testRoundTrip(expectedRegularColumn);
     }
 
+    @Test
+    public void testProjectedColumn()
+    {
+        HiveType baseHiveType = HiveType.valueOf("struct<a:struct<b:bigint,c:string>,d:double>");
+        HiveColumnHandle baseColumn = new HiveColumnHandle("name", baseHiveType, baseHiveType.getTypeSignature(), 88, REGULAR, Optional.empty());
+        HiveColumnHandle projectedColumn = HiveColumnHandle.createProjectedColumnHandle(baseColumn, ImmutableList.of(0, 1));
+
+        assertEquals(projectedColumn.getName(), "name#a#c");
+        assertEquals(projectedColumn.getHiveType(), HiveType.HIVE_STRING);
+        assertEquals(projectedColumn.getHiveColumnIndex(), 88);
+        assertEquals(projectedColumn.getBaseColumn(), baseColumn);
+        testRoundTrip(projectedColumn);
+    }
+
     private void testRoundTrip(HiveColumnHandle expected)
     {
         String json = codec.toJson(expected);
@@ -58,5 +73,6 @@ public class TestHiveColumnHandle
         assertEquals(actual.getHiveType(), expected.getHiveType());
         assertEquals(actual.getHiveColumnIndex(), expected.getHiveColumnIndex());
         assertEquals(actual.isPartitionKey(), expected.isPartitionKey());
+        assertEquals(actual.getProjectionInfo(), expected.getProjectionInfo());
     }
 }
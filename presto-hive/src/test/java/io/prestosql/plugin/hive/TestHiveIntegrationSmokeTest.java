@@ -298,6 +298,41 @@ public class TestHiveIntegrationSmokeTest
         assertUpdate(session, "DROP TABLE test_read_no_columns");
     }
 
+    @Test
+    public void testProjectionPushdown()
+    {
+        testWithAllStorageFormats(this::testProjectionPushdown);
+    }
+
+    private void testProjectionPushdown(Session session, HiveStorageFormat storageFormat)
+    {
+        assertUpdate(
+                session,
+                format("CREATE TABLE test_projection_pushdown WITH (format = '%s') AS " +
+                        "SELECT * FROM (VALUES " +
+                        "(1, CAST(ROW(ROW(11, 'a'), 1.5) AS ROW(x ROW(y BIGINT, z VARCHAR), w DOUBLE))), " +
+                        "(2, NULL), " +
+                        "(3, CAST(ROW(NULL, 3.5) AS ROW(x ROW(y BIGINT, z VARCHAR), w DOUBLE)))) t(id, col)", storageFormat),
+                3);
+
+        assertQuery(session, "SELECT id, col.x.y, col.w FROM test_projection_pushdown", "VALUES (1, 11, 1.5), (2, NULL, NULL), (3, NULL, 3.5)");
+        assertQuery(session, "SELECT col.x.z FROM test_projection_pushdown WHERE col.w < 2", "VALUES 'a'");
+        assertQuery(session, "SELECT id, col.x.y + 1, col IS NULL FROM test_projection_pushdown", "VALUES (1, 12, false), (2, NULL, true), (3, NULL, false)");
+        assertQuery(session, "SELECT col.x.y FROM test_projection_pushdown WHERE col.x.y = 11", "VALUES 11");
+
+        String plan = (String) computeActual(session, "EXPLAIN SELECT col.x.y FROM test_projection_pushdown").getOnlyValue();
+        assertTrue(plan.contains("col#x#y"), plan);
+
+        Session disabled = Session.builder(session)
+                .setCatalogSessionProperty(catalog, "projection_pushdown_enabled", "false")
+                .build();
+        plan = (String) computeActual(disabled, "EXPLAIN SELECT col.x.y FROM test_projection_pushdown").getOnlyValue();
+        assertFalse(plan.contains("col#x#y"), plan);
+        assertQuery(disabled, "SELECT id, col.x.y FROM test_projection_pushdown", "VALUES (1, 11), (2, NULL), (3, NULL)");
+
+        assertUpdate(session, "DROP TABLE test_projection_pushdown");
+    }
+
     @Test
     public void createTableWithEveryType()
     {
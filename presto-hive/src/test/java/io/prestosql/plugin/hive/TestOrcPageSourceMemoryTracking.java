@@ -478,6 +478,7 @@ public class TestOrcPageSourceMemoryTracking
                     fileSplit.getStart(),
                     fileSplit.getLength(),
                     fileSplit.getLength(),
+                    0,
                     schema,
                     TupleDomain.all(),
                     columns,
@@ -522,6 +523,7 @@ public class TestOrcPageSourceMemoryTracking
                     pageProcessor,
                     TEST_TABLE_HANDLE,
                     columns.stream().map(columnHandle -> (ColumnHandle) columnHandle).collect(toList()),
+                    TupleDomain::all,
                     types,
                     new DataSize(0, BYTE),
                     0);
@@ -33,7 +33,10 @@ public class TestParquetFileWriterConfig
     {
         assertRecordedDefaults(recordDefaults(ParquetFileWriterConfig.class)
                 .setBlockSize(new DataSize(ParquetWriter.DEFAULT_BLOCK_SIZE, BYTE))
-                .setPageSize(new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE)));
+                .setPageSize(new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE))
+                .setDictionaryEnabled(true)
+                .setDictionaryPageSize(new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE))
+                .setOptimizedWriterEnabled(false));
     }
 
     @Test
@@ -42,11 +45,17 @@ public class TestParquetFileWriterConfig
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("hive.parquet.writer.block-size", "234MB")
                 .put("hive.parquet.writer.page-size", "11MB")
+                .put("hive.parquet.writer.dictionary-enabled", "false")
+                .put("hive.parquet.writer.dictionary-page-size", "3MB")
+                .put("hive.parquet.optimized-writer.enabled", "true")
                 .build();
 
         ParquetFileWriterConfig expected = new ParquetFileWriterConfig()
                 .setBlockSize(new DataSize(234, MEGABYTE))
-                .setPageSize(new DataSize(11, MEGABYTE));
+                .setPageSize(new DataSize(11, MEGABYTE))
+                .setDictionaryEnabled(false)
+                .setDictionaryPageSize(new DataSize(3, MEGABYTE))
+                .setOptimizedWriterEnabled(true);
 
         assertFullMapping(properties, expected);
     }
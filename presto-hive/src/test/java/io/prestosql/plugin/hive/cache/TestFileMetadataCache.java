@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestFileMetadataCache
+{
+    private static final ParquetMetadata METADATA = new ParquetMetadata(new FileMetaData(new MessageType("test"), ImmutableMap.of(), "test"), ImmutableList.of());
+
+    @Test
+    public void testCacheByFileIdentity()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new HiveCacheConfig());
+        AtomicInteger loads = new AtomicInteger();
+        FileIdentity file = new FileIdentity("/data/file", 100, 1000);
+
+        assertSame(cache.getParquetMetadata(file, () -> load(loads)), METADATA);
+        assertSame(cache.getParquetMetadata(file, () -> load(loads)), METADATA);
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getSize(), 1);
+        assertTrue(cache.getCachedBytes() > 0);
+
+        // a rewritten file is loaded again
+        cache.getParquetMetadata(new FileIdentity("/data/file", 100, 2000), () -> load(loads));
+        cache.getParquetMetadata(new FileIdentity("/data/file", 200, 1000), () -> load(loads));
+        assertEquals(loads.get(), 3);
+
+        cache.flushCache();
+        assertEquals(cache.getSize(), 0);
+        assertEquals(cache.getCachedBytes(), 0);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new HiveCacheConfig().setFileMetadataCacheEnabled(false));
+        AtomicInteger loads = new AtomicInteger();
+        FileIdentity file = new FileIdentity("/data/file", 100, 1000);
+
+        cache.getParquetMetadata(file, () -> load(loads));
+        cache.getParquetMetadata(file, () -> load(loads));
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.getSize(), 0);
+    }
+
+    private static ParquetMetadata load(AtomicInteger loads)
+    {
+        loads.incrementAndGet();
+        return METADATA;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestLocalFileCache
+{
+    private static final int FILE_SIZE = 10_000;
+
+    private File tempDir;
+    private File dataFile;
+    private byte[] data;
+    private FileSystem fileSystem;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        tempDir = createTempDir();
+        dataFile = new File(tempDir, "data");
+        data = new byte[FILE_SIZE];
+        ThreadLocalRandom.current().nextBytes(data);
+        Files.write(dataFile.toPath(), data);
+        fileSystem = FileSystem.getLocal(new Configuration());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testReadThroughCache()
+            throws IOException
+    {
+        LocalFileCache cache = createCache(new File(tempDir, "cache-read"));
+        FileIdentity file = new FileIdentity(dataFile.getPath(), FILE_SIZE, dataFile.lastModified());
+
+        assertRead(cache, file, 100, 50);
+        assertEquals(cache.getMisses().getTotalCount(), 1);
+        assertEquals(cache.getCachedBlockCount(), 1);
+
+        // the first block is cached, the second and third are read with a single remote read
+        assertRead(cache, file, 0, 9000);
+        assertEquals(cache.getHits().getTotalCount(), 1);
+        assertEquals(cache.getMisses().getTotalCount(), 3);
+        assertEquals(cache.getRemoteReadBytes().getTotalCount(), FILE_SIZE);
+
+        // the partial last block
+        assertRead(cache, file, 9000, 1000);
+        assertEquals(cache.getCachedBlockCount(), 3);
+        assertEquals(cache.getCachedBytes(), FILE_SIZE);
+
+        long remoteReadBytes = cache.getRemoteReadBytes().getTotalCount();
+        assertRead(cache, file, 0, FILE_SIZE);
+        assertEquals(cache.getRemoteReadBytes().getTotalCount(), remoteReadBytes);
+
+        // a new version of the file does not use the cached blocks
+        FileIdentity rewritten = new FileIdentity(dataFile.getPath(), FILE_SIZE, dataFile.lastModified() + 1);
+        assertRead(cache, rewritten, 0, 10);
+        assertEquals(cache.getRemoteReadBytes().getTotalCount(), remoteReadBytes + 4096);
+    }
+
+    @Test
+    public void testEviction()
+            throws IOException
+    {
+        File directory = new File(tempDir, "cache-eviction");
+        LocalFileCache cache = new LocalFileCache(new HiveCacheConfig()
+                .setEnabled(true)
+                .setLocation(directory.getPath())
+                .setBlockSize(new DataSize(4, KILOBYTE))
+                .setMaxSize(new DataSize(8, KILOBYTE)));
+        FileIdentity file = new FileIdentity(dataFile.getPath(), FILE_SIZE, dataFile.lastModified());
+
+        assertRead(cache, file, 0, FILE_SIZE);
+        assertTrue(cache.getCachedBytes() <= 8 * 1024);
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(countBlockFiles(directory), cache.getCachedBlockCount());
+
+        cache.flushCache();
+        assertEquals(cache.getCachedBytes(), 0);
+        assertEquals(countBlockFiles(directory), 0);
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testReadPastEnd()
+            throws IOException
+    {
+        LocalFileCache cache = createCache(new File(tempDir, "cache-eof"));
+        FileIdentity file = new FileIdentity(dataFile.getPath(), FILE_SIZE, dataFile.lastModified());
+        try (FSDataInputStream input = cache.open(fileSystem, new Path(dataFile.toURI()), file)) {
+            input.readFully(FILE_SIZE - 10, new byte[20]);
+        }
+    }
+
+    private void assertRead(LocalFileCache cache, FileIdentity file, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length];
+        try (FSDataInputStream input = cache.open(fileSystem, new Path(dataFile.toURI()), file)) {
+            input.readFully(position, buffer);
+        }
+        assertEquals(buffer, Arrays.copyOfRange(data, position, position + length));
+    }
+
+    private static LocalFileCache createCache(File directory)
+    {
+        return new LocalFileCache(new HiveCacheConfig()
+                .setEnabled(true)
+                .setLocation(directory.getPath())
+                .setBlockSize(new DataSize(4, KILOBYTE)));
+    }
+
+    private static long countBlockFiles(File directory)
+    {
+        long count = 0;
+        for (File subdirectory : directory.listFiles()) {
+            count += subdirectory.listFiles().length;
+        }
+        return count;
+    }
+}
@@ -695,7 +695,8 @@ public class PrestoConnection
                 ImmutableMap.copyOf(roles),
                 extraCredentials,
                 transactionId.get(),
-                timeout);
+                timeout,
+                false);
 
         return queryExecutor.startQuery(session, sql);
     }
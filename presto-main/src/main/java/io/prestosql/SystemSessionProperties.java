@@ -18,6 +18,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.execution.QueryManagerConfig;
 import io.prestosql.execution.TaskManagerConfig;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.memory.MemoryManagerConfig;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.session.PropertyMetadata;
@@ -86,16 +87,21 @@ public final class SystemSessionProperties
     public static final String SPLIT_CONCURRENCY_ADJUSTMENT_INTERVAL = "split_concurrency_adjustment_interval";
     public static final String OPTIMIZE_METADATA_QUERIES = "optimize_metadata_queries";
     public static final String FAST_INEQUALITY_JOINS = "fast_inequality_joins";
+    public static final String FLAT_JOIN_HASH_ENABLED = "flat_join_hash_enabled";
+    public static final String JOIN_BLOOM_FILTER_ENABLED = "join_bloom_filter_enabled";
     public static final String QUERY_PRIORITY = "query_priority";
     public static final String SPILL_ENABLED = "spill_enabled";
     public static final String SPILL_ORDER_BY = "spill_order_by";
     public static final String SPILL_WINDOW_OPERATOR = "spill_window_operator";
+    public static final String SPILL_JOIN_FAN_OUT = "spill_join_fan_out";
     public static final String AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT = "aggregation_operator_unspill_memory_limit";
     public static final String OPTIMIZE_DISTINCT_AGGREGATIONS = "optimize_mixed_distinct_aggregations";
     public static final String ITERATIVE_OPTIMIZER = "iterative_optimizer_enabled";
     public static final String ITERATIVE_OPTIMIZER_TIMEOUT = "iterative_optimizer_timeout";
     public static final String ENABLE_FORCED_EXCHANGE_BELOW_GROUP_ID = "enable_forced_exchange_below_group_id";
     public static final String EXCHANGE_COMPRESSION = "exchange_compression";
+    public static final String EXCHANGE_COMPRESSION_CODEC = "exchange_compression_codec";
+    public static final String SPOOLED_RESULTS_ENABLED = "spooled_results_enabled";
     public static final String LEGACY_TIMESTAMP = "legacy_timestamp";
     public static final String ENABLE_INTERMEDIATE_AGGREGATIONS = "enable_intermediate_aggregations";
     public static final String PUSH_AGGREGATION_THROUGH_JOIN = "push_aggregation_through_join";
@@ -118,6 +124,8 @@ public final class SystemSessionProperties
     public static final String SKIP_REDUNDANT_SORT = "skip_redundant_sort";
     public static final String WORK_PROCESSOR_PIPELINES = "work_processor_pipelines";
     public static final String ENABLE_DYNAMIC_FILTERING = "enable_dynamic_filtering";
+    public static final String DYNAMIC_FILTERING_MAX_PER_DRIVER_VALUE_COUNT = "dynamic_filtering_max_per_driver_value_count";
+    public static final String DYNAMIC_FILTERING_MAX_PER_DRIVER_SIZE = "dynamic_filtering_max_per_driver_size";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -319,6 +327,16 @@ public final class SystemSessionProperties
                         "Use faster handling of inequality join if it is possible",
                         featuresConfig.isFastInequalityJoins(),
                         false),
+                booleanProperty(
+                        FLAT_JOIN_HASH_ENABLED,
+                        "Store fixed width join keys inline in the join hash table",
+                        featuresConfig.isFlatJoinHashEnabled(),
+                        false),
+                booleanProperty(
+                        JOIN_BLOOM_FILTER_ENABLED,
+                        "Check probe rows against a Bloom filter of the build side join keys",
+                        featuresConfig.isJoinBloomFilterEnabled(),
+                        false),
                 booleanProperty(
                         COLOCATED_JOIN,
                         "Experimental: Use a colocated join when possible",
@@ -366,6 +384,15 @@ public final class SystemSessionProperties
                         "Spill in WindowOperator if spill_enabled is also set",
                         featuresConfig.isSpillWindowOperator(),
                         false),
+                new PropertyMetadata<>(
+                        SPILL_JOIN_FAN_OUT,
+                        "Number of partitions each hash build operator splits its input into when spill_enabled is set",
+                        BIGINT,
+                        Integer.class,
+                        featuresConfig.getSpillJoinFanOut(),
+                        false,
+                        value -> validateValueIsPowerOfTwo(value, SPILL_JOIN_FAN_OUT),
+                        value -> value),
                 dataSizeProperty(
                         AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT,
                         "Experimental: How much memory can should be allocated per aggragation operator in unspilling process",
@@ -396,6 +423,17 @@ public final class SystemSessionProperties
                         "Enable compression in exchanges",
                         featuresConfig.isExchangeCompressionEnabled(),
                         false),
+                enumProperty(
+                        EXCHANGE_COMPRESSION_CODEC,
+                        "Codec used to compress pages in exchanges when compression is enabled",
+                        CompressionCodec.class,
+                        featuresConfig.getExchangeCompressionCodec(),
+                        false),
+                booleanProperty(
+                        SPOOLED_RESULTS_ENABLED,
+                        "Experimental: Write the query results to segments on the workers, which clients supporting it download directly",
+                        featuresConfig.isSpooledResultsEnabled(),
+                        false),
                 booleanProperty(
                         LEGACY_TIMESTAMP,
                         "Use legacy TIME & TIMESTAMP semantics (warning: this will be removed)",
@@ -509,6 +547,16 @@ public final class SystemSessionProperties
                         ENABLE_DYNAMIC_FILTERING,
                         "Enable dynamic filtering",
                         featuresConfig.isEnableDynamicFiltering(),
+                        false),
+                integerProperty(
+                        DYNAMIC_FILTERING_MAX_PER_DRIVER_VALUE_COUNT,
+                        "Experimental: Maximum number of distinct build-side values collected for dynamic filtering by each driver",
+                        featuresConfig.getDynamicFilteringMaxPerDriverValueCount(),
+                        false),
+                dataSizeProperty(
+                        DYNAMIC_FILTERING_MAX_PER_DRIVER_SIZE,
+                        "Experimental: Maximum size of distinct build-side values collected for dynamic filtering by each driver",
+                        featuresConfig.getDynamicFilteringMaxPerDriverSize(),
                         false));
     }
 
@@ -647,6 +695,16 @@ public final class SystemSessionProperties
         return session.getSystemProperty(FAST_INEQUALITY_JOINS, Boolean.class);
     }
 
+    public static boolean isFlatJoinHashEnabled(Session session)
+    {
+        return session.getSystemProperty(FLAT_JOIN_HASH_ENABLED, Boolean.class);
+    }
+
+    public static boolean isJoinBloomFilterEnabled(Session session)
+    {
+        return session.getSystemProperty(JOIN_BLOOM_FILTER_ENABLED, Boolean.class);
+    }
+
     public static JoinReorderingStrategy getJoinReorderingStrategy(Session session)
     {
         Boolean reorderJoins = session.getSystemProperty(REORDER_JOINS, Boolean.class);
@@ -728,6 +786,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(SPILL_WINDOW_OPERATOR, Boolean.class);
     }
 
+    public static int getSpillJoinFanOut(Session session)
+    {
+        return session.getSystemProperty(SPILL_JOIN_FAN_OUT, Integer.class);
+    }
+
     public static DataSize getAggregationOperatorUnspillMemoryLimit(Session session)
     {
         DataSize memoryLimitForMerge = session.getSystemProperty(AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT, DataSize.class);
@@ -765,6 +828,19 @@ public final class SystemSessionProperties
         return session.getSystemProperty(EXCHANGE_COMPRESSION, Boolean.class);
     }
 
+    public static CompressionCodec getExchangeCompressionCodec(Session session)
+    {
+        if (!isExchangeCompressionEnabled(session)) {
+            return CompressionCodec.NONE;
+        }
+        return session.getSystemProperty(EXCHANGE_COMPRESSION_CODEC, CompressionCodec.class);
+    }
+
+    public static boolean isSpooledResultsEnabled(Session session)
+    {
+        return session.getSystemProperty(SPOOLED_RESULTS_ENABLED, Boolean.class);
+    }
+
     public static boolean isEnableIntermediateAggregations(Session session)
     {
         return session.getSystemProperty(ENABLE_INTERMEDIATE_AGGREGATIONS, Boolean.class);
@@ -906,4 +982,14 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(ENABLE_DYNAMIC_FILTERING, Boolean.class);
     }
+
+    public static int getDynamicFilteringMaxPerDriverValueCount(Session session)
+    {
+        return session.getSystemProperty(DYNAMIC_FILTERING_MAX_PER_DRIVER_VALUE_COUNT, Integer.class);
+    }
+
+    public static DataSize getDynamicFilteringMaxPerDriverSize(Session session)
+    {
+        return session.getSystemProperty(DYNAMIC_FILTERING_MAX_PER_DRIVER_SIZE, DataSize.class);
+    }
 }
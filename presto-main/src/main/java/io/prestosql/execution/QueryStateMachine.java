@@ -601,9 +601,9 @@ public class QueryStateMachine
         outputManager.addOutputInfoListener(listener);
     }
 
-    public void setColumns(List<String> columnNames, List<Type> columnTypes)
+    public void setColumns(List<String> columnNames, List<Type> columnTypes, boolean spooledOutput)
     {
-        outputManager.setColumns(columnNames, columnTypes);
+        outputManager.setColumns(columnNames, columnTypes, spooledOutput);
     }
 
     public void updateOutputLocations(Set<URI> newExchangeLocations, boolean noMoreExchangeLocations)
@@ -1087,6 +1087,8 @@ public class QueryStateMachine
         @GuardedBy("this")
         private List<Type> columnTypes;
         @GuardedBy("this")
+        private boolean spooledOutput;
+        @GuardedBy("this")
         private final Set<URI> exchangeLocations = new LinkedHashSet<>();
         @GuardedBy("this")
         private boolean noMoreExchangeLocations;
@@ -1108,7 +1110,7 @@ public class QueryStateMachine
             queryOutputInfo.ifPresent(info -> executor.execute(() -> listener.accept(info)));
         }
 
-        public void setColumns(List<String> columnNames, List<Type> columnTypes)
+        public void setColumns(List<String> columnNames, List<Type> columnTypes, boolean spooledOutput)
         {
             requireNonNull(columnNames, "columnNames is null");
             requireNonNull(columnTypes, "columnTypes is null");
@@ -1120,6 +1122,7 @@ public class QueryStateMachine
                 checkState(this.columnNames == null && this.columnTypes == null, "output fields already set");
                 this.columnNames = ImmutableList.copyOf(columnNames);
                 this.columnTypes = ImmutableList.copyOf(columnTypes);
+                this.spooledOutput = spooledOutput;
 
                 queryOutputInfo = getQueryOutputInfo();
                 outputInfoListeners = ImmutableList.copyOf(this.outputInfoListeners);
@@ -1152,7 +1155,7 @@ public class QueryStateMachine
             if (columnNames == null || columnTypes == null) {
                 return Optional.empty();
             }
-            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations));
+            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations, spooledOutput));
         }
 
         private void fireStateChanged(QueryOutputInfo queryOutputInfo, List<Consumer<QueryOutputInfo>> outputInfoListeners)
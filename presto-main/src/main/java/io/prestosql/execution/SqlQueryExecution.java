@@ -49,6 +49,7 @@ import io.prestosql.sql.analyzer.Analyzer;
 import io.prestosql.sql.analyzer.QueryExplainer;
 import io.prestosql.sql.parser.SqlParser;
 import io.prestosql.sql.planner.DistributedExecutionPlanner;
+import io.prestosql.sql.planner.DynamicFiltersCollector;
 import io.prestosql.sql.planner.InputExtractor;
 import io.prestosql.sql.planner.LogicalPlanner;
 import io.prestosql.sql.planner.NodePartitioningManager;
@@ -84,6 +85,7 @@ import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.execution.buffer.OutputBuffers.BROADCAST_PARTITION_ID;
 import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.execution.scheduler.SqlQueryScheduler.createSqlQueryScheduler;
+import static io.prestosql.operator.ResultSegmentOutputOperator.isSpooledOutput;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -422,7 +424,8 @@ public class SqlQueryExecution
 
         // plan the execution on the active nodes
         DistributedExecutionPlanner distributedPlanner = new DistributedExecutionPlanner(splitManager, metadata);
-        StageExecutionPlan outputStageExecutionPlan = distributedPlanner.plan(plan.getRoot(), stateMachine.getSession());
+        DynamicFiltersCollector dynamicFiltersCollector = new DynamicFiltersCollector();
+        StageExecutionPlan outputStageExecutionPlan = distributedPlanner.plan(plan.getRoot(), stateMachine.getSession(), dynamicFiltersCollector);
         stateMachine.endDistributedPlanning();
 
         // ensure split sources are closed
@@ -438,7 +441,10 @@ public class SqlQueryExecution
         }
 
         // record output field
-        stateMachine.setColumns(outputStageExecutionPlan.getFieldNames(), outputStageExecutionPlan.getFragment().getTypes());
+        stateMachine.setColumns(
+                outputStageExecutionPlan.getFieldNames(),
+                outputStageExecutionPlan.getFragment().getTypes(),
+                isSpooledOutput(stateMachine.getSession(), outputStageExecutionPlan.getFragment().getRoot()));
 
         PartitioningHandle partitioningHandle = plan.getRoot().getFragment().getPartitioningScheme().getPartitioning().getHandle();
         OutputBuffers rootOutputBuffers = createInitialEmptyOutputBuffers(partitioningHandle)
@@ -462,7 +468,8 @@ public class SqlQueryExecution
                 rootOutputBuffers,
                 nodeTaskMap,
                 executionPolicy,
-                schedulerStats);
+                schedulerStats,
+                dynamicFiltersCollector);
 
         queryScheduler.set(scheduler);
 
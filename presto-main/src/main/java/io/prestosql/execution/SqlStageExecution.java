@@ -28,8 +28,10 @@ import io.prestosql.failuredetector.FailureDetector;
 import io.prestosql.metadata.InternalNode;
 import io.prestosql.metadata.Split;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.split.RemoteSplit;
 import io.prestosql.sql.planner.PlanFragment;
+import io.prestosql.sql.planner.plan.JoinNode;
 import io.prestosql.sql.planner.plan.PlanFragmentId;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.sql.planner.plan.RemoteSourceNode;
@@ -40,10 +42,12 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
@@ -65,6 +69,9 @@ import static io.prestosql.failuredetector.FailureDetector.State.GONE;
 import static io.prestosql.operator.ExchangeOperator.REMOTE_CONNECTOR_ID;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spi.StandardErrorCode.REMOTE_HOST_GONE;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.prestosql.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.prestosql.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -103,6 +110,18 @@ public final class SqlStageExecution
 
     private final ListenerManager<Set<Lifespan>> completedLifespansChangeListeners = new ListenerManager<>();
 
+    // dynamic filters of the replicated joins, which are complete as soon as any task reports them
+    private final Set<String> replicatedDynamicFilters;
+    // dynamic filters of the partitioned joins, which are complete once all tasks of the stage report them
+    private final Set<String> partitionedDynamicFilters;
+    @GuardedBy("this")
+    private final Map<TaskId, Map<String, Domain>> taskDynamicFilterDomains = new HashMap<>();
+    @GuardedBy("this")
+    private final Set<String> completedDynamicFilters = new HashSet<>();
+    @GuardedBy("this")
+    private boolean allTasksScheduled;
+    private final ListenerManager<Map<String, Domain>> dynamicFiltersListeners = new ListenerManager<>();
+
     public static SqlStageExecution createSqlStageExecution(
             StageId stageId,
             URI location,
@@ -154,6 +173,19 @@ public final class SqlStageExecution
             }
         }
         this.exchangeSources = fragmentToExchangeSource.build();
+
+        ImmutableSet.Builder<String> replicatedDynamicFilters = ImmutableSet.builder();
+        ImmutableSet.Builder<String> partitionedDynamicFilters = ImmutableSet.builder();
+        for (JoinNode joinNode : searchFrom(stateMachine.getFragment().getRoot()).where(JoinNode.class::isInstance).<JoinNode>findAll()) {
+            if (joinNode.getDistributionType().orElse(PARTITIONED) == REPLICATED) {
+                replicatedDynamicFilters.addAll(joinNode.getDynamicFilters().keySet());
+            }
+            else {
+                partitionedDynamicFilters.addAll(joinNode.getDynamicFilters().keySet());
+            }
+        }
+        this.replicatedDynamicFilters = replicatedDynamicFilters.build();
+        this.partitionedDynamicFilters = partitionedDynamicFilters.build();
     }
 
     // this is a separate method to ensure that the `this` reference is not leaked during construction
@@ -197,6 +229,15 @@ public final class SqlStageExecution
         completedLifespansChangeListeners.addListener(newlyCompletedDriverGroupConsumer);
     }
 
+    /**
+     * Add a listener for the dynamic filters collected by the joins of this stage. The listener is notified
+     * asynchronously, once for every group of dynamic filters that has been collected from all the tasks.
+     */
+    public void addDynamicFiltersListener(Consumer<Map<String, Domain>> dynamicFiltersConsumer)
+    {
+        dynamicFiltersListeners.addListener(dynamicFiltersConsumer);
+    }
+
     public PlanFragment getFragment()
     {
         return stateMachine.getFragment();
@@ -223,6 +264,9 @@ public final class SqlStageExecution
             return;
         }
 
+        allTasksScheduled = true;
+        updateDynamicFilters();
+
         if (getAllTasks().stream().anyMatch(task -> getState() == StageState.RUNNING)) {
             stateMachine.transitionToRunning();
         }
@@ -514,6 +558,52 @@ public final class SqlStageExecution
         }
     }
 
+    private synchronized void updateDynamicFilters(TaskStatus taskStatus)
+    {
+        if (taskStatus.getDynamicFilterDomains().isEmpty()) {
+            return;
+        }
+        taskDynamicFilterDomains.put(taskStatus.getTaskId(), taskStatus.getDynamicFilterDomains());
+        updateDynamicFilters();
+    }
+
+    private synchronized void updateDynamicFilters()
+    {
+        ImmutableMap.Builder<String, Domain> newlyCompletedDynamicFilters = ImmutableMap.builder();
+        for (String filterId : replicatedDynamicFilters) {
+            if (completedDynamicFilters.contains(filterId)) {
+                continue;
+            }
+            // every task has the whole build side of a replicated join
+            taskDynamicFilterDomains.values().stream()
+                    .map(domains -> domains.get(filterId))
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .ifPresent(domain -> newlyCompletedDynamicFilters.put(filterId, domain));
+        }
+        if (allTasksScheduled && taskDynamicFilterDomains.keySet().containsAll(allTasks)) {
+            for (String filterId : partitionedDynamicFilters) {
+                if (completedDynamicFilters.contains(filterId)) {
+                    continue;
+                }
+                List<Domain> domains = taskDynamicFilterDomains.values().stream()
+                        .map(taskDomains -> taskDomains.get(filterId))
+                        .filter(Objects::nonNull)
+                        .collect(toImmutableList());
+                if (domains.size() == allTasks.size() && !domains.isEmpty()) {
+                    newlyCompletedDynamicFilters.put(filterId, Domain.union(domains));
+                }
+            }
+        }
+
+        Map<String, Domain> dynamicFilters = newlyCompletedDynamicFilters.build();
+        if (dynamicFilters.isEmpty()) {
+            return;
+        }
+        completedDynamicFilters.addAll(dynamicFilters.keySet());
+        dynamicFiltersListeners.invoke(dynamicFilters, executor);
+    }
+
     private synchronized void updateFinalTaskInfo(TaskInfo finalTaskInfo)
     {
         tasksWithFinalInfo.add(finalTaskInfo.getTaskStatus().getTaskId());
@@ -568,6 +658,7 @@ public final class SqlStageExecution
             try {
                 updateMemoryUsage(taskStatus);
                 updateCompletedDriverGroups(taskStatus);
+                updateDynamicFilters(taskStatus);
             }
             finally {
                 updateTaskStatus(taskStatus);
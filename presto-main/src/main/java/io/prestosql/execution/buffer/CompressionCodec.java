@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+import java.util.Optional;
+
+/**
+ * Compression of serialized pages. The codec is not part of the serialized page,
+ * so the writer and the reader of the pages must use the same codec.
+ */
+public enum CompressionCodec
+{
+    NONE {
+        @Override
+        public Optional<Compressor> createCompressor()
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Decompressor> createDecompressor()
+        {
+            return Optional.empty();
+        }
+    },
+    LZ4 {
+        @Override
+        public Optional<Compressor> createCompressor()
+        {
+            return Optional.of(new Lz4Compressor());
+        }
+
+        @Override
+        public Optional<Decompressor> createDecompressor()
+        {
+            return Optional.of(new Lz4Decompressor());
+        }
+    },
+    ZSTD {
+        @Override
+        public Optional<Compressor> createCompressor()
+        {
+            return Optional.of(new ZstdCompressor());
+        }
+
+        @Override
+        public Optional<Decompressor> createDecompressor()
+        {
+            return Optional.of(new ZstdDecompressor());
+        }
+    };
+
+    public abstract Optional<Compressor> createCompressor();
+
+    public abstract Optional<Decompressor> createDecompressor();
+}
@@ -42,12 +42,29 @@ import static sun.misc.Unsafe.ARRAY_BYTE_BASE_OFFSET;
 public class PagesSerde
 {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+    // smaller pages are not worth the compression attempt
+    private static final int MINIMUM_COMPRESSIBLE_SIZE = 1024;
+    // after this many consecutive poorly compressed pages, the following pages are sent uncompressed
+    private static final int INCOMPRESSIBLE_PAGES_BEFORE_BYPASS = 8;
+    private static final int BYPASSED_PAGES = 64;
+    // buffers grown beyond this size by an unusually large page are not kept
+    private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final byte[] EMPTY_BUFFER = new byte[0];
 
     private final BlockEncodingSerde blockEncodingSerde;
     private final Optional<Compressor> compressor;
     private final Optional<Decompressor> decompressor;
     private final Optional<SpillCipher> spillCipher;
 
+    // serialization is done in buffers reused across pages, and only the result is copied out
+    private DynamicSliceOutput serializationBuffer;
+    private byte[] compressionBuffer = EMPTY_BUFFER;
+    private byte[] encryptionBuffer = EMPTY_BUFFER;
+
+    private int incompressiblePages;
+    private int remainingBypassedPages;
+    private long decompressionNanos;
+
     public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
@@ -59,48 +76,108 @@ public class PagesSerde
 
     public SerializedPage serialize(Page page)
     {
-        SliceOutput serializationBuffer = new DynamicSliceOutput(toIntExact(page.getSizeInBytes() + Integer.BYTES)); // block length is an int
-        writeRawPage(page, serializationBuffer, blockEncodingSerde);
-        Slice slice = serializationBuffer.slice();
-        int uncompressedSize = serializationBuffer.size();
+        SliceOutput output = getSerializationBuffer(toIntExact(page.getSizeInBytes() + Integer.BYTES)); // block length is an int
+        writeRawPage(page, output, blockEncodingSerde);
+        Slice slice = output.slice();
+        int uncompressedSize = output.size();
         MarkerSet markers = MarkerSet.empty();
 
-        if (compressor.isPresent()) {
-            byte[] compressed = new byte[compressor.get().maxCompressedLength(uncompressedSize)];
+        if (shouldCompress(uncompressedSize)) {
+            compressionBuffer = ensureCapacity(compressionBuffer, compressor.get().maxCompressedLength(uncompressedSize));
             int compressedSize = compressor.get().compress(
                     (byte[]) slice.getBase(),
                     (int) (slice.getAddress() - ARRAY_BYTE_BASE_OFFSET),
                     uncompressedSize,
-                    compressed,
+                    compressionBuffer,
                     0,
-                    compressed.length);
+                    compressionBuffer.length);
 
             if ((((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO) {
-                slice = Slices.wrappedBuffer(compressed, 0, compressedSize);
+                slice = Slices.wrappedBuffer(compressionBuffer, 0, compressedSize);
                 markers.add(COMPRESSED);
+                incompressiblePages = 0;
+            }
+            else if (++incompressiblePages >= INCOMPRESSIBLE_PAGES_BEFORE_BYPASS) {
+                // the data does not compress, e.g. it is already dictionary encoded, so stop spending CPU on it for a while
+                remainingBypassedPages = BYPASSED_PAGES;
+                incompressiblePages = 0;
             }
         }
 
         if (spillCipher.isPresent()) {
-            byte[] encrypted = new byte[spillCipher.get().encryptedMaxLength(slice.length())];
+            encryptionBuffer = ensureCapacity(encryptionBuffer, spillCipher.get().encryptedMaxLength(slice.length()));
             int encryptedSize = spillCipher.get().encrypt(
                     (byte[]) slice.getBase(),
                     (int) (slice.getAddress() - ARRAY_BYTE_BASE_OFFSET),
                     slice.length(),
-                    encrypted,
+                    encryptionBuffer,
                     0);
 
-            slice = Slices.wrappedBuffer(encrypted, 0, encryptedSize);
+            slice = Slices.wrappedBuffer(encryptionBuffer, 0, encryptedSize);
             markers.add(ENCRYPTED);
         }
 
-        if (!slice.isCompact()) {
-            slice = Slices.copyOf(slice);
-        }
+        // the only copy of the serialized data that is not in a buffer reused by the next page
+        slice = Slices.copyOf(slice);
+        releaseLargeBuffers();
 
         return new SerializedPage(slice, markers, page.getPositionCount(), uncompressedSize);
     }
 
+    private boolean shouldCompress(int uncompressedSize)
+    {
+        if (!compressor.isPresent() || uncompressedSize < MINIMUM_COMPRESSIBLE_SIZE) {
+            return false;
+        }
+        if (remainingBypassedPages > 0) {
+            remainingBypassedPages--;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Size of the buffers kept for serializing the next pages
+     */
+    public long getRetainedSizeInBytes()
+    {
+        long size = compressionBuffer.length + encryptionBuffer.length;
+        if (serializationBuffer != null) {
+            size += serializationBuffer.getRetainedSize();
+        }
+        return size;
+    }
+
+    private SliceOutput getSerializationBuffer(int expectedSize)
+    {
+        if (serializationBuffer == null) {
+            serializationBuffer = new DynamicSliceOutput(expectedSize);
+        }
+        serializationBuffer.reset();
+        return serializationBuffer;
+    }
+
+    private void releaseLargeBuffers()
+    {
+        if (serializationBuffer != null && serializationBuffer.getRetainedSize() > MAX_RETAINED_BUFFER_SIZE) {
+            serializationBuffer = null;
+        }
+        if (compressionBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            compressionBuffer = EMPTY_BUFFER;
+        }
+        if (encryptionBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            encryptionBuffer = EMPTY_BUFFER;
+        }
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int capacity)
+    {
+        if (buffer.length < capacity) {
+            return new byte[capacity];
+        }
+        return buffer;
+    }
+
     public Page deserialize(SerializedPage serializedPage)
     {
         checkArgument(serializedPage != null, "serializedPage is null");
@@ -124,6 +201,7 @@ public class PagesSerde
         if (serializedPage.isCompressed()) {
             checkState(decompressor.isPresent(), "Page is compressed, but decompressor is missing");
 
+            long start = System.nanoTime();
             int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
             byte[] decompressed = new byte[uncompressedSize];
             checkState(decompressor.get().decompress(
@@ -135,8 +213,17 @@ public class PagesSerde
                     uncompressedSize) == uncompressedSize);
 
             slice = Slices.wrappedBuffer(decompressed);
+            decompressionNanos += System.nanoTime() - start;
         }
 
         return readRawPage(serializedPage.getPositionCount(), slice.getInput(), blockEncodingSerde);
     }
+
+    /**
+     * Total time spent decompressing pages by {@link #deserialize(SerializedPage)}
+     */
+    public long getDecompressionNanos()
+    {
+        return decompressionNanos;
+    }
 }
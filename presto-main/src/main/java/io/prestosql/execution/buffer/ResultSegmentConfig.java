@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+import io.airlift.units.MinDuration;
+
+import javax.validation.constraints.NotNull;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class ResultSegmentConfig
+{
+    private Path segmentPath = Paths.get(System.getProperty("java.io.tmpdir"), "presto-result-segments");
+    private DataSize segmentSize = new DataSize(16, MEGABYTE);
+    private Duration segmentMaxAge = new Duration(1, HOURS);
+
+    @NotNull
+    public Path getSegmentPath()
+    {
+        return segmentPath;
+    }
+
+    @Config("experimental.spooled-results-path")
+    @ConfigDescription("Directory in which the result segments of spooled query results are written")
+    public ResultSegmentConfig setSegmentPath(String segmentPath)
+    {
+        this.segmentPath = Paths.get(segmentPath);
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1kB")
+    @MaxDataSize("1GB")
+    public DataSize getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    @Config("experimental.spooled-results-segment-size")
+    @ConfigDescription("Size of the result data collected into one result segment")
+    public ResultSegmentConfig setSegmentSize(DataSize segmentSize)
+    {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getSegmentMaxAge()
+    {
+        return segmentMaxAge;
+    }
+
+    @Config("experimental.spooled-results-max-age")
+    @ConfigDescription("Time after which result segments that were not deleted by the client are removed")
+    public ResultSegmentConfig setSegmentMaxAge(Duration segmentMaxAge)
+    {
+        this.segmentMaxAge = segmentMaxAge;
+        return this;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.prestosql.metadata.InternalNodeManager;
+import io.prestosql.spi.PrestoException;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.io.BaseEncoding.base64Url;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Stores the result segments of spooled query results in files on the local node, from
+ * where clients download them through {@code /v1/segment}. A segment is removed when
+ * the client deletes it after the download, or when it is older than the configured
+ * maximum age.
+ * <p>
+ * The segment URIs carry a random token, which is checked on every request for the
+ * segment, so only the client which received the URI from the coordinator can read
+ * or delete the segment until it expires.
+ */
+public class ResultSegmentStore
+{
+    private static final Logger log = Logger.get(ResultSegmentStore.class);
+
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+    private static final int TOKEN_BYTES = 16;
+
+    private final Path segmentPath;
+    private final DataSize segmentSize;
+    private final long segmentMaxAgeMillis;
+    private final InternalNodeManager nodeManager;
+    private final ScheduledExecutorService cleanupExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("result-segment-cleanup"));
+    private final ListeningExecutorService writeExecutor = listeningDecorator(newCachedThreadPool(daemonThreadsNamed("result-segment-writer-%s")));
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong segmentBytes = new AtomicLong();
+    private final AtomicLong expiredSegments = new AtomicLong();
+
+    @Inject
+    public ResultSegmentStore(ResultSegmentConfig config, InternalNodeManager nodeManager)
+    {
+        requireNonNull(config, "config is null");
+        this.segmentPath = config.getSegmentPath();
+        this.segmentSize = config.getSegmentSize();
+        this.segmentMaxAgeMillis = config.getSegmentMaxAge().toMillis();
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        cleanupExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                removeExpiredSegments();
+            }
+            catch (Throwable e) {
+                log.warn(e, "Error removing expired result segments");
+            }
+        }, 1, 1, SECONDS);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        cleanupExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+        segments.keySet().forEach(this::removeSegment);
+    }
+
+    public DataSize getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    /**
+     * Writes the encoded segment data in the background, so the drivers are not blocked on the
+     * file system. The future is completed with the URI from which the segment can be downloaded.
+     */
+    public ListenableFuture<URI> writeSegment(byte[] data)
+    {
+        requireNonNull(data, "data is null");
+        return writeExecutor.submit(() -> write(data));
+    }
+
+    private URI write(byte[] data)
+    {
+        String segmentId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(segmentPath);
+            Files.write(getSegmentFile(segmentId), data);
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to write result segment", e);
+        }
+        String token = createToken();
+        segments.put(segmentId, new Segment(token, System.currentTimeMillis()));
+        segmentBytes.addAndGet(data.length);
+
+        return uriBuilderFrom(nodeManager.getCurrentNode().getInternalUri())
+                .appendPath("/v1/segment")
+                .appendPath(segmentId)
+                .addParameter("token", token)
+                .build();
+    }
+
+    /**
+     * Returns the file of the segment, or empty if the segment does not exist or the token does not match.
+     */
+    public Optional<Path> getSegment(String segmentId, String token)
+    {
+        if (!isValidToken(segmentId, token)) {
+            return Optional.empty();
+        }
+        return Optional.of(getSegmentFile(segmentId));
+    }
+
+    /**
+     * Deletes the segment and returns whether it existed with the given token.
+     */
+    public boolean deleteSegment(String segmentId, String token)
+    {
+        if (!isValidToken(segmentId, token)) {
+            return false;
+        }
+        removeSegment(segmentId);
+        return true;
+    }
+
+    private boolean isValidToken(String segmentId, String token)
+    {
+        Segment segment = segments.get(segmentId);
+        if (segment == null || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(segment.getToken().getBytes(UTF_8), token.getBytes(UTF_8));
+    }
+
+    private String createToken()
+    {
+        byte[] token = new byte[TOKEN_BYTES];
+        random.nextBytes(token);
+        return base64Url().omitPadding().encode(token);
+    }
+
+    private void removeSegment(String segmentId)
+    {
+        if (segments.remove(segmentId) == null) {
+            return;
+        }
+        Path file = getSegmentFile(segmentId);
+        try {
+            segmentBytes.addAndGet(-Files.size(file));
+            Files.delete(file);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to delete result segment %s", file);
+        }
+    }
+
+    @VisibleForTesting
+    void removeExpiredSegments()
+    {
+        long expiration = System.currentTimeMillis() - segmentMaxAgeMillis;
+        segments.forEach((segmentId, segment) -> {
+            if (segment.getCreateTime() < expiration) {
+                expiredSegments.incrementAndGet();
+                removeSegment(segmentId);
+            }
+        });
+    }
+
+    private Path getSegmentFile(String segmentId)
+    {
+        return segmentPath.resolve(segmentId + SEGMENT_FILE_SUFFIX);
+    }
+
+    @Managed
+    public int getSegmentCount()
+    {
+        return segments.size();
+    }
+
+    @Managed
+    public long getSegmentBytes()
+    {
+        return segmentBytes.get();
+    }
+
+    @Managed
+    public long getExpiredSegments()
+    {
+        return expiredSegments.get();
+    }
+
+    private static class Segment
+    {
+        private final String token;
+        private final long createTime;
+
+        public Segment(String token, long createTime)
+        {
+            this.token = requireNonNull(token, "token is null");
+            this.createTime = createTime;
+        }
+
+        public String getToken()
+        {
+            return token;
+        }
+
+        public long getCreateTime()
+        {
+            return createTime;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import io.prestosql.metadata.InternalNode;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPartitionHandle;
 import io.prestosql.split.SplitSource;
+import io.prestosql.sql.planner.DynamicFiltersCollector;
 import io.prestosql.sql.planner.NodePartitionMap;
 import io.prestosql.sql.planner.NodePartitioningManager;
 import io.prestosql.sql.planner.PartitioningHandle;
@@ -120,6 +121,7 @@ public class SqlQueryScheduler
     private final Map<StageId, StageLinkage> stageLinkages;
     private final SplitSchedulerStats schedulerStats;
     private final boolean summarizeTaskInfo;
+    private final DynamicFiltersCollector dynamicFiltersCollector;
     private final AtomicBoolean started = new AtomicBoolean();
 
     public static SqlQueryScheduler createSqlQueryScheduler(
@@ -138,7 +140,8 @@ public class SqlQueryScheduler
             OutputBuffers rootOutputBuffers,
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
-            SplitSchedulerStats schedulerStats)
+            SplitSchedulerStats schedulerStats,
+            DynamicFiltersCollector dynamicFiltersCollector)
     {
         SqlQueryScheduler sqlQueryScheduler = new SqlQueryScheduler(
                 queryStateMachine,
@@ -156,7 +159,8 @@ public class SqlQueryScheduler
                 rootOutputBuffers,
                 nodeTaskMap,
                 executionPolicy,
-                schedulerStats);
+                schedulerStats,
+                dynamicFiltersCollector);
         sqlQueryScheduler.initialize();
         return sqlQueryScheduler;
     }
@@ -177,12 +181,14 @@ public class SqlQueryScheduler
             OutputBuffers rootOutputBuffers,
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
-            SplitSchedulerStats schedulerStats)
+            SplitSchedulerStats schedulerStats,
+            DynamicFiltersCollector dynamicFiltersCollector)
     {
         this.queryStateMachine = requireNonNull(queryStateMachine, "queryStateMachine is null");
         this.executionPolicy = requireNonNull(executionPolicy, "schedulerPolicyFactory is null");
         this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
         this.summarizeTaskInfo = summarizeTaskInfo;
+        this.dynamicFiltersCollector = requireNonNull(dynamicFiltersCollector, "dynamicFiltersCollector is null");
 
         // todo come up with a better way to build this, or eliminate this map
         ImmutableMap.Builder<StageId, StageScheduler> stageSchedulers = ImmutableMap.builder();
@@ -312,6 +318,9 @@ public class SqlQueryScheduler
                 failureDetector,
                 schedulerStats);
 
+        // the collected dynamic filters are used to prune the splits of the table scans
+        stage.addDynamicFiltersListener(dynamicFiltersCollector::intersect);
+
         stages.add(stage);
 
         Optional<int[]> bucketToPartition;
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Bloom filter over the raw hashes of the join keys. All the bits of a key are set in a single
+ * 64 bit word, so a check costs one memory access. This gives a somewhat higher false positive
+ * rate than a classic Bloom filter of the same size, which stays around 1% with at least 12 bits per key.
+ */
+public final class BlockedBloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BlockedBloomFilter.class).instanceSize();
+    private static final int BITS_PER_KEY = 12;
+    private static final int MAX_WORD_COUNT = 1 << 30;
+
+    private final long[] words;
+    private final int wordMask;
+
+    public BlockedBloomFilter(int expectedKeyCount)
+    {
+        checkArgument(expectedKeyCount >= 0, "expectedKeyCount is negative");
+        long minWordCount = max(1, ((long) expectedKeyCount * BITS_PER_KEY + Long.SIZE - 1) / Long.SIZE);
+        int wordCount = (int) min(MAX_WORD_COUNT, Long.highestOneBit(minWordCount - 1) << 1);
+        words = new long[max(1, wordCount)];
+        wordMask = words.length - 1;
+    }
+
+    public void add(long rawHash)
+    {
+        long hash = mix(rawHash);
+        words[wordIndex(hash)] |= bitMask(hash);
+    }
+
+    public boolean mightContain(long rawHash)
+    {
+        long hash = mix(rawHash);
+        long bitMask = bitMask(hash);
+        return (words[wordIndex(hash)] & bitMask) == bitMask;
+    }
+
+    public long getSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(words);
+    }
+
+    private int wordIndex(long hash)
+    {
+        return (int) (hash >>> 32) & wordMask;
+    }
+
+    private static long bitMask(long hash)
+    {
+        // four bits selected by the lowest 24 bits of the hash, shifts only use the lowest 6 bits of the distance
+        return (1L << hash) | (1L << (hash >>> 6)) | (1L << (hash >>> 12)) | (1L << (hash >>> 18));
+    }
+
+    private static long mix(long rawHash)
+    {
+        // finalisation step of MurmurHash3, the raw hashes of the join keys are not uniformly distributed
+        rawHash ^= rawHash >>> 33;
+        rawHash *= 0xff51afd7ed558ccdL;
+        rawHash ^= rawHash >>> 33;
+        rawHash *= 0xc4ceb9fe1a85ec53L;
+        rawHash ^= rawHash >>> 33;
+        return rawHash;
+    }
+}
@@ -14,22 +14,34 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static java.util.Objects.requireNonNull;
@@ -48,6 +60,8 @@ public class DistinctLimitOperator
         private final Optional<Integer> hashChannel;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public DistinctLimitOperatorFactory(
                 int operatorId,
@@ -57,6 +71,22 @@ public class DistinctLimitOperator
                 long limit,
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashChannel, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+                throw new UnsupportedOperationException();
+            });
+        }
+
+        public DistinctLimitOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> distinctChannels,
+                long limit,
+                Optional<Integer> hashChannel,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -67,6 +97,8 @@ public class DistinctLimitOperator
             this.limit = limit;
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -77,7 +109,7 @@ public class DistinctLimitOperator
             List<Type> distinctTypes = distinctChannels.stream()
                     .map(sourceTypes::get)
                     .collect(toImmutableList());
-            return new DistinctLimitOperator(operatorContext, distinctChannels, distinctTypes, limit, hashChannel, joinCompiler);
+            return new DistinctLimitOperator(operatorContext, distinctChannels, distinctTypes, limit, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -89,12 +121,15 @@ public class DistinctLimitOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new DistinctLimitOperatorFactory(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashChannel, joinCompiler);
+            return new DistinctLimitOperatorFactory(operatorId, planNodeId, sourceTypes, distinctChannels, limit, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private Page inputPage;
     private long remainingLimit;
@@ -102,20 +137,58 @@ public class DistinctLimitOperator
     private boolean finishing;
 
     private final List<Integer> outputChannels;
-    private final GroupByHash groupByHash;
+    private final List<Type> distinctTypes;
+    private final Optional<Integer> hashChannel;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+
+    // set to null once the distinct values are spilled
+    private GroupByHash groupByHash;
     private long nextDistinctId;
 
     // for yield when memory is not available
     private GroupByIdBlock groupByIds;
     private Work<GroupByIdBlock> unfinishedWork;
 
+    // Once memory is revoked, the distinct values seen so far are spilled to keySpiller and the distinct
+    // channels of all the following input to inputSpiller, both partitioned by the hash of the distinct channels.
+    // When the input is finished the partitions are processed one at a time, starting from their spilled
+    // distinct values, and the values not seen before are produced until the limit is reached.
+    private Optional<PartitioningSpiller> keySpiller = Optional.empty();
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private int unspillPartition;
+    private GroupByHash unspilledHash;
+    private Iterator<Page> unspilledInput;
+
     public DistinctLimitOperator(OperatorContext operatorContext, List<Integer> distinctChannels, List<Type> distinctTypes, long limit, Optional<Integer> hashChannel, JoinCompiler joinCompiler)
+    {
+        this(operatorContext, distinctChannels, distinctTypes, limit, hashChannel, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    public DistinctLimitOperator(
+            OperatorContext operatorContext,
+            List<Integer> distinctChannels,
+            List<Type> distinctTypes,
+            long limit,
+            Optional<Integer> hashChannel,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
         requireNonNull(distinctChannels, "distinctChannels is null");
         checkArgument(limit >= 0, "limit must be at least zero");
-        requireNonNull(hashChannel, "hashChannel is null");
+        this.distinctTypes = ImmutableList.copyOf(requireNonNull(distinctTypes, "distinctTypes is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
 
         outputChannels = ImmutableList.<Integer>builder()
                 .addAll(distinctChannels)
@@ -148,19 +221,38 @@ public class DistinctLimitOperator
     @Override
     public boolean isFinished()
     {
-        return !hasUnfinishedInput() && (finishing || remainingLimit == 0);
+        if (hasUnfinishedInput() || !spillInProgress.isDone()) {
+            return false;
+        }
+        if (remainingLimit == 0) {
+            return true;
+        }
+        return finishing && (groupByHash != null || unspillPartition == SPILL_PARTITION_COUNT);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && remainingLimit > 0 && !hasUnfinishedInput();
+        return !finishing && remainingLimit > 0 && !hasUnfinishedInput() && spillInProgress.isDone();
     }
 
     @Override
     public void addInput(Page page)
     {
         checkState(needsInput());
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (groupByHash == null) {
+            // the distinct values seen so far are on disk, so the new values are produced when the input is finished
+            spillInProgress = inputSpiller.get().partitionAndSpill(extractColumns(page, Ints.toArray(outputChannels)), partition -> true).getSpillingFuture();
+            return;
+        }
 
         inputPage = page;
         unfinishedWork = groupByHash.getGroupIds(page);
@@ -171,6 +263,15 @@ public class DistinctLimitOperator
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (groupByHash == null) {
+            return finishing ? getUnspilledOutput() : null;
+        }
+
         if (unfinishedWork != null && !processUnfinishedWork()) {
             return null;
         }
@@ -180,10 +281,59 @@ public class DistinctLimitOperator
         }
 
         verify(inputPage != null);
+        Page result = getDistinctOutput(inputPage, groupByIds, outputChannels);
+
+        groupByIds = null;
+        inputPage = null;
+
+        updateMemoryReservation();
+        return result;
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (!spillEnabled || groupByHash == null || hasUnfinishedInput() || finishing || remainingLimit == 0) {
+            return NOT_BLOCKED;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        // the spilled values and the spilled input both have the layout of the output: the distinct channels followed by the hash channel, if any
+        keySpiller = Optional.of(createSpiller());
+        inputSpiller = Optional.of(createSpiller());
+        spillInProgress = keySpiller.get().partitionAndSpill(new DistinctValuesIterator(groupByHash));
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (keySpiller.isPresent() && groupByHash != null) {
+            groupByHash = null;
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try (Closer closer = Closer.create()) {
+            keySpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        groupByHash = null;
+        unspilledHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private Page getDistinctOutput(Page page, GroupByIdBlock groupIds, List<Integer> outputChannels)
+    {
         int distinctCount = 0;
-        int[] distinctPositions = new int[inputPage.getPositionCount()];
-        for (int position = 0; position < groupByIds.getPositionCount(); position++) {
-            if (groupByIds.getGroupId(position) == nextDistinctId) {
+        int[] distinctPositions = new int[page.getPositionCount()];
+        for (int position = 0; position < groupIds.getPositionCount(); position++) {
+            if (groupIds.getGroupId(position) == nextDistinctId) {
                 distinctPositions[distinctCount] = position;
                 distinctCount++;
 
@@ -194,21 +344,15 @@ public class DistinctLimitOperator
                 }
             }
         }
-        Page result = maskToDistinctOutputPositions(distinctCount, distinctPositions);
-
-        groupByIds = null;
-        inputPage = null;
-
-        updateMemoryReservation();
-        return result;
+        return maskToDistinctOutputPositions(page, outputChannels, distinctCount, distinctPositions);
     }
 
-    private Page maskToDistinctOutputPositions(int distinctCount, int[] distinctPositions)
+    private static Page maskToDistinctOutputPositions(Page page, List<Integer> outputChannels, int distinctCount, int[] distinctPositions)
     {
         Page result = null;
         if (distinctCount > 0) {
             Block[] blocks = outputChannels.stream()
-                    .map(inputPage::getBlock)
+                    .map(page::getBlock)
                     .map(block -> block.getPositions(distinctPositions, 0, distinctCount))
                     .toArray(Block[]::new);
             result = new Page(distinctCount, blocks);
@@ -216,6 +360,70 @@ public class DistinctLimitOperator
         return result;
     }
 
+    private Page getUnspilledOutput()
+    {
+        List<Integer> keyChannels = IntStream.range(0, outputChannels.size()).boxed().collect(toImmutableList());
+        while (unspillPartition < SPILL_PARTITION_COUNT && remainingLimit > 0) {
+            if (unspilledInput == null) {
+                // restore the distinct values this partition had before spilling, only the values not among them are produced
+                unspilledHash = createGroupByHash(
+                        distinctTypes,
+                        IntStream.range(0, distinctTypes.size()).toArray(),
+                        hashChannel.map(channel -> distinctTypes.size()),
+                        10_000,
+                        isDictionaryAggregationEnabled(operatorContext.getSession()),
+                        joinCompiler,
+                        () -> true);
+                Iterator<Page> keys = keySpiller.get().getSpilledPages(unspillPartition);
+                while (keys.hasNext()) {
+                    checkState(unspilledHash.addPage(keys.next()).process(), "work did not complete");
+                }
+                nextDistinctId = unspilledHash.getGroupCount();
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize());
+                unspilledInput = inputSpiller.get().getSpilledPages(unspillPartition);
+            }
+
+            while (unspilledInput.hasNext() && remainingLimit > 0) {
+                Page page = unspilledInput.next();
+                Work<GroupByIdBlock> work = unspilledHash.getGroupIds(page);
+                checkState(work.process(), "work did not complete");
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize());
+                Page result = getDistinctOutput(page, work.getResult(), keyChannels);
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            unspilledInput = null;
+            unspilledHash = null;
+            localUserMemoryContext.setBytes(0);
+            unspillPartition++;
+        }
+        return null;
+    }
+
+    private PartitioningSpiller createSpiller()
+    {
+        // the spilled pages have the distinct channels first, followed by the hash channel, if any
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(distinctTypes.size())
+                : new InterpretedHashGenerator(distinctTypes, IntStream.range(0, distinctTypes.size()).toArray());
+        return partitioningSpillerFactory.create(
+                groupByHash.getTypes(),
+                new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+    }
+
+    private static Page extractColumns(Page page, int[] channels)
+    {
+        Block[] newBlocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            newBlocks[i] = page.getBlock(channels[i]);
+        }
+        return new Page(page.getPositionCount(), newBlocks);
+    }
+
     private boolean processUnfinishedWork()
     {
         verify(unfinishedWork != null);
@@ -242,6 +450,11 @@ public class DistinctLimitOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        if (spillEnabled) {
+            // revocable memory does not block, the hash is spilled when the memory is revoked
+            localRevocableMemoryContext.setBytes(groupByHash.getEstimatedSize());
+            return true;
+        }
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
         localUserMemoryContext.setBytes(groupByHash.getEstimatedSize());
@@ -252,6 +465,36 @@ public class DistinctLimitOperator
     @VisibleForTesting
     public int getCapacity()
     {
+        checkState(groupByHash != null, "distinct values are spilled");
         return groupByHash.getCapacity();
     }
+
+    private static class DistinctValuesIterator
+            extends AbstractIterator<Page>
+    {
+        private final GroupByHash groupByHash;
+        private final PageBuilder pageBuilder;
+        private int groupId;
+
+        private DistinctValuesIterator(GroupByHash groupByHash)
+        {
+            this.groupByHash = requireNonNull(groupByHash, "groupByHash is null");
+            this.pageBuilder = new PageBuilder(groupByHash.getTypes());
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            pageBuilder.reset();
+            while (!pageBuilder.isFull() && groupId < groupByHash.getGroupCount()) {
+                pageBuilder.declarePosition();
+                groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+                groupId++;
+            }
+            if (pageBuilder.isEmpty()) {
+                return endOfData();
+            }
+            return pageBuilder.build();
+        }
+    }
 }
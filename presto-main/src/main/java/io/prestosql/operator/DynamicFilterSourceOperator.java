@@ -0,0 +1,360 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.operator.aggregation.TypedSet;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes the build side of a join through unchanged, while collecting the values
+ * of the join keys into a {@link Domain} per dynamic filter, that is later used to filter the probe side.
+ * Distinct values are collected until the configured limits are reached, after which
+ * only the minimum and maximum value is tracked for orderable types.
+ */
+public class DynamicFilterSourceOperator
+        implements Operator
+{
+    public static class Channel
+    {
+        private final String filterId;
+        private final Type type;
+        private final int index;
+
+        public Channel(String filterId, Type type, int index)
+        {
+            this.filterId = requireNonNull(filterId, "filterId is null");
+            this.type = requireNonNull(type, "type is null");
+            this.index = index;
+        }
+
+        public String getFilterId()
+        {
+            return filterId;
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("filterId", filterId)
+                    .add("type", type)
+                    .add("index", index)
+                    .toString();
+        }
+    }
+
+    public static class DynamicFilterSourceOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final Consumer<Map<String, Domain>> dynamicPredicateConsumer;
+        private final List<Channel> channels;
+        private final int maxValueCount;
+        private final DataSize maxSize;
+
+        private final Map<String, Domain> collectedDomains = new HashMap<>();
+        private int pendingOperators;
+        private boolean closed;
+
+        public DynamicFilterSourceOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                Consumer<Map<String, Domain>> dynamicPredicateConsumer,
+                List<Channel> channels,
+                int maxValueCount,
+                DataSize maxSize)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
+            this.channels = ImmutableList.copyOf(requireNonNull(channels, "channels is null"));
+            checkArgument(!channels.isEmpty(), "channels is empty");
+            checkArgument(maxValueCount >= 0, "maxValueCount is negative");
+            this.maxValueCount = maxValueCount;
+            this.maxSize = requireNonNull(maxSize, "maxSize is null");
+        }
+
+        @Override
+        public synchronized Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, DynamicFilterSourceOperator.class.getSimpleName());
+            pendingOperators++;
+            return new DynamicFilterSourceOperator(operatorContext, this::addDomains, channels, maxValueCount, maxSize.toBytes());
+        }
+
+        @Override
+        public synchronized void noMoreOperators()
+        {
+            checkState(!closed, "Factory is already closed");
+            closed = true;
+            publishIfDone();
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            // the collected predicate must cover all of the build side drivers exactly once
+            throw new UnsupportedOperationException("Dynamic filter source can not be duplicated");
+        }
+
+        private synchronized void addDomains(Map<String, Domain> domains)
+        {
+            checkState(pendingOperators > 0, "No pending operators");
+            domains.forEach((filterId, domain) -> collectedDomains.merge(filterId, domain, Domain::union));
+            pendingOperators--;
+            publishIfDone();
+        }
+
+        private void publishIfDone()
+        {
+            if (!closed || pendingOperators > 0) {
+                return;
+            }
+            // if no driver has been started, the build side is empty and nothing can match
+            ImmutableMap.Builder<String, Domain> domains = ImmutableMap.builder();
+            for (Channel channel : channels) {
+                domains.put(channel.getFilterId(), collectedDomains.getOrDefault(channel.getFilterId(), Domain.none(channel.getType())));
+            }
+            dynamicPredicateConsumer.accept(domains.build());
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final Consumer<Map<String, Domain>> dynamicPredicateConsumer;
+    private final List<Channel> channels;
+    private final int maxValueCount;
+    private final long maxSizeInBytes;
+
+    // distinct values of each channel, or null if the limits have been exceeded
+    private final TypedSet[] valueSets;
+    private final BlockBuilder[] valueBlockBuilders;
+    // bounds of each orderable channel, tracked only after the distinct values have been dropped
+    private final Block[] minValues;
+    private final Block[] maxValues;
+
+    private Page current;
+    private boolean finished;
+
+    public DynamicFilterSourceOperator(
+            OperatorContext operatorContext,
+            Consumer<Map<String, Domain>> dynamicPredicateConsumer,
+            List<Channel> channels,
+            int maxValueCount,
+            long maxSizeInBytes)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
+        this.channels = ImmutableList.copyOf(requireNonNull(channels, "channels is null"));
+        this.maxValueCount = maxValueCount;
+        this.maxSizeInBytes = maxSizeInBytes;
+
+        this.valueSets = new TypedSet[channels.size()];
+        this.valueBlockBuilders = new BlockBuilder[channels.size()];
+        this.minValues = new Block[channels.size()];
+        this.maxValues = new Block[channels.size()];
+        for (int channel = 0; channel < channels.size(); channel++) {
+            Type type = channels.get(channel).getType();
+            valueBlockBuilders[channel] = type.createBlockBuilder(null, 1024);
+            valueSets[channel] = new TypedSet(type, Optional.empty(), valueBlockBuilders[channel], 1024, DynamicFilterSourceOperator.class.getSimpleName());
+        }
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return current == null && !finished;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(needsInput(), "Operator did not expect any more data");
+        current = page;
+
+        long retainedSizeInBytes = 0;
+        for (int channel = 0; channel < channels.size(); channel++) {
+            Block block = page.getBlock(channels.get(channel).getIndex());
+            if (valueSets[channel] != null) {
+                collectValues(channel, block);
+            }
+            else {
+                collectBounds(channel, block);
+            }
+            if (valueSets[channel] != null) {
+                retainedSizeInBytes += valueSets[channel].getRetainedSizeInBytes();
+            }
+        }
+        operatorContext.localUserMemoryContext().setBytes(retainedSizeInBytes);
+    }
+
+    private void collectValues(int channel, Block block)
+    {
+        TypedSet valueSet = valueSets[channel];
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            // inner joins never match null keys
+            if (block.isNull(position)) {
+                continue;
+            }
+            valueSet.add(block, position);
+            if (valueSet.size() > maxValueCount || valueBlockBuilders[channel].getSizeInBytes() > maxSizeInBytes) {
+                dropValues(channel);
+                collectBounds(channel, block.getRegion(position, block.getPositionCount() - position));
+                return;
+            }
+        }
+    }
+
+    private void dropValues(int channel)
+    {
+        Block values = valueBlockBuilders[channel].build();
+        valueSets[channel] = null;
+        valueBlockBuilders[channel] = null;
+        collectBounds(channel, values);
+    }
+
+    private void collectBounds(int channel, Block block)
+    {
+        Type type = channels.get(channel).getType();
+        if (!type.isOrderable()) {
+            return;
+        }
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                continue;
+            }
+            if (minValues[channel] == null || type.compareTo(block, position, minValues[channel], 0) < 0) {
+                minValues[channel] = block.getSingleValueBlock(position);
+            }
+            if (maxValues[channel] == null || type.compareTo(block, position, maxValues[channel], 0) > 0) {
+                maxValues[channel] = block.getSingleValueBlock(position);
+            }
+        }
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        Page result = current;
+        current = null;
+        return result;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        ImmutableMap.Builder<String, Domain> domains = ImmutableMap.builder();
+        for (int channel = 0; channel < channels.size(); channel++) {
+            domains.put(channels.get(channel).getFilterId(), toDomain(channel));
+        }
+        operatorContext.localUserMemoryContext().setBytes(0);
+        dynamicPredicateConsumer.accept(domains.build());
+    }
+
+    private Domain toDomain(int channel)
+    {
+        Type type = channels.get(channel).getType();
+        if (valueSets[channel] != null) {
+            Block values = valueBlockBuilders[channel].build();
+            List<Object> nonNullValues = new ArrayList<>(values.getPositionCount());
+            for (int position = 0; position < values.getPositionCount(); position++) {
+                Object value = readNativeValue(type, values, position);
+                if (value != null && !isNaN(type, value)) {
+                    nonNullValues.add(value);
+                }
+            }
+            if (nonNullValues.isEmpty()) {
+                return Domain.none(type);
+            }
+            return Domain.create(ValueSet.copyOf(type, nonNullValues), false);
+        }
+        if (minValues[channel] == null) {
+            // the type is not orderable, so nothing can be pruned
+            return Domain.all(type);
+        }
+        Object min = readNativeValue(type, minValues[channel], 0);
+        Object max = readNativeValue(type, maxValues[channel], 0);
+        if (isNaN(type, min) || isNaN(type, max)) {
+            return Domain.all(type);
+        }
+        return Domain.create(ValueSet.ofRanges(Range.range(type, min, true, max, true)), false);
+    }
+
+    private static boolean isNaN(Type type, Object value)
+    {
+        if (type.equals(DOUBLE)) {
+            return Double.isNaN((double) value);
+        }
+        if (type.equals(REAL)) {
+            return Float.isNaN(intBitsToFloat(toIntExact((long) value)));
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return current == null && finished;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.RecordCursor;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.Type;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static java.util.Arrays.copyOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Removes the rows of a table scan which can not match the dynamic filter of a join,
+ * so the probe side is filtered even when the connector ignores the dynamic filter.
+ */
+public final class DynamicPageFilter
+{
+    private static final DynamicPageFilter ALL = new DynamicPageFilter(new int[0], new Domain[0], false);
+    private static final DynamicPageFilter NONE = new DynamicPageFilter(new int[0], new Domain[0], true);
+
+    private final int[] channels;
+    private final Domain[] domains;
+    private final boolean none;
+
+    private DynamicPageFilter(int[] channels, Domain[] domains, boolean none)
+    {
+        this.channels = requireNonNull(channels, "channels is null");
+        this.domains = requireNonNull(domains, "domains is null");
+        checkArgument(channels.length == domains.length, "channels and domains do not match");
+        this.none = none;
+    }
+
+    /**
+     * @param columns the columns of the scan, in the order of the page channels or cursor fields
+     */
+    public static DynamicPageFilter create(TupleDomain<ColumnHandle> dynamicFilter, List<ColumnHandle> columns)
+    {
+        requireNonNull(dynamicFilter, "dynamicFilter is null");
+        requireNonNull(columns, "columns is null");
+        if (dynamicFilter.isNone()) {
+            return NONE;
+        }
+
+        Map<ColumnHandle, Domain> columnDomains = dynamicFilter.getDomains().get();
+        int[] channels = new int[columnDomains.size()];
+        Domain[] domains = new Domain[columnDomains.size()];
+        int filterCount = 0;
+        for (int channel = 0; channel < columns.size(); channel++) {
+            Domain domain = columnDomains.get(columns.get(channel));
+            if (domain != null && !domain.isAll()) {
+                channels[filterCount] = channel;
+                domains[filterCount] = domain;
+                filterCount++;
+            }
+        }
+        if (filterCount == 0) {
+            return ALL;
+        }
+        return new DynamicPageFilter(copyOf(channels, filterCount), copyOf(domains, filterCount), false);
+    }
+
+    public boolean isAll()
+    {
+        return !none && channels.length == 0;
+    }
+
+    public Page filter(Page page)
+    {
+        if (isAll()) {
+            return page;
+        }
+        if (none) {
+            return page.getRegion(0, 0);
+        }
+
+        int[] retainedPositions = new int[page.getPositionCount()];
+        int retainedCount = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (matches(page, position)) {
+                retainedPositions[retainedCount] = position;
+                retainedCount++;
+            }
+        }
+        if (retainedCount == page.getPositionCount()) {
+            return page;
+        }
+        return page.getPositions(retainedPositions, 0, retainedCount);
+    }
+
+    /**
+     * Tests the current row of the cursor.
+     */
+    public boolean matches(RecordCursor cursor)
+    {
+        if (none) {
+            return false;
+        }
+        for (int i = 0; i < channels.length; i++) {
+            if (!domains[i].includesNullableValue(getValue(cursor, channels[i], domains[i].getType()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(Page page, int position)
+    {
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            if (!domains[i].includesNullableValue(readNativeValue(domains[i].getType(), block, position))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object getValue(RecordCursor cursor, int field, Type type)
+    {
+        if (cursor.isNull(field)) {
+            return null;
+        }
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            return cursor.getBoolean(field);
+        }
+        if (javaType == long.class) {
+            return cursor.getLong(field);
+        }
+        if (javaType == double.class) {
+            return cursor.getDouble(field);
+        }
+        if (javaType == Slice.class) {
+            return cursor.getSlice(field);
+        }
+        return cursor.getObject(field);
+    }
+}
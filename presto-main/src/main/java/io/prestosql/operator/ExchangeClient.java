@@ -43,6 +43,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -87,6 +88,12 @@ public class ExchangeClient
     private long successfulRequests;
     @GuardedBy("this")
     private long averageBytesPerRequest;
+    @GuardedBy("this")
+    private long receivedBytes;
+    @GuardedBy("this")
+    private long receivedUncompressedBytes;
+
+    private final AtomicLong decompressionNanos = new AtomicLong();
 
     private final AtomicBoolean closed = new AtomicBoolean();
     private final AtomicReference<Throwable> failure = new AtomicReference<>();
@@ -134,10 +141,28 @@ public class ExchangeClient
             if (bufferedPages > 0 && pageBuffer.peekLast() == NO_MORE_PAGES) {
                 bufferedPages--;
             }
-            return new ExchangeClientStatus(bufferRetainedSizeInBytes, maxBufferRetainedSizeInBytes, averageBytesPerRequest, successfulRequests, bufferedPages, noMoreLocations, pageBufferClientStatus);
+            return new ExchangeClientStatus(
+                    bufferRetainedSizeInBytes,
+                    maxBufferRetainedSizeInBytes,
+                    averageBytesPerRequest,
+                    successfulRequests,
+                    bufferedPages,
+                    receivedBytes,
+                    receivedUncompressedBytes,
+                    decompressionNanos.get(),
+                    noMoreLocations,
+                    pageBufferClientStatus);
         }
     }
 
+    /**
+     * Records the time the consumer of the pages spent decompressing them.
+     */
+    public void recordDecompression(long nanos)
+    {
+        decompressionNanos.addAndGet(nanos);
+    }
+
     public synchronized void addLocation(URI location)
     {
         requireNonNull(location, "location is null");
@@ -348,6 +373,10 @@ public class ExchangeClient
         long responseSize = pages.stream()
                 .mapToLong(SerializedPage::getSizeInBytes)
                 .sum();
+        receivedBytes += responseSize;
+        receivedUncompressedBytes += pages.stream()
+                .mapToLong(SerializedPage::getUncompressedSizeInBytes)
+                .sum();
         // AVG_n = AVG_(n-1) * (n-1)/n + VALUE_n / n
         averageBytesPerRequest = (long) (1.0 * averageBytesPerRequest * (successfulRequests - 1) / successfulRequests + responseSize / successfulRequests);
 
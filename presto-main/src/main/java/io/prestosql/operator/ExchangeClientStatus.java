@@ -31,6 +31,9 @@ public class ExchangeClientStatus
     private final long averageBytesPerRequest;
     private final long successfulRequestsCount;
     private final int bufferedPages;
+    private final long receivedBytes;
+    private final long receivedUncompressedBytes;
+    private final long decompressionNanos;
     private final boolean noMoreLocations;
     private final List<PageBufferClientStatus> pageBufferClientStatuses;
 
@@ -41,6 +44,9 @@ public class ExchangeClientStatus
             @JsonProperty("averageBytesPerRequest") long averageBytesPerRequest,
             @JsonProperty("successfulRequestsCount") long successFullRequestsCount,
             @JsonProperty("bufferedPages") int bufferedPages,
+            @JsonProperty("receivedBytes") long receivedBytes,
+            @JsonProperty("receivedUncompressedBytes") long receivedUncompressedBytes,
+            @JsonProperty("decompressionNanos") long decompressionNanos,
             @JsonProperty("noMoreLocations") boolean noMoreLocations,
             @JsonProperty("pageBufferClientStatuses") List<PageBufferClientStatus> pageBufferClientStatuses)
     {
@@ -49,6 +55,9 @@ public class ExchangeClientStatus
         this.averageBytesPerRequest = averageBytesPerRequest;
         this.successfulRequestsCount = successFullRequestsCount;
         this.bufferedPages = bufferedPages;
+        this.receivedBytes = receivedBytes;
+        this.receivedUncompressedBytes = receivedUncompressedBytes;
+        this.decompressionNanos = decompressionNanos;
         this.noMoreLocations = noMoreLocations;
         this.pageBufferClientStatuses = ImmutableList.copyOf(requireNonNull(pageBufferClientStatuses, "pageBufferClientStatuses is null"));
     }
@@ -83,6 +92,27 @@ public class ExchangeClientStatus
         return bufferedPages;
     }
 
+    /**
+     * Size of the received pages as sent over the network, i.e. compressed
+     */
+    @JsonProperty
+    public long getReceivedBytes()
+    {
+        return receivedBytes;
+    }
+
+    @JsonProperty
+    public long getReceivedUncompressedBytes()
+    {
+        return receivedUncompressedBytes;
+    }
+
+    @JsonProperty
+    public long getDecompressionNanos()
+    {
+        return decompressionNanos;
+    }
+
     @JsonProperty
     public boolean isNoMoreLocations()
     {
@@ -110,6 +140,9 @@ public class ExchangeClientStatus
                 .add("averageBytesPerRequest", averageBytesPerRequest)
                 .add("successfulRequestsCount", successfulRequestsCount)
                 .add("bufferedPages", bufferedPages)
+                .add("receivedBytes", receivedBytes)
+                .add("receivedUncompressedBytes", receivedUncompressedBytes)
+                .add("decompressionNanos", decompressionNanos)
                 .add("noMoreLocations", noMoreLocations)
                 .add("pageBufferClientStatuses", pageBufferClientStatuses)
                 .toString();
@@ -124,6 +157,9 @@ public class ExchangeClientStatus
                 mergeAvgs(averageBytesPerRequest, successfulRequestsCount, other.averageBytesPerRequest, other.successfulRequestsCount),
                 successfulRequestsCount + other.successfulRequestsCount,
                 bufferedPages + other.bufferedPages,
+                receivedBytes + other.receivedBytes,
+                receivedUncompressedBytes + other.receivedUncompressedBytes,
+                decompressionNanos + other.decompressionNanos,
                 noMoreLocations && other.noMoreLocations, // if at least one has some locations, mergee has some too
                 ImmutableList.of()); // pageBufferClientStatuses may be long, so we don't want to combine the lists
     }
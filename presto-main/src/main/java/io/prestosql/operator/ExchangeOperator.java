@@ -182,7 +182,9 @@ public class ExchangeOperator
 
         operatorContext.recordNetworkInput(page.getSizeInBytes(), page.getPositionCount());
 
+        long decompressionNanos = serde.getDecompressionNanos();
         Page deserializedPage = serde.deserialize(page);
+        exchangeClient.recordDecompression(serde.getDecompressionNanos() - decompressionNanos);
         operatorContext.recordProcessedInput(deserializedPage.getSizeInBytes(), page.getPositionCount());
 
         return deserializedPage;
@@ -0,0 +1,550 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import io.prestosql.array.LongBigArray;
+import io.prestosql.operator.scalar.CombineHashFunction;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.Type;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.sql.planner.optimizations.HashGenerationOptimizer.INITIAL_HASH_VALUE;
+import static io.prestosql.type.TypeUtils.NULL_HASH_CODE;
+import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Group by hash for several keys whose values are longs that are equal only when their bits are equal.
+ * <p>
+ * The keys of a group are stored as one row of a flat {@code long[]} layout: a value per key followed by
+ * a mask of the null keys. The keys and the hashes of an input page are extracted column by column
+ * before the page is probed, so the per row work is comparing a few longs.
+ */
+public class FixedWidthGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FixedWidthGroupByHash.class).instanceSize();
+
+    private static final float FILL_RATIO = 0.75f;
+    private static final Set<Type> SUPPORTED_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DATE, TIMESTAMP);
+    // one bit of the null mask per key
+    private static final int MAX_KEY_COUNT = Long.SIZE;
+
+    private final List<Type> hashTypes;
+    private final List<Type> types;
+    private final int[] hashChannels;
+    private final Optional<Integer> inputHashChannel;
+    private final int keyCount;
+    private final int rowWidth;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+
+    // the hash table from the hash of the keys to groupIds, with the low byte of the raw hash to skip most unequal rows
+    private int[] groupIdsByHash;
+    private byte[] rawHashByHashPosition;
+
+    // the keys and the raw hash of each group
+    private final LongBigArray rowsByGroupId;
+    private final LongBigArray rawHashByGroupId;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+    // the keys and raw hashes extracted from the page which is being processed
+    private long currentPageRowsSizeInBytes;
+
+    public static boolean isSupported(List<? extends Type> hashTypes)
+    {
+        return !hashTypes.isEmpty() && hashTypes.size() <= MAX_KEY_COUNT && SUPPORTED_TYPES.containsAll(hashTypes);
+    }
+
+    public FixedWidthGroupByHash(List<? extends Type> hashTypes, int[] hashChannels, Optional<Integer> inputHashChannel, int expectedSize, UpdateMemory updateMemory)
+    {
+        this.hashTypes = ImmutableList.copyOf(requireNonNull(hashTypes, "hashTypes is null"));
+        requireNonNull(hashChannels, "hashChannels is null");
+        checkArgument(isSupported(hashTypes), "Unsupported types: %s", hashTypes);
+        checkArgument(hashTypes.size() == hashChannels.length, "hashTypes and hashChannels have different sizes");
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+
+        this.hashChannels = hashChannels.clone();
+        this.inputHashChannel = requireNonNull(inputHashChannel, "inputHashChannel is null");
+        this.types = inputHashChannel.isPresent() ? ImmutableList.copyOf(Iterables.concat(hashTypes, ImmutableList.of(BIGINT))) : this.hashTypes;
+        this.keyCount = hashChannels.length;
+        this.rowWidth = keyCount + 1;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        groupIdsByHash = new int[hashCapacity];
+        Arrays.fill(groupIdsByHash, -1);
+        rawHashByHashPosition = new byte[hashCapacity];
+
+        rowsByGroupId = new LongBigArray();
+        rowsByGroupId.ensureCapacity((long) maxFill * rowWidth);
+        rawHashByGroupId = new LongBigArray();
+        rawHashByGroupId.ensureCapacity(maxFill);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                sizeOf(groupIdsByHash) +
+                sizeOf(rawHashByHashPosition) +
+                rowsByGroupId.sizeOf() +
+                rawHashByGroupId.sizeOf() +
+                currentPageRowsSizeInBytes +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        checkArgument(groupId >= 0, "groupId is negative");
+        long rowOffset = (long) groupId * rowWidth;
+        long nullMask = rowsByGroupId.get(rowOffset + keyCount);
+        for (int key = 0; key < keyCount; key++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + key);
+            if ((nullMask & (1L << key)) != 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                hashTypes.get(key).writeLong(blockBuilder, rowsByGroupId.get(rowOffset + key));
+            }
+        }
+        if (inputHashChannel.isPresent()) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + keyCount), rawHashByGroupId.get(groupId));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        PageRows rows = new PageRows(page);
+        currentPageRowsSizeInBytes = rows.getRetainedSizeInBytes();
+        return new AddPageWork(rows);
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        PageRows rows = new PageRows(page);
+        currentPageRowsSizeInBytes = rows.getRetainedSizeInBytes();
+        return new GetGroupIdsWork(rows);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        long rawHash = INITIAL_HASH_VALUE;
+        for (int key = 0; key < keyCount; key++) {
+            Block block = page.getBlock(hashChannels[key]);
+            long hash = block.isNull(position) ? NULL_HASH_CODE : hashTypes.get(key).hash(block, position);
+            rawHash = CombineHashFunction.getHash(rawHash, hash);
+        }
+        return contains(position, page, hashChannels, rawHash);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        long[] row = new long[rowWidth];
+        extractRow(page, hashChannels, position, row);
+        return findGroupId(row, 0, rawHash, (int) getHashPosition(rawHash, mask)) >= 0;
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return rawHashByGroupId.get(groupId);
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private void extractRow(Page page, int[] channels, int position, long[] row)
+    {
+        long nullMask = 0;
+        for (int key = 0; key < keyCount; key++) {
+            Block block = page.getBlock(channels[key]);
+            if (block.isNull(position)) {
+                nullMask |= 1L << key;
+            }
+            else {
+                row[key] = hashTypes.get(key).getLong(block, position);
+            }
+        }
+        row[keyCount] = nullMask;
+    }
+
+    private int putIfAbsent(PageRows rows, int position)
+    {
+        long rawHash = rows.rawHashes[position];
+        int rowOffset = position * rowWidth;
+        int hashPosition = (int) getHashPosition(rawHash, mask);
+
+        // look for an empty slot or a slot containing this key
+        while (groupIdsByHash[hashPosition] != -1) {
+            int groupId = groupIdsByHash[hashPosition];
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowEquals(groupId, rows.rows, rowOffset)) {
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+
+        return addNewGroup(hashPosition, rows.rows, rowOffset, rawHash);
+    }
+
+    private int findGroupId(long[] rows, int rowOffset, long rawHash, int hashPosition)
+    {
+        // look for a slot containing this key
+        while (groupIdsByHash[hashPosition] != -1) {
+            int groupId = groupIdsByHash[hashPosition];
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowEquals(groupId, rows, rowOffset)) {
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean rowEquals(int groupId, long[] rows, int rowOffset)
+    {
+        long groupOffset = (long) groupId * rowWidth;
+        for (int i = 0; i < rowWidth; i++) {
+            if (rowsByGroupId.get(groupOffset + i) != rows[rowOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addNewGroup(int hashPosition, long[] rows, int rowOffset, long rawHash)
+    {
+        // record group id in hash
+        int groupId = nextGroupId++;
+
+        long groupOffset = (long) groupId * rowWidth;
+        for (int i = 0; i < rowWidth; i++) {
+            rowsByGroupId.set(groupOffset + i, rows[rowOffset + i]);
+        }
+        rawHashByGroupId.set(groupId, rawHash);
+        groupIdsByHash[hashPosition] = groupId;
+        rawHashByHashPosition[hashPosition] = (byte) rawHash;
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new PrestoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for groupIdsByHash, rawHashByHashPosition, rowsByGroupId and rawHashByGroupId as well as the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Integer.BYTES + Byte.BYTES) +
+                (calculateMaxFill(newCapacity) - maxFill) * (long) (rowWidth + 1) * Long.BYTES +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        int[] newGroupIds = new int[newCapacity];
+        Arrays.fill(newGroupIds, -1);
+        byte[] newRawHashes = new byte[newCapacity];
+
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = rawHashByGroupId.get(groupId);
+
+            // find an empty slot for the group
+            int hashPosition = (int) getHashPosition(rawHash, newMask);
+            while (newGroupIds[hashPosition] != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+
+            // record the mapping
+            newGroupIds[hashPosition] = groupId;
+            newRawHashes[hashPosition] = (byte) rawHash;
+        }
+
+        mask = newMask;
+        hashCapacity = newCapacity;
+        maxFill = calculateMaxFill(hashCapacity);
+        groupIdsByHash = newGroupIds;
+        rawHashByHashPosition = newRawHashes;
+
+        rowsByGroupId.ensureCapacity((long) maxFill * rowWidth);
+        rawHashByGroupId.ensureCapacity(maxFill);
+        return true;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private static long getHashPosition(long rawHash, int mask)
+    {
+        return murmurHash3(rawHash) & mask;
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    /**
+     * The keys and the raw hashes of all rows of a page, extracted one column at a time.
+     */
+    private class PageRows
+    {
+        private final int positionCount;
+        private final long[] rows;
+        private final long[] rawHashes;
+
+        public PageRows(Page page)
+        {
+            positionCount = page.getPositionCount();
+            rows = new long[positionCount * rowWidth];
+            rawHashes = new long[positionCount];
+
+            // the hash is combined from the hashes of the keys the same way as InterpretedHashGenerator does, unless it is precomputed
+            boolean computeHash = !inputHashChannel.isPresent();
+            if (computeHash) {
+                Arrays.fill(rawHashes, INITIAL_HASH_VALUE);
+            }
+            for (int key = 0; key < keyCount; key++) {
+                Type type = hashTypes.get(key);
+                Block block = page.getBlock(hashChannels[key]);
+                long nullBit = 1L << key;
+                boolean mayHaveNull = block.mayHaveNull();
+                for (int position = 0; position < positionCount; position++) {
+                    int rowOffset = position * rowWidth;
+                    if (mayHaveNull && block.isNull(position)) {
+                        rows[rowOffset + keyCount] |= nullBit;
+                        if (computeHash) {
+                            rawHashes[position] = CombineHashFunction.getHash(rawHashes[position], NULL_HASH_CODE);
+                        }
+                    }
+                    else {
+                        rows[rowOffset + key] = type.getLong(block, position);
+                        if (computeHash) {
+                            rawHashes[position] = CombineHashFunction.getHash(rawHashes[position], type.hash(block, position));
+                        }
+                    }
+                }
+            }
+            if (!computeHash) {
+                Block hashBlock = page.getBlock(inputHashChannel.get());
+                for (int position = 0; position < positionCount; position++) {
+                    rawHashes[position] = BIGINT.getLong(hashBlock, position);
+                }
+            }
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return sizeOf(rows) + sizeOf(rawHashes);
+        }
+    }
+
+    private boolean isFinished(PageRows rows, int lastPosition)
+    {
+        if (lastPosition < rows.positionCount) {
+            return false;
+        }
+        // the extracted rows are not used after the last position is processed
+        currentPageRowsSizeInBytes = 0;
+        return true;
+    }
+
+    private class AddPageWork
+            implements Work<Void>
+    {
+        private final PageRows rows;
+
+        private int lastPosition;
+
+        public AddPageWork(PageRows rows)
+        {
+            this.rows = requireNonNull(rows, "rows is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = rows.positionCount;
+            checkState(lastPosition <= positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // get the group for the current row
+                putIfAbsent(rows, lastPosition);
+                lastPosition++;
+            }
+            return isFinished(rows, lastPosition);
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final BlockBuilder blockBuilder;
+        private final PageRows rows;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetGroupIdsWork(PageRows rows)
+        {
+            this.rows = requireNonNull(rows, "rows is null");
+            // we know the exact size required for the block
+            this.blockBuilder = BIGINT.createFixedSizeBlockBuilder(rows.positionCount);
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = rows.positionCount;
+            checkState(lastPosition <= positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                BIGINT.writeLong(blockBuilder, putIfAbsent(rows, lastPosition));
+                lastPosition++;
+            }
+            return isFinished(rows, lastPosition);
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == rows.positionCount, "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, blockBuilder.build());
+        }
+    }
+}
@@ -17,9 +17,14 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.ExceededMemoryLimitException;
 import io.prestosql.execution.Lifespan;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.SingleStreamSpiller;
 import io.prestosql.spiller.SingleStreamSpillerFactory;
 import io.prestosql.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
@@ -30,6 +35,7 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,10 +47,17 @@ import java.util.Queue;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.allAsList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.airlift.concurrent.MoreFutures.getDone;
+import static io.airlift.concurrent.MoreFutures.whenAnyComplete;
+import static io.airlift.units.DataSize.succinctBytes;
+import static io.prestosql.SystemSessionProperties.SPILL_JOIN_FAN_OUT;
 import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -68,6 +81,7 @@ public class HashBuilderOperator
         private final int expectedPositions;
         private final boolean spillEnabled;
         private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+        private final int partitionsPerOperator;
 
         private final Map<Lifespan, Integer> partitionIndexManager = new HashMap<>();
 
@@ -87,12 +101,51 @@ public class HashBuilderOperator
                 PagesIndex.Factory pagesIndexFactory,
                 boolean spillEnabled,
                 SingleStreamSpillerFactory singleStreamSpillerFactory)
+        {
+            this(
+                    operatorId,
+                    planNodeId,
+                    lookupSourceFactoryManager,
+                    outputChannels,
+                    hashChannels,
+                    preComputedHashChannel,
+                    filterFunctionFactory,
+                    sortChannel,
+                    searchFunctionFactories,
+                    expectedPositions,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    singleStreamSpillerFactory,
+                    1);
+        }
+
+        /**
+         * @param partitionsPerOperator number of lookup source partitions built by each operator;
+         * the lookup source factory must have this many partitions per operator
+         */
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager,
+                List<Integer> outputChannels,
+                List<Integer> hashChannels,
+                OptionalInt preComputedHashChannel,
+                Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+                Optional<Integer> sortChannel,
+                List<JoinFilterFunctionFactory> searchFunctionFactories,
+                int expectedPositions,
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                SingleStreamSpillerFactory singleStreamSpillerFactory,
+                int partitionsPerOperator)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
             requireNonNull(sortChannel, "sortChannel can not be null");
             requireNonNull(searchFunctionFactories, "searchFunctionFactories is null");
             checkArgument(sortChannel.isPresent() != searchFunctionFactories.isEmpty(), "both or none sortChannel and searchFunctionFactories must be set");
+            checkArgument(Integer.bitCount(partitionsPerOperator) == 1, "partitionsPerOperator must be a power of 2");
+            checkArgument(partitionsPerOperator == 1 || spillEnabled, "multiple partitions per operator require spill to be enabled");
             this.lookupSourceFactoryManager = requireNonNull(lookupSourceFactoryManager, "lookupSourceFactoryManager is null");
 
             this.outputChannels = ImmutableList.copyOf(requireNonNull(outputChannels, "outputChannels is null"));
@@ -104,6 +157,7 @@ public class HashBuilderOperator
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
             this.spillEnabled = spillEnabled;
             this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+            this.partitionsPerOperator = partitionsPerOperator;
 
             this.expectedPositions = expectedPositions;
         }
@@ -116,7 +170,7 @@ public class HashBuilderOperator
 
             PartitionedLookupSourceFactory lookupSourceFactory = this.lookupSourceFactoryManager.getJoinBridge(driverContext.getLifespan());
             int partitionIndex = getAndIncrementPartitionIndex(driverContext.getLifespan());
-            verify(partitionIndex < lookupSourceFactory.partitions());
+            verify(partitionIndex < lookupSourceFactory.partitions() / partitionsPerOperator);
             return new HashBuilderOperator(
                     operatorContext,
                     lookupSourceFactory,
@@ -130,7 +184,8 @@ public class HashBuilderOperator
                     expectedPositions,
                     pagesIndexFactory,
                     spillEnabled,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    partitionsPerOperator);
         }
 
         @Override
@@ -151,6 +206,10 @@ public class HashBuilderOperator
         }
     }
 
+    /**
+     * State of a single lookup source partition. The state of the operator is derived
+     * from the states of its partitions, see {@link #getState()}.
+     */
     @VisibleForTesting
     public enum State
     {
@@ -191,13 +250,14 @@ public class HashBuilderOperator
     }
 
     private static final double INDEX_COMPACTION_ON_REVOCATION_TARGET = 0.8;
+    // fraction of the revocable memory of the operator that is spilled on revocation, starting with the largest partitions
+    private static final double SPILLED_FRACTION_ON_REVOCATION = 0.5;
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
     private final LocalMemoryContext localRevocableMemoryContext;
     private final PartitionedLookupSourceFactory lookupSourceFactory;
     private final ListenableFuture<?> lookupSourceFactoryDestroyed;
-    private final int partitionIndex;
 
     private final List<Integer> outputChannels;
     private final List<Integer> hashChannels;
@@ -206,22 +266,18 @@ public class HashBuilderOperator
     private final Optional<Integer> sortChannel;
     private final List<JoinFilterFunctionFactory> searchFunctionFactories;
 
-    private final PagesIndex index;
-
     private final boolean spillEnabled;
     private final SingleStreamSpillerFactory singleStreamSpillerFactory;
 
     private final HashCollisionsCounter hashCollisionsCounter;
 
-    private State state = State.CONSUMING_INPUT;
-    private Optional<ListenableFuture<?>> lookupSourceNotNeeded = Optional.empty();
-    private final SpilledLookupSourceHandle spilledLookupSourceHandle = new SpilledLookupSourceHandle();
-    private Optional<SingleStreamSpiller> spiller = Optional.empty();
-    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
-    private Optional<ListenableFuture<List<Page>>> unspillInProgress = Optional.empty();
-    @Nullable
-    private LookupSourceSupplier lookupSourceSupplier;
-    private OptionalLong lookupSourceChecksum = OptionalLong.empty();
+    private final List<BuildPartition> partitions;
+    // assigns the input positions to the partitions when the operator builds more than one partition
+    private final Optional<LocalPartitionGenerator> partitionGenerator;
+    private final int operatorCountBits;
+
+    private boolean finishing;
+    private boolean closed;
 
     private Optional<Runnable> finishMemoryRevoke = Optional.empty();
 
@@ -239,18 +295,51 @@ public class HashBuilderOperator
             PagesIndex.Factory pagesIndexFactory,
             boolean spillEnabled,
             SingleStreamSpillerFactory singleStreamSpillerFactory)
+    {
+        this(
+                operatorContext,
+                lookupSourceFactory,
+                partitionIndex,
+                outputChannels,
+                hashChannels,
+                preComputedHashChannel,
+                filterFunctionFactory,
+                sortChannel,
+                searchFunctionFactories,
+                expectedPositions,
+                pagesIndexFactory,
+                spillEnabled,
+                singleStreamSpillerFactory,
+                1);
+    }
+
+    public HashBuilderOperator(
+            OperatorContext operatorContext,
+            PartitionedLookupSourceFactory lookupSourceFactory,
+            int partitionIndex,
+            List<Integer> outputChannels,
+            List<Integer> hashChannels,
+            OptionalInt preComputedHashChannel,
+            Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+            Optional<Integer> sortChannel,
+            List<JoinFilterFunctionFactory> searchFunctionFactories,
+            int expectedPositions,
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            int partitionsPerOperator)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+        checkArgument(Integer.bitCount(partitionsPerOperator) == 1, "partitionsPerOperator must be a power of 2");
+        checkArgument(lookupSourceFactory.partitions() % partitionsPerOperator == 0, "lookup source partitions are not a multiple of partitionsPerOperator");
 
         this.operatorContext = operatorContext;
-        this.partitionIndex = partitionIndex;
         this.filterFunctionFactory = filterFunctionFactory;
         this.sortChannel = sortChannel;
         this.searchFunctionFactories = searchFunctionFactories;
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
         this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
-        this.index = pagesIndexFactory.newPagesIndex(lookupSourceFactory.getTypes(), expectedPositions);
         this.lookupSourceFactory = lookupSourceFactory;
         lookupSourceFactoryDestroyed = lookupSourceFactory.isDestroyed();
 
@@ -263,6 +352,31 @@ public class HashBuilderOperator
 
         this.spillEnabled = spillEnabled;
         this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+
+        // The operator receives the rows of the lookup source partitions that are equal to partitionIndex modulo
+        // the operator count, because the local exchange and the lookup source use the same hash.
+        int operatorCount = lookupSourceFactory.partitions() / partitionsPerOperator;
+        this.operatorCountBits = Integer.numberOfTrailingZeros(operatorCount);
+        ImmutableList.Builder<BuildPartition> partitions = ImmutableList.builder();
+        for (int i = 0; i < partitionsPerOperator; i++) {
+            partitions.add(new BuildPartition(
+                    partitionIndex + i * operatorCount,
+                    pagesIndexFactory.newPagesIndex(lookupSourceFactory.getTypes(), Math.max(expectedPositions / partitionsPerOperator, 1))));
+        }
+        this.partitions = partitions.build();
+
+        if (partitionsPerOperator > 1) {
+            List<Type> hashChannelTypes = hashChannels.stream()
+                    .map(lookupSourceFactory.getTypes()::get)
+                    .collect(toImmutableList());
+            HashGenerator hashGenerator = preComputedHashChannel.isPresent()
+                    ? new PrecomputedHashGenerator(preComputedHashChannel.getAsInt())
+                    : new InterpretedHashGenerator(hashChannelTypes, hashChannels);
+            this.partitionGenerator = Optional.of(new LocalPartitionGenerator(hashGenerator, lookupSourceFactory.partitions()));
+        }
+        else {
+            this.partitionGenerator = Optional.empty();
+        }
     }
 
     @Override
@@ -271,47 +385,121 @@ public class HashBuilderOperator
         return operatorContext;
     }
 
+    /**
+     * Returns the state of the operator. When the operator builds more than one partition, this is the state
+     * of the partition which is furthest along the spilling path, e.g. {@link State#INPUT_SPILLED} when some
+     * partitions are spilled and the others are in memory. Every state has a distinct priority, so the result
+     * does not depend on the order of the partitions.
+     */
     @VisibleForTesting
     public State getState()
     {
+        if (closed) {
+            return State.CLOSED;
+        }
+        State state = State.CLOSED;
+        for (BuildPartition partition : partitions) {
+            if (partition.state == State.CLOSED) {
+                continue;
+            }
+            if (state == State.CLOSED || getStatePriority(partition.state) > getStatePriority(state)) {
+                state = partition.state;
+            }
+        }
         return state;
     }
 
-    @Override
-    public ListenableFuture<?> isBlocked()
+    @VisibleForTesting
+    List<State> getPartitionStates()
+    {
+        return partitions.stream()
+                .map(partition -> partition.state)
+                .collect(toImmutableList());
+    }
+
+    /**
+     * Spilled states rank above in memory ones, and a partition which still waits to be unspilled ranks above
+     * a partition which is already unspilled.
+     */
+    private static int getStatePriority(State state)
     {
         switch (state) {
             case CONSUMING_INPUT:
-                return NOT_BLOCKED;
-
-            case SPILLING_INPUT:
-                return spillInProgress;
-
+                return 0;
             case LOOKUP_SOURCE_BUILT:
-                return lookupSourceNotNeeded.orElseThrow(() -> new IllegalStateException("Lookup source built, but disposal future not set"));
-
+                return 1;
+            case SPILLING_INPUT:
+                return 2;
+            case INPUT_UNSPILLED_AND_BUILT:
+                return 3;
             case INPUT_SPILLED:
-                return spilledLookupSourceHandle.getUnspillingOrDisposeRequested();
-
+                return 4;
             case INPUT_UNSPILLING:
-                return unspillInProgress.orElseThrow(() -> new IllegalStateException("Unspilling in progress, but unspilling future not set"));
+                return 5;
+            case CLOSED:
+                return -1;
+        }
+        throw new IllegalStateException("Unhandled state: " + state);
+    }
 
-            case INPUT_UNSPILLED_AND_BUILT:
-                return spilledLookupSourceHandle.getDisposeRequested();
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (closed) {
+            return NOT_BLOCKED;
+        }
 
-            case CLOSED:
+        if (!finishing) {
+            // input is only accepted when the spills of all the partitions are done
+            List<ListenableFuture<?>> spillsInProgress = partitions.stream()
+                    .filter(partition -> partition.state == State.SPILLING_INPUT)
+                    .map(partition -> partition.spillInProgress)
+                    .filter(spill -> !spill.isDone())
+                    .collect(toImmutableList());
+            if (spillsInProgress.isEmpty()) {
                 return NOT_BLOCKED;
+            }
+            if (spillsInProgress.size() == 1) {
+                return spillsInProgress.get(0);
+            }
+            return nonCancellationPropagating(allAsList(spillsInProgress));
         }
-        throw new IllegalStateException("Unhandled state: " + state);
+
+        // after the input is finished any partition which can make progress unblocks the operator
+        List<ListenableFuture<?>> blocked = new ArrayList<>();
+        for (BuildPartition partition : partitions) {
+            if (partition.state == State.CLOSED) {
+                continue;
+            }
+            ListenableFuture<?> partitionBlocked = partition.isBlocked();
+            if (partitionBlocked.isDone()) {
+                return NOT_BLOCKED;
+            }
+            blocked.add(partitionBlocked);
+        }
+        if (blocked.isEmpty()) {
+            return NOT_BLOCKED;
+        }
+        if (blocked.size() == 1) {
+            return blocked.get(0);
+        }
+        return nonCancellationPropagating(whenAnyComplete(blocked));
     }
 
     @Override
     public boolean needsInput()
     {
-        boolean stateNeedsInput = (state == State.CONSUMING_INPUT)
-                || (state == State.SPILLING_INPUT && spillInProgress.isDone());
-
-        return stateNeedsInput && !lookupSourceFactoryDestroyed.isDone();
+        if (finishing || closed || lookupSourceFactoryDestroyed.isDone()) {
+            return false;
+        }
+        for (BuildPartition partition : partitions) {
+            boolean partitionNeedsInput = (partition.state == State.CONSUMING_INPUT)
+                    || (partition.state == State.SPILLING_INPUT && partition.spillInProgress.isDone());
+            if (!partitionNeedsInput) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -324,36 +512,56 @@ public class HashBuilderOperator
             return;
         }
 
-        if (state == State.SPILLING_INPUT) {
-            spillInput(page);
-            return;
+        if (!partitionGenerator.isPresent()) {
+            partitions.get(0).addInput(page);
+        }
+        else {
+            addPartitionedInput(page, partitionGenerator.get());
         }
 
-        checkState(state == State.CONSUMING_INPUT);
-        updateIndex(page);
+        if (spillEnabled) {
+            updateMemory();
+        }
     }
 
-    private void updateIndex(Page page)
+    private void addPartitionedInput(Page page, LocalPartitionGenerator partitionGenerator)
     {
-        index.addPage(page);
+        int positionCount = page.getPositionCount();
+        int[] positionPartitions = new int[positionCount];
+        int[] partitionOffsets = new int[partitions.size() + 1];
+        for (int position = 0; position < positionCount; position++) {
+            int partition = partitionGenerator.getPartition(page, position) >>> operatorCountBits;
+            positionPartitions[position] = partition;
+            partitionOffsets[partition + 1]++;
+        }
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
 
-        if (spillEnabled) {
-            localRevocableMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        // group the positions by partition
+        int[] positions = new int[positionCount];
+        int[] nextPositions = partitionOffsets.clone();
+        for (int position = 0; position < positionCount; position++) {
+            positions[nextPositions[positionPartitions[position]]++] = position;
         }
-        else {
-            if (!localUserMemoryContext.trySetBytes(index.getEstimatedSize().toBytes())) {
-                index.compact();
-                localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            int offset = partitionOffsets[partition];
+            int length = partitionOffsets[partition + 1] - offset;
+            if (length == 0) {
+                continue;
+            }
+            if (length == positionCount) {
+                partitions.get(partition).addInput(page);
+                continue;
             }
+            // copy the positions, so that the partitions do not retain the whole page
+            Block[] blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = page.getBlock(channel).copyPositions(positions, offset, length);
+            }
+            partitions.get(partition).addInput(new Page(length, blocks));
         }
-        operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
-    }
-
-    private void spillInput(Page page)
-    {
-        checkState(spillInProgress.isDone(), "Previous spill still in progress");
-        checkSuccess(spillInProgress, "spilling failed");
-        spillInProgress = getSpiller().spill(page);
     }
 
     @Override
@@ -361,54 +569,62 @@ public class HashBuilderOperator
     {
         checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
 
-        if (state == State.CONSUMING_INPUT) {
-            long indexSizeBeforeCompaction = index.getEstimatedSize().toBytes();
-            index.compact();
-            long indexSizeAfterCompaction = index.getEstimatedSize().toBytes();
+        List<BuildPartition> consumingPartitions = partitions.stream()
+                .filter(partition -> partition.state == State.CONSUMING_INPUT)
+                .collect(toImmutableList());
+        if (!consumingPartitions.isEmpty()) {
+            long indexSizeBeforeCompaction = 0;
+            long indexSizeAfterCompaction = 0;
+            for (BuildPartition partition : consumingPartitions) {
+                indexSizeBeforeCompaction += partition.index.getEstimatedSize().toBytes();
+                partition.index.compact();
+                indexSizeAfterCompaction += partition.index.getEstimatedSize().toBytes();
+            }
             if (indexSizeAfterCompaction < indexSizeBeforeCompaction * INDEX_COMPACTION_ON_REVOCATION_TARGET) {
                 finishMemoryRevoke = Optional.of(() -> {});
                 return immediateFuture(null);
             }
+        }
+
+        List<BuildPartition> revocablePartitions = partitions.stream()
+                .filter(partition -> partition.state == State.CONSUMING_INPUT || partition.state == State.LOOKUP_SOURCE_BUILT)
+                .sorted(comparingLong(BuildPartition::getRevocableBytes).reversed())
+                .collect(toImmutableList());
+        if (revocablePartitions.isEmpty()) {
+            if (operatorContext.getReservedRevocableBytes() == 0) {
+                // Probably stale revoking request
+                finishMemoryRevoke = Optional.of(() -> {});
+                return immediateFuture(null);
+            }
+            throw new IllegalStateException(format("State %s can not have revocable memory, but has %s revocable bytes", getState(), operatorContext.getReservedRevocableBytes()));
+        }
 
-            finishMemoryRevoke = Optional.of(() -> {
-                index.clear();
-                localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
-                localRevocableMemoryContext.setBytes(0);
-                lookupSourceFactory.setPartitionSpilledLookupSourceHandle(partitionIndex, spilledLookupSourceHandle);
-                state = State.SPILLING_INPUT;
-            });
-            return spillIndex();
-        }
-        if (state == State.LOOKUP_SOURCE_BUILT) {
-            finishMemoryRevoke = Optional.of(() -> {
-                lookupSourceFactory.setPartitionSpilledLookupSourceHandle(partitionIndex, spilledLookupSourceHandle);
-                lookupSourceNotNeeded = Optional.empty();
-                index.clear();
-                localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
-                localRevocableMemoryContext.setBytes(0);
-                lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
-                lookupSourceSupplier = null;
-                state = State.INPUT_SPILLED;
-            });
-            return spillIndex();
-        }
-        if (operatorContext.getReservedRevocableBytes() == 0) {
-            // Probably stale revoking request
-            finishMemoryRevoke = Optional.of(() -> {});
-            return immediateFuture(null);
-        }
-
-        throw new IllegalStateException(format("State %s can not have revocable memory, but has %s revocable bytes", state, operatorContext.getReservedRevocableBytes()));
-    }
+        // Spill the largest partitions only, the remaining partitions are joined in memory.
+        // The memory revoking scheduler requests revoking again if this does not free enough memory.
+        long revocableBytes = revocablePartitions.stream()
+                .mapToLong(BuildPartition::getRevocableBytes)
+                .sum();
+        List<BuildPartition> spilledPartitions = new ArrayList<>();
+        long spilledBytes = 0;
+        for (BuildPartition partition : revocablePartitions) {
+            if (!spilledPartitions.isEmpty() && spilledBytes >= revocableBytes * SPILLED_FRACTION_ON_REVOCATION) {
+                break;
+            }
+            spilledPartitions.add(partition);
+            spilledBytes += partition.getRevocableBytes();
+        }
 
-    private ListenableFuture<?> spillIndex()
-    {
-        checkState(!spiller.isPresent(), "Spiller already created");
-        spiller = Optional.of(singleStreamSpillerFactory.create(
-                index.getTypes(),
-                operatorContext.getSpillContext().newLocalSpillContext(),
-                operatorContext.newLocalSystemMemoryContext(HashBuilderOperator.class.getSimpleName())));
-        return getSpiller().spill(index.getPages());
+        List<ListenableFuture<?>> spills = spilledPartitions.stream()
+                .map(BuildPartition::startMemoryRevoke)
+                .collect(toImmutableList());
+        finishMemoryRevoke = Optional.of(() -> {
+            spilledPartitions.forEach(BuildPartition::finishMemoryRevoke);
+            updateMemory();
+        });
+        if (spills.size() == 1) {
+            return spills.get(0);
+        }
+        return allAsList(spills);
     }
 
     @Override
@@ -437,199 +653,403 @@ public class HashBuilderOperator
             return;
         }
 
-        switch (state) {
-            case CONSUMING_INPUT:
-                finishInput();
-                return;
-
-            case LOOKUP_SOURCE_BUILT:
-                disposeLookupSourceIfRequested();
-                return;
-
-            case SPILLING_INPUT:
-                finishSpilledInput();
-                return;
-
-            case INPUT_SPILLED:
-                if (spilledLookupSourceHandle.getDisposeRequested().isDone()) {
-                    close();
-                }
-                else {
-                    unspillLookupSourceIfRequested();
-                }
-                return;
-
-            case INPUT_UNSPILLING:
-                finishLookupSourceUnspilling();
-                return;
-
-            case INPUT_UNSPILLED_AND_BUILT:
-                disposeUnspilledLookupSourceIfRequested();
-                return;
-
-            case CLOSED:
-                // no-op
+        finishing = true;
+        for (BuildPartition partition : partitions) {
+            if (closed) {
                 return;
+            }
+            partition.finish();
         }
-
-        throw new IllegalStateException("Unhandled state: " + state);
     }
 
-    private void finishInput()
+    @Override
+    public boolean isFinished()
     {
-        checkState(state == State.CONSUMING_INPUT);
         if (lookupSourceFactoryDestroyed.isDone()) {
+            // Finish early when the probe side is empty
             close();
-            return;
-        }
-
-        LookupSourceSupplier partition = buildLookupSource();
-        if (spillEnabled) {
-            localRevocableMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
-        }
-        else {
-            localUserMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
+            return true;
         }
-        lookupSourceNotNeeded = Optional.of(lookupSourceFactory.lendPartitionLookupSource(partitionIndex, partition));
 
-        state = State.LOOKUP_SOURCE_BUILT;
+        return getState() == State.CLOSED;
     }
 
-    private void disposeLookupSourceIfRequested()
+    private void updateMemory()
     {
-        checkState(state == State.LOOKUP_SOURCE_BUILT);
-        verify(lookupSourceNotNeeded.isPresent());
-        if (!lookupSourceNotNeeded.get().isDone()) {
-            return;
+        long userBytes = 0;
+        long revocableBytes = 0;
+        for (BuildPartition partition : partitions) {
+            userBytes += partition.userBytes;
+            revocableBytes += partition.revocableBytes;
         }
-
-        index.clear();
-        localRevocableMemoryContext.setBytes(0);
-        localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
-        lookupSourceSupplier = null;
-        close();
+        localUserMemoryContext.setBytes(userBytes);
+        localRevocableMemoryContext.setBytes(revocableBytes);
     }
 
-    private void finishSpilledInput()
+    @Override
+    public void close()
     {
-        checkState(state == State.SPILLING_INPUT);
-        if (!spillInProgress.isDone()) {
-            // Not ready to handle finish() yet
+        if (closed) {
             return;
         }
-        checkSuccess(spillInProgress, "spilling failed");
-        state = State.INPUT_SPILLED;
+        // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
+
+        closed = true;
+        finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
+
+        try (Closer closer = Closer.create()) {
+            for (BuildPartition partition : partitions) {
+                closer.register(partition::close);
+            }
+            closer.register(() -> localUserMemoryContext.setBytes(0));
+            closer.register(() -> localRevocableMemoryContext.setBytes(0));
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    private void unspillLookupSourceIfRequested()
+    /**
+     * Builds, spills and unspills a single partition of the lookup source.
+     */
+    private class BuildPartition
     {
-        checkState(state == State.INPUT_SPILLED);
-        if (!spilledLookupSourceHandle.getUnspillingRequested().isDone()) {
-            // Nothing to do yet.
-            return;
+        private final int lookupSourcePartition;
+        private final PagesIndex index;
+
+        private State state = State.CONSUMING_INPUT;
+        private Optional<ListenableFuture<?>> lookupSourceNotNeeded = Optional.empty();
+        private final SpilledLookupSourceHandle spilledLookupSourceHandle = new SpilledLookupSourceHandle();
+        private Optional<SingleStreamSpiller> spiller = Optional.empty();
+        private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+        private Optional<ListenableFuture<List<Page>>> unspillInProgress = Optional.empty();
+        @Nullable
+        private LookupSourceSupplier lookupSourceSupplier;
+        private OptionalLong lookupSourceChecksum = OptionalLong.empty();
+
+        private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+
+        private long userBytes;
+        private long revocableBytes;
+
+        BuildPartition(int lookupSourcePartition, PagesIndex index)
+        {
+            this.lookupSourcePartition = lookupSourcePartition;
+            this.index = requireNonNull(index, "index is null");
+        }
+
+        long getRevocableBytes()
+        {
+            if (state == State.CONSUMING_INPUT) {
+                return index.getEstimatedSize().toBytes();
+            }
+            return revocableBytes;
         }
 
-        verify(spiller.isPresent());
-        verify(!unspillInProgress.isPresent());
+        ListenableFuture<?> isBlocked()
+        {
+            switch (state) {
+                case CONSUMING_INPUT:
+                    return NOT_BLOCKED;
 
-        localUserMemoryContext.setBytes(getSpiller().getSpilledPagesInMemorySize() + index.getEstimatedSize().toBytes());
-        unspillInProgress = Optional.of(getSpiller().getAllSpilledPages());
+                case SPILLING_INPUT:
+                    return spillInProgress;
 
-        state = State.INPUT_UNSPILLING;
-    }
+                case LOOKUP_SOURCE_BUILT:
+                    return lookupSourceNotNeeded.orElseThrow(() -> new IllegalStateException("Lookup source built, but disposal future not set"));
 
-    private void finishLookupSourceUnspilling()
-    {
-        checkState(state == State.INPUT_UNSPILLING);
-        if (!unspillInProgress.get().isDone()) {
-            // Pages have not be unspilled yet.
-            return;
+                case INPUT_SPILLED:
+                    return spilledLookupSourceHandle.getUnspillingOrDisposeRequested();
+
+                case INPUT_UNSPILLING:
+                    return unspillInProgress.orElseThrow(() -> new IllegalStateException("Unspilling in progress, but unspilling future not set"));
+
+                case INPUT_UNSPILLED_AND_BUILT:
+                    return spilledLookupSourceHandle.getDisposeRequested();
+
+                case CLOSED:
+                    return NOT_BLOCKED;
+            }
+            throw new IllegalStateException("Unhandled state: " + state);
         }
 
-        // Use Queue so that Pages already consumed by Index are not retained by us.
-        Queue<Page> pages = new ArrayDeque<>(getDone(unspillInProgress.get()));
-        long memoryRetainedByRemainingPages = pages.stream()
-                .mapToLong(Page::getRetainedSizeInBytes)
-                .sum();
-        localUserMemoryContext.setBytes(memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes());
+        void addInput(Page page)
+        {
+            if (state == State.SPILLING_INPUT) {
+                spillInput(page);
+                return;
+            }
 
-        while (!pages.isEmpty()) {
-            Page next = pages.remove();
-            index.addPage(next);
-            // There is no attempt to compact index, since unspilled pages are unlikely to have blocks with retained size > logical size.
-            memoryRetainedByRemainingPages -= next.getRetainedSizeInBytes();
-            localUserMemoryContext.setBytes(memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes());
+            checkState(state == State.CONSUMING_INPUT);
+            updateIndex(page);
         }
 
-        LookupSourceSupplier partition = buildLookupSource();
-        lookupSourceChecksum.ifPresent(checksum ->
-                checkState(partition.checksum() == checksum, "Unspilled lookupSource checksum does not match original one"));
-        localUserMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
+        private void updateIndex(Page page)
+        {
+            index.addPage(page);
 
-        spilledLookupSourceHandle.setLookupSource(partition);
+            if (spillEnabled) {
+                revocableBytes = index.getEstimatedSize().toBytes();
+            }
+            else {
+                if (!localUserMemoryContext.trySetBytes(index.getEstimatedSize().toBytes())) {
+                    index.compact();
+                    localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+                }
+                userBytes = index.getEstimatedSize().toBytes();
+            }
+            operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+        }
 
-        state = State.INPUT_UNSPILLED_AND_BUILT;
-    }
+        private void spillInput(Page page)
+        {
+            checkState(spillInProgress.isDone(), "Previous spill still in progress");
+            checkSuccess(spillInProgress, "spilling failed");
+            spillInProgress = getSpiller().spill(page);
+        }
 
-    private void disposeUnspilledLookupSourceIfRequested()
-    {
-        checkState(state == State.INPUT_UNSPILLED_AND_BUILT);
-        if (!spilledLookupSourceHandle.getDisposeRequested().isDone()) {
-            return;
+        ListenableFuture<?> startMemoryRevoke()
+        {
+            if (state == State.CONSUMING_INPUT) {
+                finishMemoryRevoke = Optional.of(() -> {
+                    index.clear();
+                    userBytes = index.getEstimatedSize().toBytes();
+                    revocableBytes = 0;
+                    lookupSourceFactory.setPartitionSpilledLookupSourceHandle(lookupSourcePartition, spilledLookupSourceHandle);
+                    state = State.SPILLING_INPUT;
+                });
+                return spillIndex();
+            }
+            if (state == State.LOOKUP_SOURCE_BUILT) {
+                finishMemoryRevoke = Optional.of(() -> {
+                    lookupSourceFactory.setPartitionSpilledLookupSourceHandle(lookupSourcePartition, spilledLookupSourceHandle);
+                    lookupSourceNotNeeded = Optional.empty();
+                    index.clear();
+                    userBytes = index.getEstimatedSize().toBytes();
+                    revocableBytes = 0;
+                    lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
+                    lookupSourceSupplier = null;
+                    state = State.INPUT_SPILLED;
+                });
+                return spillIndex();
+            }
+            throw new IllegalStateException(format("State %s can not have revocable memory", state));
         }
 
-        index.clear();
-        localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        private ListenableFuture<?> spillIndex()
+        {
+            checkState(!spiller.isPresent(), "Spiller already created");
+            spiller = Optional.of(singleStreamSpillerFactory.create(
+                    index.getTypes(),
+                    operatorContext.getSpillContext().newLocalSpillContext(),
+                    operatorContext.newLocalSystemMemoryContext(HashBuilderOperator.class.getSimpleName())));
+            return getSpiller().spill(index.getPages());
+        }
 
-        close();
-    }
+        void finishMemoryRevoke()
+        {
+            checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+            finishMemoryRevoke.get().run();
+            finishMemoryRevoke = Optional.empty();
+        }
 
-    private LookupSourceSupplier buildLookupSource()
-    {
-        LookupSourceSupplier partition = index.createLookupSourceSupplier(operatorContext.getSession(), hashChannels, preComputedHashChannel, filterFunctionFactory, sortChannel, searchFunctionFactories, Optional.of(outputChannels));
-        hashCollisionsCounter.recordHashCollision(partition.getHashCollisions(), partition.getExpectedHashCollisions());
-        checkState(lookupSourceSupplier == null, "lookupSourceSupplier is already set");
-        this.lookupSourceSupplier = partition;
-        return partition;
-    }
+        void finish()
+        {
+            switch (state) {
+                case CONSUMING_INPUT:
+                    finishInput();
+                    return;
+
+                case LOOKUP_SOURCE_BUILT:
+                    disposeLookupSourceIfRequested();
+                    return;
+
+                case SPILLING_INPUT:
+                    finishSpilledInput();
+                    return;
+
+                case INPUT_SPILLED:
+                    if (spilledLookupSourceHandle.getDisposeRequested().isDone()) {
+                        close();
+                        updateMemory();
+                    }
+                    else {
+                        unspillLookupSourceIfRequested();
+                    }
+                    return;
+
+                case INPUT_UNSPILLING:
+                    finishLookupSourceUnspilling();
+                    return;
+
+                case INPUT_UNSPILLED_AND_BUILT:
+                    disposeUnspilledLookupSourceIfRequested();
+                    return;
+
+                case CLOSED:
+                    // no-op
+                    return;
+            }
+
+            throw new IllegalStateException("Unhandled state: " + state);
+        }
+
+        private void finishInput()
+        {
+            checkState(state == State.CONSUMING_INPUT);
+
+            LookupSourceSupplier partition = buildLookupSource();
+            if (spillEnabled) {
+                revocableBytes = partition.get().getInMemorySizeInBytes();
+            }
+            else {
+                userBytes = partition.get().getInMemorySizeInBytes();
+            }
+            updateMemory();
+            lookupSourceNotNeeded = Optional.of(lookupSourceFactory.lendPartitionLookupSource(lookupSourcePartition, partition));
+
+            state = State.LOOKUP_SOURCE_BUILT;
+        }
+
+        private void disposeLookupSourceIfRequested()
+        {
+            checkState(state == State.LOOKUP_SOURCE_BUILT);
+            verify(lookupSourceNotNeeded.isPresent());
+            if (!lookupSourceNotNeeded.get().isDone()) {
+                return;
+            }
 
-    @Override
-    public boolean isFinished()
-    {
-        if (lookupSourceFactoryDestroyed.isDone()) {
-            // Finish early when the probe side is empty
             close();
-            return true;
+            updateMemory();
         }
 
-        return state == State.CLOSED;
-    }
+        private void finishSpilledInput()
+        {
+            checkState(state == State.SPILLING_INPUT);
+            if (!spillInProgress.isDone()) {
+                // Not ready to handle finish() yet
+                return;
+            }
+            checkSuccess(spillInProgress, "spilling failed");
+            state = State.INPUT_SPILLED;
+        }
 
-    private SingleStreamSpiller getSpiller()
-    {
-        return spiller.orElseThrow(() -> new IllegalStateException("Spiller not created"));
-    }
+        private void unspillLookupSourceIfRequested()
+        {
+            checkState(state == State.INPUT_SPILLED);
+            if (!spilledLookupSourceHandle.getUnspillingRequested().isDone()) {
+                // Nothing to do yet.
+                return;
+            }
 
-    @Override
-    public void close()
-    {
-        if (state == State.CLOSED) {
-            return;
+            verify(spiller.isPresent());
+            verify(!unspillInProgress.isPresent());
+
+            long spilledBytes = getSpiller().getSpilledPagesInMemorySize();
+            userBytes = spilledBytes + index.getEstimatedSize().toBytes();
+            try {
+                updateMemory();
+            }
+            catch (ExceededMemoryLimitException e) {
+                // Spilled partitions are not repartitioned when they are read back, so a skewed partition can not be joined
+                // keep the error code of the limit which was exceeded
+                throw new PrestoException(
+                        e::getErrorCode,
+                        format("Spilled join build partition %s of %s does not fit in memory, increase %s to make the partitions smaller [%s]",
+                                lookupSourcePartition,
+                                succinctBytes(spilledBytes),
+                                SPILL_JOIN_FAN_OUT,
+                                e.getMessage()),
+                        e);
+            }
+            unspillInProgress = Optional.of(getSpiller().getAllSpilledPages());
+
+            state = State.INPUT_UNSPILLING;
         }
-        // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
 
-        lookupSourceSupplier = null;
-        state = State.CLOSED;
-        finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
+        private void finishLookupSourceUnspilling()
+        {
+            checkState(state == State.INPUT_UNSPILLING);
+            if (!unspillInProgress.get().isDone()) {
+                // Pages have not be unspilled yet.
+                return;
+            }
 
-        try (Closer closer = Closer.create()) {
-            closer.register(index::clear);
-            spiller.ifPresent(closer::register);
-            closer.register(() -> localUserMemoryContext.setBytes(0));
-            closer.register(() -> localRevocableMemoryContext.setBytes(0));
+            // Use Queue so that Pages already consumed by Index are not retained by us.
+            Queue<Page> pages = new ArrayDeque<>(getDone(unspillInProgress.get()));
+            long memoryRetainedByRemainingPages = pages.stream()
+                    .mapToLong(Page::getRetainedSizeInBytes)
+                    .sum();
+            userBytes = memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes();
+            updateMemory();
+
+            while (!pages.isEmpty()) {
+                Page next = pages.remove();
+                index.addPage(next);
+                // There is no attempt to compact index, since unspilled pages are unlikely to have blocks with retained size > logical size.
+                memoryRetainedByRemainingPages -= next.getRetainedSizeInBytes();
+                userBytes = memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes();
+                updateMemory();
+            }
+
+            LookupSourceSupplier partition = buildLookupSource();
+            lookupSourceChecksum.ifPresent(checksum ->
+                    checkState(partition.checksum() == checksum, "Unspilled lookupSource checksum does not match original one"));
+            userBytes = partition.get().getInMemorySizeInBytes();
+            updateMemory();
+
+            spilledLookupSourceHandle.setLookupSource(partition);
+
+            state = State.INPUT_UNSPILLED_AND_BUILT;
         }
-        catch (IOException e) {
-            throw new RuntimeException(e);
+
+        private void disposeUnspilledLookupSourceIfRequested()
+        {
+            checkState(state == State.INPUT_UNSPILLED_AND_BUILT);
+            if (!spilledLookupSourceHandle.getDisposeRequested().isDone()) {
+                return;
+            }
+
+            close();
+            updateMemory();
+        }
+
+        private LookupSourceSupplier buildLookupSource()
+        {
+            LookupSourceSupplier partition = index.createLookupSourceSupplier(operatorContext.getSession(), hashChannels, preComputedHashChannel, filterFunctionFactory, sortChannel, searchFunctionFactories, Optional.of(outputChannels));
+            hashCollisionsCounter.recordHashCollision(partition.getHashCollisions(), partition.getExpectedHashCollisions());
+            checkState(lookupSourceSupplier == null, "lookupSourceSupplier is already set");
+            this.lookupSourceSupplier = partition;
+            return partition;
+        }
+
+        private SingleStreamSpiller getSpiller()
+        {
+            return spiller.orElseThrow(() -> new IllegalStateException("Spiller not created"));
+        }
+
+        /**
+         * Releases the resources of the partition, without updating the memory of the operator.
+         */
+        void close()
+        {
+            if (state == State.CLOSED) {
+                return;
+            }
+
+            lookupSourceSupplier = null;
+            state = State.CLOSED;
+            finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
+            userBytes = 0;
+            revocableBytes = 0;
+
+            try (Closer closer = Closer.create()) {
+                closer.register(index::clear);
+                spiller.ifPresent(closer::register);
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
     }
 }
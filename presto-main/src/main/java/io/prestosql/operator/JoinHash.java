@@ -29,6 +29,9 @@ public final class JoinHash
         implements LookupSource
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(JoinHash.class).instanceSize();
+    private static final int BLOOM_FILTER_SAMPLE_SIZE = 16 * 1024;
+    private static final double BLOOM_FILTER_MIN_REJECTION_RATE = 0.1;
+
     private final PagesHash pagesHash;
 
     // we unwrap Optional<JoinFilterFunction> to actual verifier or null in constructor for performance reasons
@@ -41,11 +44,18 @@ public final class JoinHash
     @Nullable
     private final PositionLinks positionLinks;
 
+    // set to null once the filter turns out to reject too few probe rows to pay off
+    @Nullable
+    private BlockedBloomFilter bloomFilter;
+    private long bloomFilterProbeCount;
+    private long bloomFilterRejectionCount;
+
     public JoinHash(PagesHash pagesHash, Optional<JoinFilterFunction> filterFunction, Optional<PositionLinks> positionLinks)
     {
         this.pagesHash = requireNonNull(pagesHash, "pagesHash is null");
         this.filterFunction = requireNonNull(filterFunction, "filterFunction can not be null").orElse(null);
         this.positionLinks = requireNonNull(positionLinks, "positionLinks is null").orElse(null);
+        this.bloomFilter = pagesHash.getBloomFilter();
     }
 
     @Override
@@ -92,6 +102,70 @@ public final class JoinHash
         return startJoinPosition(addressIndex, position, allChannelsPage);
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (rawHashes == null) {
+            rawHashes = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                rawHashes[i] = pagesHash.hashRow(positions[i], hashChannelsPage);
+            }
+        }
+
+        int[] probePositions = positions;
+        long[] probeRawHashes = rawHashes;
+        int[] rowIndexes = null;
+        int probeCount = positionCount;
+        if (bloomFilter != null) {
+            // only the rows passing the filter are looked up in the hash table
+            probePositions = new int[positionCount];
+            probeRawHashes = new long[positionCount];
+            rowIndexes = new int[positionCount];
+            probeCount = 0;
+            for (int i = 0; i < positionCount; i++) {
+                if (bloomFilter.mightContain(rawHashes[i])) {
+                    probePositions[probeCount] = positions[i];
+                    probeRawHashes[probeCount] = rawHashes[i];
+                    rowIndexes[probeCount] = i;
+                    probeCount++;
+                }
+                else {
+                    joinPositions[i] = -1;
+                }
+            }
+            recordBloomFilterProbes(positionCount, positionCount - probeCount);
+        }
+
+        int[] addressIndexes = new int[probeCount];
+        pagesHash.getAddressIndexes(probePositions, probeCount, hashChannelsPage, probeRawHashes, addressIndexes);
+        for (int i = 0; i < probeCount; i++) {
+            int row = rowIndexes == null ? i : rowIndexes[i];
+            joinPositions[row] = startJoinPosition(addressIndexes[i], probePositions[i], allChannelsPage);
+        }
+    }
+
+    @Override
+    public long getBloomFilterProbeCount()
+    {
+        return bloomFilterProbeCount;
+    }
+
+    @Override
+    public long getBloomFilterRejectionCount()
+    {
+        return bloomFilterRejectionCount;
+    }
+
+    private void recordBloomFilterProbes(int probeCount, int rejectionCount)
+    {
+        bloomFilterProbeCount += probeCount;
+        bloomFilterRejectionCount += rejectionCount;
+        if (bloomFilterProbeCount >= BLOOM_FILTER_SAMPLE_SIZE && bloomFilterRejectionCount < bloomFilterProbeCount * BLOOM_FILTER_MIN_REJECTION_RATE) {
+            // most probe rows have a match, checking the filter only adds work
+            bloomFilter = null;
+        }
+    }
+
     private long startJoinPosition(int currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
         if (currentJoinPosition == -1) {
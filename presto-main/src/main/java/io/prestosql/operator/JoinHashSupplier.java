@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import io.prestosql.Session;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
 import io.prestosql.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 
@@ -26,6 +27,9 @@ import java.util.Optional;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.SystemSessionProperties.isFastInequalityJoin;
+import static io.prestosql.SystemSessionProperties.isFlatJoinHashEnabled;
+import static io.prestosql.SystemSessionProperties.isJoinBloomFilterEnabled;
+import static io.prestosql.operator.FixedWidthGroupByHash.isSupported;
 import static io.prestosql.operator.JoinUtils.channelsToPages;
 import static java.util.Objects.requireNonNull;
 
@@ -45,6 +49,8 @@ public class JoinHashSupplier
             PagesHashStrategy pagesHashStrategy,
             LongArrayList addresses,
             List<List<Block>> channels,
+            List<Type> types,
+            List<Integer> joinChannels,
             Optional<JoinFilterFunctionFactory> filterFunctionFactory,
             Optional<Integer> sortChannel,
             List<JoinFilterFunctionFactory> searchFunctionFactories)
@@ -55,6 +61,8 @@ public class JoinHashSupplier
         this.searchFunctionFactories = ImmutableList.copyOf(searchFunctionFactories);
         requireNonNull(channels, "pages is null");
         requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(joinChannels, "joinChannels is null");
 
         PositionLinks.FactoryBuilder positionLinksFactoryBuilder;
         if (sortChannel.isPresent() &&
@@ -70,7 +78,19 @@ public class JoinHashSupplier
         }
 
         this.pages = channelsToPages(channels);
-        this.pagesHash = new PagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder);
+        List<Type> joinChannelTypes = joinChannels.stream()
+                .map(types::get)
+                .collect(toImmutableList());
+        boolean bloomFilterEnabled = isJoinBloomFilterEnabled(session);
+        if (isFlatJoinHashEnabled(session) && !joinChannels.isEmpty() && isSupported(joinChannelTypes)) {
+            List<List<Block>> joinChannelBlocks = joinChannels.stream()
+                    .map(channels::get)
+                    .collect(toImmutableList());
+            this.pagesHash = new PagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, joinChannelTypes, joinChannelBlocks, bloomFilterEnabled);
+        }
+        else {
+            this.pagesHash = new PagesHash(addresses, pagesHashStrategy, positionLinksFactoryBuilder, ImmutableList.of(), ImmutableList.of(), bloomFilterEnabled);
+        }
         this.positionLinks = positionLinksFactoryBuilder.isEmpty() ? Optional.empty() : Optional.of(positionLinksFactoryBuilder.build());
     }
 
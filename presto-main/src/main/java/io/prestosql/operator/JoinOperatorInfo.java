@@ -32,8 +32,15 @@ public class JoinOperatorInfo
     private final long[] logHistogramProbes;
     private final long[] logHistogramOutput;
     private final Optional<Long> lookupSourcePositions;
+    private final long bloomFilterProbes;
+    private final long bloomFilterRejections;
 
-    public static JoinOperatorInfo createJoinOperatorInfo(JoinType joinType, long[] logHistogramCounters, Optional<Long> lookupSourcePositions)
+    public static JoinOperatorInfo createJoinOperatorInfo(
+            JoinType joinType,
+            long[] logHistogramCounters,
+            Optional<Long> lookupSourcePositions,
+            long bloomFilterProbes,
+            long bloomFilterRejections)
     {
         long[] logHistogramProbes = new long[HISTOGRAM_BUCKETS];
         long[] logHistogramOutput = new long[HISTOGRAM_BUCKETS];
@@ -41,7 +48,7 @@ public class JoinOperatorInfo
             logHistogramProbes[i] = logHistogramCounters[2 * i];
             logHistogramOutput[i] = logHistogramCounters[2 * i + 1];
         }
-        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions);
+        return new JoinOperatorInfo(joinType, logHistogramProbes, logHistogramOutput, lookupSourcePositions, bloomFilterProbes, bloomFilterRejections);
     }
 
     @JsonCreator
@@ -49,7 +56,9 @@ public class JoinOperatorInfo
             @JsonProperty("joinType") JoinType joinType,
             @JsonProperty("logHistogramProbes") long[] logHistogramProbes,
             @JsonProperty("logHistogramOutput") long[] logHistogramOutput,
-            @JsonProperty("lookupSourcePositions") Optional<Long> lookupSourcePositions)
+            @JsonProperty("lookupSourcePositions") Optional<Long> lookupSourcePositions,
+            @JsonProperty("bloomFilterProbes") long bloomFilterProbes,
+            @JsonProperty("bloomFilterRejections") long bloomFilterRejections)
     {
         checkArgument(logHistogramProbes.length == HISTOGRAM_BUCKETS);
         checkArgument(logHistogramOutput.length == HISTOGRAM_BUCKETS);
@@ -57,6 +66,8 @@ public class JoinOperatorInfo
         this.logHistogramProbes = logHistogramProbes;
         this.logHistogramOutput = logHistogramOutput;
         this.lookupSourcePositions = lookupSourcePositions;
+        this.bloomFilterProbes = bloomFilterProbes;
+        this.bloomFilterRejections = bloomFilterRejections;
     }
 
     @JsonProperty
@@ -86,6 +97,24 @@ public class JoinOperatorInfo
         return lookupSourcePositions;
     }
 
+    /**
+     * Number of probe rows checked against the Bloom filter of the build side join keys
+     */
+    @JsonProperty
+    public long getBloomFilterProbes()
+    {
+        return bloomFilterProbes;
+    }
+
+    /**
+     * Number of probe rows rejected by the Bloom filter without a hash table lookup
+     */
+    @JsonProperty
+    public long getBloomFilterRejections()
+    {
+        return bloomFilterRejections;
+    }
+
     @Override
     public String toString()
     {
@@ -94,6 +123,8 @@ public class JoinOperatorInfo
                 .add("logHistogramProbes", logHistogramProbes)
                 .add("logHistogramOutput", logHistogramOutput)
                 .add("lookupSourcePositions", lookupSourcePositions)
+                .add("bloomFilterProbes", bloomFilterProbes)
+                .add("bloomFilterRejections", bloomFilterRejections)
                 .toString();
     }
 
@@ -113,7 +144,13 @@ public class JoinOperatorInfo
             mergedSourcePositions = Optional.of(this.lookupSourcePositions.orElse(0L) + other.lookupSourcePositions.orElse(0L));
         }
 
-        return new JoinOperatorInfo(this.joinType, logHistogramProbes, logHistogramOutput, mergedSourcePositions);
+        return new JoinOperatorInfo(
+                this.joinType,
+                logHistogramProbes,
+                logHistogramOutput,
+                mergedSourcePositions,
+                this.bloomFilterProbes + other.bloomFilterProbes,
+                this.bloomFilterRejections + other.bloomFilterRejections);
     }
 
     @Override
@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -52,6 +53,12 @@ public class JoinProbe
 
     private int position = -1;
 
+    // join positions of the rows from the current position on, looked up in one batch with joinPositionsLookupSource
+    private LookupSource joinPositionsLookupSource;
+    private long[] joinPositions;
+    private long bloomFilterProbeCount;
+    private long bloomFilterRejectionCount;
+
     private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
     {
         this.probeOutputChannels = probeOutputChannels;
@@ -79,14 +86,20 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (currentRowContainsNull()) {
-            return -1;
+        if (!lookupSource.isBatchLookupSupported()) {
+            if (rowContainsNull(position)) {
+                return -1;
+            }
+            if (probeHashBlock.isPresent()) {
+                long rawHash = BIGINT.getLong(probeHashBlock.get(), position);
+                return lookupSource.getJoinPosition(position, probePage, page, rawHash);
+            }
+            return lookupSource.getJoinPosition(position, probePage, page);
         }
-        if (probeHashBlock.isPresent()) {
-            long rawHash = BIGINT.getLong(probeHashBlock.get(), position);
-            return lookupSource.getJoinPosition(position, probePage, page, rawHash);
+        if (lookupSource != joinPositionsLookupSource) {
+            lookupJoinPositions(lookupSource);
         }
-        return lookupSource.getJoinPosition(position, probePage, page);
+        return joinPositions[position];
     }
 
     public int getPosition()
@@ -99,7 +112,51 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    public long getBloomFilterProbeCount()
+    {
+        return bloomFilterProbeCount;
+    }
+
+    public long getBloomFilterRejectionCount()
+    {
+        return bloomFilterRejectionCount;
+    }
+
+    private void lookupJoinPositions(LookupSource lookupSource)
+    {
+        int[] positions = new int[positionCount - position];
+        int batchSize = 0;
+        for (int batchPosition = position; batchPosition < positionCount; batchPosition++) {
+            if (!rowContainsNull(batchPosition)) {
+                positions[batchSize] = batchPosition;
+                batchSize++;
+            }
+        }
+
+        long[] rawHashes = null;
+        if (probeHashBlock.isPresent()) {
+            rawHashes = new long[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                rawHashes[i] = BIGINT.getLong(probeHashBlock.get(), positions[i]);
+            }
+        }
+
+        long[] batchJoinPositions = new long[batchSize];
+        long initialBloomFilterProbeCount = lookupSource.getBloomFilterProbeCount();
+        long initialBloomFilterRejectionCount = lookupSource.getBloomFilterRejectionCount();
+        lookupSource.getJoinPositions(positions, batchSize, probePage, page, rawHashes, batchJoinPositions);
+        bloomFilterProbeCount += lookupSource.getBloomFilterProbeCount() - initialBloomFilterProbeCount;
+        bloomFilterRejectionCount += lookupSource.getBloomFilterRejectionCount() - initialBloomFilterRejectionCount;
+
+        joinPositions = new long[positionCount];
+        Arrays.fill(joinPositions, -1);
+        for (int i = 0; i < batchSize; i++) {
+            joinPositions[positions[i]] = batchJoinPositions[i];
+        }
+        joinPositionsLookupSource = lookupSource;
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
             if (probeBlock.isNull(position)) {
@@ -41,6 +41,9 @@ public class JoinStatisticsCounter
      */
     private Optional<Long> lookupSourcePositions = Optional.empty();
 
+    private long bloomFilterProbes;
+    private long bloomFilterRejections;
+
     public JoinStatisticsCounter(JoinType joinType)
     {
         this.joinType = requireNonNull(joinType, "joinType is null");
@@ -70,9 +73,15 @@ public class JoinStatisticsCounter
         logHistogramCounters[2 * bucket + 1] += numSourcePositions;
     }
 
+    public void recordBloomFilterProbes(long probes, long rejections)
+    {
+        bloomFilterProbes += probes;
+        bloomFilterRejections += rejections;
+    }
+
     @Override
     public JoinOperatorInfo get()
     {
-        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions);
+        return createJoinOperatorInfo(joinType, logHistogramCounters, lookupSourcePositions, bloomFilterProbes, bloomFilterRejections);
     }
 }
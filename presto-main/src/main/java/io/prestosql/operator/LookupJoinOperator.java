@@ -685,6 +685,9 @@ public class LookupJoinOperator
     {
         // Before updating the probe flush the current page
         buildPage();
+        if (probe != null) {
+            statisticsCounter.recordBloomFilterProbes(probe.getBloomFilterProbeCount(), probe.getBloomFilterRejectionCount());
+        }
         probe = null;
     }
 }
@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.Closeable;
@@ -36,6 +37,49 @@ public interface LookupSource
 
     long getJoinPosition(int position, Page hashChannelsPage, Page allChannelsPage);
 
+    /**
+     * Whether the join positions of the rows of a probe page can be looked up before any of the rows
+     * is joined. Lookup sources whose join positions are invalidated by later lookups return false.
+     */
+    default boolean isBatchLookupSupported()
+    {
+        return true;
+    }
+
+    /**
+     * Looks up the rows at the first {@code positionCount} {@code positions} of the probe page
+     * and stores their join positions in {@code joinPositions}.
+     *
+     * @param rawHashes hashes of the rows, in the same order as {@code positions}, or null if the probe has no hash channel
+     */
+    default void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            if (rawHashes == null) {
+                joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage);
+            }
+            else {
+                joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage, rawHashes[i]);
+            }
+        }
+    }
+
+    /**
+     * Number of probe rows checked against a Bloom filter of the build side join keys by {@link #getJoinPositions}.
+     */
+    default long getBloomFilterProbeCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Number of probe rows rejected by the Bloom filter, without a lookup in the hash table.
+     */
+    default long getBloomFilterRejectionCount()
+    {
+        return 0;
+    }
+
     long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage);
 
     void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset);
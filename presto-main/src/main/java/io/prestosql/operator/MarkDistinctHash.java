@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import com.google.common.annotations.VisibleForTesting;
 import io.prestosql.Session;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
@@ -48,6 +49,24 @@ public class MarkDistinctHash
         return groupByHash.getEstimatedSize();
     }
 
+    /**
+     * Types of the values appended by {@link #appendValuesTo}, the distinct channels followed by the hash channel, if any.
+     */
+    public List<Type> getTypes()
+    {
+        return groupByHash.getTypes();
+    }
+
+    public int getDistinctCount()
+    {
+        return groupByHash.getGroupCount();
+    }
+
+    public void appendValuesTo(int distinctId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        groupByHash.appendValuesTo(distinctId, pageBuilder, outputChannelOffset);
+    }
+
     public Work<Block> markDistinctRows(Page page)
     {
         return new TransformWork<>(
@@ -15,20 +15,33 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static java.util.Objects.requireNonNull;
 
@@ -44,6 +57,8 @@ public class MarkDistinctOperator
         private final List<Integer> markDistinctChannels;
         private final List<Type> types;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
         public MarkDistinctOperatorFactory(
@@ -53,6 +68,21 @@ public class MarkDistinctOperator
                 Collection<Integer> markDistinctChannels,
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+                throw new UnsupportedOperationException();
+            });
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -60,6 +90,8 @@ public class MarkDistinctOperator
             checkArgument(!markDistinctChannels.isEmpty(), "markDistinctChannels is empty");
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
             this.types = ImmutableList.<Type>builder()
                     .addAll(sourceTypes)
                     .add(BOOLEAN)
@@ -71,7 +103,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -83,13 +115,25 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> sourceTypes;
+    private final List<Type> distinctTypes;
+    private final List<Integer> markDistinctChannels;
+    private final Optional<Integer> hashChannel;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
+
+    // set to null once the distinct values are spilled
+    private MarkDistinctHash markDistinctHash;
 
     private Page inputPage;
     private boolean finishing;
@@ -97,19 +141,49 @@ public class MarkDistinctOperator
     // for yield when memory is not available
     private Work<Block> unfinishedWork;
 
+    // Once memory is revoked, the distinct values seen so far are spilled to keySpiller and all the
+    // following input to inputSpiller, both partitioned by the hash of the distinct channels.
+    // When the input is finished the partitions are marked one at a time, starting from their spilled
+    // distinct values, so that only the values of one partition have to fit in memory.
+    private Optional<PartitioningSpiller> keySpiller = Optional.empty();
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private int unspillPartition;
+    private MarkDistinctHash unspilledHash;
+    private Iterator<Page> unspilledInput;
+
     public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, JoinCompiler joinCompiler)
     {
-        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, false, (partitionTypes, partitionFunction, spillContext, memoryContext) -> {
+            throw new UnsupportedOperationException();
+        });
+    }
 
-        requireNonNull(hashChannel, "hashChannel is null");
-        requireNonNull(markDistinctChannels, "markDistinctChannels is null");
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            Optional<Integer> hashChannel,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.markDistinctChannels = ImmutableList.copyOf(requireNonNull(markDistinctChannels, "markDistinctChannels is null"));
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.sourceTypes = ImmutableList.copyOf(types.subList(0, types.size() - 1));
 
         ImmutableList.Builder<Type> distinctTypes = ImmutableList.builder();
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, this::updateMemoryReservation);
+        this.distinctTypes = distinctTypes.build();
+        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), this.distinctTypes, Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, this::updateMemoryReservation);
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
     }
 
     @Override
@@ -127,13 +201,19 @@ public class MarkDistinctOperator
     @Override
     public boolean isFinished()
     {
-        return finishing && !hasUnfinishedInput();
+        return finishing && !hasUnfinishedInput() && spillInProgress.isDone() && (markDistinctHash != null || unspillPartition == SPILL_PARTITION_COUNT);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && !hasUnfinishedInput();
+        return !finishing && !hasUnfinishedInput() && spillInProgress.isDone();
     }
 
     @Override
@@ -141,6 +221,13 @@ public class MarkDistinctOperator
     {
         requireNonNull(page, "page is null");
         checkState(needsInput());
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (markDistinctHash == null) {
+            // the distinct values seen so far are on disk, so the page is marked when the input is finished
+            spillInProgress = inputSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+            return;
+        }
 
         inputPage = page;
 
@@ -151,6 +238,15 @@ public class MarkDistinctOperator
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (markDistinctHash == null) {
+            return finishing ? getUnspilledOutput() : null;
+        }
+
         if (unfinishedWork == null) {
             return null;
         }
@@ -169,6 +265,152 @@ public class MarkDistinctOperator
         return outputPage;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (!spillEnabled || markDistinctHash == null || hasUnfinishedInput() || finishing) {
+            return NOT_BLOCKED;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        inputSpiller = Optional.of(createSpiller(sourceTypes, getInputPartitionGenerator()));
+        keySpiller = Optional.of(createSpiller(markDistinctHash.getTypes(), getKeyPartitionGenerator()));
+
+        // Collect the values of each partition into a single page, so that every partition is spilled
+        // with one call and the partitions are written concurrently
+        LocalPartitionGenerator keyPartitionGenerator = getKeyPartitionGenerator();
+        List<PageBuilder> partitionPageBuilders = IntStream.range(0, SPILL_PARTITION_COUNT)
+                .mapToObj(partition -> new PageBuilder(markDistinctHash.getTypes()))
+                .collect(toImmutableList());
+        PageBuilder pageBuilder = new PageBuilder(markDistinctHash.getTypes());
+        for (int distinctId = 0; distinctId < markDistinctHash.getDistinctCount(); distinctId++) {
+            pageBuilder.declarePosition();
+            markDistinctHash.appendValuesTo(distinctId, pageBuilder, 0);
+            if (pageBuilder.isFull() || distinctId == markDistinctHash.getDistinctCount() - 1) {
+                Page page = pageBuilder.build();
+                pageBuilder.reset();
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    PageBuilder partitionPageBuilder = partitionPageBuilders.get(keyPartitionGenerator.getPartition(page, position));
+                    partitionPageBuilder.declarePosition();
+                    for (int channel = 0; channel < page.getChannelCount(); channel++) {
+                        markDistinctHash.getTypes().get(channel).appendTo(page.getBlock(channel), position, partitionPageBuilder.getBlockBuilder(channel));
+                    }
+                }
+            }
+        }
+
+        ImmutableList.Builder<ListenableFuture<?>> spillFutures = ImmutableList.builder();
+        for (PageBuilder partitionPageBuilder : partitionPageBuilders) {
+            if (!partitionPageBuilder.isEmpty()) {
+                spillFutures.add(keySpiller.get().partitionAndSpill(partitionPageBuilder.build(), partition -> true).getSpillingFuture());
+            }
+        }
+        spillInProgress = Futures.allAsList(spillFutures.build());
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (keySpiller.isPresent() && markDistinctHash != null) {
+            markDistinctHash = null;
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try (Closer closer = Closer.create()) {
+            keySpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        markDistinctHash = null;
+        unspilledHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private Page getUnspilledOutput()
+    {
+        while (unspillPartition < SPILL_PARTITION_COUNT) {
+            if (unspilledInput == null) {
+                // restore the distinct values this partition had before spilling, the input pages are marked against them
+                int keyChannelCount = distinctTypes.size();
+                unspilledHash = new MarkDistinctHash(
+                        operatorContext.getSession(),
+                        distinctTypes,
+                        IntStream.range(0, keyChannelCount).toArray(),
+                        hashChannel.map(channel -> keyChannelCount),
+                        joinCompiler,
+                        () -> true);
+                Iterator<Page> keys = keySpiller.get().getSpilledPages(unspillPartition);
+                while (keys.hasNext()) {
+                    checkState(unspilledHash.markDistinctRows(keys.next()).process(), "work did not complete");
+                }
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize());
+                unspilledInput = inputSpiller.get().getSpilledPages(unspillPartition);
+            }
+
+            if (unspilledInput.hasNext()) {
+                Page page = unspilledInput.next();
+                Work<Block> work = unspilledHash.markDistinctRows(extractColumns(page, getKeyChannels()));
+                checkState(work.process(), "work did not complete");
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize());
+                return page.appendColumn(work.getResult());
+            }
+
+            unspilledInput = null;
+            unspilledHash = null;
+            localUserMemoryContext.setBytes(0);
+            unspillPartition++;
+        }
+        return null;
+    }
+
+    private PartitioningSpiller createSpiller(List<Type> types, LocalPartitionGenerator partitionGenerator)
+    {
+        return partitioningSpillerFactory.create(
+                types,
+                partitionGenerator,
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+    }
+
+    private LocalPartitionGenerator getInputPartitionGenerator()
+    {
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(hashChannel.get())
+                : new InterpretedHashGenerator(distinctTypes, markDistinctChannels);
+        return new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT);
+    }
+
+    private LocalPartitionGenerator getKeyPartitionGenerator()
+    {
+        // the spilled values have the distinct channels first, followed by the hash channel, if any
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(distinctTypes.size())
+                : new InterpretedHashGenerator(distinctTypes, IntStream.range(0, distinctTypes.size()).toArray());
+        return new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT);
+    }
+
+    private int[] getKeyChannels()
+    {
+        ImmutableList.Builder<Integer> keyChannels = ImmutableList.<Integer>builder().addAll(markDistinctChannels);
+        hashChannel.ifPresent(keyChannels::add);
+        return Ints.toArray(keyChannels.build());
+    }
+
+    private static Page extractColumns(Page page, int[] channels)
+    {
+        Block[] newBlocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            newBlocks[i] = page.getBlock(channels[i]);
+        }
+        return new Page(page.getPositionCount(), newBlocks);
+    }
+
     private boolean hasUnfinishedInput()
     {
         return inputPage != null || unfinishedWork != null;
@@ -184,6 +426,11 @@ public class MarkDistinctOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        if (spillEnabled) {
+            // revocable memory does not block, the hash is spilled when the memory is revoked
+            localRevocableMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
+            return true;
+        }
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
         localUserMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
@@ -194,6 +441,7 @@ public class MarkDistinctOperator
     @VisibleForTesting
     public int getCapacity()
     {
+        checkState(markDistinctHash != null, "distinct values are spilled");
         return markDistinctHash.getCapacity();
     }
 }
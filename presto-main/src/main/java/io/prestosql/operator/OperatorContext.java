@@ -529,6 +529,10 @@ public class OperatorContext
                 succinctBytes(peakTotalMemoryReservation.get()),
 
                 succinctBytes(spillContext.getSpilledBytes()),
+                succinctBytes(spillContext.getSpilledUncompressedBytes()),
+                new Duration(spillContext.getSpillWriteNanos(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                succinctBytes(spillContext.getUnspilledBytes()),
+                new Duration(spillContext.getUnspillReadNanos(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
                 memoryFuture.get().isDone() ? Optional.empty() : Optional.of(WAITING_FOR_MEMORY),
                 info);
@@ -582,6 +586,10 @@ public class OperatorContext
         private final DriverContext driverContext;
         private final AtomicLong reservedBytes = new AtomicLong();
         private final AtomicLong spilledBytes = new AtomicLong();
+        private final AtomicLong spilledUncompressedBytes = new AtomicLong();
+        private final AtomicLong spillWriteNanos = new AtomicLong();
+        private final AtomicLong unspilledBytes = new AtomicLong();
+        private final AtomicLong unspillReadNanos = new AtomicLong();
 
         public OperatorSpillContext(DriverContext driverContext)
         {
@@ -602,11 +610,45 @@ public class OperatorContext
             }
         }
 
+        @Override
+        public void recordSpillWrite(long uncompressedBytes, long nanos)
+        {
+            spilledUncompressedBytes.addAndGet(uncompressedBytes);
+            spillWriteNanos.addAndGet(nanos);
+        }
+
+        @Override
+        public void recordUnspillRead(long bytes, long nanos)
+        {
+            unspilledBytes.addAndGet(bytes);
+            unspillReadNanos.addAndGet(nanos);
+        }
+
         public long getSpilledBytes()
         {
             return spilledBytes.longValue();
         }
 
+        public long getSpilledUncompressedBytes()
+        {
+            return spilledUncompressedBytes.longValue();
+        }
+
+        public long getSpillWriteNanos()
+        {
+            return spillWriteNanos.longValue();
+        }
+
+        public long getUnspilledBytes()
+        {
+            return unspilledBytes.longValue();
+        }
+
+        public long getUnspillReadNanos()
+        {
+            return unspillReadNanos.longValue();
+        }
+
         private long decrementSpilledReservation(long reservedBytes, long bytesBeingFreed)
         {
             checkArgument(bytesBeingFreed >= 0);
@@ -78,6 +78,10 @@ public class OperatorStats
     private final DataSize peakTotalMemoryReservation;
 
     private final DataSize spilledDataSize;
+    private final DataSize spilledUncompressedDataSize;
+    private final Duration spillWriteTime;
+    private final DataSize unspilledDataSize;
+    private final Duration unspillReadTime;
 
     private final Optional<BlockedReason> blockedReason;
 
@@ -128,6 +132,10 @@ public class OperatorStats
             @JsonProperty("peakTotalMemoryReservation") DataSize peakTotalMemoryReservation,
 
             @JsonProperty("spilledDataSize") DataSize spilledDataSize,
+            @JsonProperty("spilledUncompressedDataSize") DataSize spilledUncompressedDataSize,
+            @JsonProperty("spillWriteTime") Duration spillWriteTime,
+            @JsonProperty("unspilledDataSize") DataSize unspilledDataSize,
+            @JsonProperty("unspillReadTime") Duration unspillReadTime,
 
             @JsonProperty("blockedReason") Optional<BlockedReason> blockedReason,
 
@@ -181,6 +189,10 @@ public class OperatorStats
         this.peakTotalMemoryReservation = requireNonNull(peakTotalMemoryReservation, "peakTotalMemoryReservation is null");
 
         this.spilledDataSize = requireNonNull(spilledDataSize, "spilledDataSize is null");
+        this.spilledUncompressedDataSize = requireNonNull(spilledUncompressedDataSize, "spilledUncompressedDataSize is null");
+        this.spillWriteTime = requireNonNull(spillWriteTime, "spillWriteTime is null");
+        this.unspilledDataSize = requireNonNull(unspilledDataSize, "unspilledDataSize is null");
+        this.unspillReadTime = requireNonNull(unspillReadTime, "unspillReadTime is null");
 
         this.blockedReason = blockedReason;
 
@@ -397,6 +409,39 @@ public class OperatorStats
         return spilledDataSize;
     }
 
+    /**
+     * Size of the spilled pages before compression. The spill compression ratio is the ratio of this to {@link #getSpilledDataSize()}.
+     */
+    @JsonProperty
+    public DataSize getSpilledUncompressedDataSize()
+    {
+        return spilledUncompressedDataSize;
+    }
+
+    /**
+     * Wall time of the spill writes, including producing, serializing and compressing the spilled pages.
+     */
+    @JsonProperty
+    public Duration getSpillWriteTime()
+    {
+        return spillWriteTime;
+    }
+
+    @JsonProperty
+    public DataSize getUnspilledDataSize()
+    {
+        return unspilledDataSize;
+    }
+
+    /**
+     * Time spent reading and deserializing the spilled pages.
+     */
+    @JsonProperty
+    public Duration getUnspillReadTime()
+    {
+        return unspillReadTime;
+    }
+
     @JsonProperty
     public Optional<BlockedReason> getBlockedReason()
     {
@@ -454,6 +499,10 @@ public class OperatorStats
         long peakTotalMemory = this.peakTotalMemoryReservation.toBytes();
 
         long spilledDataSize = this.spilledDataSize.toBytes();
+        long spilledUncompressedDataSize = this.spilledUncompressedDataSize.toBytes();
+        long spillWriteTime = this.spillWriteTime.roundTo(NANOSECONDS);
+        long unspilledDataSize = this.unspilledDataSize.toBytes();
+        long unspillReadTime = this.unspillReadTime.roundTo(NANOSECONDS);
 
         Optional<BlockedReason> blockedReason = this.blockedReason;
 
@@ -499,6 +548,10 @@ public class OperatorStats
             peakTotalMemory = max(peakTotalMemory, operator.getPeakTotalMemoryReservation().toBytes());
 
             spilledDataSize += operator.getSpilledDataSize().toBytes();
+            spilledUncompressedDataSize += operator.getSpilledUncompressedDataSize().toBytes();
+            spillWriteTime += operator.getSpillWriteTime().roundTo(NANOSECONDS);
+            unspilledDataSize += operator.getUnspilledDataSize().toBytes();
+            unspillReadTime += operator.getUnspillReadTime().roundTo(NANOSECONDS);
 
             if (operator.getBlockedReason().isPresent()) {
                 blockedReason = operator.getBlockedReason();
@@ -554,6 +607,10 @@ public class OperatorStats
                 succinctBytes(peakTotalMemory),
 
                 succinctBytes(spilledDataSize),
+                succinctBytes(spilledUncompressedDataSize),
+                new Duration(spillWriteTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                succinctBytes(unspilledDataSize),
+                new Duration(unspillReadTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
                 blockedReason,
 
@@ -614,6 +671,10 @@ public class OperatorStats
                 peakRevocableMemoryReservation,
                 peakTotalMemoryReservation,
                 spilledDataSize,
+                spilledUncompressedDataSize,
+                spillWriteTime,
+                unspilledDataSize,
+                unspillReadTime,
                 blockedReason,
                 (info != null && info.isFinal()) ? info : null);
     }
@@ -13,15 +13,22 @@
  */
 package io.prestosql.operator;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
 import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.Nullable;
+
 import java.util.Arrays;
+import java.util.List;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.prestosql.operator.SyntheticAddress.decodePosition;
@@ -35,6 +42,7 @@ public final class PagesHash
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(PagesHash.class).instanceSize();
     private static final DataSize CACHE_SIZE = new DataSize(128, KILOBYTE);
+    private static final int MAX_FLAT_TABLE_SIZE = Integer.MAX_VALUE - 8;
     private final LongArrayList addresses;
     private final PagesHashStrategy pagesHashStrategy;
 
@@ -47,6 +55,17 @@ public final class PagesHash
     // to accessing values in blocks. We use bytes to reduce memory foot print
     // and there is no performance gain from storing full hashes
     private final byte[] positionToHashes;
+
+    // Open addressing table used instead of key and positionToHashes when all join keys are fixed width.
+    // Each slot holds the address index of the row followed by the values of its join keys, so
+    // a probe compares the keys without accessing the blocks of the build side.
+    private final List<Type> flatKeyTypes;
+    private final int flatSlotSize;
+    private final long[] flatTable;
+
+    @Nullable
+    private final BlockedBloomFilter bloomFilter;
+
     private final long hashCollisions;
     private final double expectedHashCollisions;
 
@@ -54,20 +73,62 @@ public final class PagesHash
             LongArrayList addresses,
             PagesHashStrategy pagesHashStrategy,
             PositionLinks.FactoryBuilder positionLinks)
+    {
+        this(addresses, pagesHashStrategy, positionLinks, ImmutableList.of(), ImmutableList.of(), false);
+    }
+
+    /**
+     * @param flatKeyTypes types of the join channels, all of them fixed width types readable with {@link Type#getLong},
+     * or empty to compare the join keys with the {@code pagesHashStrategy}
+     * @param flatKeyChannels blocks of the join channels, in the same order as {@code flatKeyTypes}
+     * @param bloomFilterEnabled whether to build a Bloom filter over the hashes of the join keys, see {@link #getBloomFilter}
+     */
+    public PagesHash(
+            LongArrayList addresses,
+            PagesHashStrategy pagesHashStrategy,
+            PositionLinks.FactoryBuilder positionLinks,
+            List<Type> flatKeyTypes,
+            List<List<Block>> flatKeyChannels,
+            boolean bloomFilterEnabled)
     {
         this.addresses = requireNonNull(addresses, "addresses is null");
         this.pagesHashStrategy = requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
         this.channelCount = pagesHashStrategy.getChannelCount();
+        requireNonNull(flatKeyTypes, "flatKeyTypes is null");
+        requireNonNull(flatKeyChannels, "flatKeyChannels is null");
+        checkArgument(flatKeyTypes.size() == flatKeyChannels.size(), "flatKeyTypes and flatKeyChannels have different sizes");
 
         // reserve memory for the arrays
         int hashSize = HashCommon.arraySize(addresses.size(), 0.75f);
-
         mask = hashSize - 1;
-        key = new int[hashSize];
-        Arrays.fill(key, -1);
+        bloomFilter = bloomFilterEnabled ? new BlockedBloomFilter(addresses.size()) : null;
+
+        if (!flatKeyTypes.isEmpty() && (long) hashSize * (flatKeyTypes.size() + 1) <= MAX_FLAT_TABLE_SIZE) {
+            this.flatKeyTypes = ImmutableList.copyOf(flatKeyTypes);
+            flatSlotSize = flatKeyTypes.size() + 1;
+            flatTable = new long[hashSize * flatSlotSize];
+            key = null;
+            positionToHashes = null;
+            hashCollisions = indexPositionsFlat(positionLinks, flatKeyChannels);
+        }
+        else {
+            this.flatKeyTypes = ImmutableList.of();
+            flatSlotSize = 0;
+            flatTable = null;
+            key = new int[hashSize];
+            Arrays.fill(key, -1);
+            positionToHashes = new byte[addresses.size()];
+            hashCollisions = indexPositions(positionLinks);
+        }
 
-        positionToHashes = new byte[addresses.size()];
+        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
+                sizeOf(key) + sizeOf(positionToHashes) + sizeOf(flatTable) +
+                (bloomFilter == null ? 0 : bloomFilter.getSizeInBytes());
+        expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
+    }
 
+    private long indexPositions(PositionLinks.FactoryBuilder positionLinks)
+    {
         // We will process addresses in batches, to save memory on array of hashes.
         int positionsInStep = Math.min(addresses.size() + 1, (int) CACHE_SIZE.toBytes() / Integer.SIZE);
         long[] positionToFullHashes = new long[positionsInStep];
@@ -97,6 +158,9 @@ public final class PagesHash
 
                 long hash = positionToFullHashes[position];
                 int pos = getHashPosition(hash, mask);
+                if (bloomFilter != null) {
+                    bloomFilter.add(hash);
+                }
 
                 // look for an empty slot or a slot containing this key
                 while (key[pos] != -1) {
@@ -117,11 +181,53 @@ public final class PagesHash
                 key[pos] = realPosition;
             }
         }
+        return hashCollisionsLocal;
+    }
 
-        size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
-                sizeOf(key) + sizeOf(positionToHashes);
-        hashCollisions = hashCollisionsLocal;
-        expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
+    private long indexPositionsFlat(PositionLinks.FactoryBuilder positionLinks, List<List<Block>> flatKeyChannels)
+    {
+        for (int slot = 0; slot < flatTable.length; slot += flatSlotSize) {
+            flatTable[slot] = -1;
+        }
+
+        int keyCount = flatKeyTypes.size();
+        long[] keys = new long[keyCount];
+        long hashCollisionsLocal = 0;
+
+        for (int position = 0; position < addresses.size(); position++) {
+            long pageAddress = addresses.getLong(position);
+            int blockIndex = decodeSliceIndex(pageAddress);
+            int blockPosition = decodePosition(pageAddress);
+            if (pagesHashStrategy.isPositionNull(blockIndex, blockPosition)) {
+                continue;
+            }
+
+            for (int channel = 0; channel < keyCount; channel++) {
+                keys[channel] = flatKeyTypes.get(channel).getLong(flatKeyChannels.get(channel).get(blockIndex), blockPosition);
+            }
+
+            int realPosition = position;
+            long hash = pagesHashStrategy.hashPosition(blockIndex, blockPosition);
+            int slot = getHashPosition(hash, mask) * flatSlotSize;
+            if (bloomFilter != null) {
+                bloomFilter.add(hash);
+            }
+
+            // look for an empty slot or a slot containing this key
+            while (flatTable[slot] != -1) {
+                if (flatKeysEqual(slot, keys, 0)) {
+                    // link the new key position to the current key position
+                    realPosition = positionLinks.link(realPosition, (int) flatTable[slot]);
+                    break;
+                }
+                slot = nextFlatSlot(slot);
+                hashCollisionsLocal++;
+            }
+
+            flatTable[slot] = realPosition;
+            System.arraycopy(keys, 0, flatTable, slot + 1, keyCount);
+        }
+        return hashCollisionsLocal;
     }
 
     public final int getChannelCount()
@@ -139,6 +245,16 @@ public final class PagesHash
         return INSTANCE_SIZE + size;
     }
 
+    /**
+     * Returns the Bloom filter over the raw hashes of the join keys of the build rows, if it was built.
+     * A probe row whose hash is rejected by the filter has no matching build row.
+     */
+    @Nullable
+    public BlockedBloomFilter getBloomFilter()
+    {
+        return bloomFilter;
+    }
+
     public long getHashCollisions()
     {
         return hashCollisions;
@@ -156,7 +272,64 @@ public final class PagesHash
 
     public int getAddressIndex(int rightPosition, Page hashChannelsPage, long rawHash)
     {
-        int pos = getHashPosition(rawHash, mask);
+        return getAddressIndex(rightPosition, hashChannelsPage, rawHash, getHashPosition(rawHash, mask));
+    }
+
+    /**
+     * Looks up the rows at the given positions of {@code hashChannelsPage} and stores
+     * the address index of the first matching row, or -1, in {@code addressIndexes}.
+     * The slots of all the rows are computed before any of them is probed, so that the
+     * cache misses of the probes do not depend on each other and the CPU can overlap them.
+     */
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, long[] rawHashes, int[] addressIndexes)
+    {
+        int[] hashPositions = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            hashPositions[i] = getHashPosition(rawHashes[i], mask);
+        }
+
+        if (flatTable == null) {
+            for (int i = 0; i < positionCount; i++) {
+                addressIndexes[i] = getAddressIndex(positions[i], hashChannelsPage, rawHashes[i], hashPositions[i]);
+            }
+            return;
+        }
+
+        // extract the probe keys column by column
+        int keyCount = flatKeyTypes.size();
+        long[] keys = new long[positionCount * keyCount];
+        for (int channel = 0; channel < keyCount; channel++) {
+            Type type = flatKeyTypes.get(channel);
+            Block block = hashChannelsPage.getBlock(channel);
+            for (int i = 0; i < positionCount; i++) {
+                keys[i * keyCount + channel] = type.getLong(block, positions[i]);
+            }
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int slot = hashPositions[i] * flatSlotSize;
+            int addressIndex = -1;
+            while (flatTable[slot] != -1) {
+                if (flatKeysEqual(slot, keys, i * keyCount)) {
+                    addressIndex = (int) flatTable[slot];
+                    break;
+                }
+                slot = nextFlatSlot(slot);
+            }
+            addressIndexes[i] = addressIndex;
+        }
+    }
+
+    public long hashRow(int position, Page hashChannelsPage)
+    {
+        return pagesHashStrategy.hashRow(position, hashChannelsPage);
+    }
+
+    private int getAddressIndex(int rightPosition, Page hashChannelsPage, long rawHash, int pos)
+    {
+        if (flatTable != null) {
+            return getFlatAddressIndex(rightPosition, hashChannelsPage, pos * flatSlotSize);
+        }
 
         while (key[pos] != -1) {
             if (positionEqualsCurrentRowIgnoreNulls(key[pos], (byte) rawHash, rightPosition, hashChannelsPage)) {
@@ -208,6 +381,44 @@ public final class PagesHash
         return pagesHashStrategy.positionEqualsRowIgnoreNulls(blockIndex, blockPosition, rightPosition, rightPage);
     }
 
+    private int getFlatAddressIndex(int rightPosition, Page hashChannelsPage, int slot)
+    {
+        while (flatTable[slot] != -1) {
+            if (flatKeysEqualRow(slot, rightPosition, hashChannelsPage)) {
+                return (int) flatTable[slot];
+            }
+            slot = nextFlatSlot(slot);
+        }
+        return -1;
+    }
+
+    private boolean flatKeysEqual(int slot, long[] keys, int keysOffset)
+    {
+        for (int channel = 0; channel < flatKeyTypes.size(); channel++) {
+            if (flatTable[slot + 1 + channel] != keys[keysOffset + channel]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean flatKeysEqualRow(int slot, int rightPosition, Page rightPage)
+    {
+        for (int channel = 0; channel < flatKeyTypes.size(); channel++) {
+            if (flatTable[slot + 1 + channel] != flatKeyTypes.get(channel).getLong(rightPage.getBlock(channel), rightPosition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nextFlatSlot(int slot)
+    {
+        // wrap around at the end of the table
+        slot += flatSlotSize;
+        return slot == flatTable.length ? 0 : slot;
+    }
+
     private boolean positionEqualsPositionIgnoreNulls(int leftPosition, int rightPosition)
     {
         long leftPageAddress = addresses.getLong(leftPosition);
@@ -510,6 +510,8 @@ public class PagesIndex
                 hashStrategy,
                 valueAddresses,
                 channels,
+                types,
+                joinChannels,
                 filterFunctionFactory,
                 sortChannel,
                 searchFunctionFactories);
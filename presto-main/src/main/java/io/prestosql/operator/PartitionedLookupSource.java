@@ -147,6 +147,82 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public boolean isBatchLookupSupported()
+    {
+        return Arrays.stream(lookupSources).allMatch(LookupSource::isBatchLookupSupported);
+    }
+
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (rawHashes == null) {
+            rawHashes = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                rawHashes[i] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+            }
+        }
+
+        if (lookupSources.length == 1) {
+            lookupSources[0].getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+            for (int i = 0; i < positionCount; i++) {
+                if (joinPositions[i] >= 0) {
+                    joinPositions[i] = encodePartitionedJoinPosition(0, toIntExact(joinPositions[i]));
+                }
+            }
+            return;
+        }
+
+        // group the rows by partition, so that each partition is probed with one batch
+        int[] partitions = new int[positionCount];
+        int[] partitionOffsets = new int[lookupSources.length + 1];
+        for (int i = 0; i < positionCount; i++) {
+            partitions[i] = partitionGenerator.getPartition(rawHashes[i]);
+            partitionOffsets[partitions[i] + 1]++;
+        }
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
+        int[] rowIndexes = new int[positionCount];
+        int[] nextRowIndex = Arrays.copyOf(partitionOffsets, lookupSources.length);
+        for (int i = 0; i < positionCount; i++) {
+            rowIndexes[nextRowIndex[partitions[i]]++] = i;
+        }
+
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            int partitionStart = partitionOffsets[partition];
+            int partitionSize = partitionOffsets[partition + 1] - partitionStart;
+            if (partitionSize == 0) {
+                continue;
+            }
+            int[] partitionPositions = new int[partitionSize];
+            long[] partitionRawHashes = new long[partitionSize];
+            for (int i = 0; i < partitionSize; i++) {
+                int row = rowIndexes[partitionStart + i];
+                partitionPositions[i] = positions[row];
+                partitionRawHashes[i] = rawHashes[row];
+            }
+            long[] partitionJoinPositions = new long[partitionSize];
+            lookupSources[partition].getJoinPositions(partitionPositions, partitionSize, hashChannelsPage, allChannelsPage, partitionRawHashes, partitionJoinPositions);
+            for (int i = 0; i < partitionSize; i++) {
+                long joinPosition = partitionJoinPositions[i];
+                joinPositions[rowIndexes[partitionStart + i]] = joinPosition < 0 ? joinPosition : encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
+            }
+        }
+    }
+
+    @Override
+    public long getBloomFilterProbeCount()
+    {
+        return Arrays.stream(lookupSources).mapToLong(LookupSource::getBloomFilterProbeCount).sum();
+    }
+
+    @Override
+    public long getBloomFilterRejectionCount()
+    {
+        return Arrays.stream(lookupSources).mapToLong(LookupSource::getBloomFilterRejectionCount).sum();
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
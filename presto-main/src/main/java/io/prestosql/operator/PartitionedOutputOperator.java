@@ -25,12 +25,15 @@ import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.RunLengthEncodedBlock;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.util.Mergeable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -301,12 +304,19 @@ public class PartitionedOutputOperator
         private final List<Optional<Block>> partitionConstants;
         private final PagesSerde serde;
         private final PageBuilder[] pageBuilders;
+        private final int pageSize;
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel; // when present, send the position to every partition if this channel is null.
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
         private boolean hasAnyRowBeenReplicated;
 
+        // buffers for grouping the positions of a page by partition, reused across pages
+        private final int[] partitionStarts;
+        private int[] partitionAssignments = new int[0];
+        private int[] partitionedPositions = new int[0];
+        private int[] replicatedPositions = new int[0];
+
         public PagePartitioner(
                 PartitionFunction partitionFunction,
                 List<Integer> partitionChannels,
@@ -331,11 +341,12 @@ public class PartitionedOutputOperator
 
             int partitionCount = partitionFunction.getPartitionCount();
             int pageSize = min(DEFAULT_MAX_PAGE_SIZE_IN_BYTES, ((int) maxMemory.toBytes()) / partitionCount);
-            pageSize = max(1, pageSize);
+            this.pageSize = max(1, pageSize);
+            this.partitionStarts = new int[partitionCount + 1];
 
             this.pageBuilders = new PageBuilder[partitionCount];
             for (int i = 0; i < partitionCount; i++) {
-                pageBuilders[i] = PageBuilder.withMaxPageSize(pageSize, sourceTypes);
+                pageBuilders[i] = PageBuilder.withMaxPageSize(this.pageSize, sourceTypes);
             }
         }
 
@@ -352,7 +363,8 @@ public class PartitionedOutputOperator
             for (PageBuilder pageBuilder : pageBuilders) {
                 sizeInBytes += pageBuilder.getSizeInBytes();
             }
-            return sizeInBytes;
+            // the serde keeps its buffers for the next pages
+            return sizeInBytes + serde.getRetainedSizeInBytes();
         }
 
         /**
@@ -376,22 +388,82 @@ public class PartitionedOutputOperator
         {
             requireNonNull(page, "page is null");
 
+            int positionCount = page.getPositionCount();
+            if (positionCount == 0) {
+                return;
+            }
+            int replicatedPositionCount = assignPartitions(page);
+
+            // copy the positions of each partition column by column
+            long pageSizeInBytes = page.getSizeInBytes();
+            for (int partition = 0; partition < pageBuilders.length; partition++) {
+                int start = partitionStarts[partition];
+                int length = partitionStarts[partition + 1] - start;
+                if (length == 0) {
+                    continue;
+                }
+                if (pageSizeInBytes * length / positionCount >= pageSize / 2) {
+                    // large enough to be sent as is, which keeps dictionary and run length encoded blocks
+                    enqueuePage(partition, copyPositions(page, partitionedPositions, start, length));
+                }
+                else {
+                    appendPositions(pageBuilders[partition], page, partitionedPositions, start, length);
+                }
+            }
+            if (replicatedPositionCount > 0) {
+                for (PageBuilder pageBuilder : pageBuilders) {
+                    appendPositions(pageBuilder, page, replicatedPositions, 0, replicatedPositionCount);
+                }
+            }
+            flush(false);
+        }
+
+        /**
+         * Groups the positions that are not replicated by partition into {@code partitionedPositions},
+         * with the positions of partition {@code i} starting at {@code partitionStarts[i]},
+         * and returns the number of replicated positions stored in {@code replicatedPositions}.
+         */
+        private int assignPartitions(Page page)
+        {
+            int positionCount = page.getPositionCount();
+            if (partitionAssignments.length < positionCount) {
+                partitionAssignments = new int[positionCount];
+                partitionedPositions = new int[positionCount];
+                replicatedPositions = new int[positionCount];
+            }
+            Arrays.fill(partitionStarts, 0);
+
             Page partitionFunctionArgs = getPartitionFunctionArguments(page);
-            for (int position = 0; position < page.getPositionCount(); position++) {
+            Block nullBlock = nullChannel.isPresent() ? page.getBlock(nullChannel.getAsInt()) : null;
+            int replicatedPositionCount = 0;
+            for (int position = 0; position < positionCount; position++) {
                 boolean shouldReplicate = (replicatesAnyRow && !hasAnyRowBeenReplicated) ||
-                        nullChannel.isPresent() && page.getBlock(nullChannel.getAsInt()).isNull(position);
+                        nullBlock != null && nullBlock.isNull(position);
                 if (shouldReplicate) {
-                    for (PageBuilder pageBuilder : pageBuilders) {
-                        appendRow(pageBuilder, page, position);
-                    }
+                    partitionAssignments[position] = -1;
+                    replicatedPositions[replicatedPositionCount] = position;
+                    replicatedPositionCount++;
                     hasAnyRowBeenReplicated = true;
                 }
                 else {
                     int partition = partitionFunction.getPartition(partitionFunctionArgs, position);
-                    appendRow(pageBuilders[partition], page, position);
+                    partitionAssignments[position] = partition;
+                    partitionStarts[partition + 1]++;
                 }
             }
-            flush(false);
+
+            for (int partition = 0; partition < pageBuilders.length; partition++) {
+                partitionStarts[partition + 1] += partitionStarts[partition];
+            }
+            int[] nextPosition = Arrays.copyOf(partitionStarts, pageBuilders.length);
+            for (int position = 0; position < positionCount; position++) {
+                int partition = partitionAssignments[position];
+                if (partition >= 0) {
+                    partitionedPositions[nextPosition[partition]] = position;
+                    nextPosition[partition]++;
+                }
+            }
+            return replicatedPositionCount;
         }
 
         private Page getPartitionFunctionArguments(Page page)
@@ -409,16 +481,44 @@ public class PartitionedOutputOperator
             return new Page(page.getPositionCount(), blocks);
         }
 
-        private void appendRow(PageBuilder pageBuilder, Page page, int position)
+        private void appendPositions(PageBuilder pageBuilder, Page page, int[] positions, int offset, int length)
         {
-            pageBuilder.declarePosition();
+            pageBuilder.declarePositions(length);
 
             for (int channel = 0; channel < sourceTypes.size(); channel++) {
                 Type type = sourceTypes.get(channel);
-                type.appendTo(page.getBlock(channel), position, pageBuilder.getBlockBuilder(channel));
+                Block block = page.getBlock(channel).getLoadedBlock();
+                BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(channel);
+                if (block instanceof RunLengthEncodedBlock) {
+                    Block value = ((RunLengthEncodedBlock) block).getValue();
+                    for (int i = 0; i < length; i++) {
+                        type.appendTo(value, 0, blockBuilder);
+                    }
+                }
+                else if (block instanceof DictionaryBlock) {
+                    DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
+                    Block dictionary = dictionaryBlock.getDictionary();
+                    for (int i = offset; i < offset + length; i++) {
+                        type.appendTo(dictionary, dictionaryBlock.getId(positions[i]), blockBuilder);
+                    }
+                }
+                else {
+                    for (int i = offset; i < offset + length; i++) {
+                        type.appendTo(block, positions[i], blockBuilder);
+                    }
+                }
             }
         }
 
+        private static Page copyPositions(Page page, int[] positions, int offset, int length)
+        {
+            Block[] blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = page.getBlock(channel).copyPositions(positions, offset, length);
+            }
+            return new Page(length, blocks);
+        }
+
         public void flush(boolean force)
         {
             // add all full pages to output buffer
@@ -427,17 +527,21 @@ public class PartitionedOutputOperator
                 if (!partitionPageBuilder.isEmpty() && (force || partitionPageBuilder.isFull())) {
                     Page pagePartition = partitionPageBuilder.build();
                     partitionPageBuilder.reset();
-
-                    List<SerializedPage> serializedPages = splitPage(pagePartition, DEFAULT_MAX_PAGE_SIZE_IN_BYTES).stream()
-                            .map(serde::serialize)
-                            .collect(toImmutableList());
-
-                    outputBuffer.enqueue(partition, serializedPages);
-                    pagesAdded.incrementAndGet();
-                    rowsAdded.addAndGet(pagePartition.getPositionCount());
+                    enqueuePage(partition, pagePartition);
                 }
             }
         }
+
+        private void enqueuePage(int partition, Page page)
+        {
+            List<SerializedPage> serializedPages = splitPage(page, DEFAULT_MAX_PAGE_SIZE_IN_BYTES).stream()
+                    .map(serde::serialize)
+                    .collect(toImmutableList());
+
+            outputBuffer.enqueue(partition, serializedPages);
+            pagesAdded.incrementAndGet();
+            rowsAdded.addAndGet(page.getPositionCount());
+        }
     }
 
     public static class PartitionedOutputInfo
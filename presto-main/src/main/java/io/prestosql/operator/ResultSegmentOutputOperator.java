@@ -0,0 +1,310 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.prestosql.Session;
+import io.prestosql.client.ClientCapabilities;
+import io.prestosql.execution.buffer.OutputBuffer;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.ResultSegmentStore;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.server.protocol.BinaryDataEncoder;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.plan.OutputNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import io.prestosql.sql.planner.plan.StatisticsWriterNode;
+import io.prestosql.sql.planner.plan.TableDeleteNode;
+import io.prestosql.sql.planner.plan.TableFinishNode;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.SystemSessionProperties.isSpooledResultsEnabled;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Output operator of the root stage when the query results are spooled. The result pages
+ * are collected into segments which are encoded in the client binary data format and
+ * written to the {@link ResultSegmentStore}. Only a descriptor page with the URI and the
+ * row count of each segment is sent to the coordinator through the output buffer.
+ * <p>
+ * A segment is written in the background while the operator is blocked, and the descriptors
+ * are enqueued in the order of the segments, as only one segment is written at a time.
+ */
+public class ResultSegmentOutputOperator
+        implements Operator
+{
+    public static final List<Type> SEGMENT_DESCRIPTOR_TYPES = ImmutableList.of(VARCHAR, BIGINT);
+
+    /**
+     * Returns whether the results of the query with the given root fragment are spooled.
+     * The results of statements that write data are never spooled, as the coordinator reads
+     * the update count from them.
+     */
+    public static boolean isSpooledOutput(Session session, PlanNode rootFragmentRoot)
+    {
+        return rootFragmentRoot instanceof OutputNode &&
+                isSpooledResultsEnabled(session) &&
+                session.getClientCapabilities().contains(ClientCapabilities.SPOOLED_RESULTS.toString()) &&
+                !searchFrom(rootFragmentRoot)
+                        .where(node -> node instanceof TableFinishNode || node instanceof TableDeleteNode || node instanceof StatisticsWriterNode)
+                        .matches();
+    }
+
+    public static class ResultSegmentOutputFactory
+            implements OutputFactory
+    {
+        private final OutputBuffer outputBuffer;
+        private final ResultSegmentStore segmentStore;
+
+        public ResultSegmentOutputFactory(OutputBuffer outputBuffer, ResultSegmentStore segmentStore)
+        {
+            this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
+            this.segmentStore = requireNonNull(segmentStore, "segmentStore is null");
+        }
+
+        @Override
+        public OperatorFactory createOutputOperator(int operatorId, PlanNodeId planNodeId, List<Type> types, Function<Page, Page> pagePreprocessor, PagesSerdeFactory serdeFactory)
+        {
+            return new ResultSegmentOutputOperatorFactory(operatorId, planNodeId, types, outputBuffer, segmentStore, segmentStore.getSegmentSize(), pagePreprocessor, serdeFactory);
+        }
+    }
+
+    public static class ResultSegmentOutputOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final List<Type> types;
+        private final OutputBuffer outputBuffer;
+        private final ResultSegmentStore segmentStore;
+        private final DataSize segmentSize;
+        private final Function<Page, Page> pagePreprocessor;
+        private final PagesSerdeFactory serdeFactory;
+
+        public ResultSegmentOutputOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<Type> types,
+                OutputBuffer outputBuffer,
+                ResultSegmentStore segmentStore,
+                DataSize segmentSize,
+                Function<Page, Page> pagePreprocessor,
+                PagesSerdeFactory serdeFactory)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
+            this.segmentStore = requireNonNull(segmentStore, "segmentStore is null");
+            this.segmentSize = requireNonNull(segmentSize, "segmentSize is null");
+            this.pagePreprocessor = requireNonNull(pagePreprocessor, "pagePreprocessor is null");
+            this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, ResultSegmentOutputOperator.class.getSimpleName());
+            return new ResultSegmentOutputOperator(operatorContext, types, outputBuffer, segmentStore, segmentSize, pagePreprocessor, serdeFactory);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new ResultSegmentOutputOperatorFactory(operatorId, planNodeId, types, outputBuffer, segmentStore, segmentSize, pagePreprocessor, serdeFactory);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final List<Type> types;
+    private final OutputBuffer outputBuffer;
+    private final ResultSegmentStore segmentStore;
+    private final long segmentSizeInBytes;
+    private final Function<Page, Page> pagePreprocessor;
+    private final PagesSerde serde;
+    private final LocalMemoryContext memoryContext;
+
+    private final List<Page> bufferedPages = new ArrayList<>();
+    private long bufferedBytes;
+    private boolean finished;
+
+    private ListenableFuture<URI> segmentWrite;
+    private long segmentWriteRows;
+
+    public ResultSegmentOutputOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            OutputBuffer outputBuffer,
+            ResultSegmentStore segmentStore,
+            DataSize segmentSize,
+            Function<Page, Page> pagePreprocessor,
+            PagesSerdeFactory serdeFactory)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
+        this.segmentStore = requireNonNull(segmentStore, "segmentStore is null");
+        this.segmentSizeInBytes = requireNonNull(segmentSize, "segmentSize is null").toBytes();
+        this.pagePreprocessor = requireNonNull(pagePreprocessor, "pagePreprocessor is null");
+        this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde();
+        this.memoryContext = operatorContext.newLocalSystemMemoryContext(ResultSegmentOutputOperator.class.getSimpleName());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (segmentWrite == null) {
+            writeSegment();
+        }
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished && isBlocked().isDone();
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (segmentWrite != null) {
+            if (!segmentWrite.isDone()) {
+                return segmentWrite;
+            }
+            enqueueSegmentDescriptor();
+            if (finished) {
+                // the last segment is written once the previous one is done
+                writeSegment();
+                if (segmentWrite != null) {
+                    return segmentWrite;
+                }
+            }
+        }
+        ListenableFuture<?> blocked = outputBuffer.isFull();
+        return blocked.isDone() ? NOT_BLOCKED : blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finished && isBlocked().isDone();
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(!finished, "Operator is already finished");
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+
+        page = pagePreprocessor.apply(page);
+        bufferedPages.add(page);
+        bufferedBytes += page.getRetainedSizeInBytes();
+        memoryContext.setBytes(bufferedBytes);
+        operatorContext.recordOutput(page.getSizeInBytes(), page.getPositionCount());
+
+        if (bufferedBytes >= segmentSizeInBytes) {
+            writeSegment();
+        }
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        return null;
+    }
+
+    @Override
+    public void close()
+    {
+        bufferedPages.clear();
+        if (segmentWrite != null) {
+            // a segment which is already being written is removed by the store when it expires
+            segmentWrite.cancel(false);
+            segmentWrite = null;
+        }
+        memoryContext.close();
+    }
+
+    private void writeSegment()
+    {
+        checkState(segmentWrite == null, "Segment write is already in progress");
+        if (bufferedPages.isEmpty()) {
+            return;
+        }
+
+        long rows = bufferedPages.stream()
+                .mapToLong(Page::getPositionCount)
+                .sum();
+        byte[] segment = BinaryDataEncoder.encode(operatorContext.getSession().toConnectorSession(), types, bufferedPages);
+        // the encoded segment is held until the write completes
+        memoryContext.setBytes(bufferedBytes + sizeOf(segment));
+
+        bufferedPages.clear();
+        bufferedBytes = 0;
+        memoryContext.setBytes(sizeOf(segment));
+
+        segmentWrite = segmentStore.writeSegment(segment);
+        segmentWriteRows = rows;
+    }
+
+    private void enqueueSegmentDescriptor()
+    {
+        URI segmentUri = getFutureValue(segmentWrite);
+        long rows = segmentWriteRows;
+        segmentWrite = null;
+        segmentWriteRows = 0;
+        memoryContext.setBytes(bufferedBytes);
+
+        PageBuilder pageBuilder = new PageBuilder(1, SEGMENT_DESCRIPTOR_TYPES);
+        pageBuilder.declarePosition();
+        VARCHAR.writeSlice(pageBuilder.getBlockBuilder(0), utf8Slice(segmentUri.toString()));
+        BIGINT.writeLong(pageBuilder.getBlockBuilder(1), rows);
+        outputBuffer.enqueue(ImmutableList.of(serde.serialize(pageBuilder.build())));
+    }
+}
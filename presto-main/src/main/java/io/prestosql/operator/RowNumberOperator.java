@@ -14,25 +14,36 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.array.LongBigArray;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -55,6 +66,8 @@ public class RowNumberOperator
         private final int expectedPositions;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public RowNumberOperatorFactory(
                 int operatorId,
@@ -67,6 +80,25 @@ public class RowNumberOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+                throw new UnsupportedOperationException();
+            });
+        }
+
+        public RowNumberOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<Integer> partitionChannels,
+                List<? extends Type> partitionTypes,
+                Optional<Integer> maxRowsPerPartition,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -80,6 +112,8 @@ public class RowNumberOperator
             checkArgument(expectedPositions > 0, "expectedPositions < 0");
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -97,7 +131,9 @@ public class RowNumberOperator
                     maxRowsPerPartition,
                     hashChannel,
                     expectedPositions,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
 
         @Override
@@ -109,22 +145,34 @@ public class RowNumberOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new RowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler);
+            return new RowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
     private boolean finishing;
 
     private final int[] outputChannels;
     private final List<Type> types;
+    private final List<Type> sourceTypes;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
 
     private GroupByIdBlock partitionIds;
-    private final Optional<GroupByHash> groupByHash;
+    // empty if there are no partition channels or once the row counts are spilled
+    private Optional<GroupByHash> groupByHash;
 
     private Page inputPage;
-    private final LongBigArray partitionRowCount;
+    private LongBigArray partitionRowCount;
 
     private final Optional<Integer> maxRowsPerPartition;
     // Only present if maxRowsPerPartition is present
@@ -133,6 +181,18 @@ public class RowNumberOperator
     // for yield when memory is not available
     private Work<GroupByIdBlock> unfinishedWork;
 
+    // Once memory is revoked, the row counts of the partitions seen so far are spilled to keySpiller and all
+    // the following input to inputSpiller, both partitioned by the hash of the partition channels. When the
+    // input is finished the spilled partitions are numbered one at a time, continuing from their spilled row
+    // counts, so that only the row counts of one spilled partition have to fit in memory.
+    private boolean spilled;
+    private Optional<PartitioningSpiller> keySpiller = Optional.empty();
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private int unspillPartition;
+    private GroupByHash unspilledHash;
+    private Iterator<Page> unspilledInput;
+
     public RowNumberOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -143,11 +203,38 @@ public class RowNumberOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler)
+    {
+        this(operatorContext, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    public RowNumberOperator(
+            OperatorContext operatorContext,
+            List<Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<Integer> partitionChannels,
+            List<Type> partitionTypes,
+            Optional<Integer> maxRowsPerPartition,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
         this.outputChannels = Ints.toArray(outputChannels);
         this.types = toTypes(sourceTypes, outputChannels);
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
+        this.partitionChannels = ImmutableList.copyOf(requireNonNull(partitionChannels, "partitionChannels is null"));
+        this.partitionTypes = ImmutableList.copyOf(requireNonNull(partitionTypes, "partitionTypes is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
 
         this.maxRowsPerPartition = maxRowsPerPartition;
         if (maxRowsPerPartition.isPresent()) {
@@ -189,7 +276,13 @@ public class RowNumberOperator
             return partitionRowCount.get(0) == maxRowsPerPartition.get();
         }
 
-        return finishing && !hasUnfinishedInput();
+        return finishing && !hasUnfinishedInput() && spillInProgress.isDone() && (!spilled || unspillPartition == SPILL_PARTITION_COUNT);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
@@ -199,7 +292,7 @@ public class RowNumberOperator
             // Check if single partition is done
             return partitionRowCount.get(0) < maxRowsPerPartition.get() && !finishing && !hasUnfinishedInput();
         }
-        return !finishing && !hasUnfinishedInput();
+        return !finishing && !hasUnfinishedInput() && spillInProgress.isDone();
     }
 
     @Override
@@ -208,6 +301,14 @@ public class RowNumberOperator
         checkState(!finishing, "Operator is already finishing");
         requireNonNull(page, "page is null");
         checkState(!hasUnfinishedInput());
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (spilled) {
+            // the row counts of the partitions seen so far are on disk, so the rows are numbered when the input is finished
+            spillInProgress = inputSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+            return;
+        }
+
         inputPage = page;
         if (groupByHash.isPresent()) {
             unfinishedWork = groupByHash.get().getGroupIds(inputPage);
@@ -219,6 +320,15 @@ public class RowNumberOperator
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (spilled) {
+            return finishing ? getUnspilledOutput() : null;
+        }
+
         if (unfinishedWork != null && !processUnfinishedWork()) {
             return null;
         }
@@ -227,19 +337,161 @@ public class RowNumberOperator
             return null;
         }
 
-        Page outputPage;
-        if (maxRowsPerPartition.isPresent()) {
-            outputPage = getSelectedRows();
-        }
-        else {
-            outputPage = getRowsWithRowNumber();
-        }
+        Page outputPage = getOutputPage();
 
         inputPage = null;
         updateMemoryReservation();
         return outputPage;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (!spillEnabled || isSinglePartition() || spilled || hasUnfinishedInput() || finishing) {
+            return NOT_BLOCKED;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        List<Type> keyTypes = ImmutableList.<Type>builder()
+                .addAll(groupByHash.get().getTypes())
+                .add(BIGINT)
+                .build();
+        inputSpiller = Optional.of(createSpiller(sourceTypes, getInputPartitionGenerator()));
+        keySpiller = Optional.of(createSpiller(keyTypes, getKeyPartitionGenerator()));
+        spillInProgress = keySpiller.get().partitionAndSpill(new PartitionRowCountIterator(groupByHash.get(), partitionRowCount, keyTypes));
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (keySpiller.isPresent() && !spilled) {
+            spilled = true;
+            groupByHash = Optional.empty();
+            partitionRowCount = new LongBigArray(0);
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try (Closer closer = Closer.create()) {
+            keySpiller.ifPresent(closer::register);
+            inputSpiller.ifPresent(closer::register);
+        }
+        groupByHash = Optional.empty();
+        unspilledHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private Page getOutputPage()
+    {
+        if (maxRowsPerPartition.isPresent()) {
+            return getSelectedRows();
+        }
+        return getRowsWithRowNumber();
+    }
+
+    private Page getUnspilledOutput()
+    {
+        while (unspillPartition < SPILL_PARTITION_COUNT) {
+            if (unspilledInput == null) {
+                // restore the row counts this partition had before spilling, the rows of the spilled input are numbered from them
+                int keyChannelCount = partitionTypes.size();
+                unspilledHash = createGroupByHash(
+                        partitionTypes,
+                        IntStream.range(0, keyChannelCount).toArray(),
+                        hashChannel.map(channel -> keyChannelCount),
+                        expectedPositions,
+                        isDictionaryAggregationEnabled(operatorContext.getSession()),
+                        joinCompiler,
+                        () -> true);
+                partitionRowCount = new LongBigArray(0);
+                Iterator<Page> keys = keySpiller.get().getSpilledPages(unspillPartition);
+                while (keys.hasNext()) {
+                    Page page = keys.next();
+                    Work<GroupByIdBlock> work = unspilledHash.getGroupIds(page);
+                    checkState(work.process(), "work did not complete");
+                    GroupByIdBlock keyPartitionIds = work.getResult();
+                    partitionRowCount.ensureCapacity(keyPartitionIds.getGroupCount());
+                    Block rowCounts = page.getBlock(page.getChannelCount() - 1);
+                    for (int position = 0; position < page.getPositionCount(); position++) {
+                        partitionRowCount.set(keyPartitionIds.getGroupId(position), BIGINT.getLong(rowCounts, position));
+                    }
+                }
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize() + partitionRowCount.sizeOf());
+                unspilledInput = inputSpiller.get().getSpilledPages(unspillPartition);
+            }
+
+            while (unspilledInput.hasNext()) {
+                inputPage = unspilledInput.next();
+                Work<GroupByIdBlock> work = unspilledHash.getGroupIds(extractColumns(inputPage, getPartitionHashChannels()));
+                checkState(work.process(), "work did not complete");
+                partitionIds = work.getResult();
+                partitionRowCount.ensureCapacity(partitionIds.getGroupCount());
+                localUserMemoryContext.setBytes(unspilledHash.getEstimatedSize() + partitionRowCount.sizeOf());
+
+                Page outputPage = getOutputPage();
+                inputPage = null;
+                if (outputPage != null) {
+                    return outputPage;
+                }
+            }
+
+            unspilledInput = null;
+            unspilledHash = null;
+            partitionRowCount = new LongBigArray(0);
+            localUserMemoryContext.setBytes(0);
+            unspillPartition++;
+        }
+        return null;
+    }
+
+    private PartitioningSpiller createSpiller(List<Type> types, LocalPartitionGenerator partitionGenerator)
+    {
+        return partitioningSpillerFactory.create(
+                types,
+                partitionGenerator,
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+    }
+
+    private LocalPartitionGenerator getInputPartitionGenerator()
+    {
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(hashChannel.get())
+                : new InterpretedHashGenerator(partitionTypes, partitionChannels);
+        return new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT);
+    }
+
+    private LocalPartitionGenerator getKeyPartitionGenerator()
+    {
+        // the spilled row counts have the partition channels first, followed by the hash channel, if any, and the row count
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(partitionTypes.size())
+                : new InterpretedHashGenerator(partitionTypes, IntStream.range(0, partitionTypes.size()).toArray());
+        return new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT);
+    }
+
+    private int[] getPartitionHashChannels()
+    {
+        ImmutableList.Builder<Integer> channels = ImmutableList.<Integer>builder().addAll(partitionChannels);
+        hashChannel.ifPresent(channels::add);
+        return Ints.toArray(channels.build());
+    }
+
+    private static Page extractColumns(Page page, int[] channels)
+    {
+        Block[] newBlocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            newBlocks[i] = page.getBlock(channels[i]);
+        }
+        return new Page(page.getPositionCount(), newBlocks);
+    }
+
     private boolean hasUnfinishedInput()
     {
         return inputPage != null || unfinishedWork != null;
@@ -258,6 +510,11 @@ public class RowNumberOperator
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
         long memorySizeInBytes = groupByHash.map(GroupByHash::getEstimatedSize).orElse(0L) + partitionRowCount.sizeOf();
+        if (spillEnabled && !isSinglePartition()) {
+            // revocable memory does not block, the row counts are spilled when the memory is revoked
+            localRevocableMemoryContext.setBytes(memorySizeInBytes);
+            return true;
+        }
         localUserMemoryContext.setBytes(memorySizeInBytes);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
@@ -277,7 +534,7 @@ public class RowNumberOperator
 
     private boolean isSinglePartition()
     {
-        return !groupByHash.isPresent();
+        return partitionChannels.isEmpty();
     }
 
     private Page getRowsWithRowNumber()
@@ -355,6 +612,41 @@ public class RowNumberOperator
     @VisibleForTesting
     public int getCapacity()
     {
+        checkState(!spilled, "row counts are spilled");
         return groupByHash.map(GroupByHash::getCapacity).orElse(0);
     }
+
+    private static class PartitionRowCountIterator
+            extends AbstractIterator<Page>
+    {
+        private final GroupByHash groupByHash;
+        private final LongBigArray partitionRowCount;
+        private final PageBuilder pageBuilder;
+        private final int rowCountChannel;
+        private int partitionId;
+
+        private PartitionRowCountIterator(GroupByHash groupByHash, LongBigArray partitionRowCount, List<Type> types)
+        {
+            this.groupByHash = requireNonNull(groupByHash, "groupByHash is null");
+            this.partitionRowCount = requireNonNull(partitionRowCount, "partitionRowCount is null");
+            this.pageBuilder = new PageBuilder(types);
+            this.rowCountChannel = types.size() - 1;
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            pageBuilder.reset();
+            while (!pageBuilder.isFull() && partitionId < groupByHash.getGroupCount()) {
+                pageBuilder.declarePosition();
+                groupByHash.appendValuesTo(partitionId, pageBuilder, 0);
+                BIGINT.writeLong(pageBuilder.getBlockBuilder(rowCountChannel), partitionRowCount.get(partitionId));
+                partitionId++;
+            }
+            if (pageBuilder.isEmpty()) {
+                return endOfData();
+            }
+            return pageBuilder.build();
+        }
+    }
 }
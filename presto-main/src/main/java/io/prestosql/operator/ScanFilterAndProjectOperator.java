@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.Session;
@@ -34,6 +35,7 @@ import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
 import io.prestosql.spi.connector.UpdatablePageSource;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.split.EmptySplit;
 import io.prestosql.split.EmptySplitPageSource;
@@ -81,6 +83,7 @@ public class ScanFilterAndProjectOperator
             PageProcessor pageProcessor,
             TableHandle table,
             Iterable<ColumnHandle> columns,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
             Iterable<Type> types,
             DataSize minOutputPageSize,
             int minOutputPageRowCount)
@@ -94,6 +97,7 @@ public class ScanFilterAndProjectOperator
                         pageProcessor,
                         table,
                         columns,
+                        dynamicFilter,
                         types,
                         requireNonNull(memoryTrackingContext, "memoryTrackingContext is null").aggregateSystemMemoryContext(),
                         minOutputPageSize,
@@ -173,6 +177,7 @@ public class ScanFilterAndProjectOperator
         final PageProcessor pageProcessor;
         final TableHandle table;
         final List<ColumnHandle> columns;
+        final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
         final List<Type> types;
         final LocalMemoryContext memoryContext;
         final AggregatedMemoryContext localAggregatedMemoryContext;
@@ -181,6 +186,9 @@ public class ScanFilterAndProjectOperator
         final DataSize minOutputPageSize;
         final int minOutputPageRowCount;
 
+        TupleDomain<ColumnHandle> dynamicFilterDomain;
+        DynamicPageFilter dynamicPageFilter;
+
         SplitToPages(
                 Session session,
                 DriverYieldSignal yieldSignal,
@@ -189,6 +197,7 @@ public class ScanFilterAndProjectOperator
                 PageProcessor pageProcessor,
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
+                Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
                 Iterable<Type> types,
                 AggregatedMemoryContext aggregatedMemoryContext,
                 DataSize minOutputPageSize,
@@ -201,6 +210,7 @@ public class ScanFilterAndProjectOperator
             this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
             this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
             this.memoryContext = aggregatedMemoryContext.newLocalMemoryContext(ScanFilterAndProjectOperator.class.getSimpleName());
             this.localAggregatedMemoryContext = newSimpleAggregatedMemoryContext();
@@ -225,7 +235,9 @@ public class ScanFilterAndProjectOperator
                 source = new EmptySplitPageSource();
             }
             else {
-                source = pageSourceProvider.createPageSource(session, split, table, columns);
+                // the dynamic filter is resolved as late as possible, as it is usually
+                // completed only after the build side of the join has been consumed
+                source = pageSourceProvider.createPageSource(session, split, table, columns, dynamicFilter.get());
             }
 
             if (source instanceof RecordPageSource) {
@@ -241,7 +253,7 @@ public class ScanFilterAndProjectOperator
         WorkProcessor<Page> processColumnSource()
         {
             return WorkProcessor
-                    .create(new RecordCursorToPages(session, yieldSignal, cursorProcessor, types, pageSourceMemoryContext, outputMemoryContext))
+                    .create(new RecordCursorToPages(session, yieldSignal, cursorProcessor, types, new DynamicFilterRecordCursor(cursor, this::getDynamicPageFilter), pageSourceMemoryContext, outputMemoryContext))
                     .yielding(yieldSignal::isSet)
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
@@ -249,7 +261,7 @@ public class ScanFilterAndProjectOperator
         WorkProcessor<Page> processPageSource()
         {
             return WorkProcessor
-                    .create(new ConnectorPageSourceToPages(pageSourceMemoryContext))
+                    .create(new ConnectorPageSourceToPages(this::getDynamicPageFilter, pageSourceMemoryContext))
                     .yielding(yieldSignal::isSet)
                     .flatMap(page -> pageProcessor.createWorkProcessor(
                             session.toConnectorSession(),
@@ -259,6 +271,18 @@ public class ScanFilterAndProjectOperator
                     .transformProcessor(processor -> mergePages(types, minOutputPageSize.toBytes(), minOutputPageRowCount, processor, localAggregatedMemoryContext))
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
+
+        DynamicPageFilter getDynamicPageFilter()
+        {
+            // the dynamic filter may be completed while the split is being read,
+            // so it is resolved again for every page
+            TupleDomain<ColumnHandle> domain = dynamicFilter.get();
+            if (!domain.equals(dynamicFilterDomain)) {
+                dynamicFilterDomain = domain;
+                dynamicPageFilter = DynamicPageFilter.create(domain, columns);
+            }
+            return dynamicPageFilter;
+        }
     }
 
     private class RecordCursorToPages
@@ -268,6 +292,7 @@ public class ScanFilterAndProjectOperator
         final DriverYieldSignal yieldSignal;
         final CursorProcessor cursorProcessor;
         final PageBuilder pageBuilder;
+        final DynamicFilterRecordCursor filteredCursor;
         final LocalMemoryContext pageSourceMemoryContext;
         final LocalMemoryContext outputMemoryContext;
 
@@ -278,6 +303,7 @@ public class ScanFilterAndProjectOperator
                 DriverYieldSignal yieldSignal,
                 CursorProcessor cursorProcessor,
                 List<Type> types,
+                DynamicFilterRecordCursor filteredCursor,
                 LocalMemoryContext pageSourceMemoryContext,
                 LocalMemoryContext outputMemoryContext)
         {
@@ -285,6 +311,7 @@ public class ScanFilterAndProjectOperator
             this.yieldSignal = yieldSignal;
             this.cursorProcessor = cursorProcessor;
             this.pageBuilder = new PageBuilder(types);
+            this.filteredCursor = filteredCursor;
             this.pageSourceMemoryContext = pageSourceMemoryContext;
             this.outputMemoryContext = outputMemoryContext;
         }
@@ -293,10 +320,11 @@ public class ScanFilterAndProjectOperator
         public ProcessState<Page> process()
         {
             if (!finished) {
-                CursorProcessorOutput output = cursorProcessor.process(session.toConnectorSession(), yieldSignal, cursor, pageBuilder);
+                filteredCursor.updateDynamicFilter();
+                CursorProcessorOutput output = cursorProcessor.process(session.toConnectorSession(), yieldSignal, filteredCursor, pageBuilder);
                 pageSourceMemoryContext.setBytes(cursor.getSystemMemoryUsage());
 
-                processedPositions += output.getProcessedRows();
+                processedPositions += output.getProcessedRows() + filteredCursor.getAndResetFilteredRows();
                 // TODO: derive better values for cursors
                 processedBytes = cursor.getCompletedBytes();
                 physicalBytes = cursor.getCompletedBytes();
@@ -327,10 +355,12 @@ public class ScanFilterAndProjectOperator
     private class ConnectorPageSourceToPages
             implements WorkProcessor.Process<Page>
     {
+        final Supplier<DynamicPageFilter> dynamicPageFilter;
         final LocalMemoryContext pageSourceMemoryContext;
 
-        ConnectorPageSourceToPages(LocalMemoryContext pageSourceMemoryContext)
+        ConnectorPageSourceToPages(Supplier<DynamicPageFilter> dynamicPageFilter, LocalMemoryContext pageSourceMemoryContext)
         {
+            this.dynamicPageFilter = dynamicPageFilter;
             this.pageSourceMemoryContext = pageSourceMemoryContext;
         }
 
@@ -365,10 +395,121 @@ public class ScanFilterAndProjectOperator
             physicalBytes = pageSource.getCompletedBytes();
             readTimeNanos = pageSource.getReadTimeNanos();
 
+            page = dynamicPageFilter.get().filter(page);
+            if (page.getPositionCount() == 0) {
+                return ProcessState.yield();
+            }
+
             return ProcessState.ofResult(page);
         }
     }
 
+    private static class DynamicFilterRecordCursor
+            implements RecordCursor
+    {
+        final RecordCursor cursor;
+        final Supplier<DynamicPageFilter> dynamicPageFilter;
+
+        DynamicPageFilter currentFilter;
+        long filteredRows;
+
+        DynamicFilterRecordCursor(RecordCursor cursor, Supplier<DynamicPageFilter> dynamicPageFilter)
+        {
+            this.cursor = requireNonNull(cursor, "cursor is null");
+            this.dynamicPageFilter = requireNonNull(dynamicPageFilter, "dynamicPageFilter is null");
+        }
+
+        void updateDynamicFilter()
+        {
+            currentFilter = dynamicPageFilter.get();
+        }
+
+        long getAndResetFilteredRows()
+        {
+            long rows = filteredRows;
+            filteredRows = 0;
+            return rows;
+        }
+
+        @Override
+        public boolean advanceNextPosition()
+        {
+            while (cursor.advanceNextPosition()) {
+                if (currentFilter == null || currentFilter.isAll() || currentFilter.matches(cursor)) {
+                    return true;
+                }
+                filteredRows++;
+            }
+            return false;
+        }
+
+        @Override
+        public long getCompletedBytes()
+        {
+            return cursor.getCompletedBytes();
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return cursor.getReadTimeNanos();
+        }
+
+        @Override
+        public Type getType(int field)
+        {
+            return cursor.getType(field);
+        }
+
+        @Override
+        public boolean getBoolean(int field)
+        {
+            return cursor.getBoolean(field);
+        }
+
+        @Override
+        public long getLong(int field)
+        {
+            return cursor.getLong(field);
+        }
+
+        @Override
+        public double getDouble(int field)
+        {
+            return cursor.getDouble(field);
+        }
+
+        @Override
+        public Slice getSlice(int field)
+        {
+            return cursor.getSlice(field);
+        }
+
+        @Override
+        public Object getObject(int field)
+        {
+            return cursor.getObject(field);
+        }
+
+        @Override
+        public boolean isNull(int field)
+        {
+            return cursor.isNull(field);
+        }
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return cursor.getSystemMemoryUsage();
+        }
+
+        @Override
+        public void close()
+        {
+            cursor.close();
+        }
+    }
+
     public static class ScanFilterAndProjectOperatorFactory
             implements SourceOperatorFactory, WorkProcessorSourceOperatorFactory
     {
@@ -380,6 +521,7 @@ public class ScanFilterAndProjectOperator
         private final PageSourceProvider pageSourceProvider;
         private final TableHandle table;
         private final List<ColumnHandle> columns;
+        private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
         private final List<Type> types;
         private final DataSize minOutputPageSize;
         private final int minOutputPageRowCount;
@@ -394,6 +536,7 @@ public class ScanFilterAndProjectOperator
                 Supplier<PageProcessor> pageProcessor,
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
+                Supplier<TupleDomain<ColumnHandle>> dynamicFilter,
                 List<Type> types,
                 DataSize minOutputPageSize,
                 int minOutputPageRowCount)
@@ -406,6 +549,7 @@ public class ScanFilterAndProjectOperator
             this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
             this.types = requireNonNull(types, "types is null");
             this.minOutputPageSize = requireNonNull(minOutputPageSize, "minOutputPageSize is null");
             this.minOutputPageRowCount = minOutputPageRowCount;
@@ -454,6 +598,7 @@ public class ScanFilterAndProjectOperator
                     pageProcessor.get(),
                     table,
                     columns,
+                    dynamicFilter,
                     types,
                     minOutputPageSize,
                     minOutputPageRowCount);
@@ -23,6 +23,16 @@ public interface SpillContext
 {
     void updateBytes(long bytes);
 
+    /**
+     * Records that pages of the given size before compression were spilled, taking the given time.
+     */
+    default void recordSpillWrite(long uncompressedBytes, long nanos) {}
+
+    /**
+     * Records that the given bytes of spilled data were read back, taking the given time.
+     */
+    default void recordUnspillRead(long bytes, long nanos) {}
+
     default SpillContext newLocalSpillContext()
     {
         return new LocalSpillContext(this);
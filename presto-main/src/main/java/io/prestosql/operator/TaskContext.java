@@ -15,6 +15,7 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.AtomicDouble;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -32,14 +33,17 @@ import io.prestosql.memory.QueryContext;
 import io.prestosql.memory.QueryContextVisitor;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.memory.context.MemoryTrackingContext;
+import io.prestosql.spi.predicate.Domain;
 import org.joda.time.DateTime;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
@@ -84,6 +88,8 @@ public class TaskContext
 
     private final Set<Lifespan> completedDriverGroups = newConcurrentHashSet();
 
+    private final Map<String, Domain> dynamicFilterDomains = new ConcurrentHashMap<>();
+
     private final List<PipelineContext> pipelineContexts = new CopyOnWriteArrayList<>();
 
     private final boolean perOperatorCpuTimerEnabled;
@@ -265,6 +271,21 @@ public class TaskContext
         completedDriverGroups.add(driverGroup);
     }
 
+    /**
+     * Returns the dynamic filters collected by the build side of the joins in this task,
+     * keyed by dynamic filter ID. These are reported to the coordinator with the task status.
+     */
+    public Map<String, Domain> getDynamicFilterDomains()
+    {
+        return ImmutableMap.copyOf(dynamicFilterDomains);
+    }
+
+    public void addDynamicFilterDomains(Map<String, Domain> domains)
+    {
+        // the domains are sent with every task status, so keep them small
+        domains.forEach((filterId, domain) -> dynamicFilterDomains.merge(filterId, domain.simplify(), Domain::intersect));
+    }
+
     public List<PipelineContext> getPipelineContexts()
     {
         return pipelineContexts;
@@ -15,21 +15,31 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -59,6 +69,8 @@ public class TopNRowNumberOperator
         private final boolean generateRowNumber;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public TopNRowNumberOperatorFactory(
                 int operatorId,
@@ -74,6 +86,28 @@ public class TopNRowNumberOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+                throw new UnsupportedOperationException();
+            });
+        }
+
+        public TopNRowNumberOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<Integer> partitionChannels,
+                List<? extends Type> partitionTypes,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                int maxRowCountPerPartition,
+                boolean partial,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -91,6 +125,8 @@ public class TopNRowNumberOperator
             this.generateRowNumber = !partial;
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -110,7 +146,9 @@ public class TopNRowNumberOperator
                     generateRowNumber,
                     hashChannel,
                     expectedPositions,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
 
         @Override
@@ -122,22 +160,43 @@ public class TopNRowNumberOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new TopNRowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler);
+            return new TopNRowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private final List<Integer> outputChannels;
-
-    private final GroupByHash groupByHash;
-    private final GroupedTopNBuilder groupedTopNBuilder;
+    private final List<Type> sourceTypes;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final PageWithPositionComparator comparator;
+    private final int maxRowCountPerPartition;
+    private final boolean generateRowNumber;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+
+    private GroupByHash groupByHash;
+    private GroupedTopNBuilder groupedTopNBuilder;
 
     private boolean finishing;
     private Work<?> unfinishedWork;
     private Iterator<Page> outputIterator;
 
+    // Once memory is revoked, the rows retained so far and all the following input are spilled, partitioned
+    // by the hash of the partition channels. When the input is finished the top rows of the spilled partitions
+    // are built one at a time, so that only the rows of one spilled partition have to fit in memory.
+    private boolean spilled;
+    private Optional<PartitioningSpiller> inputSpiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+
     public TopNRowNumberOperator(
             OperatorContext operatorContext,
             List<? extends Type> sourceTypes,
@@ -151,9 +210,41 @@ public class TopNRowNumberOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler)
+    {
+        this(operatorContext, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrders, maxRowCountPerPartition, generateRowNumber, hashChannel, expectedPositions, joinCompiler, false, (types, partitionFunction, spillContext, memoryContext) -> {
+            throw new UnsupportedOperationException();
+        });
+    }
+
+    public TopNRowNumberOperator(
+            OperatorContext operatorContext,
+            List<? extends Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<Integer> partitionChannels,
+            List<Type> partitionTypes,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrders,
+            int maxRowCountPerPartition,
+            boolean generateRowNumber,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
+        this.partitionChannels = ImmutableList.copyOf(requireNonNull(partitionChannels, "partitionChannels is null"));
+        this.partitionTypes = ImmutableList.copyOf(requireNonNull(partitionTypes, "partitionTypes is null"));
+        this.maxRowCountPerPartition = maxRowCountPerPartition;
+        this.generateRowNumber = generateRowNumber;
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
 
         ImmutableList.Builder<Integer> outputChannelsBuilder = ImmutableList.builder();
         for (int channel : requireNonNull(outputChannels, "outputChannels is null")) {
@@ -168,6 +259,16 @@ public class TopNRowNumberOperator
 
         if (!partitionChannels.isEmpty()) {
             checkArgument(expectedPositions > 0, "expectedPositions must be > 0");
+        }
+
+        List<Type> types = toTypes(sourceTypes, outputChannels, generateRowNumber);
+        this.comparator = new SimplePageWithPositionComparator(types, sortChannels, sortOrders);
+        this.groupedTopNBuilder = createGroupedTopNBuilder(this::updateMemoryReservation);
+    }
+
+    private GroupedTopNBuilder createGroupedTopNBuilder(UpdateMemory updateMemory)
+    {
+        if (!partitionChannels.isEmpty()) {
             groupByHash = createGroupByHash(
                     partitionTypes,
                     Ints.toArray(partitionChannels),
@@ -175,16 +276,15 @@ public class TopNRowNumberOperator
                     expectedPositions,
                     isDictionaryAggregationEnabled(operatorContext.getSession()),
                     joinCompiler,
-                    this::updateMemoryReservation);
+                    updateMemory);
         }
         else {
             groupByHash = new NoChannelGroupByHash();
         }
 
-        List<Type> types = toTypes(sourceTypes, outputChannels, generateRowNumber);
-        this.groupedTopNBuilder = new GroupedTopNBuilder(
-                ImmutableList.copyOf(sourceTypes),
-                new SimplePageWithPositionComparator(types, sortChannels, sortOrders),
+        return new GroupedTopNBuilder(
+                sourceTypes,
+                comparator,
                 maxRowCountPerPartition,
                 generateRowNumber,
                 groupByHash);
@@ -206,14 +306,20 @@ public class TopNRowNumberOperator
     public boolean isFinished()
     {
         // has no more input, has finished flushing, and has no unfinished work
-        return finishing && outputIterator != null && !outputIterator.hasNext() && unfinishedWork == null;
+        return finishing && outputIterator != null && !outputIterator.hasNext() && unfinishedWork == null && spillInProgress.isDone();
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
     public boolean needsInput()
     {
         // still has more input, has not started flushing yet, and has no unfinished work
-        return !finishing && outputIterator == null && unfinishedWork == null;
+        return !finishing && outputIterator == null && unfinishedWork == null && spillInProgress.isDone();
     }
 
     @Override
@@ -223,6 +329,14 @@ public class TopNRowNumberOperator
         checkState(unfinishedWork == null, "Cannot add input with the operator when unfinished work is not empty");
         checkState(outputIterator == null, "Cannot add input with the operator when flushing");
         requireNonNull(page, "page is null");
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (spilled) {
+            // the rows retained so far are on disk, so the top rows are built when the input is finished
+            spillInProgress = inputSpiller.get().partitionAndSpill(page, partition -> true).getSpillingFuture();
+            return;
+        }
+
         unfinishedWork = groupedTopNBuilder.processPage(page);
         if (unfinishedWork.process()) {
             unfinishedWork = null;
@@ -233,6 +347,11 @@ public class TopNRowNumberOperator
     @Override
     public Page getOutput()
     {
+        if (!spillInProgress.isDone()) {
+            return null;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
         if (unfinishedWork != null) {
             boolean finished = unfinishedWork.process();
             updateMemoryReservation();
@@ -248,7 +367,14 @@ public class TopNRowNumberOperator
 
         if (outputIterator == null) {
             // start flushing
-            outputIterator = groupedTopNBuilder.buildResult();
+            if (spilled) {
+                outputIterator = Iterators.concat(IntStream.range(0, SPILL_PARTITION_COUNT)
+                        .mapToObj(this::buildUnspilledResult)
+                        .iterator());
+            }
+            else {
+                outputIterator = groupedTopNBuilder.buildResult();
+            }
         }
 
         Page output = null;
@@ -265,6 +391,52 @@ public class TopNRowNumberOperator
         return output;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (!spillEnabled || partitionChannels.isEmpty() || spilled || unfinishedWork != null || outputIterator != null) {
+            return NOT_BLOCKED;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        inputSpiller = Optional.of(partitioningSpillerFactory.create(
+                sourceTypes,
+                getPartitionGenerator(),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext()));
+
+        // the rows retained so far are spilled like input rows, without the row number
+        int[] sourceChannels = IntStream.range(0, sourceTypes.size()).toArray();
+        spillInProgress = inputSpiller.get().partitionAndSpill(Iterators.transform(
+                groupedTopNBuilder.buildResult(),
+                page -> extractColumns(page, sourceChannels)));
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (inputSpiller.isPresent() && !spilled) {
+            spilled = true;
+            groupedTopNBuilder = null;
+            groupByHash = null;
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try (Closer closer = Closer.create()) {
+            inputSpiller.ifPresent(closer::register);
+        }
+        groupedTopNBuilder = null;
+        groupByHash = null;
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
@@ -272,13 +444,51 @@ public class TopNRowNumberOperator
         return groupByHash.getCapacity();
     }
 
+    private Iterator<Page> buildUnspilledResult(int partition)
+    {
+        // all the rows of the partition that may be among its top rows are on disk, so they are ranked by a new builder
+        groupedTopNBuilder = createGroupedTopNBuilder(() -> true);
+        Iterator<Page> pages = inputSpiller.get().getSpilledPages(partition);
+        while (pages.hasNext()) {
+            checkState(groupedTopNBuilder.processPage(pages.next()).process(), "work did not complete");
+        }
+        localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+        return groupedTopNBuilder.buildResult();
+    }
+
+    private LocalPartitionGenerator getPartitionGenerator()
+    {
+        HashGenerator hashGenerator = hashChannel.isPresent()
+                ? new PrecomputedHashGenerator(hashChannel.get())
+                : new InterpretedHashGenerator(partitionTypes, partitionChannels);
+        return new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT);
+    }
+
     private boolean updateMemoryReservation()
     {
+        if (spilled) {
+            localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+            return true;
+        }
+        if (spillEnabled && !partitionChannels.isEmpty()) {
+            // revocable memory does not block, the retained rows are spilled when the memory is revoked
+            localRevocableMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+            return true;
+        }
         // TODO: may need to use trySetMemoryReservation with a compaction to free memory (but that may cause GC pressure)
         localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
         return operatorContext.isWaitingForMemory().isDone();
     }
 
+    private static Page extractColumns(Page page, int[] channels)
+    {
+        Block[] newBlocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            newBlocks[i] = page.getBlock(channels[i]);
+        }
+        return new Page(page.getPositionCount(), newBlocks);
+    }
+
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels, boolean generateRowNumber)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
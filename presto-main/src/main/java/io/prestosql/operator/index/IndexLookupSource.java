@@ -88,6 +88,13 @@ public class IndexLookupSource
         return joinPosition;
     }
 
+    @Override
+    public boolean isBatchLookupSupported()
+    {
+        // a lookup of an unloaded key replaces the indexed data, which invalidates the join positions looked up before
+        return false;
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
@@ -34,7 +34,9 @@ import io.prestosql.metadata.InternalNode;
 import io.prestosql.metadata.Split;
 import io.prestosql.operator.ForScheduler;
 import io.prestosql.server.remotetask.HttpRemoteTask;
+import io.prestosql.server.remotetask.RemoteTaskCodec;
 import io.prestosql.server.remotetask.RemoteTaskStats;
+import io.prestosql.server.smile.SmileCodecFactory;
 import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import org.weakref.jmx.Managed;
@@ -50,6 +52,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.jsonRemoteTaskCodec;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.smileRemoteTaskCodec;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
@@ -59,9 +63,9 @@ public class HttpRemoteTaskFactory
 {
     private final HttpClient httpClient;
     private final LocationFactory locationFactory;
-    private final JsonCodec<TaskStatus> taskStatusCodec;
-    private final JsonCodec<TaskInfo> taskInfoCodec;
-    private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+    private final RemoteTaskCodec<TaskStatus> taskStatusCodec;
+    private final RemoteTaskCodec<TaskInfo> taskInfoCodec;
+    private final RemoteTaskCodec<TaskUpdateRequest> taskUpdateRequestCodec;
     private final Duration maxErrorDuration;
     private final Duration taskStatusRefreshMaxWait;
     private final Duration taskInfoUpdateInterval;
@@ -80,13 +84,22 @@ public class HttpRemoteTaskFactory
             JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+            SmileCodecFactory smileCodecFactory,
+            InternalCommunicationConfig communicationConfig,
             RemoteTaskStats stats)
     {
         this.httpClient = httpClient;
         this.locationFactory = locationFactory;
-        this.taskStatusCodec = taskStatusCodec;
-        this.taskInfoCodec = taskInfoCodec;
-        this.taskUpdateRequestCodec = taskUpdateRequestCodec;
+        if (communicationConfig.isBinaryTransportEnabled()) {
+            this.taskStatusCodec = smileRemoteTaskCodec(smileCodecFactory.smileCodec(TaskStatus.class));
+            this.taskInfoCodec = smileRemoteTaskCodec(smileCodecFactory.smileCodec(TaskInfo.class));
+            this.taskUpdateRequestCodec = smileRemoteTaskCodec(smileCodecFactory.smileCodec(TaskUpdateRequest.class));
+        }
+        else {
+            this.taskStatusCodec = jsonRemoteTaskCodec(taskStatusCodec);
+            this.taskInfoCodec = jsonRemoteTaskCodec(taskInfoCodec);
+            this.taskUpdateRequestCodec = jsonRemoteTaskCodec(taskUpdateRequestCodec);
+        }
         this.maxErrorDuration = config.getRemoteTaskMaxErrorDuration();
         this.taskStatusRefreshMaxWait = taskConfig.getStatusRefreshMaxWait();
         this.taskInfoUpdateInterval = taskConfig.getInfoUpdateInterval();
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server;
+
+import io.prestosql.execution.buffer.ResultSegmentStore;
+
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import static java.util.Objects.requireNonNull;
+import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
+
+/**
+ * Serves the result segments of spooled query results written on this node. Requests
+ * must carry the token of the segment URI; a missing or wrong token is answered as if
+ * the segment did not exist.
+ */
+@Path("/v1/segment")
+public class ResultSegmentResource
+{
+    private final ResultSegmentStore segmentStore;
+
+    @Inject
+    public ResultSegmentResource(ResultSegmentStore segmentStore)
+    {
+        this.segmentStore = requireNonNull(segmentStore, "segmentStore is null");
+    }
+
+    @GET
+    @Path("{segmentId}")
+    @Produces(APPLICATION_OCTET_STREAM)
+    public Response getSegment(@PathParam("segmentId") String segmentId, @QueryParam("token") String token)
+    {
+        requireNonNull(segmentId, "segmentId is null");
+
+        return segmentStore.getSegment(segmentId, token)
+                .map(segment -> Response.ok(segment.toFile()).build())
+                .orElseGet(() -> Response.status(Status.NOT_FOUND).build());
+    }
+
+    @DELETE
+    @Path("{segmentId}")
+    public Response deleteSegment(@PathParam("segmentId") String segmentId, @QueryParam("token") String token)
+    {
+        requireNonNull(segmentId, "segmentId is null");
+
+        if (!segmentStore.deleteSegment(segmentId, token)) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.noContent().build();
+    }
+}
@@ -49,6 +49,8 @@ import io.prestosql.execution.TaskManagementExecutor;
 import io.prestosql.execution.TaskManager;
 import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.TaskStatus;
+import io.prestosql.execution.buffer.ResultSegmentConfig;
+import io.prestosql.execution.buffer.ResultSegmentStore;
 import io.prestosql.execution.executor.MultilevelSplitQueue;
 import io.prestosql.execution.executor.TaskExecutor;
 import io.prestosql.execution.scheduler.FlatNetworkTopology;
@@ -88,6 +90,8 @@ import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PagesIndex;
 import io.prestosql.operator.index.IndexJoinLookupStats;
 import io.prestosql.server.remotetask.HttpLocationFactory;
+import io.prestosql.server.smile.SmileCodecFactory;
+import io.prestosql.server.smile.SmileMapper;
 import io.prestosql.spi.PageIndexerFactory;
 import io.prestosql.spi.PageSorter;
 import io.prestosql.spi.block.Block;
@@ -305,6 +309,16 @@ public class ServerMainModule
         jsonCodecBinder(binder).bindJsonCodec(ExecutionFailureInfo.class);
         jaxrsBinder(binder).bind(PagesResponseWriter.class);
 
+        // binary encoding of the task control messages
+        binder.bind(SmileCodecFactory.class).in(Scopes.SINGLETON);
+        jaxrsBinder(binder).bind(SmileMapper.class);
+
+        // spooled result segments
+        configBinder(binder).bindConfig(ResultSegmentConfig.class);
+        binder.bind(ResultSegmentStore.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(ResultSegmentStore.class).withGeneratedName();
+        jaxrsBinder(binder).bind(ResultSegmentResource.class);
+
         // exchange client
         binder.bind(ExchangeClientSupplier.class).to(ExchangeClientFactory.class).in(Scopes.SINGLETON);
         httpClientBinder(binder).bindHttpClient("exchange", ForExchange.class)
@@ -426,8 +440,10 @@ public class ServerMainModule
         binder.bind(SingleStreamSpillerFactory.class).to(FileSingleStreamSpillerFactory.class).in(Scopes.SINGLETON);
         binder.bind(PartitioningSpillerFactory.class).to(GenericPartitioningSpillerFactory.class).in(Scopes.SINGLETON);
         binder.bind(SpillerStats.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(SpillerStats.class).withGeneratedName();
         newExporter(binder).export(SpillerFactory.class).withGeneratedName();
         binder.bind(LocalSpillManager.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(LocalSpillManager.class).withGeneratedName();
         configBinder(binder).bindConfig(NodeSpillConfig.class);
 
         // cleanup
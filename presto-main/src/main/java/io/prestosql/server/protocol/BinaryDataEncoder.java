@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.protocol;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.prestosql.client.BinaryDataFormat;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.client.BinaryDataFormat.BOOLEAN_VALUES;
+import static io.prestosql.client.BinaryDataFormat.DOUBLE_VALUES;
+import static io.prestosql.client.BinaryDataFormat.JSON_VALUES;
+import static io.prestosql.client.BinaryDataFormat.LONG_VALUES;
+import static io.prestosql.client.BinaryDataFormat.REAL_VALUES;
+import static io.prestosql.client.BinaryDataFormat.STRING_VALUES;
+import static io.prestosql.spi.type.StandardTypes.BIGINT;
+import static io.prestosql.spi.type.StandardTypes.BOOLEAN;
+import static io.prestosql.spi.type.StandardTypes.CHAR;
+import static io.prestosql.spi.type.StandardTypes.DATE;
+import static io.prestosql.spi.type.StandardTypes.DECIMAL;
+import static io.prestosql.spi.type.StandardTypes.DOUBLE;
+import static io.prestosql.spi.type.StandardTypes.INTEGER;
+import static io.prestosql.spi.type.StandardTypes.INTERVAL_DAY_TO_SECOND;
+import static io.prestosql.spi.type.StandardTypes.INTERVAL_YEAR_TO_MONTH;
+import static io.prestosql.spi.type.StandardTypes.IPADDRESS;
+import static io.prestosql.spi.type.StandardTypes.JSON;
+import static io.prestosql.spi.type.StandardTypes.REAL;
+import static io.prestosql.spi.type.StandardTypes.SMALLINT;
+import static io.prestosql.spi.type.StandardTypes.TIME;
+import static io.prestosql.spi.type.StandardTypes.TIMESTAMP;
+import static io.prestosql.spi.type.StandardTypes.TIMESTAMP_WITH_TIME_ZONE;
+import static io.prestosql.spi.type.StandardTypes.TIME_WITH_TIME_ZONE;
+import static io.prestosql.spi.type.StandardTypes.TINYINT;
+import static io.prestosql.spi.type.StandardTypes.UUID;
+import static io.prestosql.spi.type.StandardTypes.VARCHAR;
+
+/**
+ * Encodes result pages in the {@link BinaryDataFormat}. Values of types without a
+ * dedicated encoding are written as the JSON of their object value, exactly as they
+ * would appear in the JSON result rows.
+ */
+public final class BinaryDataEncoder
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapperProvider().get();
+
+    // types whose object values are serialized as a JSON string of their toString() value
+    private static final Set<String> STRING_TYPES = ImmutableSet.of(
+            VARCHAR,
+            CHAR,
+            JSON,
+            DATE,
+            TIME,
+            TIME_WITH_TIME_ZONE,
+            TIMESTAMP,
+            TIMESTAMP_WITH_TIME_ZONE,
+            INTERVAL_YEAR_TO_MONTH,
+            INTERVAL_DAY_TO_SECOND,
+            DECIMAL,
+            IPADDRESS,
+            UUID);
+
+    private BinaryDataEncoder() {}
+
+    public static byte[] encode(ConnectorSession session, List<Type> types, List<Page> pages)
+    {
+        int rowCount = 0;
+        long sizeInBytes = 0;
+        for (Page page : pages) {
+            rowCount += page.getPositionCount();
+            sizeInBytes += page.getSizeInBytes();
+        }
+
+        SliceOutput output = new DynamicSliceOutput((int) Math.min(sizeInBytes, Integer.MAX_VALUE / 2));
+        output.writeInt(rowCount);
+        output.writeInt(types.size());
+        for (int channel = 0; channel < types.size(); channel++) {
+            Type type = types.get(channel);
+            byte encoding = getEncoding(type);
+            output.writeByte(encoding);
+            for (Page page : pages) {
+                Block block = page.getBlock(channel);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    output.writeByte(block.isNull(position) ? 1 : 0);
+                }
+            }
+            for (Page page : pages) {
+                Block block = page.getBlock(channel);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    if (!block.isNull(position)) {
+                        writeValue(session, type, encoding, block, position, output);
+                    }
+                }
+            }
+        }
+        return BinaryDataFormat.compress(output.slice().getBytes());
+    }
+
+    private static byte getEncoding(Type type)
+    {
+        String base = type.getTypeSignature().getBase();
+        switch (base) {
+            case BIGINT:
+            case INTEGER:
+            case SMALLINT:
+            case TINYINT:
+                return LONG_VALUES;
+            case DOUBLE:
+                return DOUBLE_VALUES;
+            case REAL:
+                return REAL_VALUES;
+            case BOOLEAN:
+                return BOOLEAN_VALUES;
+            default:
+                return STRING_TYPES.contains(base) ? STRING_VALUES : JSON_VALUES;
+        }
+    }
+
+    private static void writeValue(ConnectorSession session, Type type, byte encoding, Block block, int position, SliceOutput output)
+    {
+        switch (encoding) {
+            case LONG_VALUES:
+                output.writeLong(type.getLong(block, position));
+                return;
+            case DOUBLE_VALUES:
+                output.writeDouble(type.getDouble(block, position));
+                return;
+            case REAL_VALUES:
+                output.writeInt((int) type.getLong(block, position));
+                return;
+            case BOOLEAN_VALUES:
+                output.writeByte(type.getBoolean(block, position) ? 1 : 0);
+                return;
+            case STRING_VALUES:
+                Slice value;
+                if (type instanceof VarcharType) {
+                    value = type.getSlice(block, position);
+                }
+                else {
+                    value = utf8Slice(type.getObjectValue(session, block, position).toString());
+                }
+                output.writeInt(value.length());
+                output.writeBytes(value);
+                return;
+            case JSON_VALUES:
+                try {
+                    byte[] json = OBJECT_MAPPER.writeValueAsBytes(type.getObjectValue(session, block, position));
+                    output.writeInt(json.length);
+                    output.writeBytes(json);
+                }
+                catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown value encoding: " + encoding);
+        }
+    }
+}
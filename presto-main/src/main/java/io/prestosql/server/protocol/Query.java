@@ -24,6 +24,7 @@ import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.Session;
+import io.prestosql.client.ClientCapabilities;
 import io.prestosql.client.ClientTypeSignature;
 import io.prestosql.client.ClientTypeSignatureParameter;
 import io.prestosql.client.Column;
@@ -52,6 +53,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoWarning;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spi.WarningCode;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockEncodingSerde;
 import io.prestosql.spi.security.SelectedRole;
 import io.prestosql.spi.type.BooleanType;
@@ -70,7 +72,6 @@ import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -87,9 +88,11 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.execution.QueryState.FAILED;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.util.Failures.toFailure;
 import static io.prestosql.util.MoreLists.mappedCopy;
 import static java.lang.String.format;
@@ -112,6 +115,7 @@ class Query
     private final ScheduledExecutorService timeoutExecutor;
 
     private final PagesSerde serde;
+    private final boolean binaryResults;
 
     @GuardedBy("this")
     private OptionalLong nextToken = OptionalLong.of(0);
@@ -128,6 +132,9 @@ class Query
     @GuardedBy("this")
     private List<Type> types;
 
+    @GuardedBy("this")
+    private boolean spooledOutput;
+
     @GuardedBy("this")
     private Optional<String> setCatalog = Optional.empty();
 
@@ -210,7 +217,8 @@ class Query
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
 
-        serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
+        serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session)).createPagesSerde();
+        binaryResults = session.getClientCapabilities().contains(ClientCapabilities.BINARY_RESULTS.toString());
     }
 
     public void cancel()
@@ -375,8 +383,11 @@ class Query
         // last page is removed.  If another thread observes this state before the response is cached
         // the pages will be lost.
         Iterable<List<Object>> data = null;
+        byte[] binaryData = null;
+        List<URI> segments = null;
+        List<Page> resultPages = ImmutableList.of();
         try {
-            ImmutableList.Builder<RowIterable> pages = ImmutableList.builder();
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
             long bytes = 0;
             long rows = 0;
             long targetResultBytes = targetResultSize.toBytes();
@@ -389,11 +400,22 @@ class Query
                 Page page = serde.deserialize(serializedPage);
                 bytes += page.getLogicalSizeInBytes();
                 rows += page.getPositionCount();
-                pages.add(new RowIterable(session.toConnectorSession(), types, page));
+                pages.add(page);
+            }
+            if (rows > 0 && spooledOutput) {
+                // the pages only describe the result segments, which the client downloads from the workers
+                segments = getSegmentUris(pages.build());
             }
-            if (rows > 0) {
+            else if (rows > 0) {
                 // client implementations do not properly handle empty list of data
-                data = Iterables.concat(pages.build());
+                resultPages = pages.build();
+                // only the encoding the client asked for is built
+                if (binaryResults) {
+                    binaryData = BinaryDataEncoder.encode(session.toConnectorSession(), types, resultPages);
+                }
+                else {
+                    data = Iterables.concat(mappedCopy(resultPages, page -> new RowIterable(session.toConnectorSession(), types, page)));
+                }
             }
         }
         catch (Throwable cause) {
@@ -407,15 +429,9 @@ class Query
 
         // TODO: figure out a better way to do this
         // grab the update count for non-queries
-        if ((data != null) && (queryInfo.getUpdateType() != null) && (updateCount == null) &&
+        if (!resultPages.isEmpty() && (queryInfo.getUpdateType() != null) && (updateCount == null) &&
                 (columns.size() == 1) && (columns.get(0).getType().equals(StandardTypes.BIGINT))) {
-            Iterator<List<Object>> iterator = data.iterator();
-            if (iterator.hasNext()) {
-                Number number = (Number) iterator.next().get(0);
-                if (number != null) {
-                    updateCount = number.longValue();
-                }
-            }
+            updateCount = getUpdateCount(resultPages);
         }
 
         closeExchangeClientIfNecessary(queryInfo);
@@ -424,6 +440,8 @@ class Query
         if ((queryInfo.getState() == QueryState.FINISHED) && !queryInfo.getOutputStage().isPresent()) {
             columns = ImmutableList.of(createColumn("result", BooleanType.BOOLEAN));
             data = ImmutableSet.of(ImmutableList.of(true));
+            binaryData = null;
+            segments = null;
         }
 
         // advance next token
@@ -471,6 +489,8 @@ class Query
                 nextResultsUri,
                 columns,
                 data,
+                binaryData,
+                segments,
                 toStatementStats(queryInfo),
                 toQueryError(queryInfo),
                 mappedCopy(queryInfo.getWarnings(), Query::toClientWarning),
@@ -484,6 +504,29 @@ class Query
         return queryResults;
     }
 
+    private static Long getUpdateCount(List<Page> pages)
+    {
+        for (Page page : pages) {
+            if (page.getPositionCount() > 0) {
+                Block block = page.getBlock(0);
+                return block.isNull(0) ? null : BIGINT.getLong(block, 0);
+            }
+        }
+        return null;
+    }
+
+    private static List<URI> getSegmentUris(List<Page> descriptorPages)
+    {
+        ImmutableList.Builder<URI> segments = ImmutableList.builder();
+        for (Page page : descriptorPages) {
+            Block uris = page.getBlock(0);
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                segments.add(URI.create(VARCHAR.getSlice(uris, position).toStringUtf8()));
+            }
+        }
+        return segments.build();
+    }
+
     private synchronized void closeExchangeClientIfNecessary(QueryInfo queryInfo)
     {
         // Close the exchange client if the query has failed, or if the query
@@ -509,6 +552,7 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+            spooledOutput = outputInfo.isSpooledOutput();
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
@@ -539,7 +583,7 @@ class Query
                 .build();
     }
 
-    private static Column createColumn(String name, Type type)
+    static Column createColumn(String name, Type type)
     {
         TypeSignature signature = type.getTypeSignature();
         return new Column(name, signature.toString(), toClientTypeSignature(signature));
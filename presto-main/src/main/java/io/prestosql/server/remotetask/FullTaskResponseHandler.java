@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+
+import java.io.IOException;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.http.client.ResponseHandlerUtils.propagate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a complete response and decodes it with a {@link RemoteTaskCodec}, the same way
+ * {@link io.airlift.http.client.FullJsonResponseHandler} does for JSON responses.
+ */
+public class FullTaskResponseHandler<T>
+        implements ResponseHandler<FullTaskResponseHandler.TaskResponse<T>, RuntimeException>
+{
+    private final RemoteTaskCodec<T> codec;
+
+    private FullTaskResponseHandler(RemoteTaskCodec<T> codec)
+    {
+        this.codec = requireNonNull(codec, "codec is null");
+    }
+
+    public static <T> FullTaskResponseHandler<T> createFullTaskResponseHandler(RemoteTaskCodec<T> codec)
+    {
+        return new FullTaskResponseHandler<>(codec);
+    }
+
+    @Override
+    public TaskResponse<T> handleException(Request request, Exception exception)
+    {
+        throw propagate(request, exception);
+    }
+
+    @Override
+    public TaskResponse<T> handle(Request request, Response response)
+    {
+        byte[] bytes;
+        try {
+            bytes = ByteStreams.toByteArray(response.getInputStream());
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error reading response from server", e);
+        }
+
+        String contentType = response.getHeader(CONTENT_TYPE);
+        if ((contentType == null) || !MediaType.parse(contentType).is(codec.getMediaType().withoutParameters())) {
+            return new TaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes, null, null);
+        }
+        try {
+            return new TaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes, codec.decode(bytes), null);
+        }
+        catch (IllegalArgumentException e) {
+            return new TaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes, null, e);
+        }
+    }
+
+    public static class TaskResponse<T>
+    {
+        private final int statusCode;
+        private final String statusMessage;
+        private final byte[] responseBytes;
+        private final T value;
+        private final IllegalArgumentException exception;
+
+        private TaskResponse(int statusCode, String statusMessage, byte[] responseBytes, T value, IllegalArgumentException exception)
+        {
+            this.statusCode = statusCode;
+            this.statusMessage = statusMessage;
+            this.responseBytes = requireNonNull(responseBytes, "responseBytes is null");
+            this.value = value;
+            this.exception = exception;
+        }
+
+        public int getStatusCode()
+        {
+            return statusCode;
+        }
+
+        public String getStatusMessage()
+        {
+            return statusMessage;
+        }
+
+        public boolean hasValue()
+        {
+            return value != null;
+        }
+
+        public T getValue()
+        {
+            if (!hasValue()) {
+                throw new IllegalStateException("Response does not contain a value", exception);
+            }
+            return value;
+        }
+
+        public int getResponseSize()
+        {
+            return responseBytes.length;
+        }
+
+        public String getResponseBody()
+        {
+            return new String(responseBytes, UTF_8);
+        }
+
+        public IllegalArgumentException getException()
+        {
+            return exception;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statusCode", statusCode)
+                    .add("statusMessage", statusMessage)
+                    .add("hasValue", hasValue())
+                    .toString();
+        }
+    }
+}
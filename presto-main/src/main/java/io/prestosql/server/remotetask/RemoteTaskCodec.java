@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import com.google.common.net.MediaType;
+import io.airlift.json.JsonCodec;
+import io.prestosql.server.smile.SmileCodec;
+
+import java.util.function.Function;
+
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static io.prestosql.PrestoMediaTypes.JACKSON_SMILE_TYPE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Codec for the task control messages exchanged with the workers, either in JSON or in
+ * the binary Smile format. The media type is sent with each request, so that the worker
+ * answers in the same format.
+ */
+public final class RemoteTaskCodec<T>
+{
+    private final MediaType mediaType;
+    private final Function<T, byte[]> encoder;
+    private final Function<byte[], T> decoder;
+
+    private RemoteTaskCodec(MediaType mediaType, Function<T, byte[]> encoder, Function<byte[], T> decoder)
+    {
+        this.mediaType = requireNonNull(mediaType, "mediaType is null");
+        this.encoder = requireNonNull(encoder, "encoder is null");
+        this.decoder = requireNonNull(decoder, "decoder is null");
+    }
+
+    public static <T> RemoteTaskCodec<T> jsonRemoteTaskCodec(JsonCodec<T> codec)
+    {
+        return new RemoteTaskCodec<>(JSON_UTF_8, codec::toJsonBytes, codec::fromJson);
+    }
+
+    public static <T> RemoteTaskCodec<T> smileRemoteTaskCodec(SmileCodec<T> codec)
+    {
+        return new RemoteTaskCodec<>(JACKSON_SMILE_TYPE, codec::toSmile, codec::fromSmile);
+    }
+
+    public MediaType getMediaType()
+    {
+        return mediaType;
+    }
+
+    public byte[] encode(T value)
+    {
+        return encoder.apply(value);
+    }
+
+    public T decode(byte[] bytes)
+            throws IllegalArgumentException
+    {
+        return decoder.apply(bytes);
+    }
+}
@@ -27,6 +27,7 @@ public class RemoteTaskStats
     private final IncrementalAverage statusRoundTripMillis = new IncrementalAverage();
     private final IncrementalAverage responseSizeBytes = new IncrementalAverage();
     private final DistributionStat updateWithPlanBytes = new DistributionStat();
+    private final DistributionStat updateWithoutPlanBytes = new DistributionStat();
 
     private long requestSuccess;
     private long requestFailure;
@@ -66,6 +67,11 @@ public class RemoteTaskStats
         updateWithPlanBytes.add(bytes);
     }
 
+    public void updateWithoutPlanBytes(long bytes)
+    {
+        updateWithoutPlanBytes.add(bytes);
+    }
+
     @Managed
     public double getResponseSizeBytes()
     {
@@ -109,6 +115,13 @@ public class RemoteTaskStats
         return updateWithPlanBytes;
     }
 
+    @Managed
+    @Nested
+    public DistributionStat getUpdateWithoutPlanBytes()
+    {
+        return updateWithoutPlanBytes;
+    }
+
     @ThreadSafe
     private static class IncrementalAverage
     {
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.smile;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes and decodes values in the binary Smile format, using the same object
+ * mapper configuration, and therefore the same serializers, as the JSON codecs.
+ */
+public class SmileCodec<T>
+{
+    private final SmileFactory smileFactory;
+    private final JavaType javaType;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    SmileCodec(ObjectMapper objectMapper, SmileFactory smileFactory, Type type)
+    {
+        requireNonNull(objectMapper, "objectMapper is null");
+        this.smileFactory = requireNonNull(smileFactory, "smileFactory is null");
+        this.javaType = objectMapper.getTypeFactory().constructType(requireNonNull(type, "type is null"));
+        this.reader = objectMapper.readerFor(javaType);
+        this.writer = objectMapper.writerFor(javaType);
+    }
+
+    public T fromSmile(byte[] bytes)
+            throws IllegalArgumentException
+    {
+        try (JsonParser parser = smileFactory.createParser(bytes)) {
+            return reader.readValue(parser);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(format("Invalid Smile bytes for %s", javaType), e);
+        }
+    }
+
+    public byte[] toSmile(T instance)
+            throws IllegalArgumentException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = smileFactory.createGenerator(output)) {
+            writer.writeValue(generator, instance);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(format("%s could not be converted to Smile", instance.getClass().getName()), e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.smile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import javax.inject.Inject;
+
+import static java.util.Objects.requireNonNull;
+
+public class SmileCodecFactory
+{
+    private final ObjectMapper objectMapper;
+    private final SmileFactory smileFactory;
+
+    @Inject
+    public SmileCodecFactory(ObjectMapper objectMapper)
+    {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+        this.smileFactory = new SmileFactory(objectMapper);
+    }
+
+    public <T> SmileCodec<T> smileCodec(Class<T> type)
+    {
+        return new SmileCodec<>(objectMapper, smileFactory, type);
+    }
+}
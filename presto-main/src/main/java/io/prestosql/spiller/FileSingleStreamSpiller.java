@@ -37,7 +37,6 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
@@ -46,9 +45,6 @@ import java.util.Optional;
 import static com.google.common.base.Preconditions.checkState;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writeSerializedPage;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
-import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
-import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
-import static java.nio.file.StandardOpenOption.APPEND;
 import static java.util.Objects.requireNonNull;
 
 @NotThreadSafe
@@ -58,7 +54,7 @@ public class FileSingleStreamSpiller
     @VisibleForTesting
     static final int BUFFER_SIZE = 4 * 1024;
 
-    private final FileHolder targetFile;
+    private final StripedSpillFile targetFile;
     private final Closer closer = Closer.create();
     private final PagesSerde serde;
     private final SpillerStats spillerStats;
@@ -74,7 +70,9 @@ public class FileSingleStreamSpiller
     public FileSingleStreamSpiller(
             PagesSerde serde,
             ListeningExecutorService executor,
-            Path spillPath,
+            List<Path> spillPaths,
+            int stripeSize,
+            SpillWriteBackpressure writeBackpressure,
             SpillerStats spillerStats,
             SpillContext spillContext,
             LocalMemoryContext memoryContext,
@@ -88,6 +86,8 @@ public class FileSingleStreamSpiller
         if (requireNonNull(spillCipher, "spillCipher is null").isPresent()) {
             closer.register(spillCipher.get()::close);
         }
+        // The file is striped over all the spill paths, and its files are only created when written to.
+        this.targetFile = closer.register(new StripedSpillFile(spillPaths, stripeSize, writeBackpressure));
         // HACK!
         // The writePages() method is called in a separate thread pool and it's possible that
         // these spiller thread can run concurrently with the close() method.
@@ -98,13 +98,7 @@ public class FileSingleStreamSpiller
         // This means we start accounting for the memory before the spiller thread allocates it, and we release the memory reservation
         // before/after the spiller thread allocates that memory -- -- whether before or after depends on whether writePages() is in the
         // middle of execution when close() is called (note that this applies to both readPages() and writePages() methods).
-        this.memoryContext.setBytes(BUFFER_SIZE);
-        try {
-            this.targetFile = closer.register(new FileHolder(Files.createTempFile(spillPath, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)));
-        }
-        catch (IOException e) {
-            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to create spill file", e);
-        }
+        this.memoryContext.setBytes(getMemoryReservation());
     }
 
     @Override
@@ -138,12 +132,15 @@ public class FileSingleStreamSpiller
     private void writePages(Iterator<Page> pageIterator)
     {
         checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
-        try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), BUFFER_SIZE)) {
+        long start = System.nanoTime();
+        long uncompressedBytes = 0;
+        try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(), BUFFER_SIZE)) {
             while (pageIterator.hasNext()) {
                 Page page = pageIterator.next();
                 spilledPagesInMemorySize += page.getSizeInBytes();
                 SerializedPage serializedPage = serde.serialize(page);
                 long pageSize = serializedPage.getSizeInBytes();
+                uncompressedBytes += serializedPage.getUncompressedSizeInBytes();
                 localSpillContext.updateBytes(pageSize);
                 spillerStats.addToTotalSpilledBytes(pageSize);
                 writeSerializedPage(output, serializedPage);
@@ -152,6 +149,9 @@ public class FileSingleStreamSpiller
         catch (UncheckedIOException | IOException e) {
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
         }
+        long writeNanos = System.nanoTime() - start;
+        localSpillContext.recordSpillWrite(uncompressedBytes, writeNanos);
+        spillerStats.addSpillWrite(uncompressedBytes, writeNanos);
     }
 
     private Iterator<Page> readPages()
@@ -161,7 +161,24 @@ public class FileSingleStreamSpiller
 
         try {
             InputStream input = closer.register(targetFile.newInputStream());
-            Iterator<Page> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
+            Iterator<SerializedPage> serializedPages = PagesSerdeUtil.readSerializedPages(new InputStreamSliceInput(input, BUFFER_SIZE));
+            Iterator<Page> pages = new AbstractIterator<Page>()
+            {
+                @Override
+                protected Page computeNext()
+                {
+                    long start = System.nanoTime();
+                    if (!serializedPages.hasNext()) {
+                        return endOfData();
+                    }
+                    SerializedPage serializedPage = serializedPages.next();
+                    Page page = serde.deserialize(serializedPage);
+                    long readNanos = System.nanoTime() - start;
+                    localSpillContext.recordUnspillRead(serializedPage.getSizeInBytes(), readNanos);
+                    spillerStats.addUnspillRead(serializedPage.getSizeInBytes(), readNanos);
+                    return page;
+                }
+            };
             return closeWhenExhausted(pages, input);
         }
         catch (IOException e) {
@@ -169,6 +186,12 @@ public class FileSingleStreamSpiller
         }
     }
 
+    @VisibleForTesting
+    long getMemoryReservation()
+    {
+        return BUFFER_SIZE + targetFile.getBufferSize();
+    }
+
     @Override
     public void close()
     {
@@ -18,6 +18,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.execution.buffer.PagesSerde;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
 import io.prestosql.memory.context.LocalMemoryContext;
@@ -40,7 +42,11 @@ import java.util.Optional;
 
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.execution.buffer.CompressionCodec.LZ4;
+import static io.prestosql.execution.buffer.CompressionCodec.NONE;
 import static io.prestosql.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.delete;
@@ -59,17 +65,20 @@ public class FileSingleStreamSpillerFactory
     @VisibleForTesting
     static final String SPILL_FILE_SUFFIX = ".bin";
     private static final String SPILL_FILE_GLOB = "spill*.bin";
+    private static final DataSize DEFAULT_STRIPE_SIZE = new DataSize(64, KILOBYTE);
 
     private final ListeningExecutorService executor;
     private final PagesSerdeFactory serdeFactory;
     private final List<Path> spillPaths;
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
+    private final int stripeSize;
+    private final SpillWriteBackpressure writeBackpressure;
     private final boolean spillEncryptionEnabled;
     private int roundRobinIndex;
 
     @Inject
-    public FileSingleStreamSpillerFactory(Metadata metadata, SpillerStats spillerStats, FeaturesConfig featuresConfig, NodeSpillConfig nodeSpillConfig)
+    public FileSingleStreamSpillerFactory(Metadata metadata, SpillerStats spillerStats, FeaturesConfig featuresConfig, NodeSpillConfig nodeSpillConfig, LocalSpillManager localSpillManager)
     {
         this(
                 listeningDecorator(newFixedThreadPool(
@@ -79,8 +88,10 @@ public class FileSingleStreamSpillerFactory
                 spillerStats,
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled());
+                requireNonNull(featuresConfig, "featuresConfig is null").getSpillerStripeSize(),
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled() ? nodeSpillConfig.getSpillCompressionCodec() : NONE,
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled(),
+                requireNonNull(localSpillManager, "localSpillManager is null").getSpillWriteBackpressure());
     }
 
     @VisibleForTesting
@@ -93,7 +104,31 @@ public class FileSingleStreamSpillerFactory
             boolean spillCompressionEnabled,
             boolean spillEncryptionEnabled)
     {
-        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionEnabled);
+        this(
+                executor,
+                blockEncodingSerde,
+                spillerStats,
+                spillPaths,
+                maxUsedSpaceThreshold,
+                DEFAULT_STRIPE_SIZE,
+                spillCompressionEnabled ? LZ4 : NONE,
+                spillEncryptionEnabled,
+                SpillWriteBackpressure.unlimited());
+    }
+
+    @VisibleForTesting
+    public FileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            DataSize stripeSize,
+            CompressionCodec spillCompressionCodec,
+            boolean spillEncryptionEnabled,
+            SpillWriteBackpressure writeBackpressure)
+    {
+        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionCodec);
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats can not be null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -112,6 +147,8 @@ public class FileSingleStreamSpillerFactory
             }
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
+        this.stripeSize = toIntExact(requireNonNull(stripeSize, "stripeSize is null").toBytes());
+        this.writeBackpressure = requireNonNull(writeBackpressure, "writeBackpressure is null");
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         this.roundRobinIndex = 0;
     }
@@ -154,20 +191,32 @@ public class FileSingleStreamSpillerFactory
             spillCipher = Optional.of(new AesSpillCipher());
         }
         PagesSerde serde = serdeFactory.createPagesSerdeForSpill(spillCipher);
-        return new FileSingleStreamSpiller(serde, executor, getNextSpillPath(), spillerStats, spillContext, memoryContext, spillCipher);
+        return new FileSingleStreamSpiller(serde, executor, getNextSpillPaths(), stripeSize, writeBackpressure, spillerStats, spillContext, memoryContext, spillCipher);
     }
 
-    private synchronized Path getNextSpillPath()
+    /**
+     * Returns the spill paths with enough free space, starting with the next path in round robin order.
+     * Spill files are striped over all of them, and small spill files only use the first one.
+     */
+    private synchronized List<Path> getNextSpillPaths()
     {
         int spillPathsCount = spillPaths.size();
+        ImmutableList.Builder<Path> paths = ImmutableList.builder();
+        boolean found = false;
         for (int i = 0; i < spillPathsCount; ++i) {
             int pathIndex = (roundRobinIndex + i) % spillPathsCount;
             Path path = spillPaths.get(pathIndex);
             if (hasEnoughDiskSpace(path)) {
-                roundRobinIndex = (roundRobinIndex + i + 1) % spillPathsCount;
-                return path;
+                if (!found) {
+                    found = true;
+                    roundRobinIndex = (roundRobinIndex + i + 1) % spillPathsCount;
+                }
+                paths.add(path);
             }
         }
+        if (found) {
+            return paths.build();
+        }
         if (spillPaths.isEmpty()) {
             throw new PrestoException(OUT_OF_SPILL_SPACE, "No spill paths configured");
         }
@@ -40,6 +40,18 @@ public final class LocalSpillContext
         spilledBytes += bytes;
     }
 
+    @Override
+    public void recordSpillWrite(long uncompressedBytes, long nanos)
+    {
+        parentSpillContext.recordSpillWrite(uncompressedBytes, nanos);
+    }
+
+    @Override
+    public void recordUnspillRead(long bytes, long nanos)
+    {
+        parentSpillContext.recordUnspillRead(bytes, nanos);
+    }
+
     @Override
     public synchronized void close()
     {
@@ -14,22 +14,35 @@
 package io.prestosql.spiller;
 
 import com.google.inject.Inject;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
 
 import static java.util.Objects.requireNonNull;
 
 public final class LocalSpillManager
 {
     private final SpillSpaceTracker spillSpaceTracker;
+    private final SpillWriteBackpressure spillWriteBackpressure;
 
     @Inject
     public LocalSpillManager(NodeSpillConfig config)
     {
         requireNonNull(config, "config is null");
         spillSpaceTracker = new SpillSpaceTracker(config.getMaxSpillPerNode());
+        spillWriteBackpressure = new SpillWriteBackpressure(config.getSpillMaxWriteBacklog());
     }
 
+    @Managed
+    @Nested
     public SpillSpaceTracker getSpillSpaceTracker()
     {
         return spillSpaceTracker;
     }
+
+    @Managed
+    @Nested
+    public SpillWriteBackpressure getSpillWriteBackpressure()
+    {
+        return spillWriteBackpressure;
+    }
 }
@@ -14,17 +14,24 @@
 package io.prestosql.spiller;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.CompressionCodec;
 
 import javax.validation.constraints.NotNull;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class NodeSpillConfig
 {
     private DataSize maxSpillPerNode = new DataSize(100, DataSize.Unit.GIGABYTE);
     private DataSize queryMaxSpillPerNode = new DataSize(100, DataSize.Unit.GIGABYTE);
 
     private boolean spillCompressionEnabled;
+    private CompressionCodec spillCompressionCodec = CompressionCodec.LZ4;
     private boolean spillEncryptionEnabled;
+    private Duration spillMaxWriteBacklog = new Duration(2, SECONDS);
 
     @NotNull
     public DataSize getMaxSpillPerNode()
@@ -64,6 +71,20 @@ public class NodeSpillConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getSpillCompressionCodec()
+    {
+        return spillCompressionCodec;
+    }
+
+    @Config("experimental.spill-compression-codec")
+    @ConfigDescription("Codec used to compress spilled pages when spill compression is enabled")
+    public NodeSpillConfig setSpillCompressionCodec(CompressionCodec spillCompressionCodec)
+    {
+        this.spillCompressionCodec = spillCompressionCodec;
+        return this;
+    }
+
     public boolean isSpillEncryptionEnabled()
     {
         return spillEncryptionEnabled;
@@ -75,4 +96,18 @@ public class NodeSpillConfig
         this.spillEncryptionEnabled = spillEncryptionEnabled;
         return this;
     }
+
+    @NotNull
+    public Duration getSpillMaxWriteBacklog()
+    {
+        return spillMaxWriteBacklog;
+    }
+
+    @Config("experimental.spill-max-write-backlog")
+    @ConfigDescription("Maximum time the pending spill writes of the node may take at the measured disk throughput before further writes wait")
+    public NodeSpillConfig setSpillMaxWriteBacklog(Duration spillMaxWriteBacklog)
+    {
+        this.spillMaxWriteBacklog = spillMaxWriteBacklog;
+        return this;
+    }
 }
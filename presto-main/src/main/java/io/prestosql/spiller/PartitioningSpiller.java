@@ -21,6 +21,10 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.function.IntPredicate;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.Futures.transformAsync;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static java.util.Objects.requireNonNull;
 
 public interface PartitioningSpiller
@@ -34,6 +38,25 @@ public interface PartitioningSpiller
      */
     PartitioningSpillResult partitionAndSpill(Page page, IntPredicate spillPartitionMask);
 
+    /**
+     * Partition and spill all the pages, one page at a time. Each page is spilled once spilling
+     * of the previous one is finished, so the pages are consumed as the returned future progresses.
+     * <p>
+     * This method may not be called if previously initiated spilling is not finished yet.
+     */
+    default ListenableFuture<?> partitionAndSpill(Iterator<Page> pages)
+    {
+        requireNonNull(pages, "pages is null");
+        while (pages.hasNext()) {
+            ListenableFuture<?> spillingFuture = partitionAndSpill(pages.next(), partition -> true).getSpillingFuture();
+            if (!spillingFuture.isDone()) {
+                return transformAsync(spillingFuture, ignored -> partitionAndSpill(pages), directExecutor());
+            }
+            checkSuccess(spillingFuture, "spilling failed");
+        }
+        return immediateFuture(null);
+    }
+
     /**
      * Returns iterator of previously spilled pages from given partition. Callers are expected to call
      * this method once. Calling multiple times can results in undefined behavior.
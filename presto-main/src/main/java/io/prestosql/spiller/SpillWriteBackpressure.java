@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spiller;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import io.airlift.stats.DecayCounter;
+import io.airlift.stats.ExponentialDecay;
+import io.airlift.units.Duration;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.InterruptedIOException;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Limits the spill writes which are in flight on the node to what the spill disks can
+ * complete within a configured time, at the write throughput measured over the last minute.
+ * Writers wait when the limit is reached, which delays the completion of the spills and
+ * in turn blocks the operators producing the spilled data.
+ * <p>
+ * The throughput is measured as the bytes written per nanosecond during which at least
+ * one write was in flight, so it reflects the aggregate bandwidth of all spill disks.
+ */
+@ThreadSafe
+public class SpillWriteBackpressure
+{
+    // do not limit the writes until the throughput was measured over this many nanoseconds
+    private static final long MIN_MEASURED_NANOS = SECONDS.toNanos(1) / 10;
+
+    private final long maxBacklogNanos;
+    private final Ticker ticker;
+
+    @GuardedBy("this")
+    private final DecayCounter writtenBytes = new DecayCounter(ExponentialDecay.oneMinute());
+    @GuardedBy("this")
+    private final DecayCounter busyNanos = new DecayCounter(ExponentialDecay.oneMinute());
+    @GuardedBy("this")
+    private long pendingBytes;
+    @GuardedBy("this")
+    private long lastUpdateNanos;
+    @GuardedBy("this")
+    private long blockedWrites;
+
+    public SpillWriteBackpressure(Duration maxBacklog)
+    {
+        this(maxBacklog, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    SpillWriteBackpressure(Duration maxBacklog, Ticker ticker)
+    {
+        requireNonNull(maxBacklog, "maxBacklog is null");
+        this.maxBacklogNanos = maxBacklog.roundTo(NANOSECONDS);
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        this.lastUpdateNanos = ticker.read();
+    }
+
+    public static SpillWriteBackpressure unlimited()
+    {
+        return new SpillWriteBackpressure(new Duration(Long.MAX_VALUE, NANOSECONDS));
+    }
+
+    /**
+     * Registers a write of the given size, waiting first while the pending writes exceed the backlog limit.
+     * A write is never delayed when no other write is pending.
+     */
+    public synchronized void startWrite(long bytes)
+            throws InterruptedIOException
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        boolean blocked = false;
+        while (pendingBytes > 0 && pendingBytes + bytes > getMaxBacklogBytes()) {
+            if (!blocked) {
+                blocked = true;
+                blockedWrites++;
+            }
+            try {
+                // woken up when a write finishes, the timeout lets a decayed throughput measurement take effect
+                wait(100);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for spill writes");
+            }
+        }
+        updateBusyTime();
+        pendingBytes += bytes;
+    }
+
+    /**
+     * Records that {@code bytes} of a started write reached the disk, or were abandoned if the write failed.
+     */
+    public synchronized void finishWrite(long bytes, boolean successful)
+    {
+        checkArgument(bytes >= 0, "bytes is negative");
+        checkArgument(bytes <= pendingBytes, "tried to finish more bytes than pending");
+        updateBusyTime();
+        pendingBytes -= bytes;
+        if (successful) {
+            writtenBytes.add(bytes);
+        }
+        notifyAll();
+    }
+
+    @GuardedBy("this")
+    private void updateBusyTime()
+    {
+        long now = ticker.read();
+        if (pendingBytes > 0) {
+            busyNanos.add(now - lastUpdateNanos);
+        }
+        lastUpdateNanos = now;
+    }
+
+    @GuardedBy("this")
+    private double getMaxBacklogBytes()
+    {
+        double measuredNanos = busyNanos.getCount();
+        if (measuredNanos < MIN_MEASURED_NANOS) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return writtenBytes.getCount() / measuredNanos * maxBacklogNanos;
+    }
+
+    /**
+     * Returns the measured write throughput of the spill disks in bytes per second.
+     */
+    @Managed
+    public synchronized double getWriteThroughput()
+    {
+        double measuredNanos = busyNanos.getCount();
+        if (measuredNanos == 0) {
+            return 0;
+        }
+        return writtenBytes.getCount() / measuredNanos * SECONDS.toNanos(1);
+    }
+
+    @Managed
+    public synchronized long getPendingBytes()
+    {
+        return pendingBytes;
+    }
+
+    @Managed
+    public synchronized long getBlockedWrites()
+    {
+        return blockedWrites;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return toStringHelper(this)
+                .add("maxBacklogNanos", maxBacklogNanos)
+                .add("pendingBytes", pendingBytes)
+                .add("writeThroughput", getWriteThroughput())
+                .toString();
+    }
+}
@@ -20,6 +20,10 @@ import java.util.concurrent.atomic.AtomicLong;
 public class SpillerStats
 {
     protected final AtomicLong totalSpilledBytes = new AtomicLong();
+    protected final AtomicLong totalSpilledUncompressedBytes = new AtomicLong();
+    protected final AtomicLong totalSpillWriteNanos = new AtomicLong();
+    protected final AtomicLong totalUnspilledBytes = new AtomicLong();
+    protected final AtomicLong totalUnspillReadNanos = new AtomicLong();
 
     @Managed
     public long getTotalSpilledBytes()
@@ -27,8 +31,51 @@ public class SpillerStats
         return totalSpilledBytes.get();
     }
 
+    @Managed
+    public long getTotalSpilledUncompressedBytes()
+    {
+        return totalSpilledUncompressedBytes.get();
+    }
+
+    @Managed
+    public double getSpillCompressionRatio()
+    {
+        long spilledBytes = totalSpilledBytes.get();
+        return spilledBytes == 0 ? 1.0 : (double) totalSpilledUncompressedBytes.get() / spilledBytes;
+    }
+
+    @Managed
+    public long getTotalSpillWriteNanos()
+    {
+        return totalSpillWriteNanos.get();
+    }
+
+    @Managed
+    public long getTotalUnspilledBytes()
+    {
+        return totalUnspilledBytes.get();
+    }
+
+    @Managed
+    public long getTotalUnspillReadNanos()
+    {
+        return totalUnspillReadNanos.get();
+    }
+
     public void addToTotalSpilledBytes(long delta)
     {
         totalSpilledBytes.addAndGet(delta);
     }
+
+    public void addSpillWrite(long uncompressedBytes, long nanos)
+    {
+        totalSpilledUncompressedBytes.addAndGet(uncompressedBytes);
+        totalSpillWriteNanos.addAndGet(nanos);
+    }
+
+    public void addUnspillRead(long bytes, long nanos)
+    {
+        totalUnspilledBytes.addAndGet(bytes);
+        totalUnspillReadNanos.addAndGet(nanos);
+    }
 }
@@ -0,0 +1,451 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
+import static io.prestosql.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append-only file split into stripes of a fixed size, which are stored round robin
+ * in one file per spill path. Stripes are written and read with asynchronous positional
+ * I/O, so consecutive stripes are transferred to and from different disks in parallel,
+ * and reading issues the reads of the next stripes ahead of the consumer.
+ * <p>
+ * The file of a spill path is only created when the first stripe is stored on it.
+ * Writes wait for the {@link SpillWriteBackpressure} of the node before they are issued.
+ */
+@NotThreadSafe
+final class StripedSpillFile
+        implements Closeable
+{
+    private static final int MAX_BUFFER_COUNT = 8;
+
+    private final List<Path> spillPaths;
+    private final int stripeSize;
+    private final int bufferCount;
+    private final SpillWriteBackpressure writeBackpressure;
+    private final AsynchronousFileChannel[] channels;
+    private final Closer closer = Closer.create();
+
+    private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+    private int allocatedBuffers;
+
+    private long length;
+    @GuardedBy("this")
+    private boolean closed;
+    // the last stripe, when it is not full, so that the next write can append to it
+    @Nullable
+    private ByteBuffer lastStripe;
+
+    public StripedSpillFile(List<Path> spillPaths, int stripeSize, SpillWriteBackpressure writeBackpressure)
+    {
+        requireNonNull(spillPaths, "spillPaths is null");
+        checkArgument(!spillPaths.isEmpty(), "spillPaths is empty");
+        checkArgument(stripeSize > 0, "stripeSize must be positive");
+        this.spillPaths = ImmutableList.copyOf(spillPaths);
+        this.stripeSize = stripeSize;
+        // one stripe is filled or consumed while the others are in flight on the disks
+        this.bufferCount = min(spillPaths.size() + 1, MAX_BUFFER_COUNT);
+        this.channels = new AsynchronousFileChannel[spillPaths.size()];
+        this.writeBackpressure = requireNonNull(writeBackpressure, "writeBackpressure is null");
+    }
+
+    /**
+     * Upper bound of the memory used by the stripe buffers.
+     */
+    public long getBufferSize()
+    {
+        return (long) bufferCount * stripeSize;
+    }
+
+    /**
+     * Returns a stream appending to the file. The data is durable in the file system
+     * cache once the stream is closed.
+     */
+    public OutputStream newOutputStream()
+            throws IOException
+    {
+        return new StripedOutputStream();
+    }
+
+    public InputStream newInputStream()
+            throws IOException
+    {
+        if (lastStripe != null) {
+            releaseBuffer(lastStripe);
+            lastStripe = null;
+        }
+        return new StripedInputStream();
+    }
+
+    // the file may be closed while a spiller thread still writes to it
+    @Override
+    public synchronized void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closer.close();
+    }
+
+    private PendingIo write(long stripe, int stripeOffset, ByteBuffer data, @Nullable ByteBuffer buffer)
+            throws IOException
+    {
+        AsynchronousFileChannel channel = getChannel(stripe);
+        return new PendingIo(channel, true, data, getFilePosition(stripe) + stripeOffset, buffer);
+    }
+
+    private PendingIo read(long stripe)
+            throws IOException
+    {
+        ByteBuffer buffer = takeBuffer(null);
+        buffer.limit(toIntExact(min(stripeSize, length - stripe * stripeSize)));
+        return new PendingIo(getChannel(stripe), false, buffer, getFilePosition(stripe), buffer);
+    }
+
+    private long getFilePosition(long stripe)
+    {
+        return (stripe / spillPaths.size()) * stripeSize;
+    }
+
+    private synchronized AsynchronousFileChannel getChannel(long stripe)
+            throws IOException
+    {
+        if (closed) {
+            throw new IOException("Spill file is closed");
+        }
+        int index = toIntExact(stripe % spillPaths.size());
+        if (channels[index] == null) {
+            FileHolder file = closer.register(new FileHolder(Files.createTempFile(spillPaths.get(index), SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)));
+            // registered after the file, so that it is closed before the file is deleted
+            channels[index] = closer.register(file.newAsynchronousFileChannel(READ, WRITE));
+        }
+        return channels[index];
+    }
+
+    /**
+     * Returns an empty buffer, waiting for the oldest of the {@code pending} operations
+     * to release its buffer when all buffers are in use.
+     */
+    private ByteBuffer takeBuffer(@Nullable Deque<PendingIo> pending)
+            throws IOException
+    {
+        if (freeBuffers.isEmpty()) {
+            if (allocatedBuffers < bufferCount || pending == null || pending.isEmpty()) {
+                allocatedBuffers++;
+                return ByteBuffer.allocate(stripeSize);
+            }
+            pending.poll().await();
+        }
+        ByteBuffer buffer = freeBuffers.poll();
+        buffer.clear();
+        return buffer;
+    }
+
+    private void releaseBuffer(ByteBuffer buffer)
+    {
+        freeBuffers.add(buffer);
+    }
+
+    private final class StripedOutputStream
+            extends OutputStream
+    {
+        private final Deque<PendingIo> pendingWrites = new ArrayDeque<>();
+        private ByteBuffer stripe;
+        private long stripeIndex;
+        // bytes of the current stripe which were already written by a previous stream
+        private int writtenBytes;
+        private boolean closed;
+
+        public StripedOutputStream()
+                throws IOException
+        {
+            stripeIndex = length / stripeSize;
+            if (lastStripe != null) {
+                stripe = lastStripe;
+                lastStripe = null;
+            }
+            else {
+                stripe = takeBuffer(null);
+            }
+            writtenBytes = stripe.position();
+        }
+
+        @Override
+        public void write(int value)
+                throws IOException
+        {
+            if (!stripe.hasRemaining()) {
+                nextStripe();
+            }
+            stripe.put((byte) value);
+            length++;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int sourceLength)
+                throws IOException
+        {
+            while (sourceLength > 0) {
+                if (!stripe.hasRemaining()) {
+                    nextStripe();
+                }
+                int chunk = min(sourceLength, stripe.remaining());
+                stripe.put(source, offset, chunk);
+                offset += chunk;
+                sourceLength -= chunk;
+                length += chunk;
+            }
+        }
+
+        private void nextStripe()
+                throws IOException
+        {
+            stripe.flip();
+            stripe.position(writtenBytes);
+            pendingWrites.add(write(stripeIndex, writtenBytes, stripe, stripe));
+            stripeIndex++;
+            writtenBytes = 0;
+            stripe = takeBuffer(pendingWrites);
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (stripe.position() > writtenBytes) {
+                ByteBuffer tail = stripe.duplicate();
+                tail.flip();
+                tail.position(writtenBytes);
+                pendingWrites.add(write(stripeIndex, writtenBytes, tail, null));
+            }
+            while (!pendingWrites.isEmpty()) {
+                pendingWrites.poll().await();
+            }
+            if (stripe.hasRemaining()) {
+                lastStripe = stripe;
+            }
+            else {
+                releaseBuffer(stripe);
+            }
+        }
+    }
+
+    private final class StripedInputStream
+            extends InputStream
+    {
+        private final Deque<PendingIo> pendingReads = new ArrayDeque<>();
+        private long nextStripe;
+        private ByteBuffer stripe = ByteBuffer.allocate(0);
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            if (!stripe.hasRemaining() && !advance()) {
+                return -1;
+            }
+            return stripe.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int targetLength)
+                throws IOException
+        {
+            if (targetLength == 0) {
+                return 0;
+            }
+            if (!stripe.hasRemaining() && !advance()) {
+                return -1;
+            }
+            int chunk = min(targetLength, stripe.remaining());
+            stripe.get(target, offset, chunk);
+            return chunk;
+        }
+
+        @Override
+        public int available()
+        {
+            return stripe.remaining();
+        }
+
+        private boolean advance()
+                throws IOException
+        {
+            if (stripe.capacity() > 0) {
+                releaseBuffer(stripe);
+            }
+            stripe = ByteBuffer.allocate(0);
+
+            readAhead();
+            PendingIo pendingRead = pendingReads.poll();
+            if (pendingRead == null) {
+                return false;
+            }
+            readAhead();
+            stripe = pendingRead.await();
+            stripe.flip();
+            return true;
+        }
+
+        // keeps the reads of the following stripes in flight while the current one is consumed
+        private void readAhead()
+                throws IOException
+        {
+            while (pendingReads.size() < bufferCount - 1 && nextStripe * stripeSize < length) {
+                pendingReads.add(read(nextStripe));
+                nextStripe++;
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            while (!pendingReads.isEmpty()) {
+                releaseBuffer(pendingReads.poll().await());
+            }
+        }
+    }
+
+    private final class PendingIo
+            implements CompletionHandler<Integer, Void>
+    {
+        private final AsynchronousFileChannel channel;
+        private final boolean write;
+        private final ByteBuffer data;
+        @Nullable
+        private final ByteBuffer buffer;
+        private final SettableFuture<?> done = SettableFuture.create();
+        private long position;
+
+        public PendingIo(AsynchronousFileChannel channel, boolean write, ByteBuffer data, long position, @Nullable ByteBuffer buffer)
+                throws IOException
+        {
+            this.channel = requireNonNull(channel, "channel is null");
+            this.write = write;
+            this.data = requireNonNull(data, "data is null");
+            this.position = position;
+            this.buffer = buffer;
+            if (write) {
+                writeBackpressure.startWrite(data.remaining());
+            }
+            start();
+        }
+
+        private void start()
+        {
+            if (write) {
+                channel.write(data, position, null, this);
+            }
+            else {
+                channel.read(data, position, null, this);
+            }
+        }
+
+        @Override
+        public void completed(Integer transferred, Void attachment)
+        {
+            if (transferred < 0) {
+                failed(new EOFException("Spill file is shorter than expected"), attachment);
+                return;
+            }
+            if (write) {
+                writeBackpressure.finishWrite(transferred, true);
+            }
+            position += transferred;
+            if (!data.hasRemaining()) {
+                done.set(null);
+                return;
+            }
+            try {
+                start();
+            }
+            catch (RuntimeException e) {
+                failed(e, attachment);
+            }
+        }
+
+        @Override
+        public void failed(Throwable throwable, Void attachment)
+        {
+            if (write) {
+                writeBackpressure.finishWrite(data.remaining(), false);
+            }
+            done.setException(throwable);
+        }
+
+        /**
+         * Waits for the operation to complete and returns its buffer, after making
+         * it available for reuse if this is a write.
+         */
+        public ByteBuffer await()
+                throws IOException
+        {
+            try {
+                done.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for spill file I/O");
+            }
+            catch (ExecutionException e) {
+                throwIfInstanceOf(e.getCause(), IOException.class);
+                throw new IOException(e.getCause());
+            }
+            if (write && buffer != null) {
+                releaseBuffer(buffer);
+            }
+            return data;
+        }
+    }
+}
@@ -18,10 +18,16 @@ import io.prestosql.metadata.Split;
 import io.prestosql.metadata.TableHandle;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.predicate.TupleDomain;
 
 import java.util.List;
 
 public interface PageSourceProvider
 {
     ConnectorPageSource createPageSource(Session session, Split split, TableHandle table, List<ColumnHandle> columns);
+
+    default ConnectorPageSource createPageSource(Session session, Split split, TableHandle table, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(session, split, table, columns);
+    }
 }
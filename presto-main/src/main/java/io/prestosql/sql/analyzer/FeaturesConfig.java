@@ -22,13 +22,17 @@ import io.airlift.configuration.DefunctConfig;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import io.prestosql.operator.aggregation.histogram.HistogramGroupImplementation;
 import io.prestosql.operator.aggregation.multimapagg.MultimapAggGroupImplementation;
+import io.prestosql.util.PowerOfTwo;
 
 import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -38,6 +42,7 @@ import java.util.List;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType.PARTITIONED;
 import static io.prestosql.sql.analyzer.FeaturesConfig.JoinReorderingStrategy.ELIMINATE_CROSS_JOINS;
 import static io.prestosql.sql.analyzer.RegexLibrary.JONI;
@@ -76,6 +81,8 @@ public class FeaturesConfig
     private int concurrentLifespansPerTask;
     private boolean spatialJoinsEnabled = true;
     private boolean fastInequalityJoins = true;
+    private boolean flatJoinHashEnabled = true;
+    private boolean joinBloomFilterEnabled = true;
     private JoinReorderingStrategy joinReorderingStrategy = ELIMINATE_CROSS_JOINS;
     private int maxReorderedJoins = 9;
     private boolean redistributeWrites = true;
@@ -86,6 +93,8 @@ public class FeaturesConfig
     private boolean enableIntermediateAggregations;
     private boolean pushTableWriteThroughUnion = true;
     private boolean exchangeCompressionEnabled;
+    private CompressionCodec exchangeCompressionCodec = CompressionCodec.LZ4;
+    private boolean spooledResultsEnabled;
     private boolean legacyTimestamp = true;
     private boolean optimizeMixedDistinctAggregations;
     private boolean unwrapCasts = true;
@@ -104,10 +113,12 @@ public class FeaturesConfig
     private boolean spillEnabled;
     private boolean spillOrderBy = true;
     private boolean spillWindowOperator = true;
+    private int spillJoinFanOut = 8;
     private DataSize aggregationOperatorUnspillMemoryLimit = new DataSize(4, DataSize.Unit.MEGABYTE);
     private List<Path> spillerSpillPaths = ImmutableList.of();
     private int spillerThreads = 4;
     private double spillMaxUsedSpaceThreshold = 0.9;
+    private DataSize spillerStripeSize = new DataSize(64, KILOBYTE);
     private boolean iterativeOptimizerEnabled = true;
     private boolean enableStatsCalculator = true;
     private boolean ignoreStatsCalculatorFailures = true;
@@ -125,6 +136,8 @@ public class FeaturesConfig
 
     private Duration iterativeOptimizerTimeout = new Duration(3, MINUTES); // by default let optimizer wait a long time in case it retrieves some data from ConnectorMetadata
     private boolean enableDynamicFiltering;
+    private int dynamicFilteringMaxPerDriverValueCount = 10_000;
+    private DataSize dynamicFilteringMaxPerDriverSize = new DataSize(1, MEGABYTE);
 
     private DataSize filterAndProjectMinOutputPageSize = new DataSize(500, KILOBYTE);
     private int filterAndProjectMinOutputPageRowCount = 256;
@@ -319,6 +332,32 @@ public class FeaturesConfig
         return fastInequalityJoins;
     }
 
+    @Config("flat-join-hash-enabled")
+    @ConfigDescription("Store fixed width join keys inline in the join hash table")
+    public FeaturesConfig setFlatJoinHashEnabled(boolean flatJoinHashEnabled)
+    {
+        this.flatJoinHashEnabled = flatJoinHashEnabled;
+        return this;
+    }
+
+    public boolean isFlatJoinHashEnabled()
+    {
+        return flatJoinHashEnabled;
+    }
+
+    @Config("join-bloom-filter-enabled")
+    @ConfigDescription("Check probe rows against a Bloom filter of the build side join keys before looking them up in the join hash table")
+    public FeaturesConfig setJoinBloomFilterEnabled(boolean joinBloomFilterEnabled)
+    {
+        this.joinBloomFilterEnabled = joinBloomFilterEnabled;
+        return this;
+    }
+
+    public boolean isJoinBloomFilterEnabled()
+    {
+        return joinBloomFilterEnabled;
+    }
+
     public JoinReorderingStrategy getJoinReorderingStrategy()
     {
         return joinReorderingStrategy;
@@ -542,6 +581,22 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(1)
+    @Max(256)
+    @PowerOfTwo
+    public int getSpillJoinFanOut()
+    {
+        return spillJoinFanOut;
+    }
+
+    @Config("experimental.spill-join-fan-out")
+    @ConfigDescription("Number of partitions each hash build operator splits its input into, so that only the largest partitions are spilled")
+    public FeaturesConfig setSpillJoinFanOut(int spillJoinFanOut)
+    {
+        this.spillJoinFanOut = spillJoinFanOut;
+        return this;
+    }
+
     public boolean isIterativeOptimizerEnabled()
     {
         return iterativeOptimizerEnabled;
@@ -701,6 +756,22 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("16MB")
+    public DataSize getSpillerStripeSize()
+    {
+        return spillerStripeSize;
+    }
+
+    @Config("experimental.spiller-stripe-size")
+    @ConfigDescription("Size of the chunks in which spill files are striped over the spill paths")
+    public FeaturesConfig setSpillerStripeSize(DataSize spillerStripeSize)
+    {
+        this.spillerStripeSize = spillerStripeSize;
+        return this;
+    }
+
     public boolean isEnableDynamicFiltering()
     {
         return enableDynamicFiltering;
@@ -713,6 +784,34 @@ public class FeaturesConfig
         return this;
     }
 
+    @Min(0)
+    public int getDynamicFilteringMaxPerDriverValueCount()
+    {
+        return dynamicFilteringMaxPerDriverValueCount;
+    }
+
+    @Config("experimental.dynamic-filtering-max-per-driver-value-count")
+    @ConfigDescription("Maximum number of distinct build-side values collected by each driver before falling back to a range")
+    public FeaturesConfig setDynamicFilteringMaxPerDriverValueCount(int dynamicFilteringMaxPerDriverValueCount)
+    {
+        this.dynamicFilteringMaxPerDriverValueCount = dynamicFilteringMaxPerDriverValueCount;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getDynamicFilteringMaxPerDriverSize()
+    {
+        return dynamicFilteringMaxPerDriverSize;
+    }
+
+    @Config("experimental.dynamic-filtering-max-per-driver-size")
+    @ConfigDescription("Maximum size of distinct build-side values collected by each driver before falling back to a range")
+    public FeaturesConfig setDynamicFilteringMaxPerDriverSize(DataSize dynamicFilteringMaxPerDriverSize)
+    {
+        this.dynamicFilteringMaxPerDriverSize = dynamicFilteringMaxPerDriverSize;
+        return this;
+    }
+
     public boolean isOptimizeMixedDistinctAggregations()
     {
         return optimizeMixedDistinctAggregations;
@@ -749,6 +848,33 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getExchangeCompressionCodec()
+    {
+        return exchangeCompressionCodec;
+    }
+
+    @Config("exchange.compression-codec")
+    @ConfigDescription("Codec used to compress pages in exchanges when compression is enabled")
+    public FeaturesConfig setExchangeCompressionCodec(CompressionCodec exchangeCompressionCodec)
+    {
+        this.exchangeCompressionCodec = exchangeCompressionCodec;
+        return this;
+    }
+
+    public boolean isSpooledResultsEnabled()
+    {
+        return spooledResultsEnabled;
+    }
+
+    @Config("experimental.spooled-results-enabled")
+    @ConfigDescription("Write the query results to segments on the workers, which clients supporting it download directly")
+    public FeaturesConfig setSpooledResultsEnabled(boolean spooledResultsEnabled)
+    {
+        this.spooledResultsEnabled = spooledResultsEnabled;
+        return this;
+    }
+
     public boolean isEnableIntermediateAggregations()
     {
         return enableIntermediateAggregations;
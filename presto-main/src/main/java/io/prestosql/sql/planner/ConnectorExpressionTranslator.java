@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.FieldDereference;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.tree.DereferenceExpression;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.Identifier;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Translates between planner expressions and the {@link ConnectorExpression}s that are exposed
+ * to connectors. Only symbol references and dereferences of named ROW fields can be translated.
+ */
+public final class ConnectorExpressionTranslator
+{
+    private ConnectorExpressionTranslator() {}
+
+    public static Optional<ConnectorExpression> translate(Expression expression, TypeProvider types)
+    {
+        if (expression instanceof SymbolReference) {
+            Symbol symbol = Symbol.from(expression);
+            return Optional.of(new Variable(symbol.getName(), types.get(symbol)));
+        }
+
+        if (expression instanceof DereferenceExpression) {
+            DereferenceExpression dereference = (DereferenceExpression) expression;
+            Optional<ConnectorExpression> target = translate(dereference.getBase(), types);
+            if (!target.isPresent() || !(target.get().getType() instanceof RowType)) {
+                return Optional.empty();
+            }
+
+            List<RowType.Field> fields = ((RowType) target.get().getType()).getFields();
+            int index = -1;
+            for (int i = 0; i < fields.size(); i++) {
+                Optional<String> name = fields.get(i).getName();
+                if (name.isPresent() && name.get().equalsIgnoreCase(dereference.getField().getValue())) {
+                    if (index >= 0) {
+                        // ambiguous field name
+                        return Optional.empty();
+                    }
+                    index = i;
+                }
+            }
+            if (index < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new FieldDereference(fields.get(index).getType(), target.get(), index));
+        }
+
+        return Optional.empty();
+    }
+
+    public static Optional<Expression> translate(ConnectorExpression expression, Map<String, Symbol> variableMappings)
+    {
+        if (expression instanceof Variable) {
+            Symbol symbol = variableMappings.get(((Variable) expression).getName());
+            if (symbol == null) {
+                return Optional.empty();
+            }
+            return Optional.of(symbol.toSymbolReference());
+        }
+
+        if (expression instanceof FieldDereference) {
+            FieldDereference dereference = (FieldDereference) expression;
+            Type targetType = dereference.getTarget().getType();
+            if (!(targetType instanceof RowType)) {
+                return Optional.empty();
+            }
+            List<RowType.Field> fields = ((RowType) targetType).getFields();
+            if (dereference.getField() >= fields.size() || !fields.get(dereference.getField()).getName().isPresent()) {
+                // anonymous fields can not be referenced by name
+                return Optional.empty();
+            }
+            String name = fields.get(dereference.getField()).getName().get();
+            long matches = fields.stream()
+                    .filter(field -> field.getName().isPresent() && field.getName().get().equalsIgnoreCase(name))
+                    .count();
+            if (matches > 1) {
+                return Optional.empty();
+            }
+            return translate(dereference.getTarget(), variableMappings)
+                    .map(target -> new DereferenceExpression(target, new Identifier(name)));
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.sql.DynamicFilters;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Accumulates collected dynamic filters, keyed by dynamic filter ID. It is used within a single task
+ * for the table scans of the same plan fragment, and by the coordinator for split enumeration.
+ */
+public class DynamicFiltersCollector
+{
+    private final Map<String, Domain> dynamicFilterDomains = new HashMap<>();
+
+    public synchronized void intersect(Map<String, Domain> domains)
+    {
+        requireNonNull(domains, "domains is null");
+        for (Map.Entry<String, Domain> entry : domains.entrySet()) {
+            dynamicFilterDomains.merge(entry.getKey(), entry.getValue(), Domain::intersect);
+        }
+    }
+
+    /**
+     * Returns a supplier of the dynamic filter of a table scan, that reflects the dynamic filters collected so far.
+     *
+     * @param dynamicFilters the dynamic filters applied on top of the table scan
+     * @param assignments the column assignments of the table scan
+     */
+    public Supplier<TupleDomain<ColumnHandle>> createDynamicFilterSupplier(List<DynamicFilters.Descriptor> dynamicFilters, Map<Symbol, ColumnHandle> assignments)
+    {
+        ImmutableMap.Builder<String, ColumnHandle> dynamicFilterColumns = ImmutableMap.builder();
+        for (DynamicFilters.Descriptor descriptor : dynamicFilters) {
+            if (descriptor.getInput() instanceof SymbolReference) {
+                ColumnHandle column = assignments.get(Symbol.from(descriptor.getInput()));
+                if (column != null) {
+                    dynamicFilterColumns.put(descriptor.getId(), column);
+                }
+            }
+        }
+        Map<String, ColumnHandle> columns = dynamicFilterColumns.build();
+        if (columns.isEmpty()) {
+            return TupleDomain::all;
+        }
+        return () -> getPredicate(columns);
+    }
+
+    /**
+     * @param columns mapping from the dynamic filter IDs of interest to the columns they apply to
+     */
+    public synchronized <T> TupleDomain<T> getPredicate(Map<String, T> columns)
+    {
+        Map<T, Domain> domains = new HashMap<>();
+        for (Map.Entry<String, T> entry : columns.entrySet()) {
+            Domain domain = dynamicFilterDomains.get(entry.getKey());
+            if (domain != null) {
+                domains.merge(entry.getValue(), domain, Domain::intersect);
+            }
+        }
+        return TupleDomain.withColumnDomains(domains);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.log.Logger;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.sql.planner.plan.JoinNode;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Verify.verify;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dynamic filter of a join node, which is collected on the build side and consumed
+ * by the table scans on the probe side of the same plan fragment. The collected domains
+ * are also reported to the coordinator, which uses them to prune the splits of the
+ * probe side table scans before they are scheduled.
+ */
+public class LocalDynamicFilter
+{
+    private static final Logger log = Logger.get(LocalDynamicFilter.class);
+
+    // Mapping from dynamic filter ID to its build channel index
+    private final Map<String, Integer> buildChannels;
+    private final SettableFuture<Map<String, Domain>> resultFuture = SettableFuture.create();
+
+    public LocalDynamicFilter(Map<String, Integer> buildChannels)
+    {
+        this.buildChannels = ImmutableMap.copyOf(requireNonNull(buildChannels, "buildChannels is null"));
+    }
+
+    public static Optional<LocalDynamicFilter> create(JoinNode planNode, Map<Symbol, Integer> buildLayout)
+    {
+        ImmutableMap.Builder<String, Integer> buildChannels = ImmutableMap.builder();
+        for (Map.Entry<String, Symbol> entry : planNode.getDynamicFilters().entrySet()) {
+            Integer buildChannel = buildLayout.get(entry.getValue());
+            verify(buildChannel != null, "Build symbol %s is not present in the build layout", entry.getValue());
+            buildChannels.put(entry.getKey(), buildChannel);
+        }
+
+        Map<String, Integer> channels = buildChannels.build();
+        if (channels.isEmpty()) {
+            return Optional.empty();
+        }
+        log.debug("Collecting dynamic filters %s for join %s", channels.keySet(), planNode.getId());
+        return Optional.of(new LocalDynamicFilter(channels));
+    }
+
+    public Map<String, Integer> getBuildChannels()
+    {
+        return buildChannels;
+    }
+
+    public ListenableFuture<Map<String, Domain>> getResultFuture()
+    {
+        return resultFuture;
+    }
+
+    public Consumer<Map<String, Domain>> getDomainsConsumer()
+    {
+        return resultFuture::set;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("buildChannels", buildChannels)
+                .add("resultFuture", resultFuture)
+                .toString();
+    }
+}
@@ -35,6 +35,7 @@ import io.prestosql.execution.StageId;
 import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.buffer.OutputBuffer;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.ResultSegmentStore;
 import io.prestosql.index.IndexManager;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.metadata.Signature;
@@ -44,6 +45,8 @@ import io.prestosql.operator.AssignUniqueIdOperator;
 import io.prestosql.operator.DeleteOperator.DeleteOperatorFactory;
 import io.prestosql.operator.DevNullOperator.DevNullOperatorFactory;
 import io.prestosql.operator.DriverFactory;
+import io.prestosql.operator.DynamicFilterSourceOperator;
+import io.prestosql.operator.DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory;
 import io.prestosql.operator.EnforceSingleRowOperator;
 import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.operator.ExchangeOperator.ExchangeOperatorFactory;
@@ -74,6 +77,7 @@ import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PartitionedLookupSourceFactory;
 import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputFactory;
 import io.prestosql.operator.PipelineExecutionStrategy;
+import io.prestosql.operator.ResultSegmentOutputOperator.ResultSegmentOutputFactory;
 import io.prestosql.operator.RowNumberOperator;
 import io.prestosql.operator.ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory;
 import io.prestosql.operator.SetBuilderOperator.SetBuilderOperatorFactory;
@@ -122,6 +126,7 @@ import io.prestosql.spi.connector.ConnectorIndex;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.RecordSet;
 import io.prestosql.spi.predicate.NullableValue;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.spiller.SingleStreamSpillerFactory;
@@ -223,13 +228,18 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
+import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.prestosql.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverSize;
+import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverValueCount;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
+import static io.prestosql.SystemSessionProperties.getSpillJoinFanOut;
 import static io.prestosql.SystemSessionProperties.getTaskConcurrency;
 import static io.prestosql.SystemSessionProperties.getTaskWriterCount;
-import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillOrderBy;
 import static io.prestosql.SystemSessionProperties.isSpillWindowOperator;
@@ -239,6 +249,7 @@ import static io.prestosql.operator.NestedLoopBuildOperator.NestedLoopBuildOpera
 import static io.prestosql.operator.NestedLoopJoinOperator.NestedLoopJoinOperatorFactory;
 import static io.prestosql.operator.PipelineExecutionStrategy.GROUPED_EXECUTION;
 import static io.prestosql.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
+import static io.prestosql.operator.ResultSegmentOutputOperator.isSpooledOutput;
 import static io.prestosql.operator.TableFinishOperator.TableFinishOperatorFactory;
 import static io.prestosql.operator.TableFinishOperator.TableFinisher;
 import static io.prestosql.operator.TableWriterOperator.FRAGMENT_CHANNEL;
@@ -307,6 +318,7 @@ public class LocalExecutionPlanner
     private final JoinCompiler joinCompiler;
     private final LookupJoinOperators lookupJoinOperators;
     private final OrderingCompiler orderingCompiler;
+    private final ResultSegmentStore resultSegmentStore;
 
     @Inject
     public LocalExecutionPlanner(
@@ -329,7 +341,8 @@ public class LocalExecutionPlanner
             PagesIndex.Factory pagesIndexFactory,
             JoinCompiler joinCompiler,
             LookupJoinOperators lookupJoinOperators,
-            OrderingCompiler orderingCompiler)
+            OrderingCompiler orderingCompiler,
+            ResultSegmentStore resultSegmentStore)
     {
         this.explainAnalyzeContext = requireNonNull(explainAnalyzeContext, "explainAnalyzeContext is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -354,6 +367,7 @@ public class LocalExecutionPlanner
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.lookupJoinOperators = requireNonNull(lookupJoinOperators, "lookupJoinOperators is null");
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        this.resultSegmentStore = requireNonNull(resultSegmentStore, "resultSegmentStore is null");
     }
 
     public LocalExecutionPlan plan(
@@ -367,6 +381,10 @@ public class LocalExecutionPlanner
     {
         List<Symbol> outputLayout = partitioningScheme.getOutputLayout();
 
+        if (partitioningScheme.getPartitioning().getHandle().equals(SINGLE_DISTRIBUTION) && isSpooledOutput(taskContext.getSession(), plan)) {
+            return plan(taskContext, stageExecutionDescriptor, plan, outputLayout, types, partitionedSourceOrder, new ResultSegmentOutputFactory(outputBuffer, resultSegmentStore));
+        }
+
         if (partitioningScheme.getPartitioning().getHandle().equals(FIXED_BROADCAST_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(FIXED_ARBITRARY_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(SCALED_WRITER_DISTRIBUTION) ||
@@ -468,7 +486,7 @@ public class LocalExecutionPlanner
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session))))
+                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session))))
                         .build(),
                 context.getDriverInstanceCount(),
                 physicalOperation.getPipelineExecutionStrategy());
@@ -525,6 +543,7 @@ public class LocalExecutionPlanner
 
         // this is shared with all subContexts
         private final AtomicInteger nextPipelineId;
+        private final DynamicFiltersCollector dynamicFiltersCollector;
 
         private int nextOperatorId;
         private boolean inputDriver = true;
@@ -532,7 +551,7 @@ public class LocalExecutionPlanner
 
         public LocalExecutionPlanContext(TaskContext taskContext, TypeProvider types)
         {
-            this(taskContext, types, new ArrayList<>(), Optional.empty(), new AtomicInteger(0));
+            this(taskContext, types, new ArrayList<>(), Optional.empty(), new AtomicInteger(0), new DynamicFiltersCollector());
         }
 
         private LocalExecutionPlanContext(
@@ -540,13 +559,15 @@ public class LocalExecutionPlanner
                 TypeProvider types,
                 List<DriverFactory> driverFactories,
                 Optional<IndexSourceContext> indexSourceContext,
-                AtomicInteger nextPipelineId)
+                AtomicInteger nextPipelineId,
+                DynamicFiltersCollector dynamicFiltersCollector)
         {
             this.taskContext = taskContext;
             this.types = types;
             this.driverFactories = driverFactories;
             this.indexSourceContext = indexSourceContext;
             this.nextPipelineId = nextPipelineId;
+            this.dynamicFiltersCollector = dynamicFiltersCollector;
         }
 
         public void addDriverFactory(boolean inputDriver, boolean outputDriver, List<OperatorFactory> operatorFactories, OptionalInt driverInstances, PipelineExecutionStrategy pipelineExecutionStrategy)
@@ -573,6 +594,11 @@ public class LocalExecutionPlanner
             return ImmutableList.copyOf(driverFactories);
         }
 
+        public TaskContext getTaskContext()
+        {
+            return taskContext;
+        }
+
         public Session getSession()
         {
             return taskContext.getSession();
@@ -593,6 +619,11 @@ public class LocalExecutionPlanner
             return indexSourceContext;
         }
 
+        public DynamicFiltersCollector getDynamicFiltersCollector()
+        {
+            return dynamicFiltersCollector;
+        }
+
         private int getNextPipelineId()
         {
             return nextPipelineId.getAndIncrement();
@@ -616,12 +647,12 @@ public class LocalExecutionPlanner
         public LocalExecutionPlanContext createSubContext()
         {
             checkState(!indexSourceContext.isPresent(), "index build plan can not have sub-contexts");
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, indexSourceContext, nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, driverFactories, indexSourceContext, nextPipelineId, dynamicFiltersCollector);
         }
 
         public LocalExecutionPlanContext createIndexSourceSubContext(IndexSourceContext indexSourceContext)
         {
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, Optional.of(indexSourceContext), nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, driverFactories, Optional.of(indexSourceContext), nextPipelineId, dynamicFiltersCollector);
         }
 
         public OptionalInt getDriverInstanceCount()
@@ -726,7 +757,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)),
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session)),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -746,7 +777,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)));
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session)));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -809,7 +840,9 @@ public class LocalExecutionPlanner
                     node.getMaxRowCountPerPartition(),
                     hashChannel,
                     10_000,
-                    joinCompiler);
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, source);
         }
 
@@ -859,7 +892,9 @@ public class LocalExecutionPlanner
                     node.isPartial(),
                     hashChannel,
                     1000,
-                    joinCompiler);
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()),
+                    partitioningSpillerFactory);
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, source);
         }
@@ -1038,7 +1073,9 @@ public class LocalExecutionPlanner
                     distinctChannels,
                     node.getLimit(),
                     hashChannel,
-                    joinCompiler);
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, source);
         }
 
@@ -1114,7 +1151,15 @@ public class LocalExecutionPlanner
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashChannel, joinCompiler);
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashChannel,
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operator, makeLayout(node), context, source);
         }
 
@@ -1222,11 +1267,9 @@ public class LocalExecutionPlanner
                     .map(DynamicFilters.ExtractResult::getStaticConjuncts)
                     .map(ExpressionUtils::combineConjuncts);
 
-            // TODO: Execution must be plugged in here
-            Optional<List<DynamicFilters.Descriptor>> dynamicFilters = extractDynamicFilterResult.map(DynamicFilters.ExtractResult::getDynamicConjuncts);
-            if (dynamicFilters.isPresent() && !dynamicFilters.get().isEmpty()) {
-                log.debug("[TableScan] Dynamic filters: %s", dynamicFilters);
-            }
+            List<DynamicFilters.Descriptor> dynamicFilters = extractDynamicFilterResult
+                    .map(DynamicFilters.ExtractResult::getDynamicConjuncts)
+                    .orElse(ImmutableList.of());
 
             List<Expression> projections = new ArrayList<>();
             for (Symbol symbol : outputSymbols) {
@@ -1257,6 +1300,7 @@ public class LocalExecutionPlanner
                             pageProcessor,
                             table,
                             columns,
+                            getDynamicFilterSupplier(dynamicFilters, (TableScanNode) sourceNode, context),
                             getTypes(projections, expressionTypes),
                             getFilterAndProjectMinOutputPageSize(session),
                             getFilterAndProjectMinOutputPageRowCount(session));
@@ -1282,6 +1326,15 @@ public class LocalExecutionPlanner
             }
         }
 
+        private Supplier<TupleDomain<ColumnHandle>> getDynamicFilterSupplier(List<DynamicFilters.Descriptor> dynamicFilters, TableScanNode tableScanNode, LocalExecutionPlanContext context)
+        {
+            if (dynamicFilters.isEmpty()) {
+                return TupleDomain::all;
+            }
+            log.debug("[TableScan] Dynamic filters: %s", dynamicFilters);
+            return context.getDynamicFiltersCollector().createDynamicFilterSupplier(dynamicFilters, tableScanNode.getAssignments());
+        }
+
         private RowExpression toRowExpression(Expression expression, Map<NodeRef<Expression>, Type> types, Map<Symbol, Integer> layout)
         {
             return SqlToRowExpressionTranslator.translate(expression, SCALAR, types, layout, metadata, session, true);
@@ -1591,11 +1644,6 @@ public class LocalExecutionPlanner
 
             List<JoinNode.EquiJoinClause> clauses = node.getCriteria();
 
-            // TODO: Execution must be plugged in here
-            if (!node.getDynamicFilters().isEmpty()) {
-                log.debug("[Join] Dynamic filters: %s", node.getDynamicFilters());
-            }
-
             List<Symbol> leftSymbols = Lists.transform(clauses, JoinNode.EquiJoinClause::getLeft);
             List<Symbol> rightSymbols = Lists.transform(clauses, JoinNode.EquiJoinClause::getRight);
 
@@ -1962,7 +2010,11 @@ public class LocalExecutionPlanner
                     .map(OptionalInt::of).orElse(OptionalInt.empty());
 
             boolean buildOuter = node.getType() == RIGHT || node.getType() == FULL;
-            int partitionCount = buildContext.getDriverInstanceCount().orElse(1);
+            int buildOperatorCount = buildContext.getDriverInstanceCount().orElse(1);
+            // each build operator splits its input into several lookup source partitions, so that only the largest partitions are spilled
+            int partitionsPerOperator = spillEnabled && !buildOuter ? getSpillJoinFanOut(session) : 1;
+            int partitionCount = buildOperatorCount * partitionsPerOperator;
+            boolean buildSpillEnabled = spillEnabled && !buildOuter && partitionCount > 1;
 
             Optional<JoinFilterFunctionFactory> filterFunctionFactory = node.getFilter()
                     .map(filterExpression -> compileJoinFilterFunction(
@@ -2004,10 +2056,16 @@ public class LocalExecutionPlanner
                             buildChannels.stream()
                                     .map(buildSource.getTypes()::get)
                                     .collect(toImmutableList()),
-                            buildContext.getDriverInstanceCount().orElse(1),
+                            partitionCount,
                             buildSource.getLayout(),
                             buildOuter),
                     buildOutputTypes);
+            ImmutableList.Builder<OperatorFactory> factoriesBuilder = ImmutableList.<OperatorFactory>builder()
+                    .addAll(buildSource.getOperatorFactories());
+
+            createDynamicFilter(node, buildSource, context)
+                    .ifPresent(filter -> factoriesBuilder.add(createDynamicFilterSourceOperatorFactory(filter, node, buildSource, buildContext)));
+
             HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
                     buildContext.getNextOperatorId(),
                     node.getId(),
@@ -2020,14 +2078,14 @@ public class LocalExecutionPlanner
                     searchFunctionFactories,
                     10_000,
                     pagesIndexFactory,
-                    spillEnabled && !buildOuter && partitionCount > 1,
-                    singleStreamSpillerFactory);
+                    buildSpillEnabled,
+                    singleStreamSpillerFactory,
+                    partitionsPerOperator);
 
             context.addDriverFactory(
                     buildContext.isInputDriver(),
                     false,
-                    ImmutableList.<OperatorFactory>builder()
-                            .addAll(buildSource.getOperatorFactories())
+                    factoriesBuilder
                             .add(hashBuilderOperatorFactory)
                             .build(),
                     buildContext.getDriverInstanceCount(),
@@ -2036,6 +2094,46 @@ public class LocalExecutionPlanner
             return lookupSourceFactoryManager;
         }
 
+        private Optional<LocalDynamicFilter> createDynamicFilter(JoinNode node, PhysicalOperation buildSource, LocalExecutionPlanContext context)
+        {
+            if (node.getDynamicFilters().isEmpty() || !isEnableDynamicFiltering(context.getSession())) {
+                return Optional.empty();
+            }
+            if (buildSource.getPipelineExecutionStrategy() == GROUPED_EXECUTION) {
+                // the build side of each lifespan only covers a subset of the probe side
+                return Optional.empty();
+            }
+            DynamicFiltersCollector collector = context.getDynamicFiltersCollector();
+            TaskContext taskContext = context.getTaskContext();
+            return LocalDynamicFilter.create(node, buildSource.getLayout())
+                    .map(filter -> {
+                        // intersect the dynamic filters when they become ready, so that
+                        // multiple joins in the same plan fragment can filter the same scan
+                        addSuccessCallback(filter.getResultFuture(), collector::intersect);
+                        // the coordinator combines the dynamic filters of all tasks to prune splits
+                        addSuccessCallback(filter.getResultFuture(), taskContext::addDynamicFilterDomains);
+                        return filter;
+                    });
+        }
+
+        private DynamicFilterSourceOperatorFactory createDynamicFilterSourceOperatorFactory(
+                LocalDynamicFilter dynamicFilter,
+                JoinNode node,
+                PhysicalOperation buildSource,
+                LocalExecutionPlanContext buildContext)
+        {
+            List<DynamicFilterSourceOperator.Channel> filterChannels = dynamicFilter.getBuildChannels().entrySet().stream()
+                    .map(entry -> new DynamicFilterSourceOperator.Channel(entry.getKey(), buildSource.getTypes().get(entry.getValue()), entry.getValue()))
+                    .collect(toImmutableList());
+            return new DynamicFilterSourceOperatorFactory(
+                    buildContext.getNextOperatorId(),
+                    node.getId(),
+                    dynamicFilter.getDomainsConsumer(),
+                    filterChannels,
+                    getDynamicFilteringMaxPerDriverValueCount(buildContext.getSession()),
+                    getDynamicFilteringMaxPerDriverSize(buildContext.getSession()));
+        }
+
         private JoinFilterFunctionFactory compileJoinFilterFunction(
                 Expression filterExpression,
                 Map<Symbol, Integer> probeLayout,
@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.Assignment;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.sql.planner.ConnectorExpressionTranslator;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Lookup;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.FunctionCall;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static io.prestosql.sql.planner.plan.Patterns.aggregation;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers a single step aggregation directly over a table scan to the connector,
+ * so that it can compute the groups and the aggregates itself, and produce only the aggregated rows.
+ */
+public class PushAggregationIntoTableScan
+        implements Rule<AggregationNode>
+{
+    private static final Pattern<AggregationNode> PATTERN = aggregation()
+            .matching(PushAggregationIntoTableScan::isPushable);
+
+    private final Metadata metadata;
+
+    public PushAggregationIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public Pattern<AggregationNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    private static boolean isPushable(AggregationNode aggregation)
+    {
+        return aggregation.getStep() == SINGLE &&
+                aggregation.getGroupingSetCount() == 1 &&
+                !aggregation.getHashSymbol().isPresent() &&
+                !aggregation.getGroupIdSymbol().isPresent() &&
+                aggregation.getAggregations().values().stream()
+                        .noneMatch(value -> value.getMask().isPresent() ||
+                                value.getCall().getFilter().isPresent() ||
+                                value.getCall().getOrderBy().isPresent());
+    }
+
+    @Override
+    public Result apply(AggregationNode aggregation, Captures captures, Context context)
+    {
+        Optional<TableScanNode> source = getTableScan(aggregation.getSource(), context.getLookup());
+        if (!source.isPresent()) {
+            return Result.empty();
+        }
+        TableScanNode tableScan = source.get();
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+
+        ImmutableList.Builder<ColumnHandle> groupingColumns = ImmutableList.builder();
+        for (Symbol groupingKey : aggregation.getGroupingKeys()) {
+            ColumnHandle column = tableScan.getAssignments().get(groupingKey);
+            if (column == null) {
+                return Result.empty();
+            }
+            groupingColumns.add(column);
+        }
+
+        ImmutableList.Builder<Symbol> aggregationOutputs = ImmutableList.builder();
+        ImmutableList.Builder<AggregateFunction> aggregateFunctions = ImmutableList.builder();
+        for (Map.Entry<Symbol, AggregationNode.Aggregation> entry : aggregation.getAggregations().entrySet()) {
+            FunctionCall call = entry.getValue().getCall();
+            ImmutableList.Builder<ConnectorExpression> inputs = ImmutableList.builder();
+            for (Expression argument : call.getArguments()) {
+                Optional<ConnectorExpression> input = ConnectorExpressionTranslator.translate(argument, types);
+                if (!input.isPresent()) {
+                    return Result.empty();
+                }
+                inputs.add(input.get());
+            }
+            aggregationOutputs.add(entry.getKey());
+            aggregateFunctions.add(new AggregateFunction(
+                    entry.getValue().getSignature().getName(),
+                    types.get(entry.getKey()),
+                    inputs.build(),
+                    call.isDistinct()));
+        }
+
+        ImmutableMap.Builder<String, ColumnHandle> assignments = ImmutableMap.builder();
+        tableScan.getAssignments().forEach((symbol, column) -> assignments.put(symbol.getName(), column));
+
+        List<AggregateFunction> aggregates = aggregateFunctions.build();
+        Optional<AggregationApplicationResult<TableHandle>> result = metadata.applyAggregation(
+                context.getSession(),
+                tableScan.getTable(),
+                aggregates,
+                assignments.build(),
+                ImmutableList.of(groupingColumns.build()));
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+        checkState(result.get().getProjections().size() == aggregates.size(), "Connector returned a different number of projections");
+
+        ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, ColumnHandle> newAssignments = ImmutableMap.builder();
+        Assignments.Builder projections = Assignments.builder();
+        for (Symbol groupingKey : aggregation.getGroupingKeys()) {
+            ColumnHandle column = tableScan.getAssignments().get(groupingKey);
+            outputs.add(groupingKey);
+            newAssignments.put(groupingKey, result.get().getGroupingColumnMapping().getOrDefault(column, column));
+            projections.putIdentity(groupingKey);
+        }
+
+        Map<String, Symbol> variableMappings = new HashMap<>();
+        for (Assignment assignment : result.get().getAssignments()) {
+            Symbol symbol = context.getSymbolAllocator().newSymbol(assignment.getVariable(), assignment.getType());
+            outputs.add(symbol);
+            newAssignments.put(symbol, assignment.getColumn());
+            variableMappings.put(assignment.getVariable(), symbol);
+        }
+
+        List<Symbol> outputSymbols = aggregationOutputs.build();
+        for (int i = 0; i < outputSymbols.size(); i++) {
+            // the connector must compute the aggregate with exactly the result type of the function
+            if (!result.get().getProjections().get(i).getType().equals(types.get(outputSymbols.get(i)))) {
+                return Result.empty();
+            }
+            Optional<Expression> projection = ConnectorExpressionTranslator.translate(result.get().getProjections().get(i), variableMappings);
+            if (!projection.isPresent()) {
+                return Result.empty();
+            }
+            projections.put(outputSymbols.get(i), projection.get());
+        }
+
+        return Result.ofPlanNode(new ProjectNode(
+                context.getIdAllocator().getNextId(),
+                new TableScanNode(
+                        tableScan.getId(),
+                        result.get().getHandle(),
+                        outputs.build(),
+                        newAssignments.build(),
+                        // the constraint on the rows of the table still holds for the grouping columns of the aggregated rows
+                        tableScan.getEnforcedConstraint()),
+                projections.build()));
+    }
+
+    private static Optional<TableScanNode> getTableScan(PlanNode node, Lookup lookup)
+    {
+        PlanNode source = lookup.resolve(node);
+        // the planner adds an identity projection selecting the aggregated columns, which is only pruned later
+        if (source instanceof ProjectNode && ((ProjectNode) source).isIdentity()) {
+            source = lookup.resolve(((ProjectNode) source).getSource());
+        }
+        if (source instanceof TableScanNode) {
+            return Optional.of((TableScanNode) source);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.cost.StatsProvider;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Lookup;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.ComparisonExpression;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.prestosql.sql.ExpressionUtils.combineConjuncts;
+import static io.prestosql.sql.ExpressionUtils.extractConjuncts;
+import static io.prestosql.sql.planner.plan.Patterns.join;
+import static java.lang.Double.isNaN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces a join of two table scans of the same catalog with a single scan of the joined relation.
+ * Filters above the scans are kept above the new scan, as long as the join preserves the rows they filter.
+ */
+public class PushJoinIntoTableScan
+        implements Rule<JoinNode>
+{
+    private static final Pattern<JoinNode> PATTERN = join()
+            .matching(node -> !node.getLeftHashSymbol().isPresent() && !node.getRightHashSymbol().isPresent() && node.getDynamicFilters().isEmpty());
+
+    private final Metadata metadata;
+
+    public PushJoinIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public Pattern<JoinNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public Result apply(JoinNode join, Captures captures, Context context)
+    {
+        List<Expression> predicates = new ArrayList<>();
+        boolean leftPreserved = join.getType() == JoinNode.Type.INNER || join.getType() == JoinNode.Type.LEFT;
+        boolean rightPreserved = join.getType() == JoinNode.Type.INNER || join.getType() == JoinNode.Type.RIGHT;
+        Optional<TableScanNode> left = getTableScan(join.getLeft(), leftPreserved, predicates, context.getLookup());
+        Optional<TableScanNode> right = getTableScan(join.getRight(), rightPreserved, predicates, context.getLookup());
+        if (!left.isPresent() || !right.isPresent()) {
+            return Result.empty();
+        }
+        TableScanNode leftScan = left.get();
+        TableScanNode rightScan = right.get();
+
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+        ImmutableList.Builder<JoinCondition> conditions = ImmutableList.builder();
+        for (JoinNode.EquiJoinClause clause : join.getCriteria()) {
+            conditions.add(new JoinCondition(JoinCondition.Operator.EQUAL, toVariable(clause.getLeft(), types), toVariable(clause.getRight(), types)));
+        }
+        if (join.getFilter().isPresent()) {
+            Set<Symbol> leftSymbols = leftScan.getOutputSymbols().stream().collect(toImmutableSet());
+            Set<Symbol> rightSymbols = rightScan.getOutputSymbols().stream().collect(toImmutableSet());
+            for (Expression conjunct : extractConjuncts(join.getFilter().get())) {
+                Optional<JoinCondition> condition = toJoinCondition(conjunct, leftSymbols, rightSymbols, types);
+                if (!condition.isPresent()) {
+                    return Result.empty();
+                }
+                conditions.add(condition.get());
+            }
+        }
+
+        if (!isCheaperThanJoinSources(join, context.getStatsProvider(), types)) {
+            return Result.empty();
+        }
+
+        Optional<JoinApplicationResult<TableHandle>> result = metadata.applyJoin(
+                context.getSession(),
+                toJoinType(join.getType()),
+                leftScan.getTable(),
+                rightScan.getTable(),
+                conditions.build(),
+                toAssignments(leftScan),
+                toAssignments(rightScan));
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+
+        ImmutableMap.Builder<Symbol, ColumnHandle> assignments = ImmutableMap.builder();
+        leftScan.getAssignments().forEach((symbol, column) -> assignments.put(symbol, getColumn(result.get().getLeftColumnHandles(), column)));
+        rightScan.getAssignments().forEach((symbol, column) -> assignments.put(symbol, getColumn(result.get().getRightColumnHandles(), column)));
+
+        PlanNode node = new TableScanNode(
+                context.getIdAllocator().getNextId(),
+                result.get().getHandle(),
+                ImmutableList.<Symbol>builder()
+                        .addAll(leftScan.getOutputSymbols())
+                        .addAll(rightScan.getOutputSymbols())
+                        .build(),
+                assignments.build(),
+                TupleDomain.all());
+        if (!predicates.isEmpty()) {
+            node = new FilterNode(context.getIdAllocator().getNextId(), node, combineConjuncts(predicates));
+        }
+        if (!node.getOutputSymbols().equals(join.getOutputSymbols())) {
+            node = new ProjectNode(context.getIdAllocator().getNextId(), node, Assignments.identity(join.getOutputSymbols()));
+        }
+        return Result.ofPlanNode(node);
+    }
+
+    private static Optional<TableScanNode> getTableScan(PlanNode node, boolean preserved, List<Expression> predicates, Lookup lookup)
+    {
+        PlanNode source = lookup.resolve(node);
+        // identity projections pruning the columns of the side are subsumed by the projection of the join outputs
+        if (source instanceof ProjectNode && ((ProjectNode) source).isIdentity()) {
+            source = lookup.resolve(((ProjectNode) source).getSource());
+        }
+        if (source instanceof TableScanNode) {
+            return Optional.of((TableScanNode) source);
+        }
+        // the filter can only be applied after the join if the join does not add rows of this side padded with nulls
+        if (preserved && source instanceof FilterNode) {
+            FilterNode filter = (FilterNode) source;
+            PlanNode filterSource = lookup.resolve(filter.getSource());
+            if (filterSource instanceof TableScanNode) {
+                predicates.add(filter.getPredicate());
+                return Optional.of((TableScanNode) filterSource);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<JoinCondition> toJoinCondition(Expression expression, Set<Symbol> leftSymbols, Set<Symbol> rightSymbols, TypeProvider types)
+    {
+        if (!(expression instanceof ComparisonExpression)) {
+            return Optional.empty();
+        }
+        ComparisonExpression comparison = (ComparisonExpression) expression;
+        if (!(comparison.getLeft() instanceof SymbolReference) || !(comparison.getRight() instanceof SymbolReference)) {
+            return Optional.empty();
+        }
+        Symbol first = Symbol.from(comparison.getLeft());
+        Symbol second = Symbol.from(comparison.getRight());
+        if (leftSymbols.contains(first) && rightSymbols.contains(second)) {
+            return Optional.of(new JoinCondition(toOperator(comparison.getOperator()), toVariable(first, types), toVariable(second, types)));
+        }
+        if (leftSymbols.contains(second) && rightSymbols.contains(first)) {
+            return Optional.of(new JoinCondition(toOperator(comparison.getOperator().flip()), toVariable(second, types), toVariable(first, types)));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isCheaperThanJoinSources(JoinNode join, StatsProvider statsProvider, TypeProvider types)
+    {
+        double joinSize = statsProvider.getStats(join).getOutputSizeInBytes(join.getOutputSymbols(), types);
+        double leftSize = statsProvider.getStats(join.getLeft()).getOutputSizeInBytes(join.getLeft().getOutputSymbols(), types);
+        double rightSize = statsProvider.getStats(join.getRight()).getOutputSizeInBytes(join.getRight().getOutputSymbols(), types);
+        if (isNaN(joinSize) || isNaN(leftSize) || isNaN(rightSize)) {
+            // without estimates the remote database is trusted to join the tables more efficiently, e.g. using its indexes
+            return true;
+        }
+        // a join multiplying the rows of its sources transfers more data than the sources themselves
+        return joinSize <= leftSize + rightSize;
+    }
+
+    private static Map<String, ColumnHandle> toAssignments(TableScanNode tableScan)
+    {
+        return tableScan.getAssignments().entrySet().stream()
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+    }
+
+    private static ColumnHandle getColumn(Map<ColumnHandle, ColumnHandle> columnHandles, ColumnHandle column)
+    {
+        ColumnHandle result = columnHandles.get(column);
+        checkState(result != null, "Column %s is not mapped by the join pushdown", column);
+        return result;
+    }
+
+    private static Variable toVariable(Symbol symbol, TypeProvider types)
+    {
+        return new Variable(symbol.getName(), types.get(symbol));
+    }
+
+    private static JoinCondition.Operator toOperator(ComparisonExpression.Operator operator)
+    {
+        switch (operator) {
+            case EQUAL:
+                return JoinCondition.Operator.EQUAL;
+            case NOT_EQUAL:
+                return JoinCondition.Operator.NOT_EQUAL;
+            case LESS_THAN:
+                return JoinCondition.Operator.LESS_THAN;
+            case LESS_THAN_OR_EQUAL:
+                return JoinCondition.Operator.LESS_THAN_OR_EQUAL;
+            case GREATER_THAN:
+                return JoinCondition.Operator.GREATER_THAN;
+            case GREATER_THAN_OR_EQUAL:
+                return JoinCondition.Operator.GREATER_THAN_OR_EQUAL;
+            case IS_DISTINCT_FROM:
+                return JoinCondition.Operator.IS_DISTINCT_FROM;
+        }
+        throw new IllegalArgumentException("Unsupported operator: " + operator);
+    }
+
+    private static JoinType toJoinType(JoinNode.Type joinType)
+    {
+        switch (joinType) {
+            case INNER:
+                return JoinType.INNER;
+            case LEFT:
+                return JoinType.LEFT_OUTER;
+            case RIGHT:
+                return JoinType.RIGHT_OUTER;
+            case FULL:
+                return JoinType.FULL_OUTER;
+        }
+        throw new IllegalArgumentException("Unsupported join type: " + joinType);
+    }
+}
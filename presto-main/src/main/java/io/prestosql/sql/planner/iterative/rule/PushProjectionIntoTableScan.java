@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.Assignment;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.sql.planner.ConnectorExpressionTranslator;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.DereferenceExpression;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.ExpressionRewriter;
+import io.prestosql.sql.tree.ExpressionTreeRewriter;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.sql.planner.plan.Patterns.project;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers the column references and the ROW field dereferences of a projection
+ * (and of a filter between the projection and the table scan) to the connector,
+ * so that it can produce the referenced subfields directly instead of the whole column.
+ */
+public class PushProjectionIntoTableScan
+        implements Rule<ProjectNode>
+{
+    private static final Pattern<ProjectNode> PATTERN = project();
+
+    private final Metadata metadata;
+
+    public PushProjectionIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public Pattern<ProjectNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public Result apply(ProjectNode project, Captures captures, Context context)
+    {
+        PlanNode source = context.getLookup().resolve(project.getSource());
+        Optional<FilterNode> filter = Optional.empty();
+        if (source instanceof FilterNode) {
+            filter = Optional.of((FilterNode) source);
+            source = context.getLookup().resolve(((FilterNode) source).getSource());
+        }
+        if (!(source instanceof TableScanNode)) {
+            return Result.empty();
+        }
+        TableScanNode tableScan = (TableScanNode) source;
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+
+        // collect the outermost translatable expressions over the columns of the table
+        Set<ConnectorExpression> projections = new LinkedHashSet<>();
+        BiFunction<Expression, ConnectorExpression, Expression> collector = (expression, projection) -> {
+            projections.add(projection);
+            return expression;
+        };
+        filter.ifPresent(node -> rewrite(node.getPredicate(), tableScan, types, collector));
+        project.getAssignments().getExpressions().forEach(expression -> rewrite(expression, tableScan, types, collector));
+        if (projections.isEmpty()) {
+            return Result.empty();
+        }
+
+        ImmutableMap.Builder<String, ColumnHandle> assignments = ImmutableMap.builder();
+        tableScan.getAssignments().forEach((symbol, column) -> assignments.put(symbol.getName(), column));
+
+        List<ConnectorExpression> inputProjections = ImmutableList.copyOf(projections);
+        Optional<ProjectionApplicationResult<TableHandle>> result = metadata.applyProjection(
+                context.getSession(),
+                tableScan.getTable(),
+                inputProjections,
+                assignments.build());
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+        checkState(result.get().getProjections().size() == inputProjections.size(), "Connector returned a different number of projections");
+
+        ImmutableList.Builder<Symbol> outputs = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, ColumnHandle> newAssignments = ImmutableMap.builder();
+        Map<String, Symbol> variableMappings = new HashMap<>();
+        for (Assignment assignment : result.get().getAssignments()) {
+            Symbol symbol = context.getSymbolAllocator().newSymbol(assignment.getVariable(), assignment.getType());
+            outputs.add(symbol);
+            newAssignments.put(symbol, assignment.getColumn());
+            variableMappings.put(assignment.getVariable(), symbol);
+        }
+
+        Map<ConnectorExpression, Expression> replacements = new HashMap<>();
+        for (int i = 0; i < inputProjections.size(); i++) {
+            Optional<Expression> replacement = ConnectorExpressionTranslator.translate(result.get().getProjections().get(i), variableMappings);
+            if (!replacement.isPresent()) {
+                return Result.empty();
+            }
+            replacements.put(inputProjections.get(i), replacement.get());
+        }
+        BiFunction<Expression, ConnectorExpression, Expression> replacer = (expression, projection) -> replacements.get(projection);
+
+        PlanNode newSource = new TableScanNode(
+                tableScan.getId(),
+                result.get().getHandle(),
+                outputs.build(),
+                newAssignments.build(),
+                tableScan.getEnforcedConstraint());
+        if (filter.isPresent()) {
+            newSource = new FilterNode(filter.get().getId(), newSource, rewrite(filter.get().getPredicate(), tableScan, types, replacer));
+        }
+        return Result.ofPlanNode(new ProjectNode(
+                project.getId(),
+                newSource,
+                project.getAssignments().rewrite(expression -> rewrite(expression, tableScan, types, replacer))));
+    }
+
+    private static Expression rewrite(Expression expression, TableScanNode tableScan, TypeProvider types, BiFunction<Expression, ConnectorExpression, Expression> function)
+    {
+        return ExpressionTreeRewriter.rewriteWith(new ExpressionRewriter<Void>()
+        {
+            @Override
+            public Expression rewriteSymbolReference(SymbolReference node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return rewriteColumnReference(node);
+            }
+
+            @Override
+            public Expression rewriteDereferenceExpression(DereferenceExpression node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                return rewriteColumnReference(node);
+            }
+
+            private Expression rewriteColumnReference(Expression node)
+            {
+                Expression base = node;
+                while (base instanceof DereferenceExpression) {
+                    base = ((DereferenceExpression) base).getBase();
+                }
+                if (!(base instanceof SymbolReference) || !tableScan.getAssignments().containsKey(Symbol.from(base))) {
+                    return null;
+                }
+                return ConnectorExpressionTranslator.translate(node, types)
+                        .map(projection -> function.apply(node, projection))
+                        .orElse(null);
+            }
+        }, expression);
+    }
+}
@@ -38,6 +38,7 @@ import io.prestosql.metadata.Split;
 import io.prestosql.operator.TaskContext;
 import io.prestosql.operator.TaskStats;
 import io.prestosql.spi.memory.MemoryPoolId;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spiller.SpillSpaceTracker;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
@@ -248,7 +249,8 @@ public class MockRemoteTaskFactory
                             new DataSize(0, BYTE),
                             new DataSize(0, BYTE),
                             0,
-                            new Duration(0, MILLISECONDS)),
+                            new Duration(0, MILLISECONDS),
+                            ImmutableMap.of()),
                     DateTime.now(),
                     outputBuffer.getInfo(),
                     ImmutableSet.of(),
@@ -276,7 +278,8 @@ public class MockRemoteTaskFactory
                     stats.getSystemMemoryReservation(),
                     stats.getRevocableMemoryReservation(),
                     0,
-                    new Duration(0, MILLISECONDS));
+                    new Duration(0, MILLISECONDS),
+                    taskContext.getDynamicFilterDomains());
         }
 
         private synchronized void updateSplitQueueSpace()
@@ -393,6 +396,12 @@ public class MockRemoteTaskFactory
             return nonCancellationPropagating(whenSplitQueueHasSpace);
         }
 
+        public void finish(Map<String, Domain> dynamicFilterDomains)
+        {
+            taskContext.addDynamicFilterDomains(dynamicFilterDomains);
+            taskStateMachine.finished();
+        }
+
         @Override
         public void cancel()
         {
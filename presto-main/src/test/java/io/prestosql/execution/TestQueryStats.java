@@ -74,6 +74,10 @@ public class TestQueryStats
                     succinctBytes(129L),
                     succinctBytes(130L),
                     succinctBytes(131L),
+                    succinctBytes(132L),
+                    new Duration(133, NANOSECONDS),
+                    succinctBytes(134L),
+                    new Duration(135, NANOSECONDS),
                     Optional.empty(),
                     null),
             new OperatorStats(
@@ -112,6 +116,10 @@ public class TestQueryStats
                     succinctBytes(229L),
                     succinctBytes(230L),
                     succinctBytes(231L),
+                    succinctBytes(232L),
+                    new Duration(233, NANOSECONDS),
+                    succinctBytes(234L),
+                    new Duration(235, NANOSECONDS),
                     Optional.empty(),
                     null),
             new OperatorStats(
@@ -150,6 +158,10 @@ public class TestQueryStats
                     succinctBytes(329L),
                     succinctBytes(330L),
                     succinctBytes(331L),
+                    succinctBytes(332L),
+                    new Duration(333, NANOSECONDS),
+                    succinctBytes(334L),
+                    new Duration(335, NANOSECONDS),
                     Optional.empty(),
                     null));
 
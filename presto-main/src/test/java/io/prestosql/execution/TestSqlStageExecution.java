@@ -18,26 +18,31 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.SettableFuture;
 import io.prestosql.client.NodeVersion;
 import io.prestosql.cost.StatsAndCosts;
+import io.prestosql.execution.MockRemoteTaskFactory.MockRemoteTask;
 import io.prestosql.execution.TestSqlTaskManager.MockLocationFactory;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
 import io.prestosql.failuredetector.NoOpFailureDetector;
 import io.prestosql.metadata.InternalNode;
 import io.prestosql.spi.QueryId;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
 import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.plan.JoinNode;
 import io.prestosql.sql.planner.plan.PlanFragmentId;
 import io.prestosql.sql.planner.plan.PlanNode;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.sql.planner.plan.RemoteSourceNode;
+import io.prestosql.sql.planner.plan.ValuesNode;
 import io.prestosql.util.FinalizerService;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.CountDownLatch;
@@ -51,13 +56,18 @@ import static io.prestosql.execution.SqlStageExecution.createSqlStageExecution;
 import static io.prestosql.execution.buffer.OutputBuffers.BufferType.ARBITRARY;
 import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.operator.StageExecutionDescriptor.ungroupedExecution;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
 import static io.prestosql.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static io.prestosql.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -157,6 +167,77 @@ public class TestSqlStageExecution
         addTasksTask.cancel(true);
     }
 
+    @Test(timeOut = 60 * 1000)
+    public void testDynamicFilters()
+            throws Exception
+    {
+        NodeTaskMap nodeTaskMap = new NodeTaskMap(new FinalizerService());
+
+        StageId stageId = new StageId(new QueryId("query"), 0);
+        SqlStageExecution stage = createSqlStageExecution(
+                stageId,
+                new MockLocationFactory().createStageLocation(stageId),
+                createJoinPlanFragment(),
+                ImmutableMap.of(),
+                new MockRemoteTaskFactory(executor, scheduledExecutor),
+                TEST_SESSION,
+                true,
+                nodeTaskMap,
+                executor,
+                new NoOpFailureDetector(),
+                new SplitSchedulerStats());
+        stage.setOutputBuffers(createInitialEmptyOutputBuffers(ARBITRARY));
+
+        SettableFuture<Map<String, Domain>> dynamicFilters = SettableFuture.create();
+        stage.addDynamicFiltersListener(dynamicFilters::set);
+
+        MockRemoteTask firstTask = (MockRemoteTask) stage.scheduleTask(createNode(0), 0, OptionalInt.empty()).get();
+        MockRemoteTask secondTask = (MockRemoteTask) stage.scheduleTask(createNode(1), 1, OptionalInt.empty()).get();
+        stage.schedulingComplete();
+
+        // each task only has a partition of the build side
+        firstTask.finish(ImmutableMap.of("DF", Domain.singleValue(BIGINT, 1L)));
+        assertFalse(dynamicFilters.isDone());
+
+        secondTask.finish(ImmutableMap.of("DF", Domain.singleValue(BIGINT, 2L)));
+        assertEquals(dynamicFilters.get(1, MINUTES), ImmutableMap.of("DF", Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L))));
+    }
+
+    private static InternalNode createNode(int index)
+    {
+        return new InternalNode("node" + index, URI.create("http://10.0.0.1:" + (8080 + index)), NodeVersion.UNKNOWN, false);
+    }
+
+    private static PlanFragment createJoinPlanFragment()
+    {
+        Symbol probe = new Symbol("probe");
+        Symbol build = new Symbol("build");
+        PlanNode planNode = new JoinNode(
+                new PlanNodeId("join"),
+                INNER,
+                new ValuesNode(new PlanNodeId("probe_values"), ImmutableList.of(probe), ImmutableList.of()),
+                new ValuesNode(new PlanNodeId("build_values"), ImmutableList.of(build), ImmutableList.of()),
+                ImmutableList.of(new JoinNode.EquiJoinClause(probe, build)),
+                ImmutableList.of(probe),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(PARTITIONED),
+                Optional.empty(),
+                ImmutableMap.of("DF", build));
+
+        return new PlanFragment(
+                new PlanFragmentId("join_fragment_id"),
+                planNode,
+                ImmutableMap.of(probe, BIGINT, build, BIGINT),
+                FIXED_HASH_DISTRIBUTION,
+                ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), planNode.getOutputSymbols()),
+                ungroupedExecution(),
+                StatsAndCosts.empty(),
+                Optional.empty());
+    }
+
     private static PlanFragment createExchangePlanFragment()
     {
         PlanNode planNode = new RemoteSourceNode(
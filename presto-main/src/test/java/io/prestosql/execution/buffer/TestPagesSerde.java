@@ -22,16 +22,21 @@ import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readPages;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writePages;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -59,6 +64,67 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testSerializedPagesOutliveReusedBuffers()
+    {
+        PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
+        List<Page> pages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // alternate compressible and incompressible pages of growing size
+            BlockBuilder builder = BIGINT.createBlockBuilder(null, i * 100);
+            for (int position = 0; position < i * 100; position++) {
+                BIGINT.writeLong(builder, i % 2 == 0 ? i : ThreadLocalRandom.current().nextLong());
+            }
+            pages.add(new Page(builder.build()));
+        }
+
+        List<SerializedPage> serializedPages = pages.stream()
+                .map(serde::serialize)
+                .collect(toImmutableList());
+        assertTrue(serde.getRetainedSizeInBytes() > 0);
+
+        for (int i = 0; i < pages.size(); i++) {
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPages.get(i)), pages.get(i));
+        }
+    }
+
+    @Test
+    public void testCompressionCodecs()
+    {
+        Page page = createBigintPage(1000, false);
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), codec).createPagesSerde();
+            SerializedPage serializedPage = serde.serialize(page);
+            assertEquals(serializedPage.isCompressed(), codec != CompressionCodec.NONE);
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), page);
+        }
+    }
+
+    @Test
+    public void testIncompressiblePagesBypassCompression()
+    {
+        PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
+        assertFalse(serde.serialize(createBigintPage(10, false)).isCompressed(), "small page compressed");
+
+        for (int i = 0; i < 8; i++) {
+            assertFalse(serde.serialize(createBigintPage(1000, true)).isCompressed());
+        }
+        // compression is not attempted for a while after a run of incompressible pages
+        for (int i = 0; i < 64; i++) {
+            assertFalse(serde.serialize(createBigintPage(1000, false)).isCompressed());
+        }
+        assertTrue(serde.serialize(createBigintPage(1000, false)).isCompressed());
+    }
+
+    private static Page createBigintPage(int positionCount, boolean random)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            BIGINT.writeLong(builder, random ? ThreadLocalRandom.current().nextLong() : position % 10);
+        }
+        return new Page(builder.build());
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class TestResultSegmentConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(ResultSegmentConfig.class)
+                .setSegmentPath(Paths.get(System.getProperty("java.io.tmpdir"), "presto-result-segments").toString())
+                .setSegmentSize(new DataSize(16, MEGABYTE))
+                .setSegmentMaxAge(new Duration(1, HOURS)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("experimental.spooled-results-path", "/tmp/custom/segments")
+                .put("experimental.spooled-results-segment-size", "4MB")
+                .put("experimental.spooled-results-max-age", "10m")
+                .build();
+
+        ResultSegmentConfig expected = new ResultSegmentConfig()
+                .setSegmentPath("/tmp/custom/segments")
+                .setSegmentSize(new DataSize(4, MEGABYTE))
+                .setSegmentMaxAge(new Duration(10, MINUTES));
+
+        assertFullMapping(properties, expected);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import io.airlift.units.Duration;
+import io.prestosql.metadata.InMemoryNodeManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestResultSegmentStore
+{
+    private static final URI NODE_URI = URI.create("http://worker:8080");
+
+    private Path segmentPath;
+    private ResultSegmentStore store;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        segmentPath = Files.createTempDirectory("segments");
+        store = createStore(new Duration(1, HOURS));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        store.stop();
+        deleteRecursively(segmentPath, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testWriteAndGet()
+            throws IOException
+    {
+        byte[] data = {1, 2, 3, 4, 5};
+        URI uri = getFutureValue(store.writeSegment(data));
+
+        assertEquals(uri.getScheme(), NODE_URI.getScheme());
+        assertEquals(uri.getAuthority(), NODE_URI.getAuthority());
+        assertTrue(uri.getPath().startsWith("/v1/segment/"), uri.toString());
+
+        Optional<Path> segment = store.getSegment(getSegmentId(uri), getToken(uri));
+        assertTrue(segment.isPresent());
+        assertEquals(Files.readAllBytes(segment.get()), data);
+        assertEquals(store.getSegmentCount(), 1);
+        assertEquals(store.getSegmentBytes(), data.length);
+    }
+
+    @Test
+    public void testSegmentsHaveDistinctTokens()
+    {
+        URI first = getFutureValue(store.writeSegment(new byte[] {1}));
+        URI second = getFutureValue(store.writeSegment(new byte[] {2}));
+
+        assertFalse(getSegmentId(first).equals(getSegmentId(second)));
+        assertFalse(getToken(first).equals(getToken(second)));
+        assertFalse(store.getSegment(getSegmentId(first), getToken(second)).isPresent());
+        assertEquals(store.getSegmentCount(), 2);
+    }
+
+    @Test
+    public void testInvalidToken()
+    {
+        URI uri = getFutureValue(store.writeSegment(new byte[] {1, 2, 3}));
+        String segmentId = getSegmentId(uri);
+
+        assertFalse(store.getSegment(segmentId, null).isPresent());
+        assertFalse(store.getSegment(segmentId, "").isPresent());
+        assertFalse(store.getSegment(segmentId, getToken(uri) + "x").isPresent());
+        assertFalse(store.deleteSegment(segmentId, "wrong"));
+        assertFalse(store.getSegment("unknown", getToken(uri)).isPresent());
+
+        // the segment is still there for the right token
+        assertTrue(store.getSegment(segmentId, getToken(uri)).isPresent());
+    }
+
+    @Test
+    public void testDelete()
+    {
+        URI uri = getFutureValue(store.writeSegment(new byte[] {1, 2, 3}));
+        String segmentId = getSegmentId(uri);
+        Path file = store.getSegment(segmentId, getToken(uri)).get();
+
+        assertTrue(store.deleteSegment(segmentId, getToken(uri)));
+        assertFalse(Files.exists(file));
+        assertFalse(store.getSegment(segmentId, getToken(uri)).isPresent());
+        assertEquals(store.getSegmentCount(), 0);
+        assertEquals(store.getSegmentBytes(), 0);
+
+        assertFalse(store.deleteSegment(segmentId, getToken(uri)));
+    }
+
+    @Test
+    public void testExpiry()
+            throws Exception
+    {
+        store.stop();
+        store = createStore(new Duration(1, MILLISECONDS));
+
+        URI uri = getFutureValue(store.writeSegment(new byte[] {1, 2, 3}));
+        Path file = store.getSegment(getSegmentId(uri), getToken(uri)).get();
+
+        MILLISECONDS.sleep(10);
+        store.removeExpiredSegments();
+
+        assertFalse(Files.exists(file));
+        assertFalse(store.getSegment(getSegmentId(uri), getToken(uri)).isPresent());
+        assertEquals(store.getSegmentCount(), 0);
+        assertEquals(store.getExpiredSegments(), 1);
+    }
+
+    @Test
+    public void testNotExpired()
+    {
+        URI uri = getFutureValue(store.writeSegment(new byte[] {1, 2, 3}));
+
+        store.removeExpiredSegments();
+
+        assertTrue(store.getSegment(getSegmentId(uri), getToken(uri)).isPresent());
+        assertEquals(store.getExpiredSegments(), 0);
+    }
+
+    private ResultSegmentStore createStore(Duration maxAge)
+    {
+        return new ResultSegmentStore(
+                new ResultSegmentConfig()
+                        .setSegmentPath(segmentPath.toString())
+                        .setSegmentMaxAge(maxAge),
+                new InMemoryNodeManager(NODE_URI));
+    }
+
+    private static String getSegmentId(URI uri)
+    {
+        String path = uri.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static String getToken(URI uri)
+    {
+        String query = uri.getQuery();
+        assertTrue(query.startsWith("token="), uri.toString());
+        return query.substring("token=".length());
+    }
+}
@@ -19,6 +19,7 @@ import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.Session;
 import io.prestosql.execution.Lifespan;
 import io.prestosql.operator.HashBuilderOperator.HashBuilderOperatorFactory;
 import io.prestosql.spi.Page;
@@ -55,6 +56,7 @@ import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.SystemSessionProperties.FLAT_JOIN_HASH_ENABLED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
@@ -96,6 +98,9 @@ public class BenchmarkHashBuildAndJoinOperators
         @Param({"1", "5"})
         protected int buildRowsRepetition = 1;
 
+        @Param({"false", "true"})
+        protected boolean flatJoinHashEnabled = true;
+
         protected ExecutorService executor;
         protected ScheduledExecutorService scheduledExecutor;
         protected List<Page> buildPages;
@@ -127,7 +132,10 @@ public class BenchmarkHashBuildAndJoinOperators
 
         public TaskContext createTaskContext()
         {
-            return TestingTaskContext.createTaskContext(executor, scheduledExecutor, TEST_SESSION, new DataSize(2, GIGABYTE));
+            Session session = Session.builder(TEST_SESSION)
+                    .setSystemProperty(FLAT_JOIN_HASH_ENABLED, String.valueOf(flatJoinHashEnabled))
+                    .build();
+            return TestingTaskContext.createTaskContext(executor, scheduledExecutor, session, new DataSize(2, GIGABYTE));
         }
 
         public OptionalInt getHashChannel()
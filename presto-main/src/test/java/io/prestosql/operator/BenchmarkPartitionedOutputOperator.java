@@ -24,7 +24,10 @@ import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputFactory;
 import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
 import io.prestosql.spi.type.RowType;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.plan.PlanNodeId;
@@ -35,7 +38,9 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.runner.Runner;
@@ -78,6 +83,9 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 @BenchmarkMode(Mode.AverageTime)
 public class BenchmarkPartitionedOutputOperator
 {
+    private static final int ENTRIES_PER_PAGE = 256;
+    private static final RowType ROW_TYPE = RowType.anonymous(ImmutableList.of(VARCHAR, VARCHAR, VARCHAR, VARCHAR));
+
     @Benchmark
     public void addPage(BenchmarkData data)
     {
@@ -92,15 +100,25 @@ public class BenchmarkPartitionedOutputOperator
     public static class BenchmarkData
     {
         private static final int PAGE_COUNT = 5000;
-        private static final int PARTITION_COUNT = 512;
-        private static final int ENTRIES_PER_PAGE = 256;
         private static final DataSize MAX_MEMORY = new DataSize(1, GIGABYTE);
-        private static final RowType rowType = RowType.anonymous(ImmutableList.of(VARCHAR, VARCHAR, VARCHAR, VARCHAR));
-        private static final List<Type> TYPES = ImmutableList.of(BIGINT, rowType, rowType, rowType);
         private static final ExecutorService EXECUTOR = newCachedThreadPool(daemonThreadsNamed("test-EXECUTOR-%s"));
         private static final ScheduledExecutorService SCHEDULER = newScheduledThreadPool(1, daemonThreadsNamed("test-%s"));
 
-        private final Page dataPage = createPage();
+        @Param({"2", "16", "512"})
+        private int partitionCount = 512;
+
+        @Param({"ROWS", "BIGINTS", "DICTIONARY_VARCHARS", "RLE_BIGINTS"})
+        private PageLayout pageLayout = PageLayout.ROWS;
+
+        private List<Type> types;
+        private Page dataPage;
+
+        @Setup
+        public void setup()
+        {
+            types = pageLayout.getTypes();
+            dataPage = pageLayout.createPage();
+        }
 
         private int getPageCount()
         {
@@ -114,10 +132,10 @@ public class BenchmarkPartitionedOutputOperator
 
         private PartitionedOutputOperator createPartitionedOutputOperator()
         {
-            PartitionFunction partitionFunction = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), PARTITION_COUNT);
+            PartitionFunction partitionFunction = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), partitionCount);
             PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
             OutputBuffers buffers = createInitialEmptyOutputBuffers(PARTITIONED);
-            for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            for (int partition = 0; partition < partitionCount; partition++) {
                 buffers = buffers.withBuffer(new OutputBuffers.OutputBufferId(partition), partition);
             }
             PartitionedOutputBuffer buffer = createPartitionedBuffer(
@@ -132,29 +150,129 @@ public class BenchmarkPartitionedOutputOperator
                     buffer,
                     new DataSize(1, GIGABYTE));
             return (PartitionedOutputOperator) operatorFactory
-                    .createOutputOperator(0, new PlanNodeId("plan-node-0"), TYPES, Function.identity(), serdeFactory)
+                    .createOutputOperator(0, new PlanNodeId("plan-node-0"), types, Function.identity(), serdeFactory)
                     .createOperator(createDriverContext());
         }
 
-        private Page createPage()
+        private DriverContext createDriverContext()
+        {
+            return TestingTaskContext.builder(EXECUTOR, SCHEDULER, TEST_SESSION)
+                    .setMemoryPoolSize(MAX_MEMORY)
+                    .build()
+                    .addPipelineContext(0, true, true, false)
+                    .addDriverContext();
+        }
+
+        private PartitionedOutputBuffer createPartitionedBuffer(OutputBuffers buffers, DataSize dataSize)
         {
-            List<Object>[] testRows = generateTestRows(ImmutableList.of(VARCHAR, VARCHAR, VARCHAR, VARCHAR), ENTRIES_PER_PAGE);
-            PageBuilder pageBuilder = new PageBuilder(TYPES);
-            BlockBuilder bigintBlockBuilder = pageBuilder.getBlockBuilder(0);
-            BlockBuilder rowBlockBuilder = pageBuilder.getBlockBuilder(1);
-            BlockBuilder rowBlockBuilder2 = pageBuilder.getBlockBuilder(2);
-            BlockBuilder rowBlockBuilder3 = pageBuilder.getBlockBuilder(3);
+            return new PartitionedOutputBuffer(
+                    "task-instance-id",
+                    new StateMachine<>("bufferState", SCHEDULER, OPEN, TERMINAL_BUFFER_STATES),
+                    buffers,
+                    dataSize,
+                    () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    SCHEDULER);
+        }
+    }
+
+    public enum PageLayout
+    {
+        ROWS(BIGINT, ROW_TYPE, ROW_TYPE, ROW_TYPE) {
+            @Override
+            Page createPage()
+            {
+                List<Object>[] testRows = generateTestRows(ImmutableList.of(VARCHAR, VARCHAR, VARCHAR, VARCHAR), ENTRIES_PER_PAGE);
+                PageBuilder pageBuilder = new PageBuilder(getTypes());
+                BlockBuilder bigintBlockBuilder = pageBuilder.getBlockBuilder(0);
+                BlockBuilder rowBlockBuilder = pageBuilder.getBlockBuilder(1);
+                BlockBuilder rowBlockBuilder2 = pageBuilder.getBlockBuilder(2);
+                BlockBuilder rowBlockBuilder3 = pageBuilder.getBlockBuilder(3);
+                for (int i = 0; i < ENTRIES_PER_PAGE; i++) {
+                    BIGINT.writeLong(bigintBlockBuilder, i);
+                    writeRow(testRows[i], rowBlockBuilder);
+                    writeRow(testRows[i], rowBlockBuilder2);
+                    writeRow(testRows[i], rowBlockBuilder3);
+                }
+                pageBuilder.declarePositions(ENTRIES_PER_PAGE);
+                return pageBuilder.build();
+            }
+        },
+        BIGINTS(BIGINT, BIGINT, BIGINT, BIGINT) {
+            @Override
+            Page createPage()
+            {
+                Block[] blocks = new Block[getTypes().size()];
+                for (int channel = 0; channel < blocks.length; channel++) {
+                    BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ENTRIES_PER_PAGE);
+                    for (int i = 0; i < ENTRIES_PER_PAGE; i++) {
+                        BIGINT.writeLong(blockBuilder, ThreadLocalRandom.current().nextLong());
+                    }
+                    blocks[channel] = blockBuilder.build();
+                }
+                return new Page(blocks);
+            }
+        },
+        DICTIONARY_VARCHARS(BIGINT, VARCHAR, VARCHAR, VARCHAR) {
+            @Override
+            Page createPage()
+            {
+                BlockBuilder dictionaryBuilder = VARCHAR.createBlockBuilder(null, 16);
+                for (int i = 0; i < 16; i++) {
+                    VARCHAR.writeSlice(dictionaryBuilder, utf8Slice("dictionary value " + i));
+                }
+                Block dictionary = dictionaryBuilder.build();
+
+                Block[] blocks = new Block[getTypes().size()];
+                blocks[0] = createSequenceBlock();
+                for (int channel = 1; channel < blocks.length; channel++) {
+                    int[] ids = new int[ENTRIES_PER_PAGE];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = ThreadLocalRandom.current().nextInt(dictionary.getPositionCount());
+                    }
+                    blocks[channel] = new DictionaryBlock(dictionary, ids);
+                }
+                return new Page(blocks);
+            }
+        },
+        RLE_BIGINTS(BIGINT, BIGINT, BIGINT, BIGINT) {
+            @Override
+            Page createPage()
+            {
+                Block[] blocks = new Block[getTypes().size()];
+                blocks[0] = createSequenceBlock();
+                for (int channel = 1; channel < blocks.length; channel++) {
+                    BlockBuilder valueBuilder = BIGINT.createBlockBuilder(null, 1);
+                    BIGINT.writeLong(valueBuilder, channel);
+                    blocks[channel] = new RunLengthEncodedBlock(valueBuilder.build(), ENTRIES_PER_PAGE);
+                }
+                return new Page(blocks);
+            }
+        };
+
+        private final List<Type> types;
+
+        PageLayout(Type... types)
+        {
+            this.types = ImmutableList.copyOf(types);
+        }
+
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        abstract Page createPage();
+
+        private static Block createSequenceBlock()
+        {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ENTRIES_PER_PAGE);
             for (int i = 0; i < ENTRIES_PER_PAGE; i++) {
-                BIGINT.writeLong(bigintBlockBuilder, i);
-                writeRow(testRows[i], rowBlockBuilder);
-                writeRow(testRows[i], rowBlockBuilder2);
-                writeRow(testRows[i], rowBlockBuilder3);
+                BIGINT.writeLong(blockBuilder, i);
             }
-            pageBuilder.declarePositions(ENTRIES_PER_PAGE);
-            return pageBuilder.build();
+            return blockBuilder.build();
         }
 
-        private void writeRow(List<Object> testRow, BlockBuilder rowBlockBuilder)
+        private static void writeRow(List<Object> testRow, BlockBuilder rowBlockBuilder)
         {
             BlockBuilder singleRowBlockWriter = rowBlockBuilder.beginBlockEntry();
             for (Object fieldValue : testRow) {
@@ -169,7 +287,7 @@ public class BenchmarkPartitionedOutputOperator
         }
 
         // copied & modifed from TestRowBlock
-        private List<Object>[] generateTestRows(List<Type> fieldTypes, int numRows)
+        private static List<Object>[] generateTestRows(List<Type> fieldTypes, int numRows)
         {
             List<Object>[] testRows = new List[numRows];
             for (int i = 0; i < numRows; i++) {
@@ -188,26 +306,6 @@ public class BenchmarkPartitionedOutputOperator
             }
             return testRows;
         }
-
-        private DriverContext createDriverContext()
-        {
-            return TestingTaskContext.builder(EXECUTOR, SCHEDULER, TEST_SESSION)
-                    .setMemoryPoolSize(MAX_MEMORY)
-                    .build()
-                    .addPipelineContext(0, true, true, false)
-                    .addDriverContext();
-        }
-
-        private PartitionedOutputBuffer createPartitionedBuffer(OutputBuffers buffers, DataSize dataSize)
-        {
-            return new PartitionedOutputBuffer(
-                    "task-instance-id",
-                    new StateMachine<>("bufferState", SCHEDULER, OPEN, TERMINAL_BUFFER_STATES),
-                    buffers,
-                    dataSize,
-                    () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                    SCHEDULER);
-        }
     }
 
     public static void main(String[] args)
@@ -215,6 +313,7 @@ public class BenchmarkPartitionedOutputOperator
     {
         // assure the benchmarks are valid before running
         BenchmarkData data = new BenchmarkData();
+        data.setup();
         new BenchmarkPartitionedOutputOperator().addPage(data);
         Options options = new OptionsBuilder()
                 .verbosity(VerboseMode.NORMAL)
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBlockedBloomFilter
+{
+    @Test
+    public void testEmpty()
+    {
+        BlockedBloomFilter filter = new BlockedBloomFilter(0);
+        for (long hash = 0; hash < 1000; hash++) {
+            assertFalse(filter.mightContain(hash));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRate()
+    {
+        int keyCount = 100_000;
+        BlockedBloomFilter filter = new BlockedBloomFilter(keyCount);
+        // raw hashes of sequential keys, as produced for a bigint join key
+        for (long key = 0; key < keyCount; key++) {
+            filter.add(key);
+        }
+
+        for (long key = 0; key < keyCount; key++) {
+            assertTrue(filter.mightContain(key));
+        }
+
+        int falsePositives = 0;
+        for (long key = keyCount; key < 2 * keyCount; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < keyCount * 0.03, "false positives: " + falsePositives);
+    }
+}
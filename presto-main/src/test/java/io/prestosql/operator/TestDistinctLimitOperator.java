@@ -18,9 +18,11 @@ import com.google.common.primitives.Ints;
 import io.prestosql.RowPagesBuilder;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.GenericPartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
+import io.prestosql.testing.MaterializedRow;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -28,9 +30,11 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
@@ -39,6 +43,10 @@ import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
 import static io.prestosql.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
+import static io.prestosql.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
+import static io.prestosql.operator.OperatorAssertion.dropChannel;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
+import static io.prestosql.operator.OperatorAssertion.toPages;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
@@ -46,6 +54,7 @@ import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestDistinctLimitOperator
@@ -148,6 +157,72 @@ public class TestDistinctLimitOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected, hashEnabled, ImmutableList.of(1));
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testDistinctLimitWithSpill(boolean hashEnabled)
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0)
+                .addSequencePage(100, 50)
+                .addSequencePage(100, 0)
+                .build();
+
+        DummySingleStreamSpillerFactory spillerFactory = new DummySingleStreamSpillerFactory();
+        OperatorFactory operatorFactory = createSpillingOperatorFactory(rowPagesBuilder, 200, spillerFactory);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT);
+        for (long i = 0; i < 150; i++) {
+            expected.row(i);
+        }
+
+        assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build(), hashEnabled, Optional.of(1), true);
+        assertGreaterThan(spillerFactory.getSpillsCount(), 0L);
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testDistinctLimitReachedWithSpill(boolean hashEnabled)
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0)
+                .addSequencePage(100, 50)
+                .addSequencePage(100, 0)
+                .build();
+
+        OperatorFactory operatorFactory = createSpillingOperatorFactory(rowPagesBuilder, 120, new DummySingleStreamSpillerFactory());
+
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+        if (hashEnabled) {
+            pages = dropChannel(pages, ImmutableList.of(1));
+        }
+        List<MaterializedRow> rows = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), pages).getMaterializedRows();
+        Set<Long> values = rows.stream()
+                .map(row -> (Long) row.getField(0))
+                .collect(toImmutableSet());
+
+        // the values of the first page are produced before spilling, the rest of the limit is filled from the spilled input
+        assertEquals(rows.size(), 120);
+        assertEquals(values.size(), 120);
+        for (long i = 0; i < 100; i++) {
+            assertTrue(values.contains(i));
+        }
+        assertTrue(values.stream().allMatch(value -> value < 150));
+    }
+
+    private OperatorFactory createSpillingOperatorFactory(RowPagesBuilder rowPagesBuilder, long limit, DummySingleStreamSpillerFactory spillerFactory)
+    {
+        return new DistinctLimitOperator.DistinctLimitOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                Ints.asList(0),
+                limit,
+                rowPagesBuilder.getHashChannel(),
+                joinCompiler,
+                true,
+                new GenericPartitioningSpillerFactory(spillerFactory));
+    }
+
     @Test(dataProvider = "dataType")
     public void testMemoryReservationYield(Type type)
     {
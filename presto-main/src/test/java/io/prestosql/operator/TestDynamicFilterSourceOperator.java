@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.operator.DynamicFilterSourceOperator.Channel;
+import io.prestosql.operator.DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.operator.OperatorAssertion.toPages;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestDynamicFilterSourceOperator
+{
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private PipelineContext pipelineContext;
+    private List<Map<String, Domain>> published;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+        pipelineContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false);
+        published = new ArrayList<>();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testCollectDistinctValues()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(10, new Channel("0", BIGINT, 0), new Channel("1", BOOLEAN, 1));
+        List<Page> input = rowPagesBuilder(BIGINT, BOOLEAN)
+                .row(1L, true)
+                .row(3L, null)
+                .pageBreak()
+                .row(1L, true)
+                .row(null, true)
+                .build();
+
+        List<Page> output = toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        assertEquals(output, input);
+        assertEquals(published, ImmutableList.of(ImmutableMap.of(
+                "0", Domain.multipleValues(BIGINT, ImmutableList.of(1L, 3L)),
+                "1", Domain.singleValue(BOOLEAN, true))));
+    }
+
+    @Test
+    public void testFallbackToRange()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(2, new Channel("0", BIGINT, 0));
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .row(5L)
+                .row(8L)
+                .pageBreak()
+                .row(-3L)
+                .row(7L)
+                .build();
+
+        toPages(operatorFactory, pipelineContext.addDriverContext(), input);
+        assertEquals(published, ImmutableList.of(ImmutableMap.of(
+                "0", Domain.create(ValueSet.ofRanges(Range.range(BIGINT, -3L, true, 8L, true)), false))));
+    }
+
+    @Test
+    public void testUnionOfMultipleDrivers()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(10, new Channel("0", BIGINT, 0));
+        Operator first = operatorFactory.createOperator(pipelineContext.addDriverContext());
+        Operator second = operatorFactory.createOperator(pipelineContext.addDriverContext());
+        operatorFactory.noMoreOperators();
+
+        toPages(first, rowPagesBuilder(BIGINT).row(1L).build().iterator());
+        assertTrue(published.isEmpty());
+        toPages(second, rowPagesBuilder(BIGINT).row(2L).build().iterator());
+        assertEquals(published, ImmutableList.of(ImmutableMap.of("0", Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L)))));
+    }
+
+    @Test
+    public void testEmptyBuildSide()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(10, new Channel("0", BIGINT, 0));
+        toPages(operatorFactory, pipelineContext.addDriverContext(), ImmutableList.of());
+        assertEquals(published, ImmutableList.of(ImmutableMap.of("0", Domain.none(BIGINT))));
+    }
+
+    @Test
+    public void testNoOperators()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(10, new Channel("0", BIGINT, 0));
+        operatorFactory.noMoreOperators();
+        assertEquals(published, ImmutableList.of(ImmutableMap.of("0", Domain.none(BIGINT))));
+    }
+
+    private OperatorFactory createOperatorFactory(int maxValueCount, Channel... channels)
+    {
+        return new DynamicFilterSourceOperatorFactory(
+                0,
+                new PlanNodeId("PLAN_NODE_ID"),
+                published::add,
+                ImmutableList.copyOf(channels),
+                maxValueCount,
+                new DataSize(1, MEGABYTE));
+    }
+}
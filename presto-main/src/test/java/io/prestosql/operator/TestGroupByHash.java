@@ -36,6 +36,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import static com.google.common.math.DoubleMath.log2;
+import static io.prestosql.block.BlockAssertions.createIntsBlock;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
 import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createStringSequenceBlock;
@@ -44,6 +45,7 @@ import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static io.prestosql.spi.block.DictionaryId.randomDictionaryId;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.type.TypeUtils.getHashBlock;
 import static org.testng.Assert.assertEquals;
@@ -231,6 +233,88 @@ public class TestGroupByHash
         assertTrue(groupByHash.contains(0, new Page(testValuesBlock, testStringValuesBlock, testHashBlock), hashChannels));
     }
 
+    @Test
+    public void testFixedWidthMultipleColumns()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, INTEGER);
+        Block bigintBlock = createLongsBlock(1L, 2L, null, 1L, 2L, null, 1L);
+        Block integerBlock = createIntsBlock(1, 2, 3, 1, 3, 3, null);
+        Block hashBlock = getHashBlock(types, bigintBlock, integerBlock);
+        int[] hashChannels = {0, 1};
+
+        for (Optional<Integer> inputHashChannel : ImmutableList.of(Optional.<Integer>empty(), Optional.of(2))) {
+            GroupByHash groupByHash = createGroupByHash(TEST_SESSION, types, hashChannels, inputHashChannel, 1, JOIN_COMPILER);
+            assertTrue(groupByHash instanceof FixedWidthGroupByHash);
+
+            Page page = new Page(bigintBlock, integerBlock, hashBlock);
+            Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+            work.process();
+            GroupByIdBlock groupIds = work.getResult();
+            assertEquals(groupIds.getGroupCount(), 5);
+            long[] expectedGroupIds = {0, 1, 2, 0, 3, 2, 4};
+            for (int position = 0; position < expectedGroupIds.length; position++) {
+                assertEquals(groupIds.getGroupId(position), expectedGroupIds[position]);
+                assertEquals(groupByHash.getRawHash((int) groupIds.getGroupId(position)), BIGINT.getLong(hashBlock, position));
+                assertTrue(groupByHash.contains(position, page, hashChannels));
+            }
+            assertFalse(groupByHash.contains(0, new Page(createLongsBlock(2L), createIntsBlock(1)), hashChannels));
+
+            PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+            for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+                pageBuilder.declarePosition();
+                groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+            }
+            Page outputPage = pageBuilder.build();
+            assertEquals(outputPage.getChannelCount(), inputHashChannel.isPresent() ? 3 : 2);
+            assertEquals(BIGINT.getLong(outputPage.getBlock(0), 3), 2L);
+            assertEquals(INTEGER.getLong(outputPage.getBlock(1), 3), 3L);
+            assertTrue(outputPage.getBlock(0).isNull(2));
+            assertTrue(outputPage.getBlock(1).isNull(4));
+        }
+    }
+
+    @Test
+    public void testFixedWidthMultipleColumnsEmptyPage()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, INTEGER);
+        Block bigintBlock = createLongsBlock(new Long[0]);
+        Block integerBlock = createIntsBlock(new Integer[0]);
+        Page page = new Page(bigintBlock, integerBlock, getHashBlock(types, bigintBlock, integerBlock));
+
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, types, new int[] {0, 1}, Optional.of(2), 1, JOIN_COMPILER);
+        assertTrue(groupByHash instanceof FixedWidthGroupByHash);
+        long emptySize = groupByHash.getEstimatedSize();
+
+        Work<?> addPageWork = groupByHash.addPage(page);
+        assertTrue(addPageWork.process());
+        assertEquals(groupByHash.getGroupCount(), 0);
+
+        Work<GroupByIdBlock> getGroupIdsWork = groupByHash.getGroupIds(page);
+        assertTrue(getGroupIdsWork.process());
+        assertEquals(getGroupIdsWork.getResult().getPositionCount(), 0);
+        assertEquals(groupByHash.getGroupCount(), 0);
+        assertEquals(groupByHash.getEstimatedSize(), emptySize);
+    }
+
+    @Test
+    public void testFixedWidthMultipleColumnsEstimatedSize()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, BIGINT);
+        Block block = createLongSequenceBlock(0, 1000);
+        Page page = new Page(block, block);
+
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, types, new int[] {0, 1}, Optional.empty(), 10_000, JOIN_COMPILER);
+        assertTrue(groupByHash instanceof FixedWidthGroupByHash);
+        long emptySize = groupByHash.getEstimatedSize();
+
+        // the keys and raw hashes extracted from the page are counted until the page is processed
+        Work<?> work = groupByHash.addPage(page);
+        assertTrue(groupByHash.getEstimatedSize() >= emptySize + 1000 * 4 * Long.BYTES);
+        assertTrue(work.process());
+        assertEquals(groupByHash.getEstimatedSize(), emptySize);
+        assertEquals(groupByHash.getGroupCount(), 1000);
+    }
+
     @Test
     public void testForceRehash()
     {
@@ -71,6 +71,7 @@ import java.util.stream.IntStream;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterators.unmodifiableIterator;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
@@ -78,14 +79,17 @@ import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
 import static io.prestosql.operator.OperatorAssertion.dropChannel;
 import static io.prestosql.operator.OperatorAssertion.without;
 import static io.prestosql.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
+import static io.prestosql.spi.StandardErrorCode.EXCEEDED_LOCAL_MEMORY_LIMIT;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
@@ -318,7 +322,15 @@ public class TestHashJoinOperator
     public void testInnerJoinWithSpill(boolean probeHashEnabled, List<WhenSpill> whenSpill, boolean isDictionaryProcessingJoinEnabled)
             throws Exception
     {
-        innerJoinWithSpill(probeHashEnabled, whenSpill, SINGLE_STREAM_SPILLER_FACTORY, PARTITIONING_SPILLER_FACTORY);
+        innerJoinWithSpill(probeHashEnabled, whenSpill, SINGLE_STREAM_SPILLER_FACTORY, PARTITIONING_SPILLER_FACTORY, 1);
+    }
+
+    @Test(dataProvider = "joinWithSpillValues")
+    public void testInnerJoinWithSpillFanOut(boolean probeHashEnabled, List<WhenSpill> whenSpill, boolean isDictionaryProcessingJoinEnabled)
+            throws Exception
+    {
+        // every build operator splits its input into 4 partitions and spills only the largest ones
+        innerJoinWithSpill(probeHashEnabled, whenSpill, SINGLE_STREAM_SPILLER_FACTORY, PARTITIONING_SPILLER_FACTORY, 4);
     }
 
     @Test(dataProvider = "joinWithFailingSpillValues")
@@ -351,7 +363,7 @@ public class TestHashJoinOperator
                 throw new IllegalArgumentException(format("Unsupported option: %s", whenSpillFails));
         }
         try {
-            innerJoinWithSpill(probeHashEnabled, whenSpill, buildSpillerFactory, partitioningSpillerFactory);
+            innerJoinWithSpill(probeHashEnabled, whenSpill, buildSpillerFactory, partitioningSpillerFactory, 1);
             fail("Exception not thrown");
         }
         catch (RuntimeException exception) {
@@ -359,7 +371,58 @@ public class TestHashJoinOperator
         }
     }
 
-    private void innerJoinWithSpill(boolean probeHashEnabled, List<WhenSpill> whenSpill, SingleStreamSpillerFactory buildSpillerFactory, PartitioningSpillerFactory joinSpillerFactory)
+    @Test
+    public void testInnerJoinWithSpilledPartitionExceedingMemoryLimit()
+            throws Exception
+    {
+        // the spilled build partition reports more memory than the query may use, so it can not be read back
+        DummySpillerFactory buildSpillerFactory = new DummySpillerFactory();
+        buildSpillerFactory.oversizeUnspill();
+        try {
+            innerJoinWithSpill(false, nCopies(PARTITION_COUNT, WhenSpill.DURING_BUILD), buildSpillerFactory, PARTITIONING_SPILLER_FACTORY, 4);
+            fail("Exception not thrown");
+        }
+        catch (RuntimeException exception) {
+            assertTrue(exception.getMessage().startsWith("Spilled join build partition "), exception.getMessage());
+            assertTrue(exception.getMessage().contains("spill_join_fan_out"), exception.getMessage());
+            // the per-node user memory limit was exceeded, and the error code reflects it
+            assertEquals(((PrestoException) exception.getCause()).getErrorCode(), EXCEEDED_LOCAL_MEMORY_LIMIT.toErrorCode());
+        }
+    }
+
+    @Test
+    public void testBuildStateWithSpilledAndInMemoryPartitions()
+    {
+        TaskContext taskContext = createTaskContext();
+        RowPagesBuilder buildPages = rowPagesBuilder(ImmutableList.of(VARCHAR, BIGINT))
+                .addSequencePage(100, 0, 0)
+                .addSequencePage(100, 100, 100);
+        BuildSideSetup buildSideSetup = setupBuildSide(false, taskContext, Ints.asList(0), buildPages, Optional.empty(), true, SINGLE_STREAM_SPILLER_FACTORY, 4);
+        instantiateBuildDrivers(buildSideSetup, taskContext);
+        Driver buildDriver = getOnlyElement(buildSideSetup.getBuildDrivers());
+        HashBuilderOperator buildOperator = getOnlyElement(buildSideSetup.getBuildOperators());
+
+        LookupSourceFactory lookupSourceFactory = buildSideSetup.getLookupSourceFactoryManager().getJoinBridge(Lifespan.taskWide());
+        ListenableFuture<LookupSourceProvider> lookupSourceProvider = lookupSourceFactory.createLookupSourceProvider();
+        while (!lookupSourceProvider.isDone()) {
+            buildDriver.process();
+        }
+        getFutureValue(lookupSourceProvider).close();
+        assertEquals(buildOperator.getPartitionStates(), nCopies(4, HashBuilderOperator.State.LOOKUP_SOURCE_BUILT));
+        assertEquals(buildOperator.getState(), HashBuilderOperator.State.LOOKUP_SOURCE_BUILT);
+
+        // only the largest partitions are spilled, the state of the operator must not depend on the order of the partitions
+        revokeMemory(buildOperator);
+        List<HashBuilderOperator.State> partitionStates = buildOperator.getPartitionStates();
+        assertTrue(partitionStates.contains(HashBuilderOperator.State.INPUT_SPILLED), partitionStates.toString());
+        assertTrue(partitionStates.contains(HashBuilderOperator.State.LOOKUP_SOURCE_BUILT), partitionStates.toString());
+        assertEquals(buildOperator.getState(), HashBuilderOperator.State.INPUT_SPILLED);
+
+        buildDriver.close();
+        assertEquals(buildOperator.getState(), HashBuilderOperator.State.CLOSED);
+    }
+
+    private void innerJoinWithSpill(boolean probeHashEnabled, List<WhenSpill> whenSpill, SingleStreamSpillerFactory buildSpillerFactory, PartitioningSpillerFactory joinSpillerFactory, int partitionsPerOperator)
             throws Exception
     {
         TaskStateMachine taskStateMachine = new TaskStateMachine(new TaskId("query", 0, 0), executor);
@@ -383,7 +446,7 @@ public class TestHashJoinOperator
                 .addSequencePage(4, 30, 300)
                 .addSequencePage(4, 40, 400);
 
-        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory);
+        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory, partitionsPerOperator);
         JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager = buildSideSetup.getLookupSourceFactoryManager();
 
         // probe factory
@@ -411,7 +474,7 @@ public class TestHashJoinOperator
                     checkErrors(taskStateMachine);
                     buildDrivers.get(i).process();
                     HashBuilderOperator buildOperator = buildSideSetup.getBuildOperators().get(i);
-                    if (whenSpill.get(i) == WhenSpill.DURING_BUILD && buildOperator.getOperatorContext().getReservedRevocableBytes() > 0) {
+                    if (whenSpill.get(i) == WhenSpill.DURING_BUILD && !revoked.get(i) && buildOperator.getOperatorContext().getReservedRevocableBytes() > 0) {
                         checkState(!lookupSourceProvider.isDone(), "Too late, LookupSource already done");
                         revokeMemory(buildOperator);
                         revoked.set(i, true);
@@ -575,6 +638,51 @@ public class TestHashJoinOperator
         assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), probeInput, expected, true, getHashChannels(probePages, buildPages));
     }
 
+    @Test(dataProvider = "hashJoinTestValues")
+    public void testInnerJoinWithFixedWidthKeys(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
+    {
+        TaskContext taskContext = createTaskContext();
+
+        // build factory
+        List<Type> buildTypes = ImmutableList.of(BIGINT, INTEGER, VARCHAR);
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, Ints.asList(0, 1), buildTypes)
+                .row(1L, 10, "a")
+                .row(1L, 10, "b")
+                .row(1L, 11, "c")
+                .row(2L, 20, "d")
+                .row(null, 10, "e")
+                .row(3L, null, "f");
+        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, Ints.asList(0, 1), buildPages, Optional.empty(), false, SINGLE_STREAM_SPILLER_FACTORY);
+        JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactory = buildSideSetup.getLookupSourceFactoryManager();
+
+        // probe factory
+        List<Type> probeTypes = ImmutableList.of(BIGINT, INTEGER);
+        RowPagesBuilder probePages = rowPagesBuilder(probeHashEnabled, Ints.asList(0, 1), probeTypes);
+        List<Page> probeInput = probePages
+                .row(1L, 10)
+                .row(1L, 12)
+                .row(null, 10)
+                .row(2L, 20)
+                .row(3L, null)
+                .row(1L, 11)
+                .build();
+        OperatorFactory joinOperatorFactory = innerJoinOperatorFactory(lookupSourceFactory, probePages, PARTITIONING_SPILLER_FACTORY);
+
+        // build drivers and operators
+        instantiateBuildDrivers(buildSideSetup, taskContext);
+        buildLookupSource(buildSideSetup);
+
+        // expected
+        MaterializedResult expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probeTypes, buildPages.getTypesWithoutHash()))
+                .row(1L, 10, 1L, 10, "a")
+                .row(1L, 10, 1L, 10, "b")
+                .row(2L, 20, 2L, 20, "d")
+                .row(1L, 11, 1L, 11, "c")
+                .build();
+
+        assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), probeInput, expected, true, getHashChannels(probePages, buildPages));
+    }
+
     @Test(dataProvider = "hashJoinTestValues")
     public void testInnerJoinWithNullBuild(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
     {
@@ -1288,6 +1396,19 @@ public class TestHashJoinOperator
             Optional<InternalJoinFilterFunction> filterFunction,
             boolean spillEnabled,
             SingleStreamSpillerFactory singleStreamSpillerFactory)
+    {
+        return setupBuildSide(parallelBuild, taskContext, hashChannels, buildPages, filterFunction, spillEnabled, singleStreamSpillerFactory, 1);
+    }
+
+    private BuildSideSetup setupBuildSide(
+            boolean parallelBuild,
+            TaskContext taskContext,
+            List<Integer> hashChannels,
+            RowPagesBuilder buildPages,
+            Optional<InternalJoinFilterFunction> filterFunction,
+            boolean spillEnabled,
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            int partitionsPerOperator)
     {
         Optional<JoinFilterFunctionFactory> filterFunctionFactory = filterFunction
                 .map(function -> (session, addresses, pages) -> new StandardJoinFilterFunction(function, addresses, pages));
@@ -1328,7 +1449,7 @@ public class TestHashJoinOperator
                 hashChannels.stream()
                         .map(buildPages.getTypes()::get)
                         .collect(toImmutableList()),
-                partitionCount,
+                partitionCount * partitionsPerOperator,
                 requireNonNull(ImmutableMap.of(), "layout is null"),
                 false));
 
@@ -1346,7 +1467,8 @@ public class TestHashJoinOperator
                 100,
                 new PagesIndex.TestingFactory(false),
                 spillEnabled,
-                singleStreamSpillerFactory);
+                singleStreamSpillerFactory,
+                partitionsPerOperator);
         return new BuildSideSetup(lookupSourceFactoryManager, buildOperatorFactory, sourceOperatorFactory, partitionCount);
     }
 
@@ -1521,6 +1643,7 @@ public class TestHashJoinOperator
     {
         private volatile boolean failSpill;
         private volatile boolean failUnspill;
+        private volatile boolean oversizeUnspill;
 
         void failSpill()
         {
@@ -1532,6 +1655,11 @@ public class TestHashJoinOperator
             failUnspill = true;
         }
 
+        void oversizeUnspill()
+        {
+            oversizeUnspill = true;
+        }
+
         @Override
         public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
         {
@@ -1564,6 +1692,9 @@ public class TestHashJoinOperator
                 @Override
                 public long getSpilledPagesInMemorySize()
                 {
+                    if (oversizeUnspill) {
+                        return new DataSize(1, GIGABYTE).toBytes();
+                    }
                     return spills.stream()
                             .mapToLong(Page::getSizeInBytes)
                             .sum();
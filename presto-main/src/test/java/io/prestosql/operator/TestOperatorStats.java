@@ -75,6 +75,10 @@ public class TestOperatorStats
             new DataSize(24, BYTE),
             new DataSize(25, BYTE),
             new DataSize(26, BYTE),
+            new DataSize(27, BYTE),
+            new Duration(28, NANOSECONDS),
+            new DataSize(29, BYTE),
+            new Duration(30, NANOSECONDS),
             Optional.empty(),
             NON_MERGEABLE_INFO);
 
@@ -121,6 +125,10 @@ public class TestOperatorStats
             new DataSize(24, BYTE),
             new DataSize(25, BYTE),
             new DataSize(26, BYTE),
+            new DataSize(27, BYTE),
+            new Duration(28, NANOSECONDS),
+            new DataSize(29, BYTE),
+            new Duration(30, NANOSECONDS),
             Optional.empty(),
             MERGEABLE_INFO);
 
@@ -176,6 +184,10 @@ public class TestOperatorStats
         assertEquals(actual.getPeakRevocableMemoryReservation(), new DataSize(24, BYTE));
         assertEquals(actual.getPeakTotalMemoryReservation(), new DataSize(25, BYTE));
         assertEquals(actual.getSpilledDataSize(), new DataSize(26, BYTE));
+        assertEquals(actual.getSpilledUncompressedDataSize(), new DataSize(27, BYTE));
+        assertEquals(actual.getSpillWriteTime(), new Duration(28, NANOSECONDS));
+        assertEquals(actual.getUnspilledDataSize(), new DataSize(29, BYTE));
+        assertEquals(actual.getUnspillReadTime(), new Duration(30, NANOSECONDS));
         assertEquals(actual.getInfo().getClass(), SplitOperatorInfo.class);
         assertEquals(((SplitOperatorInfo) actual.getInfo()).getSplitInfo(), NON_MERGEABLE_INFO.getSplitInfo());
     }
@@ -223,6 +235,10 @@ public class TestOperatorStats
         assertEquals(actual.getPeakRevocableMemoryReservation(), new DataSize(24, BYTE));
         assertEquals(actual.getPeakTotalMemoryReservation(), new DataSize(25, BYTE));
         assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 26, BYTE));
+        assertEquals(actual.getSpilledUncompressedDataSize(), new DataSize(3 * 27, BYTE));
+        assertEquals(actual.getSpillWriteTime(), new Duration(3 * 28, NANOSECONDS));
+        assertEquals(actual.getUnspilledDataSize(), new DataSize(3 * 29, BYTE));
+        assertEquals(actual.getUnspillReadTime(), new Duration(3 * 30, NANOSECONDS));
         assertNull(actual.getInfo());
     }
 
@@ -269,6 +285,10 @@ public class TestOperatorStats
         assertEquals(actual.getPeakRevocableMemoryReservation(), new DataSize(24, BYTE));
         assertEquals(actual.getPeakTotalMemoryReservation(), new DataSize(25, BYTE));
         assertEquals(actual.getSpilledDataSize(), new DataSize(3 * 26, BYTE));
+        assertEquals(actual.getSpilledUncompressedDataSize(), new DataSize(3 * 27, BYTE));
+        assertEquals(actual.getSpillWriteTime(), new Duration(3 * 28, NANOSECONDS));
+        assertEquals(actual.getUnspilledDataSize(), new DataSize(3 * 29, BYTE));
+        assertEquals(actual.getUnspillReadTime(), new Duration(3 * 30, NANOSECONDS));
         assertEquals(actual.getInfo().getClass(), PartitionedOutputInfo.class);
         assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPagesAdded(), 3 * MERGEABLE_INFO.getPagesAdded());
     }
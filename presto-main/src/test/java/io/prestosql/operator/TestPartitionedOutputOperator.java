@@ -0,0 +1,280 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import io.airlift.units.DataSize;
+import io.prestosql.execution.StateMachine;
+import io.prestosql.execution.buffer.BufferResult;
+import io.prestosql.execution.buffer.OutputBuffers;
+import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.PartitionedOutputBuffer;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputFactory;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import io.prestosql.testing.MaterializedRow;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
+import static io.prestosql.execution.buffer.BufferState.OPEN;
+import static io.prestosql.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static io.prestosql.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestPartitionedOutputOperator
+{
+    private static final int PARTITION_COUNT = 4;
+    // the positions of each partition are appended to the page builder of the partition
+    private static final DataSize LARGE_MAX_MEMORY = new DataSize(1, GIGABYTE);
+    // the positions of each partition are copied from the input page and sent as a page of their own
+    private static final DataSize SMALL_MAX_MEMORY = new DataSize(PARTITION_COUNT * 16, BYTE);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private PagesSerde serde;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+        serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false).createPagesSerde();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @DataProvider
+    public static Object[][] maxMemory()
+    {
+        return new Object[][] {{LARGE_MAX_MEMORY}, {SMALL_MAX_MEMORY}};
+    }
+
+    @Test(dataProvider = "maxMemory")
+    public void testPartitionFlatBlocks(DataSize maxMemory)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        List<Page> input = ImmutableList.of(
+                new Page(createLongSequenceBlock(0, 100), createVarcharBlock(0, 100)),
+                new Page(createLongSequenceBlock(100, 117), createVarcharBlock(100, 117)));
+
+        assertPartitioned(types, input, false, OptionalInt.empty(), maxMemory);
+    }
+
+    @Test(dataProvider = "maxMemory")
+    public void testPartitionDictionaryBlocks(DataSize maxMemory)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        Block keyDictionary = createLongSequenceBlock(0, 10);
+        Block valueDictionary = createVarcharBlock(0, 5);
+        int[] keyIds = new int[100];
+        int[] valueIds = new int[100];
+        for (int i = 0; i < keyIds.length; i++) {
+            keyIds[i] = (i * 7) % keyDictionary.getPositionCount();
+            valueIds[i] = (i * 3) % valueDictionary.getPositionCount();
+        }
+        List<Page> input = ImmutableList.of(
+                new Page(new DictionaryBlock(keyDictionary, keyIds), new DictionaryBlock(valueDictionary, valueIds)),
+                new Page(createLongSequenceBlock(0, 20), new DictionaryBlock(valueDictionary, new int[] {
+                        0, 1, 2, 3, 4, 4, 3, 2, 1, 0, 0, 1, 2, 3, 4, 4, 3, 2, 1, 0})));
+
+        assertPartitioned(types, input, false, OptionalInt.empty(), maxMemory);
+    }
+
+    @Test(dataProvider = "maxMemory")
+    public void testPartitionRunLengthEncodedBlocks(DataSize maxMemory)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, BIGINT);
+        List<Page> input = ImmutableList.of(
+                new Page(createLongSequenceBlock(0, 50), new RunLengthEncodedBlock(createVarcharBlock(7, 8), 50), new RunLengthEncodedBlock(createLongsBlock(42L), 50)),
+                // a constant partition key sends all of the positions to the same partition
+                new Page(new RunLengthEncodedBlock(createLongsBlock(3L), 30), createVarcharBlock(0, 30), createLongSequenceBlock(0, 30)));
+
+        assertPartitioned(types, input, false, OptionalInt.empty(), maxMemory);
+    }
+
+    @Test(dataProvider = "maxMemory")
+    public void testReplicateNullPartitionKeys(DataSize maxMemory)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        List<Page> input = ImmutableList.of(
+                new Page(createLongsBlock(0L, null, 1L, 2L, null, 3L, 4L, 5L), createVarcharBlock(0, 8)),
+                new Page(createLongsBlock(null, null, 6L), createVarcharBlock(8, 11)));
+
+        assertPartitioned(types, input, false, OptionalInt.of(0), maxMemory);
+    }
+
+    @Test(dataProvider = "maxMemory")
+    public void testReplicateAnyRow(DataSize maxMemory)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        List<Page> input = ImmutableList.of(
+                new Page(createLongSequenceBlock(0, 10), createVarcharBlock(0, 10)),
+                new Page(createLongSequenceBlock(10, 20), createVarcharBlock(10, 20)));
+
+        assertPartitioned(types, input, true, OptionalInt.empty(), maxMemory);
+    }
+
+    @Test
+    public void testFlushMultiplePages()
+    {
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        ImmutableList.Builder<Page> input = ImmutableList.builder();
+        for (int i = 0; i < 20; i++) {
+            input.add(new Page(createLongSequenceBlock(i * 100, (i + 1) * 100), createVarcharBlock(i * 100, (i + 1) * 100)));
+        }
+
+        // the page builders hold less than the rows of all of the pages
+        PartitionedOutputOperator operator = assertPartitioned(types, input.build(), false, OptionalInt.empty(), new DataSize(PARTITION_COUNT * 2, KILOBYTE));
+        assertTrue(operator.getInfo().getPagesAdded() > PARTITION_COUNT, "pages were only flushed at the end");
+        assertEquals(operator.getInfo().getRowsAdded(), 2000);
+    }
+
+    private PartitionedOutputOperator assertPartitioned(List<Type> types, List<Page> input, boolean replicatesAnyRow, OptionalInt nullChannel, DataSize maxMemory)
+    {
+        OutputBuffers buffers = createInitialEmptyOutputBuffers(PARTITIONED);
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            buffers = buffers.withBuffer(new OutputBufferId(partition), partition);
+        }
+        PartitionedOutputBuffer buffer = new PartitionedOutputBuffer(
+                "task-instance-id",
+                new StateMachine<>("bufferState", scheduledExecutor, OPEN, TERMINAL_BUFFER_STATES),
+                buffers.withNoMoreBufferIds(),
+                new DataSize(Long.MAX_VALUE, BYTE), // don't let output buffer block
+                () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                scheduledExecutor);
+
+        PartitionedOutputOperator operator = (PartitionedOutputOperator) new PartitionedOutputFactory(
+                new ModuloPartitionFunction(),
+                ImmutableList.of(0),
+                ImmutableList.of(Optional.empty()),
+                replicatesAnyRow,
+                nullChannel,
+                buffer,
+                maxMemory)
+                .createOutputOperator(0, new PlanNodeId("test"), types, Function.identity(), new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false))
+                .createOperator(createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                        .addPipelineContext(0, true, true, false)
+                        .addDriverContext());
+
+        for (Page page : input) {
+            operator.addInput(page);
+        }
+        operator.finish();
+        assertTrue(operator.isFinished());
+        buffer.setNoMorePages();
+
+        // every row is sent to the partition of its key, and replicated rows are sent to every partition
+        List<Multiset<MaterializedRow>> expected = new ArrayList<>();
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            expected.add(HashMultiset.create());
+        }
+        boolean replicated = false;
+        for (MaterializedRow row : toMaterializedResult(TEST_SESSION, types, input).getMaterializedRows()) {
+            Long key = (Long) row.getField(0);
+            if ((replicatesAnyRow && !replicated) || (nullChannel.isPresent() && key == null)) {
+                expected.forEach(rows -> rows.add(row));
+                replicated = true;
+            }
+            else {
+                expected.get(partition(key)).add(row);
+            }
+        }
+
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            BufferResult result = getFutureValue(buffer.get(new OutputBufferId(partition), 0, new DataSize(1, GIGABYTE)));
+            List<Page> pages = result.getSerializedPages().stream()
+                    .map(serde::deserialize)
+                    .collect(toImmutableList());
+            Multiset<MaterializedRow> actual = HashMultiset.create(toMaterializedResult(TEST_SESSION, types, pages).getMaterializedRows());
+            assertEquals(actual, expected.get(partition), "rows of partition " + partition);
+        }
+        return operator;
+    }
+
+    private static Block createVarcharBlock(int start, int end)
+    {
+        BlockBuilder builder = VARCHAR.createBlockBuilder(null, end - start);
+        for (int i = start; i < end; i++) {
+            VARCHAR.writeSlice(builder, utf8Slice("value " + i));
+        }
+        return builder.build();
+    }
+
+    private static int partition(long key)
+    {
+        return toIntExact(key % PARTITION_COUNT);
+    }
+
+    private static class ModuloPartitionFunction
+            implements PartitionFunction
+    {
+        @Override
+        public int getPartitionCount()
+        {
+            return PARTITION_COUNT;
+        }
+
+        @Override
+        public int getPartition(Page page, int position)
+        {
+            return partition(BIGINT.getLong(page.getBlock(0), position));
+        }
+    }
+}
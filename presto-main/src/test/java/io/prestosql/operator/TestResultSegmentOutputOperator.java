@@ -0,0 +1,364 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.units.DataSize;
+import io.prestosql.client.ClientTypeSignature;
+import io.prestosql.client.Column;
+import io.prestosql.client.QueryResults;
+import io.prestosql.client.StatementStats;
+import io.prestosql.execution.StateMachine;
+import io.prestosql.execution.buffer.BufferResult;
+import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.PartitionedOutputBuffer;
+import io.prestosql.execution.buffer.ResultSegmentConfig;
+import io.prestosql.execution.buffer.ResultSegmentStore;
+import io.prestosql.memory.context.SimpleLocalMemoryContext;
+import io.prestosql.metadata.InMemoryNodeManager;
+import io.prestosql.operator.ResultSegmentOutputOperator.ResultSegmentOutputOperatorFactory;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.execution.buffer.BufferState.OPEN;
+import static io.prestosql.execution.buffer.BufferState.TERMINAL_BUFFER_STATES;
+import static io.prestosql.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.ResultSegmentOutputOperator.SEGMENT_DESCRIPTOR_TYPES;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestResultSegmentOutputOperator
+{
+    private static final List<Column> COLUMNS = ImmutableList.of(new Column("value", "bigint", new ClientTypeSignature("bigint")));
+    private static final OutputBufferId BUFFER_ID = new OutputBufferId(0);
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private PagesSerdeFactory serdeFactory;
+    private Path segmentPath;
+    private PartitionedOutputBuffer outputBuffer;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+        serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
+        segmentPath = Files.createTempDirectory("segments");
+        outputBuffer = new PartitionedOutputBuffer(
+                "task-instance-id",
+                new StateMachine<>("bufferState", scheduledExecutor, OPEN, TERMINAL_BUFFER_STATES),
+                createInitialEmptyOutputBuffers(PARTITIONED)
+                        .withBuffer(BUFFER_ID, 0)
+                        .withNoMoreBufferIds(),
+                new DataSize(Long.MAX_VALUE, BYTE),
+                () -> new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                scheduledExecutor);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+        deleteRecursively(segmentPath, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testSegmentPerPage()
+            throws IOException
+    {
+        ResultSegmentStore store = createStore();
+        try {
+            // every page exceeds the segment size, so each page is written as a segment of its own
+            Operator operator = createOperator(store, new DataSize(1, BYTE));
+
+            addInput(operator, new Page(createLongSequenceBlock(0, 10)));
+            addInput(operator, new Page(createLongSequenceBlock(10, 15)));
+            addInput(operator, new Page(createLongSequenceBlock(15, 45)));
+            finish(operator);
+
+            List<Page> descriptors = getDescriptors();
+            assertEquals(descriptors.size(), 3);
+            assertSegment(store, descriptors.get(0), 0, 10);
+            assertSegment(store, descriptors.get(1), 10, 15);
+            assertSegment(store, descriptors.get(2), 15, 45);
+        }
+        finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testPagesCollectedIntoSegment()
+            throws IOException
+    {
+        ResultSegmentStore store = createStore();
+        try {
+            Operator operator = createOperator(store, new DataSize(1, GIGABYTE));
+
+            addInput(operator, new Page(createLongSequenceBlock(0, 10)));
+            addInput(operator, new Page(0));
+            addInput(operator, new Page(createLongSequenceBlock(10, 25)));
+            assertEquals(store.getSegmentCount(), 0);
+            finish(operator);
+
+            List<Page> descriptors = getDescriptors();
+            assertEquals(descriptors.size(), 1);
+            assertSegment(store, descriptors.get(0), 0, 25);
+            assertEquals(operator.getOperatorContext().getOperatorStats().getOutputPositions(), 25);
+        }
+        finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testNoSegmentForEmptyResult()
+    {
+        ResultSegmentStore store = createStore();
+        try {
+            Operator operator = createOperator(store, new DataSize(1, KILOBYTE));
+            finish(operator);
+
+            assertEquals(getDescriptors().size(), 0);
+            assertEquals(store.getSegmentCount(), 0);
+        }
+        finally {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testBlockedWhileSegmentIsWritten()
+    {
+        List<SettableFuture<URI>> writes = new ArrayList<>();
+        List<Integer> writeSizes = new ArrayList<>();
+        ResultSegmentStore store = new ResultSegmentStore(new ResultSegmentConfig().setSegmentPath(segmentPath.toString()), new InMemoryNodeManager())
+        {
+            @Override
+            public ListenableFuture<URI> writeSegment(byte[] data)
+            {
+                SettableFuture<URI> write = SettableFuture.create();
+                writes.add(write);
+                writeSizes.add(data.length);
+                return write;
+            }
+        };
+
+        Operator operator = createOperator(store, new DataSize(1, BYTE));
+        operator.addInput(new Page(createLongSequenceBlock(0, 100)));
+        assertEquals(writes.size(), 1);
+
+        // the encoded segment is accounted until it is written
+        assertFalse(operator.isBlocked().isDone());
+        assertFalse(operator.needsInput());
+        long reserved = operator.getOperatorContext().getOperatorStats().getSystemMemoryReservation().toBytes();
+        assertTrue(reserved >= writeSizes.get(0), "reserved memory " + reserved);
+
+        // the last segment is written after the previous one completes
+        operator.finish();
+        assertFalse(operator.isFinished());
+        assertEquals(writes.size(), 1);
+        assertEquals(getDescriptors().size(), 0);
+
+        writes.get(0).set(URI.create("http://worker/v1/segment/1?token=a"));
+        assertTrue(operator.isBlocked().isDone());
+        assertTrue(operator.isFinished());
+        assertEquals(operator.getOperatorContext().getOperatorStats().getSystemMemoryReservation().toBytes(), 0);
+        assertEquals(writes.size(), 1);
+
+        List<Page> descriptors = getDescriptors();
+        assertEquals(descriptors.size(), 1);
+        assertEquals(VARCHAR.getSlice(descriptors.get(0).getBlock(0), 0).toStringUtf8(), "http://worker/v1/segment/1?token=a");
+        assertEquals(BIGINT.getLong(descriptors.get(0).getBlock(1), 0), 100);
+    }
+
+    @Test
+    public void testSegmentsKeepOrderWhenFinishedDuringWrite()
+    {
+        List<SettableFuture<URI>> writes = new ArrayList<>();
+        ResultSegmentStore store = new ResultSegmentStore(new ResultSegmentConfig().setSegmentPath(segmentPath.toString()), new InMemoryNodeManager())
+        {
+            @Override
+            public ListenableFuture<URI> writeSegment(byte[] data)
+            {
+                SettableFuture<URI> write = SettableFuture.create();
+                writes.add(write);
+                return write;
+            }
+        };
+
+        Operator operator = createOperator(store, new DataSize(1, GIGABYTE));
+        operator.addInput(new Page(createLongSequenceBlock(0, 10)));
+        operator.finish();
+        assertEquals(writes.size(), 1);
+
+        writes.get(0).set(URI.create("http://worker/v1/segment/1?token=a"));
+        assertTrue(operator.isBlocked().isDone());
+        assertTrue(operator.isFinished());
+
+        List<Page> descriptors = getDescriptors();
+        assertEquals(descriptors.size(), 1);
+        assertEquals(BIGINT.getLong(descriptors.get(0).getBlock(1), 0), 10);
+    }
+
+    @Test
+    public void testWriteFailure()
+    {
+        SettableFuture<URI> write = SettableFuture.create();
+        ResultSegmentStore store = new ResultSegmentStore(new ResultSegmentConfig().setSegmentPath(segmentPath.toString()), new InMemoryNodeManager())
+        {
+            @Override
+            public ListenableFuture<URI> writeSegment(byte[] data)
+            {
+                return write;
+            }
+        };
+
+        Operator operator = createOperator(store, new DataSize(1, BYTE));
+        operator.addInput(new Page(createLongSequenceBlock(0, 10)));
+        write.setException(new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to write result segment"));
+
+        try {
+            operator.isBlocked();
+            fail("expected exception");
+        }
+        catch (PrestoException e) {
+            assertEquals(e.getErrorCode(), GENERIC_INTERNAL_ERROR.toErrorCode());
+        }
+        assertEquals(getDescriptors().size(), 0);
+    }
+
+    private ResultSegmentStore createStore()
+    {
+        return new ResultSegmentStore(new ResultSegmentConfig().setSegmentPath(segmentPath.toString()), new InMemoryNodeManager());
+    }
+
+    private Operator createOperator(ResultSegmentStore store, DataSize segmentSize)
+    {
+        return new ResultSegmentOutputOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                outputBuffer,
+                store,
+                segmentSize,
+                Function.identity(),
+                serdeFactory)
+                .createOperator(createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                        .addPipelineContext(0, true, true, false)
+                        .addDriverContext());
+    }
+
+    private static void addInput(Operator operator, Page page)
+    {
+        getFutureValue(operator.isBlocked());
+        assertTrue(operator.needsInput());
+        operator.addInput(page);
+    }
+
+    private static void finish(Operator operator)
+    {
+        operator.finish();
+        while (!operator.isFinished()) {
+            getFutureValue(operator.isBlocked());
+        }
+        operator.close();
+    }
+
+    private List<Page> getDescriptors()
+    {
+        PagesSerde serde = serdeFactory.createPagesSerde();
+        BufferResult result = getFutureValue(outputBuffer.get(BUFFER_ID, 0, new DataSize(1, GIGABYTE)));
+        return result.getSerializedPages().stream()
+                .map(serde::deserialize)
+                .collect(toImmutableList());
+    }
+
+    private static void assertSegment(ResultSegmentStore store, Page descriptor, long start, long end)
+            throws IOException
+    {
+        assertEquals(descriptor.getChannelCount(), SEGMENT_DESCRIPTOR_TYPES.size());
+        assertEquals(descriptor.getPositionCount(), 1);
+        URI uri = URI.create(VARCHAR.getSlice(descriptor.getBlock(0), 0).toStringUtf8());
+        assertEquals(BIGINT.getLong(descriptor.getBlock(1), 0), end - start);
+
+        String path = uri.getPath();
+        String token = uri.getQuery().substring("token=".length());
+        byte[] segment = Files.readAllBytes(store.getSegment(path.substring(path.lastIndexOf('/') + 1), token).get());
+
+        QueryResults results = new QueryResults(
+                "query",
+                URI.create("http://coordinator/query"),
+                null,
+                null,
+                COLUMNS,
+                null,
+                segment,
+                null,
+                StatementStats.builder().setState("FINISHED").build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+        List<List<Object>> expected = new ArrayList<>();
+        for (long value = start; value < end; value++) {
+            expected.add(ImmutableList.of(value));
+        }
+        assertEquals(ImmutableList.copyOf(results.getData()), expected);
+    }
+}
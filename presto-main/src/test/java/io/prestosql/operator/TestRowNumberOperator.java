@@ -22,6 +22,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.GenericPartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
@@ -44,6 +45,7 @@ import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
 import static io.prestosql.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
+import static io.prestosql.operator.OperatorAssertion.dropChannel;
 import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.operator.OperatorAssertion.toPages;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -318,6 +320,86 @@ public class TestRowNumberOperator
         assertEquals(Sets.intersection(expectedPartition3Set, actualSet).size(), 2);
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testRowNumberPartitionedWithSpill(boolean hashEnabled)
+    {
+        MaterializedResult expected = resultBuilder(TEST_SESSION, DOUBLE, BIGINT, BIGINT)
+                .row(0.3, 1L, 1L)
+                .row(0.4, 1L, 2L)
+                .row(0.5, 1L, 3L)
+                .row(0.6, 1L, 4L)
+                .row(0.2, 2L, 1L)
+                .row(0.7, 2L, 2L)
+                .row(0.8, 2L, 3L)
+                .row(0.9, 2L, 4L)
+                .row(0.1, 3L, 1L)
+                .row(0.19, 3L, 2L)
+                .build();
+
+        assertRowNumberWithSpill(hashEnabled, Optional.empty(), expected);
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testRowNumberPartitionedLimitWithSpill(boolean hashEnabled)
+    {
+        MaterializedResult expected = resultBuilder(TEST_SESSION, DOUBLE, BIGINT, BIGINT)
+                .row(0.3, 1L, 1L)
+                .row(0.4, 1L, 2L)
+                .row(0.5, 1L, 3L)
+                .row(0.2, 2L, 1L)
+                .row(0.7, 2L, 2L)
+                .row(0.8, 2L, 3L)
+                .row(0.1, 3L, 1L)
+                .row(0.19, 3L, 2L)
+                .build();
+
+        assertRowNumberWithSpill(hashEnabled, Optional.of(3), expected);
+    }
+
+    private void assertRowNumberWithSpill(boolean hashEnabled, Optional<Integer> maxRowsPerPartition, MaterializedResult expected)
+    {
+        DriverContext driverContext = getDriverContext();
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT, DOUBLE);
+        List<Page> input = rowPagesBuilder
+                .row(1L, 0.3)
+                .row(2L, 0.2)
+                .row(3L, 0.1)
+                .row(3L, 0.19)
+                .pageBreak()
+                .row(1L, 0.4)
+                .pageBreak()
+                .row(1L, 0.5)
+                .row(1L, 0.6)
+                .row(2L, 0.7)
+                .row(2L, 0.8)
+                .row(2L, 0.9)
+                .build();
+
+        DummySingleStreamSpillerFactory spillerFactory = new DummySingleStreamSpillerFactory();
+        RowNumberOperator.RowNumberOperatorFactory operatorFactory = new RowNumberOperator.RowNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                hashEnabled ? Ints.asList(1, 0, 2) : Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                maxRowsPerPartition,
+                rowPagesBuilder.getHashChannel(),
+                10,
+                joinCompiler,
+                true,
+                new GenericPartitioningSpillerFactory(spillerFactory));
+
+        // the memory is revoked after the first page, the row numbers of the spilled rows continue from the spilled row counts
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+        if (hashEnabled) {
+            pages = dropChannel(pages, ImmutableList.of(2));
+        }
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), ImmutableList.of(DOUBLE, BIGINT, BIGINT), pages);
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+        assertGreaterThan(spillerFactory.getSpillsCount(), 0L);
+    }
+
     @Test
     public void testRowNumberUnpartitionedLimit()
     {
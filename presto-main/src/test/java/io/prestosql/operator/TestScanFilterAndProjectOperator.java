@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.prestosql.SequencePageBuilder;
 import io.prestosql.block.BlockAssertions;
@@ -32,14 +33,19 @@ import io.prestosql.operator.scalar.AbstractTestFunctions;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.FixedPageSource;
 import io.prestosql.spi.connector.RecordPageSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.split.PageSourceProvider;
 import io.prestosql.sql.gen.ExpressionCompiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.sql.relational.RowExpression;
 import io.prestosql.testing.MaterializedResult;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
 import io.prestosql.testing.TestingSplit;
 import org.testng.annotations.Test;
 
@@ -47,6 +53,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -67,12 +74,14 @@ import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.sql.relational.Expressions.call;
 import static io.prestosql.sql.relational.Expressions.constant;
 import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.TestingHandles.TEST_TABLE_HANDLE;
 import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -80,6 +89,8 @@ import static org.testng.Assert.assertTrue;
 public class TestScanFilterAndProjectOperator
         extends AbstractTestFunctions
 {
+    private static final ColumnHandle DYNAMIC_FILTER_COLUMN = new TestingColumnHandle("key");
+
     private final Metadata metadata = createTestMetadataManager();
     private final ExpressionCompiler expressionCompiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0));
     private ExecutorService executor;
@@ -110,6 +121,7 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(VARCHAR),
                 new DataSize(0, BYTE),
                 0);
@@ -153,6 +165,7 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(BIGINT),
                 new DataSize(64, KILOBYTE),
                 2);
@@ -197,6 +210,7 @@ public class TestScanFilterAndProjectOperator
                 () -> pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(BIGINT),
                 new DataSize(0, BYTE),
                 0);
@@ -231,6 +245,7 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(VARCHAR),
                 new DataSize(0, BYTE),
                 0);
@@ -246,6 +261,97 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testPageSourceDynamicFilter()
+    {
+        Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 100, 0);
+        DriverContext driverContext = newDriverContext();
+
+        SourceOperator operator = createDynamicFilterOperator(
+                driverContext,
+                (session, split, table, columns) -> new FixedPageSource(ImmutableList.of(input)),
+                () -> dynamicFilter(3L, 42L, 99L, 1000L));
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
+                .row(3L)
+                .row(42L)
+                .row(99L)
+                .build();
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator)), expected);
+        assertEquals(operator.getOperatorContext().getOperatorStats().getInputPositions(), 100);
+    }
+
+    @Test
+    public void testRecordCursorSourceDynamicFilter()
+    {
+        Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 100, 0);
+        DriverContext driverContext = newDriverContext();
+
+        SourceOperator operator = createDynamicFilterOperator(
+                driverContext,
+                (session, split, table, columns) -> new RecordPageSource(new PageRecordSet(ImmutableList.of(BIGINT), input)),
+                () -> dynamicFilter(0L, 50L));
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
+                .row(0L)
+                .row(50L)
+                .build();
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator)), expected);
+        assertEquals(operator.getOperatorContext().getOperatorStats().getInputPositions(), 100);
+    }
+
+    @Test
+    public void testDynamicFilterCompletedDuringSplit()
+    {
+        Page first = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 10, 0);
+        Page second = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 10, 10);
+        Page third = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 10, 20);
+        DriverContext driverContext = newDriverContext();
+
+        AtomicReference<TupleDomain<ColumnHandle>> dynamicFilter = new AtomicReference<>(TupleDomain.all());
+        SourceOperator operator = createDynamicFilterOperator(
+                driverContext,
+                (session, split, table, columns) -> new FixedPageSource(ImmutableList.of(first, second, third)),
+                dynamicFilter::get);
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        Page output = null;
+        while (output == null) {
+            assertFalse(operator.isFinished());
+            output = operator.getOutput();
+        }
+        assertPageEquals(ImmutableList.of(BIGINT), output, first);
+
+        // the build side finishes after the scan has started, the remaining pages are filtered
+        dynamicFilter.set(dynamicFilter(5L, 15L, 25L));
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
+                .row(15L)
+                .row(25L)
+                .build();
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator)), expected);
+    }
+
+    @Test
+    public void testDynamicFilterNone()
+    {
+        Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 100, 0);
+        DriverContext driverContext = newDriverContext();
+
+        SourceOperator operator = createDynamicFilterOperator(
+                driverContext,
+                (session, split, table, columns) -> new FixedPageSource(ImmutableList.of(input)),
+                TupleDomain::none);
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        assertEquals(toPages(operator), ImmutableList.of());
+    }
+
     @Test
     public void testPageYield()
     {
@@ -283,6 +389,7 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(BIGINT),
                 new DataSize(0, BYTE),
                 0);
@@ -348,6 +455,7 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                TupleDomain::all,
                 ImmutableList.of(BIGINT),
                 new DataSize(0, BYTE),
                 0);
@@ -371,6 +479,30 @@ public class TestScanFilterAndProjectOperator
         assertEquals(toValues(BIGINT, output.getBlock(0)), toValues(BIGINT, input.getBlock(0)));
     }
 
+    private SourceOperator createDynamicFilterOperator(DriverContext driverContext, PageSourceProvider pageSourceProvider, Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+    {
+        List<RowExpression> projections = ImmutableList.of(field(0, BIGINT));
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                pageSourceProvider,
+                expressionCompiler.compileCursorProcessor(Optional.empty(), projections, "key"),
+                expressionCompiler.compilePageProcessor(Optional.empty(), projections),
+                TEST_TABLE_HANDLE,
+                ImmutableList.of(DYNAMIC_FILTER_COLUMN),
+                dynamicFilter,
+                ImmutableList.of(BIGINT),
+                new DataSize(0, BYTE),
+                0);
+        return factory.createOperator(driverContext);
+    }
+
+    private static TupleDomain<ColumnHandle> dynamicFilter(Long... values)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(DYNAMIC_FILTER_COLUMN, Domain.multipleValues(BIGINT, ImmutableList.copyOf(values))));
+    }
+
     private static List<Page> toPages(Operator operator)
     {
         ImmutableList.Builder<Page> outputPages = ImmutableList.builder();
@@ -17,12 +17,15 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.airlift.tpch.LineItem;
 import io.airlift.tpch.LineItemGenerator;
+import io.airlift.units.DataSize;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.BlockEncodingSerde;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.FileSingleStreamSpillerFactory;
 import io.prestosql.spiller.GenericSpillerFactory;
+import io.prestosql.spiller.SpillWriteBackpressure;
 import io.prestosql.spiller.Spiller;
 import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.spiller.SpillerStats;
@@ -43,7 +46,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -95,12 +100,20 @@ public class BenchmarkBinaryFileSpiller
         @Param("10")
         private int pagesCount = 10;
 
-        @Param("false")
-        private boolean compressionEnabled;
+        @Param({"NONE", "LZ4", "ZSTD"})
+        private CompressionCodec compressionCodec;
 
         @Param("true")
         private boolean encryptionEnabled;
 
+        // the spill paths are all on the temporary directory's disk, set -Djava.io.tmpdir
+        // or change SPILL_PATH to measure striping over several disks
+        @Param({"1", "4"})
+        private int spillPathCount = 1;
+
+        @Param({"64kB", "1MB"})
+        private String stripeSize = "64kB";
+
         private List<Page> pages;
         private Spiller readSpiller;
 
@@ -115,10 +128,14 @@ public class BenchmarkBinaryFileSpiller
                     MoreExecutors.newDirectExecutorService(),
                     BLOCK_ENCODING_SERDE,
                     spillerStats,
-                    ImmutableList.of(SPILL_PATH),
+                    IntStream.range(0, spillPathCount)
+                            .mapToObj(i -> SPILL_PATH.resolve("path" + i))
+                            .collect(toImmutableList()),
                     1.0,
-                    compressionEnabled,
-                    encryptionEnabled);
+                    DataSize.valueOf(stripeSize),
+                    compressionCodec,
+                    encryptionEnabled,
+                    SpillWriteBackpressure.unlimited());
             spillerFactory = new GenericSpillerFactory(singleStreamSpillerFactory);
             pages = createInputPages();
             readSpiller = spillerFactory.create(TYPES, bytes -> {}, newSimpleAggregatedMemoryContext());
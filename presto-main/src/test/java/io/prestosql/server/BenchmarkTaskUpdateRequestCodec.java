@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import io.airlift.bootstrap.Bootstrap;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonModule;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.execution.Lifespan;
+import io.prestosql.execution.ScheduledSplit;
+import io.prestosql.execution.TaskSource;
+import io.prestosql.metadata.HandleJsonModule;
+import io.prestosql.metadata.HandleResolver;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.Split;
+import io.prestosql.server.remotetask.RemoteTaskCodec;
+import io.prestosql.server.smile.SmileCodecFactory;
+import io.prestosql.spi.type.Type;
+import io.prestosql.testing.TestingHandleResolver;
+import io.prestosql.testing.TestingSplit;
+import io.prestosql.type.TypeDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static io.airlift.json.JsonBinder.jsonBinder;
+import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.execution.TaskTestUtils.PLAN_FRAGMENT;
+import static io.prestosql.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
+import static io.prestosql.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.jsonRemoteTaskCodec;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.smileRemoteTaskCodec;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures the coordinator side cost of encoding a task update, and the worker side cost
+ * of decoding it, in JSON and in the binary Smile format.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkTaskUpdateRequestCodec
+{
+    @Benchmark
+    public byte[] encode(BenchmarkData data)
+    {
+        return data.getCodec().encode(data.getRequest());
+    }
+
+    @Benchmark
+    public TaskUpdateRequest decode(BenchmarkData data)
+    {
+        return data.getCodec().decode(data.getEncodedRequest());
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"json", "smile"})
+        private String format = "json";
+
+        @Param({"1", "1000"})
+        private int splitCount = 1000;
+
+        private RemoteTaskCodec<TaskUpdateRequest> codec;
+        private TaskUpdateRequest request;
+        private byte[] encodedRequest;
+
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            Injector injector = new Bootstrap(
+                    new JsonModule(),
+                    new HandleJsonModule(),
+                    binder -> {
+                        binder.bind(Metadata.class).toInstance(createTestMetadataManager());
+                        jsonBinder(binder).addDeserializerBinding(Type.class).to(TypeDeserializer.class);
+                        jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+                    })
+                    .strictConfig()
+                    .doNotInitializeLogging()
+                    .quiet()
+                    .initialize();
+            injector.getInstance(HandleResolver.class).addConnectorName("test", new TestingHandleResolver());
+
+            if (format.equals("json")) {
+                codec = jsonRemoteTaskCodec(injector.getInstance(new Key<JsonCodec<TaskUpdateRequest>>() {}));
+            }
+            else {
+                codec = smileRemoteTaskCodec(injector.getInstance(SmileCodecFactory.class).smileCodec(TaskUpdateRequest.class));
+            }
+
+            ImmutableSet.Builder<ScheduledSplit> splits = ImmutableSet.builder();
+            for (int i = 0; i < splitCount; i++) {
+                splits.add(new ScheduledSplit(i, TABLE_SCAN_NODE_ID, new Split(new CatalogName("test"), TestingSplit.createRemoteSplit(), Lifespan.taskWide())));
+            }
+            request = new TaskUpdateRequest(
+                    TEST_SESSION.toSessionRepresentation(),
+                    ImmutableMap.of(),
+                    Optional.of(PLAN_FRAGMENT),
+                    ImmutableList.of(new TaskSource(TABLE_SCAN_NODE_ID, splits.build(), false)),
+                    createInitialEmptyOutputBuffers(PARTITIONED),
+                    OptionalInt.empty());
+            encodedRequest = codec.encode(request);
+        }
+
+        public RemoteTaskCodec<TaskUpdateRequest> getCodec()
+        {
+            return codec;
+        }
+
+        public TaskUpdateRequest getRequest()
+        {
+            return request;
+        }
+
+        public byte[] getEncodedRequest()
+        {
+            return encodedRequest;
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkTaskUpdateRequestCodec().decode(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkTaskUpdateRequestCodec.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -15,6 +15,7 @@ package io.prestosql.server;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpUriBuilder;
@@ -32,11 +33,14 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
 import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
 import static io.airlift.http.client.JsonResponseHandler.createJsonResponseHandler;
+import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.http.client.Request.Builder.preparePost;
 import static io.airlift.http.client.StaticBodyGenerator.createStaticBodyGenerator;
@@ -45,7 +49,9 @@ import static io.airlift.json.JsonCodec.jsonCodec;
 import static io.prestosql.SystemSessionProperties.HASH_PARTITION_COUNT;
 import static io.prestosql.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.prestosql.SystemSessionProperties.QUERY_MAX_MEMORY;
+import static io.prestosql.SystemSessionProperties.SPOOLED_RESULTS_ENABLED;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CATALOG;
+import static io.prestosql.client.PrestoHeaders.PRESTO_CLIENT_CAPABILITIES;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CLIENT_INFO;
 import static io.prestosql.client.PrestoHeaders.PRESTO_PATH;
 import static io.prestosql.client.PrestoHeaders.PRESTO_PREPARED_STATEMENT;
@@ -58,6 +64,8 @@ import static io.prestosql.client.PrestoHeaders.PRESTO_TRANSACTION_ID;
 import static io.prestosql.client.PrestoHeaders.PRESTO_USER;
 import static io.prestosql.spi.StandardErrorCode.INCOMPATIBLE_CLIENT;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
@@ -222,6 +230,93 @@ public class TestServer
         assertEquals(queryResults.getError().getErrorCode(), INCOMPATIBLE_CLIENT.toErrorCode().getCode());
     }
 
+    @Test
+    public void testSpooledResults()
+            throws IOException
+    {
+        Request request = preparePost()
+                .setUri(uriFor("/v1/statement"))
+                .setBodyGenerator(createStaticBodyGenerator("SELECT * FROM (VALUES 1, 2, 3) t(x)", UTF_8))
+                .setHeader(PRESTO_USER, "user")
+                .setHeader(PRESTO_SOURCE, "source")
+                .setHeader(PRESTO_CLIENT_CAPABILITIES, "PATH,BINARY_RESULTS,SPOOLED_RESULTS")
+                .addHeader(PRESTO_SESSION, SPOOLED_RESULTS_ENABLED + "=true")
+                .build();
+
+        QueryResults queryResults = client.execute(request, createJsonResponseHandler(QUERY_RESULTS_CODEC));
+        ImmutableList.Builder<URI> segments = ImmutableList.builder();
+        while (queryResults.getNextUri() != null) {
+            queryResults = client.execute(prepareGet().setUri(queryResults.getNextUri()).build(), createJsonResponseHandler(QUERY_RESULTS_CODEC));
+
+            // the coordinator only returns the segments, never the data itself
+            assertNull(queryResults.getData());
+            if (queryResults.getSegments() != null) {
+                segments.addAll(queryResults.getSegments());
+            }
+        }
+        assertNull(queryResults.getError());
+
+        ImmutableList.Builder<List<Object>> data = ImmutableList.builder();
+        for (URI segment : segments.build()) {
+            // segments can not be read or deleted without their token
+            URI withoutToken = HttpUriBuilder.uriBuilderFrom(segment).replaceParameter("token").build();
+            assertEquals(client.execute(prepareGet().setUri(withoutToken).build(), createStatusResponseHandler()).getStatusCode(), NOT_FOUND.getStatusCode());
+            URI wrongToken = HttpUriBuilder.uriBuilderFrom(segment).replaceParameter("token", "wrong").build();
+            assertEquals(client.execute(prepareGet().setUri(wrongToken).build(), createStatusResponseHandler()).getStatusCode(), NOT_FOUND.getStatusCode());
+            assertEquals(client.execute(prepareDelete().setUri(wrongToken).build(), createStatusResponseHandler()).getStatusCode(), NOT_FOUND.getStatusCode());
+
+            byte[] segmentData;
+            try (InputStream input = segment.toURL().openStream()) {
+                segmentData = ByteStreams.toByteArray(input);
+            }
+            data.addAll(new QueryResults(
+                    queryResults.getId(),
+                    queryResults.getInfoUri(),
+                    null,
+                    null,
+                    queryResults.getColumns(),
+                    null,
+                    segmentData,
+                    null,
+                    queryResults.getStats(),
+                    null,
+                    ImmutableList.of(),
+                    null,
+                    null)
+                    .getData());
+
+            assertEquals(client.execute(prepareDelete().setUri(segment).build(), createStatusResponseHandler()).getStatusCode(), NO_CONTENT.getStatusCode());
+            assertEquals(client.execute(prepareGet().setUri(segment).build(), createStatusResponseHandler()).getStatusCode(), NOT_FOUND.getStatusCode());
+        }
+        assertEquals(data.build(), ImmutableList.of(ImmutableList.of(1), ImmutableList.of(2), ImmutableList.of(3)));
+    }
+
+    @Test
+    public void testSpooledResultsRequireClientCapability()
+    {
+        Request request = preparePost()
+                .setUri(uriFor("/v1/statement"))
+                .setBodyGenerator(createStaticBodyGenerator("SELECT * FROM (VALUES 1, 2, 3) t(x)", UTF_8))
+                .setHeader(PRESTO_USER, "user")
+                .setHeader(PRESTO_SOURCE, "source")
+                .setHeader(PRESTO_CLIENT_CAPABILITIES, "PATH,BINARY_RESULTS")
+                .addHeader(PRESTO_SESSION, SPOOLED_RESULTS_ENABLED + "=true")
+                .build();
+
+        QueryResults queryResults = client.execute(request, createJsonResponseHandler(QUERY_RESULTS_CODEC));
+        ImmutableList.Builder<List<Object>> data = ImmutableList.builder();
+        while (queryResults.getNextUri() != null) {
+            queryResults = client.execute(prepareGet().setUri(queryResults.getNextUri()).build(), createJsonResponseHandler(QUERY_RESULTS_CODEC));
+
+            assertNull(queryResults.getSegments());
+            if (queryResults.getData() != null) {
+                data.addAll(queryResults.getData());
+            }
+        }
+        assertNull(queryResults.getError());
+        assertEquals(data.build(), ImmutableList.of(ImmutableList.of(1), ImmutableList.of(2), ImmutableList.of(3)));
+    }
+
     private URI uriFor(String path)
     {
         return HttpUriBuilder.uriBuilderFrom(server.getBaseUrl()).replacePath(path).build();
@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.protocol;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import io.airlift.json.JsonCodec;
+import io.prestosql.client.Column;
+import io.prestosql.client.QueryResults;
+import io.prestosql.client.StatementStats;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.SqlDecimal;
+import io.prestosql.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.List;
+
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.prestosql.RowPageBuilder.rowPageBuilder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.server.protocol.Query.createColumn;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DecimalType.createDecimalType;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.util.MoreLists.mappedCopy;
+import static io.prestosql.util.StructuralTestUtil.mapType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestBinaryDataEncoder
+{
+    private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+
+    @Test
+    public void testRoundTrip()
+    {
+        List<Type> types = ImmutableList.of(
+                BIGINT,
+                INTEGER,
+                DOUBLE,
+                REAL,
+                BOOLEAN,
+                VARCHAR,
+                DATE,
+                createDecimalType(10, 2),
+                new ArrayType(BIGINT),
+                mapType(VARCHAR, BIGINT));
+        List<Page> pages = ImmutableList.of(
+                rowPageBuilder(types)
+                        .row(1L, 2, 3.5, 4.25f, true, "hello", 17000L, new SqlDecimal(BigInteger.valueOf(12345), 10, 2), ImmutableList.of(1L, 2L), ImmutableMap.of("a", 1L))
+                        .row(null, null, null, null, null, null, null, null, null, null)
+                        .build(),
+                rowPageBuilder(types)
+                        .row(Long.MIN_VALUE, -1, Double.NaN, Float.POSITIVE_INFINITY, false, "\u00e9t\u00e9", 0L, new SqlDecimal(BigInteger.valueOf(-1), 10, 2), ImmutableList.of(), ImmutableMap.of())
+                        .build());
+
+        List<Column> columns = mappedCopy(types, type -> createColumn(type.getDisplayName(), type));
+        ConnectorSession session = TEST_SESSION.toConnectorSession();
+
+        QueryResults jsonResults = QUERY_RESULTS_CODEC.fromJson(QUERY_RESULTS_CODEC.toJson(createQueryResults(
+                columns,
+                Iterables.concat(mappedCopy(pages, page -> new RowIterable(session, types, page))),
+                null)));
+        QueryResults binaryResults = QUERY_RESULTS_CODEC.fromJson(QUERY_RESULTS_CODEC.toJson(createQueryResults(
+                columns,
+                null,
+                BinaryDataEncoder.encode(session, types, pages))));
+
+        assertNull(binaryResults.getBinaryData());
+        assertEquals(ImmutableList.copyOf(binaryResults.getData()), ImmutableList.copyOf(jsonResults.getData()));
+    }
+
+    private static QueryResults createQueryResults(List<Column> columns, Iterable<List<Object>> data, byte[] binaryData)
+    {
+        return new QueryResults(
+                "20160128_214710_00012_rk68b",
+                URI.create("http://localhost/query.html?20160128_214710_00012_rk68b"),
+                null,
+                null,
+                columns,
+                data,
+                binaryData,
+                null,
+                StatementStats.builder().setState("FINISHED").build(),
+                null,
+                ImmutableList.of(),
+                null,
+                null);
+    }
+}
@@ -13,6 +13,7 @@
  */
 package io.prestosql.server.remotetask;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Binder;
@@ -47,7 +48,10 @@ import io.prestosql.metadata.InternalNode;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.metadata.Split;
 import io.prestosql.server.HttpRemoteTaskFactory;
+import io.prestosql.server.InternalCommunicationConfig;
 import io.prestosql.server.TaskUpdateRequest;
+import io.prestosql.server.smile.SmileCodecFactory;
+import io.prestosql.server.smile.SmileMapper;
 import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.plan.PlanNodeId;
@@ -66,12 +70,16 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.concurrent.RejectedExecutionException;
@@ -82,6 +90,7 @@ import java.util.function.BooleanSupplier;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.airlift.json.JsonBinder.jsonBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
+import static io.prestosql.PrestoMediaTypes.JACKSON_SMILE;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_WAIT;
@@ -93,10 +102,12 @@ import static io.prestosql.spi.StandardErrorCode.REMOTE_TASK_MISMATCH;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static java.lang.Math.min;
 import static java.lang.String.format;
+import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 public class TestHttpRemoteTask
@@ -136,11 +147,32 @@ public class TestHttpRemoteTask
     @Test(timeOut = 30000)
     public void testRegular()
             throws Exception
+    {
+        runRegularTest(false, 0);
+    }
+
+    @Test(timeOut = 30000)
+    public void testRegularWithBinaryTransport()
+            throws Exception
+    {
+        runRegularTest(true, 0);
+    }
+
+    @Test(timeOut = 30000)
+    public void testPlanResentAfterFailedUpdate()
+            throws Exception
+    {
+        runRegularTest(false, 1);
+    }
+
+    private void runRegularTest(boolean binaryTransportEnabled, int failedUpdates)
+            throws Exception
     {
         AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
         TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
+        testingTaskResource.failUpdates(failedUpdates);
 
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, binaryTransportEnabled);
 
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
@@ -158,6 +190,14 @@ public class TestHttpRemoteTask
         remoteTask.noMoreSplits(TABLE_SCAN_NODE_ID);
         poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).isNoMoreSplits());
 
+        // the plan is sent until the worker has created the task, including the retries of failed updates,
+        // and later updates carry just the new splits
+        List<Boolean> updatesWithPlan = testingTaskResource.getUpdatesWithPlan();
+        assertTrue(updatesWithPlan.size() > failedUpdates + 1, format("Too few updates: %s", updatesWithPlan));
+        assertEquals(updatesWithPlan.subList(0, failedUpdates + 1), nCopies(failedUpdates + 1, true));
+        assertFalse(updatesWithPlan.subList(failedUpdates + 1, updatesWithPlan.size()).contains(true), format("Plan sent after acknowledgement: %s", updatesWithPlan));
+        assertEquals(testingTaskResource.getPlanCount(), 1);
+
         remoteTask.cancel();
         poll(() -> remoteTask.getTaskStatus().getState().isDone());
         poll(() -> remoteTask.getTaskInfo().getTaskStatus().getState().isDone());
@@ -171,7 +211,7 @@ public class TestHttpRemoteTask
         AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
         TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, failureScenario);
 
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, false);
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
         testingTaskResource.setInitialTaskInfo(remoteTask.getTaskInfo());
@@ -212,7 +252,7 @@ public class TestHttpRemoteTask
                 true);
     }
 
-    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource)
+    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource, boolean binaryTransportEnabled)
             throws Exception
     {
         Bootstrap app = new Bootstrap(
@@ -234,11 +274,13 @@ public class TestHttpRemoteTask
                     @Provides
                     private HttpRemoteTaskFactory createHttpRemoteTaskFactory(
                             JsonMapper jsonMapper,
+                            SmileMapper smileMapper,
                             JsonCodec<TaskStatus> taskStatusCodec,
                             JsonCodec<TaskInfo> taskInfoCodec,
-                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
+                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+                            SmileCodecFactory smileCodecFactory)
                     {
-                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper);
+                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper, smileMapper);
                         TestingHttpClient testingHttpClient = new TestingHttpClient(jaxrsTestingHttpProcessor.setTrace(TRACE_HTTP));
                         testingTaskResource.setHttpClient(testingHttpClient);
                         return new HttpRemoteTaskFactory(
@@ -249,6 +291,8 @@ public class TestHttpRemoteTask
                                 taskStatusCodec,
                                 taskInfoCodec,
                                 taskUpdateRequestCodec,
+                                smileCodecFactory,
+                                new InternalCommunicationConfig().setBinaryTransportEnabled(binaryTransportEnabled),
                                 new RemoteTaskStats());
                     }
                 });
@@ -322,6 +366,10 @@ public class TestHttpRemoteTask
         private String taskInstanceId = INITIAL_TASK_INSTANCE_ID;
 
         private long statusFetchCounter;
+        private boolean needsPlan = true;
+        private int planCount;
+        private int updatesToFail;
+        private final List<Boolean> updatesWithPlan = new ArrayList<>();
 
         public TestingTaskResource(AtomicLong lastActivityNanos, FailureScenario failureScenario)
         {
@@ -336,7 +384,7 @@ public class TestHttpRemoteTask
 
         @GET
         @Path("{taskId}")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskInfo getTaskInfo(
                 @PathParam("taskId") final TaskId taskId,
                 @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
@@ -351,13 +399,24 @@ public class TestHttpRemoteTask
 
         @POST
         @Path("{taskId}")
-        @Consumes(MediaType.APPLICATION_JSON)
-        @Produces(MediaType.APPLICATION_JSON)
+        @Consumes({MediaType.APPLICATION_JSON, JACKSON_SMILE})
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskInfo createOrUpdateTask(
                 @PathParam("taskId") TaskId taskId,
                 TaskUpdateRequest taskUpdateRequest,
                 @Context UriInfo uriInfo)
         {
+            updatesWithPlan.add(taskUpdateRequest.getFragment().isPresent());
+            if (updatesToFail > 0) {
+                // the worker is unavailable, so the task is not created
+                updatesToFail--;
+                lastActivityNanos.set(System.nanoTime());
+                throw new WebApplicationException(Response.Status.SERVICE_UNAVAILABLE);
+            }
+            if (taskUpdateRequest.getFragment().isPresent()) {
+                needsPlan = false;
+                planCount++;
+            }
             for (TaskSource source : taskUpdateRequest.getSources()) {
                 taskSourceMap.compute(source.getPlanNodeId(), (planNodeId, taskSource) -> taskSource == null ? source : taskSource.update(source));
             }
@@ -374,9 +433,24 @@ public class TestHttpRemoteTask
             return new TaskSource(source.getPlanNodeId(), source.getSplits(), source.getNoMoreSplitsForLifespan(), source.isNoMoreSplits());
         }
 
+        public synchronized int getPlanCount()
+        {
+            return planCount;
+        }
+
+        public synchronized void failUpdates(int count)
+        {
+            updatesToFail = count;
+        }
+
+        public synchronized List<Boolean> getUpdatesWithPlan()
+        {
+            return ImmutableList.copyOf(updatesWithPlan);
+        }
+
         @GET
         @Path("{taskId}/status")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskStatus getTaskStatus(
                 @PathParam("taskId") TaskId taskId,
                 @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
@@ -392,7 +466,7 @@ public class TestHttpRemoteTask
 
         @DELETE
         @Path("{taskId}")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, JACKSON_SMILE})
         public synchronized TaskInfo deleteTask(
                 @PathParam("taskId") TaskId taskId,
                 @QueryParam("abort") @DefaultValue("true") boolean abort,
@@ -433,7 +507,7 @@ public class TestHttpRemoteTask
                     initialTaskInfo.getOutputBuffers(),
                     initialTaskInfo.getNoMoreSplits(),
                     initialTaskInfo.getStats(),
-                    initialTaskInfo.isNeedsPlan());
+                    needsPlan);
         }
 
         private TaskStatus buildTaskStatus()
@@ -477,7 +551,8 @@ public class TestHttpRemoteTask
                     initialTaskStatus.getSystemMemoryReservation(),
                     initialTaskStatus.getRevocableMemoryReservation(),
                     initialTaskStatus.getFullGcCount(),
-                    initialTaskStatus.getFullGcTime());
+                    initialTaskStatus.getFullGcTime(),
+                    initialTaskStatus.getDynamicFilterDomains());
         }
     }
 }
@@ -18,6 +18,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.units.DataSize;
 import io.prestosql.execution.buffer.PageCodecMarker;
 import io.prestosql.execution.buffer.PagesSerdeUtil;
 import io.prestosql.execution.buffer.SerializedPage;
@@ -31,6 +32,7 @@ import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,6 +40,8 @@ import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.MoreFiles.listFiles;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.execution.buffer.CompressionCodec.NONE;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -112,7 +116,7 @@ public class TestFileSingleStreamSpiller
         Page page = buildPage();
 
         // The spillers will reserve memory in their constructors
-        assertEquals(memoryContext.getBytes(), 4096);
+        assertEquals(memoryContext.getBytes(), spiller.getMemoryReservation());
         spiller.spill(page).get();
         spiller.spill(Iterators.forArray(page, page, page)).get();
         assertEquals(listFiles(spillPath.toPath()).size(), 1);
@@ -131,7 +135,7 @@ public class TestFileSingleStreamSpiller
         // assertEquals(memoryContext.getBytes(), 0);
 
         Iterator<Page> spilledPagesIterator = spiller.getSpilledPages();
-        assertEquals(memoryContext.getBytes(), FileSingleStreamSpiller.BUFFER_SIZE);
+        assertEquals(memoryContext.getBytes(), spiller.getMemoryReservation());
         ImmutableList<Page> spilledPages = ImmutableList.copyOf(spilledPagesIterator);
         // The spillers release their memory reservations when they are closed, therefore at this point
         // they will have non-zero memory reservation.
@@ -147,6 +151,67 @@ public class TestFileSingleStreamSpiller
         assertEquals(memoryContext.getBytes(), 0);
     }
 
+    @Test
+    public void testStripedSpill()
+            throws Exception
+    {
+        File secondSpillPath = Files.createTempDir();
+        try {
+            FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
+                    executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                    createTestMetadataManager().getBlockEncodingSerde(),
+                    new SpillerStats(),
+                    ImmutableList.of(spillPath.toPath(), secondSpillPath.toPath()),
+                    1.0,
+                    new DataSize(4, KILOBYTE),
+                    NONE,
+                    false,
+                    SpillWriteBackpressure.unlimited());
+            LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+            FileSingleStreamSpiller spiller = (FileSingleStreamSpiller) spillerFactory.create(TYPES, bytes -> {}, memoryContext);
+
+            List<Page> pages = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                pages.add(buildPage(i * 50, 50));
+            }
+            // spill in several batches, so that writes append to partially filled stripes
+            spiller.spill(pages.subList(0, 1).iterator()).get();
+            spiller.spill(pages.subList(1, 60).iterator()).get();
+            spiller.spill(pages.subList(60, 100).iterator()).get();
+            assertEquals(listFiles(spillPath.toPath()).size(), 1);
+            assertEquals(listFiles(secondSpillPath.toPath()).size(), 1);
+
+            List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+            assertEquals(spilledPages.size(), pages.size());
+            for (int i = 0; i < pages.size(); i++) {
+                PageAssertions.assertPageEquals(TYPES, spilledPages.get(i), pages.get(i));
+            }
+
+            spiller.close();
+            assertEquals(listFiles(spillPath.toPath()).size(), 0);
+            assertEquals(listFiles(secondSpillPath.toPath()).size(), 0);
+            assertEquals(memoryContext.getBytes(), 0);
+        }
+        finally {
+            deleteRecursively(secondSpillPath.toPath(), ALLOW_INSECURE);
+        }
+    }
+
+    private Page buildPage(int start, int positionCount)
+    {
+        BlockBuilder col1 = BIGINT.createBlockBuilder(null, positionCount);
+        BlockBuilder col2 = DOUBLE.createBlockBuilder(null, positionCount);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, positionCount);
+
+        for (int i = start; i < start + positionCount; i++) {
+            col1.writeLong(i).closeEntry();
+            col2.writeLong(doubleToLongBits(i)).closeEntry();
+            col3.writeLong(doubleToLongBits(i)).writeLong(i).closeEntry();
+        }
+
+        return new Page(col1.build(), col2.build(), col3.build());
+    }
+
     private Page buildPage()
     {
         BlockBuilder col1 = BIGINT.createBlockBuilder(null, 1);
@@ -16,6 +16,8 @@ package io.prestosql.spiller;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.CompressionCodec;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -24,6 +26,8 @@ import static io.airlift.configuration.testing.ConfigAssertions.assertFullMappin
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class TestNodeSpillConfig
 {
@@ -34,7 +38,9 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(new DataSize(100, GIGABYTE))
                 .setQueryMaxSpillPerNode(new DataSize(100, GIGABYTE))
                 .setSpillCompressionEnabled(false)
-                .setSpillEncryptionEnabled(false));
+                .setSpillCompressionCodec(CompressionCodec.LZ4)
+                .setSpillEncryptionEnabled(false)
+                .setSpillMaxWriteBacklog(new Duration(2, SECONDS)));
     }
 
     @Test
@@ -44,14 +50,18 @@ public class TestNodeSpillConfig
                 .put("experimental.max-spill-per-node", "10MB")
                 .put("experimental.query-max-spill-per-node", "15 MB")
                 .put("experimental.spill-compression-enabled", "true")
+                .put("experimental.spill-compression-codec", "ZSTD")
                 .put("experimental.spill-encryption-enabled", "true")
+                .put("experimental.spill-max-write-backlog", "500ms")
                 .build();
 
         NodeSpillConfig expected = new NodeSpillConfig()
                 .setMaxSpillPerNode(new DataSize(10, MEGABYTE))
                 .setQueryMaxSpillPerNode(new DataSize(15, MEGABYTE))
                 .setSpillCompressionEnabled(true)
-                .setSpillEncryptionEnabled(true);
+                .setSpillCompressionCodec(CompressionCodec.ZSTD)
+                .setSpillEncryptionEnabled(true)
+                .setSpillMaxWriteBacklog(new Duration(500, MILLISECONDS));
 
         assertFullMapping(properties, expected);
     }
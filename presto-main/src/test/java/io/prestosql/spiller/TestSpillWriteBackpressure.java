@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spiller;
+
+import io.airlift.testing.TestingTicker;
+import io.airlift.units.Duration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestSpillWriteBackpressure
+{
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUnlimited()
+            throws Exception
+    {
+        SpillWriteBackpressure backpressure = SpillWriteBackpressure.unlimited();
+        backpressure.startWrite(1000);
+        backpressure.finishWrite(1000, true);
+        backpressure.startWrite(1000);
+        backpressure.startWrite(1_000_000);
+        assertEquals(backpressure.getPendingBytes(), 1_001_000);
+        assertEquals(backpressure.getBlockedWrites(), 0);
+    }
+
+    @Test
+    public void testNoLimitBeforeThroughputIsMeasured()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        SpillWriteBackpressure backpressure = new SpillWriteBackpressure(new Duration(1, SECONDS), ticker);
+
+        backpressure.startWrite(1000);
+        ticker.increment(10, MILLISECONDS);
+        backpressure.finishWrite(1000, true);
+
+        // only 10ms of writes were measured, so the writes are not limited yet
+        backpressure.startWrite(1000);
+        backpressure.startWrite(1_000_000);
+        assertEquals(backpressure.getBlockedWrites(), 0);
+    }
+
+    @Test
+    public void testBlockedWrite()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        SpillWriteBackpressure backpressure = new SpillWriteBackpressure(new Duration(1, SECONDS), ticker);
+
+        // measure a throughput of 1000 bytes per second
+        backpressure.startWrite(1000);
+        ticker.increment(1, SECONDS);
+        backpressure.finishWrite(1000, true);
+        assertEquals(backpressure.getWriteThroughput(), 1000, 1);
+
+        // a write is never delayed when there is no other pending write
+        backpressure.startWrite(2000);
+        backpressure.finishWrite(2000, false);
+
+        backpressure.startWrite(600);
+        Future<?> blockedWrite = executor.submit(() -> {
+            backpressure.startWrite(600);
+            return null;
+        });
+        try {
+            blockedWrite.get(200, MILLISECONDS);
+            fail("expected write to be blocked");
+        }
+        catch (TimeoutException expected) {
+        }
+        assertFalse(blockedWrite.isDone());
+        assertEquals(backpressure.getBlockedWrites(), 1);
+
+        ticker.increment(500, MILLISECONDS);
+        backpressure.finishWrite(600, true);
+        blockedWrite.get(10, SECONDS);
+        assertEquals(backpressure.getPendingBytes(), 600);
+    }
+}
@@ -18,6 +18,7 @@ import io.airlift.configuration.ConfigurationFactory;
 import io.airlift.configuration.testing.ConfigAssertions;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.prestosql.execution.buffer.CompressionCodec;
 import io.prestosql.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import io.prestosql.operator.aggregation.histogram.HistogramGroupImplementation;
 import io.prestosql.operator.aggregation.multimapagg.MultimapAggGroupImplementation;
@@ -57,6 +58,8 @@ public class TestFeaturesConfig
                 .setDynamicScheduleForGroupedExecutionEnabled(false)
                 .setConcurrentLifespansPerTask(0)
                 .setFastInequalityJoins(true)
+                .setFlatJoinHashEnabled(true)
+                .setJoinBloomFilterEnabled(true)
                 .setColocatedJoinsEnabled(false)
                 .setSpatialJoinsEnabled(true)
                 .setJoinReorderingStrategy(ELIMINATE_CROSS_JOINS)
@@ -74,10 +77,12 @@ public class TestFeaturesConfig
                 .setSpillEnabled(false)
                 .setSpillOrderBy(true)
                 .setSpillWindowOperator(true)
+                .setSpillJoinFanOut(8)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("4MB"))
                 .setSpillerSpillPaths("")
                 .setSpillerThreads(4)
                 .setSpillMaxUsedSpaceThreshold(0.9)
+                .setSpillerStripeSize(DataSize.valueOf("64kB"))
                 .setMemoryRevokingThreshold(0.9)
                 .setMemoryRevokingTarget(0.5)
                 .setOptimizeMixedDistinctAggregations(false)
@@ -89,6 +94,8 @@ public class TestFeaturesConfig
                 .setDefaultFilterFactorEnabled(false)
                 .setEnableForcedExchangeBelowGroupId(true)
                 .setExchangeCompressionEnabled(false)
+                .setExchangeCompressionCodec(CompressionCodec.LZ4)
+                .setSpooledResultsEnabled(false)
                 .setLegacyTimestamp(true)
                 .setEnableIntermediateAggregations(false)
                 .setPushAggregationThroughJoin(true)
@@ -107,7 +114,9 @@ public class TestFeaturesConfig
                 .setMaxGroupingSets(2048)
                 .setWorkProcessorPipelines(false)
                 .setSkipRedundantSort(true)
-                .setEnableDynamicFiltering(false));
+                .setEnableDynamicFiltering(false)
+                .setDynamicFilteringMaxPerDriverValueCount(10_000)
+                .setDynamicFilteringMaxPerDriverSize(new DataSize(1, MEGABYTE)));
     }
 
     @Test
@@ -130,6 +139,8 @@ public class TestFeaturesConfig
                 .put("dynamic-schedule-for-grouped-execution", "true")
                 .put("concurrent-lifespans-per-task", "1")
                 .put("fast-inequality-joins", "false")
+                .put("flat-join-hash-enabled", "false")
+                .put("join-bloom-filter-enabled", "false")
                 .put("colocated-joins-enabled", "true")
                 .put("spatial-joins-enabled", "false")
                 .put("optimizer.join-reordering-strategy", "NONE")
@@ -150,13 +161,17 @@ public class TestFeaturesConfig
                 .put("experimental.spill-enabled", "true")
                 .put("experimental.spill-order-by", "false")
                 .put("experimental.spill-window-operator", "false")
+                .put("experimental.spill-join-fan-out", "16")
                 .put("experimental.aggregation-operator-unspill-memory-limit", "100MB")
                 .put("experimental.spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .put("experimental.spiller-threads", "42")
                 .put("experimental.spiller-max-used-space-threshold", "0.8")
+                .put("experimental.spiller-stripe-size", "1MB")
                 .put("experimental.memory-revoking-threshold", "0.2")
                 .put("experimental.memory-revoking-target", "0.8")
                 .put("exchange.compression-enabled", "true")
+                .put("exchange.compression-codec", "ZSTD")
+                .put("experimental.spooled-results-enabled", "true")
                 .put("deprecated.legacy-timestamp", "false")
                 .put("optimizer.enable-intermediate-aggregations", "true")
                 .put("parse-decimal-literals-as-double", "true")
@@ -175,6 +190,8 @@ public class TestFeaturesConfig
                 .put("experimental.work-processor-pipelines", "true")
                 .put("optimizer.skip-redundant-sort", "false")
                 .put("experimental.enable-dynamic-filtering", "true")
+                .put("experimental.dynamic-filtering-max-per-driver-value-count", "256")
+                .put("experimental.dynamic-filtering-max-per-driver-size", "64kB")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -193,6 +210,8 @@ public class TestFeaturesConfig
                 .setDynamicScheduleForGroupedExecutionEnabled(true)
                 .setConcurrentLifespansPerTask(1)
                 .setFastInequalityJoins(false)
+                .setFlatJoinHashEnabled(false)
+                .setJoinBloomFilterEnabled(false)
                 .setColocatedJoinsEnabled(true)
                 .setSpatialJoinsEnabled(false)
                 .setJoinReorderingStrategy(NONE)
@@ -213,13 +232,17 @@ public class TestFeaturesConfig
                 .setSpillEnabled(true)
                 .setSpillOrderBy(false)
                 .setSpillWindowOperator(false)
+                .setSpillJoinFanOut(16)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("100MB"))
                 .setSpillerSpillPaths("/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .setSpillerThreads(42)
                 .setSpillMaxUsedSpaceThreshold(0.8)
+                .setSpillerStripeSize(DataSize.valueOf("1MB"))
                 .setMemoryRevokingThreshold(0.2)
                 .setMemoryRevokingTarget(0.8)
                 .setExchangeCompressionEnabled(true)
+                .setExchangeCompressionCodec(CompressionCodec.ZSTD)
+                .setSpooledResultsEnabled(true)
                 .setLegacyTimestamp(false)
                 .setEnableIntermediateAggregations(true)
                 .setParseDecimalLiteralsAsDouble(true)
@@ -238,7 +261,9 @@ public class TestFeaturesConfig
                 .setDefaultFilterFactorEnabled(true)
                 .setWorkProcessorPipelines(true)
                 .setSkipRedundantSort(false)
-                .setEnableDynamicFiltering(true);
+                .setEnableDynamicFiltering(true)
+                .setDynamicFilteringMaxPerDriverValueCount(256)
+                .setDynamicFilteringMaxPerDriverSize(new DataSize(64, KILOBYTE));
         assertFullMapping(properties, expected);
     }
 
@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.Assignment;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.assertions.RvalueMatcher;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.expression;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.strictProject;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
+
+public class TestPushAggregationIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle COLUMN_A = new TestingColumnHandle("a");
+    private static final ColumnHandle COLUMN_B = new TestingColumnHandle("b");
+    private static final ColumnHandle COLUMN_C = new TestingColumnHandle("c");
+
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(false, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("count"), PlanBuilder.expression("count(b)"), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireForPartialAggregation()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("count"), PlanBuilder.expression("count(b)"), ImmutableList.of(BIGINT))
+                            .step(PARTIAL)
+                            .source(p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testPushGroupedAggregation()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("count"), PlanBuilder.expression("count(b)"), ImmutableList.of(BIGINT))
+                            .addAggregation(p.symbol("max"), PlanBuilder.expression("max(b)"), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B))));
+                })
+                .matches(
+                        strictProject(
+                                ImmutableMap.of("a", expression("a"), "count", expression("count_b"), "max", expression("max_b")),
+                                node(TableScanNode.class)
+                                        .withAlias("a", column(COLUMN_A))
+                                        .withAlias("count_b", column(new TestingColumnHandle("count")))
+                                        .withAlias("max_b", column(new TestingColumnHandle("max")))
+                                        .withNumberOfOutputColumns(3)));
+    }
+
+    @Test
+    public void testPushThroughIdentityProjection()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    Symbol c = p.symbol("c");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("sum"), PlanBuilder.expression("sum(b)"), ImmutableList.of(BIGINT))
+                            .source(p.project(
+                                    Assignments.identity(a, b),
+                                    p.tableScan(ImmutableList.of(a, b, c), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B, c, COLUMN_C)))));
+                })
+                .matches(
+                        strictProject(
+                                ImmutableMap.of("a", expression("a"), "sum", expression("sum_b")),
+                                node(TableScanNode.class)
+                                        .withAlias("a", column(COLUMN_A))
+                                        .withAlias("sum_b", column(new TestingColumnHandle("sum")))
+                                        .withNumberOfOutputColumns(2)));
+    }
+
+    @Test
+    public void testDoesNotFireThroughComputingProjection()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    Symbol c = p.symbol("c");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("sum"), PlanBuilder.expression("sum(c)"), ImmutableList.of(BIGINT))
+                            .source(p.project(
+                                    Assignments.builder()
+                                            .putIdentity(a)
+                                            .put(c, PlanBuilder.expression("b + 1"))
+                                            .build(),
+                                    p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B)))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireForDifferentResultType()
+    {
+        // a connector computing the sum with a wider type does not have the overflow semantics of Presto
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.of(DOUBLE))))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    Symbol b = p.symbol("b");
+                    return p.aggregation(aggregation -> aggregation
+                            .singleGroupingSet(a)
+                            .addAggregation(p.symbol("sum"), PlanBuilder.expression("sum(b)"), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testPushGlobalAggregation()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true, Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a");
+                    return p.aggregation(aggregation -> aggregation
+                            .globalGrouping()
+                            .addAggregation(p.symbol("count"), PlanBuilder.expression("count()"), ImmutableList.of())
+                            .source(p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, COLUMN_A))));
+                })
+                .matches(
+                        strictProject(
+                                ImmutableMap.of("count", expression("count_all")),
+                                node(TableScanNode.class)
+                                        .withAlias("count_all", column(new TestingColumnHandle("count")))
+                                        .withNumberOfOutputColumns(1)));
+    }
+
+    private static RvalueMatcher column(ColumnHandle column)
+    {
+        return (node, session, metadata, symbolAliases) -> ((TableScanNode) node).getAssignments().entrySet().stream()
+                .filter(entry -> entry.getValue().equals(column))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean aggregationPushdown;
+        private final Optional<Type> resultType;
+
+        public TestMetadata(boolean aggregationPushdown, Optional<Type> resultType)
+        {
+            this.aggregationPushdown = aggregationPushdown;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public Optional<AggregationApplicationResult<TableHandle>> applyAggregation(
+                Session session,
+                TableHandle table,
+                List<AggregateFunction> aggregations,
+                Map<String, ColumnHandle> assignments,
+                List<List<ColumnHandle>> groupingSets)
+        {
+            if (!aggregationPushdown) {
+                return Optional.empty();
+            }
+
+            ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+            ImmutableList.Builder<Assignment> newAssignments = ImmutableList.builder();
+            for (int i = 0; i < aggregations.size(); i++) {
+                AggregateFunction aggregation = aggregations.get(i);
+                String variable = "_aggregation_" + i;
+                Type type = resultType.orElse(aggregation.getOutputType());
+                projections.add(new Variable(variable, type));
+                newAssignments.add(new Assignment(variable, new TestingColumnHandle(aggregation.getFunctionName()), type));
+            }
+            return Optional.of(new AggregationApplicationResult<>(table, projections.build(), newAssignments.build(), ImmutableMap.of()));
+        }
+    }
+}
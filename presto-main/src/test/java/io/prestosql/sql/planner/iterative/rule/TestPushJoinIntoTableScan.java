@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.spi.connector.JoinCondition.Operator.EQUAL;
+import static io.prestosql.spi.connector.JoinCondition.Operator.LESS_THAN;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.LEFT;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushJoinIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle LEFT_KEY = new TestingColumnHandle("left_key");
+    private static final ColumnHandle LEFT_VALUE = new TestingColumnHandle("left_value");
+    private static final ColumnHandle RIGHT_KEY = new TestingColumnHandle("right_key");
+    private static final ColumnHandle RIGHT_VALUE = new TestingColumnHandle("right_value");
+
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(false)))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key");
+                    Symbol rightKey = p.symbol("right_key");
+                    return p.join(INNER, leftScan(p), rightScan(p), new EquiJoinClause(leftKey, rightKey));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testPushJoin()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushJoinIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key");
+                    Symbol rightKey = p.symbol("right_key");
+                    return p.join(INNER, leftScan(p), rightScan(p), PlanBuilder.expression("right_value > left_value"), new EquiJoinClause(leftKey, rightKey));
+                })
+                .matches(node(TableScanNode.class));
+        assertEquals(metadata.getJoinType(), JoinType.INNER);
+        assertEquals(metadata.getJoinConditions(), ImmutableList.of(
+                new JoinCondition(EQUAL, new Variable("left_key", BIGINT), new Variable("right_key", BIGINT)),
+                new JoinCondition(LESS_THAN, new Variable("left_value", BIGINT), new Variable("right_value", BIGINT))));
+    }
+
+    @Test
+    public void testPushJoinWithFilter()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key");
+                    Symbol rightKey = p.symbol("right_key");
+                    return p.join(LEFT, p.filter(PlanBuilder.expression("left_value > 5"), leftScan(p)), rightScan(p), new EquiJoinClause(leftKey, rightKey));
+                })
+                .matches(node(FilterNode.class, node(TableScanNode.class)));
+
+        // the filter of the side padded with nulls can not be applied after the join
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key");
+                    Symbol rightKey = p.symbol("right_key");
+                    return p.join(LEFT, leftScan(p), p.filter(PlanBuilder.expression("right_value > 5"), rightScan(p)), new EquiJoinClause(leftKey, rightKey));
+                })
+                .doesNotFire();
+    }
+
+    private static TableScanNode leftScan(PlanBuilder p)
+    {
+        Symbol key = p.symbol("left_key");
+        Symbol value = p.symbol("left_value");
+        return p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, LEFT_KEY, value, LEFT_VALUE));
+    }
+
+    private static TableScanNode rightScan(PlanBuilder p)
+    {
+        Symbol key = p.symbol("right_key");
+        Symbol value = p.symbol("right_value");
+        return p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, RIGHT_KEY, value, RIGHT_VALUE));
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean pushJoin;
+        private JoinType joinType;
+        private List<JoinCondition> joinConditions;
+
+        public TestMetadata(boolean pushJoin)
+        {
+            this.pushJoin = pushJoin;
+        }
+
+        @Override
+        public Optional<JoinApplicationResult<TableHandle>> applyJoin(
+                Session session,
+                JoinType joinType,
+                TableHandle left,
+                TableHandle right,
+                List<JoinCondition> joinConditions,
+                Map<String, ColumnHandle> leftAssignments,
+                Map<String, ColumnHandle> rightAssignments)
+        {
+            this.joinType = joinType;
+            this.joinConditions = joinConditions;
+            if (!pushJoin) {
+                return Optional.empty();
+            }
+            return Optional.of(new JoinApplicationResult<>(left, identity(leftAssignments), identity(rightAssignments)));
+        }
+
+        private static Map<ColumnHandle, ColumnHandle> identity(Map<String, ColumnHandle> assignments)
+        {
+            return assignments.values().stream()
+                    .collect(toImmutableMap(Function.identity(), Function.identity()));
+        }
+
+        public JoinType getJoinType()
+        {
+            return joinType;
+        }
+
+        public List<JoinCondition> getJoinConditions()
+        {
+            return joinConditions;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.Assignment;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.FieldDereference;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.assertions.RvalueMatcher;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.RowType.field;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.expression;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.filter;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.strictProject;
+
+public class TestPushProjectionIntoTableScan
+        extends BaseRuleTest
+{
+    private static final RowType ROW_TYPE = RowType.from(ImmutableList.of(field("x", BIGINT), field("y", BIGINT)));
+    private static final ColumnHandle COLUMN_A = new TestingColumnHandle("a");
+    private static final ColumnHandle COLUMN_B = new TestingColumnHandle("b");
+
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushProjectionIntoTableScan(new TestMetadata(false)))
+                .on(p -> {
+                    Symbol a = p.symbol("a", ROW_TYPE);
+                    return p.project(
+                            Assignments.of(p.symbol("ax"), PlanBuilder.expression("a.x")),
+                            p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, COLUMN_A)));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWithoutTableScan()
+    {
+        tester().assertThat(new PushProjectionIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol a = p.symbol("a", ROW_TYPE);
+                    return p.project(
+                            Assignments.of(p.symbol("ax"), PlanBuilder.expression("a.x")),
+                            p.values(a));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testPushDereference()
+    {
+        tester().assertThat(new PushProjectionIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol a = p.symbol("a", ROW_TYPE);
+                    Symbol b = p.symbol("b");
+                    return p.project(
+                            Assignments.of(p.symbol("ax_plus_one"), PlanBuilder.expression("a.x + 1"), p.symbol("b_out"), PlanBuilder.expression("b")),
+                            p.tableScan(ImmutableList.of(a, b), ImmutableMap.of(a, COLUMN_A, b, COLUMN_B)));
+                })
+                .matches(
+                        strictProject(
+                                ImmutableMap.of("ax_plus_one", expression("ax + 1"), "b_out", expression("b")),
+                                node(TableScanNode.class)
+                                        .withAlias("ax", column(new TestingColumnHandle("a#0")))
+                                        .withAlias("b", column(COLUMN_B))
+                                        .withNumberOfOutputColumns(2)));
+    }
+
+    @Test
+    public void testPushDereferenceThroughFilter()
+    {
+        tester().assertThat(new PushProjectionIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol a = p.symbol("a", ROW_TYPE);
+                    return p.project(
+                            Assignments.of(p.symbol("ax"), PlanBuilder.expression("a.x")),
+                            p.filter(
+                                    PlanBuilder.expression("a.y > 0"),
+                                    p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, COLUMN_A))));
+                })
+                .matches(
+                        strictProject(
+                                ImmutableMap.of("ax", expression("x")),
+                                filter(
+                                        "y > 0",
+                                        node(TableScanNode.class)
+                                                .withAlias("x", column(new TestingColumnHandle("a#0")))
+                                                .withAlias("y", column(new TestingColumnHandle("a#1")))
+                                                .withNumberOfOutputColumns(2))));
+    }
+
+    private static RvalueMatcher column(ColumnHandle column)
+    {
+        return (node, session, metadata, symbolAliases) -> ((TableScanNode) node).getAssignments().entrySet().stream()
+                .filter(entry -> entry.getValue().equals(column))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean projectionPushdown;
+
+        public TestMetadata(boolean projectionPushdown)
+        {
+            this.projectionPushdown = projectionPushdown;
+        }
+
+        @Override
+        public Optional<ProjectionApplicationResult<TableHandle>> applyProjection(Session session, TableHandle table, List<ConnectorExpression> projections, Map<String, ColumnHandle> assignments)
+        {
+            if (!projectionPushdown) {
+                return Optional.empty();
+            }
+
+            ImmutableList.Builder<ConnectorExpression> newProjections = ImmutableList.builder();
+            ImmutableList.Builder<Assignment> newAssignments = ImmutableList.builder();
+            for (ConnectorExpression projection : projections) {
+                String variable;
+                ColumnHandle column;
+                if (projection instanceof Variable) {
+                    variable = ((Variable) projection).getName();
+                    column = assignments.get(variable);
+                }
+                else {
+                    FieldDereference dereference = (FieldDereference) projection;
+                    String name = ((TestingColumnHandle) assignments.get(((Variable) dereference.getTarget()).getName())).getName();
+                    variable = name + "_" + dereference.getField();
+                    column = new TestingColumnHandle(name + "#" + dereference.getField());
+                }
+                newProjections.add(new Variable(variable, projection.getType()));
+                newAssignments.add(new Assignment(variable, column, projection.getType()));
+            }
+            return Optional.of(new ProjectionApplicationResult<>(table, newProjections.build(), newAssignments.build()));
+        }
+    }
+}
@@ -39,8 +39,11 @@ import io.prestosql.spi.connector.SampleType;
 import io.prestosql.spi.connector.SchemaNotFoundException;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
+import io.prestosql.spi.connector.TopNApplicationResult;
 import io.prestosql.spi.connector.ViewNotFoundException;
 import io.prestosql.spi.statistics.ComputedStatistics;
+import io.prestosql.spi.type.Type;
 
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
@@ -366,12 +369,51 @@ public class MemoryMetadata
         if (table.getLimit().isPresent() && table.getLimit().getAsLong() <= limit) {
             return Optional.empty();
         }
+        if (table.getSortOrder().isPresent()) {
+            // the top rows are only computed per split, so the limit could not be guaranteed
+            return Optional.empty();
+        }
 
         return Optional.of(new LimitApplicationResult<>(
                 new MemoryTableHandle(table.getId(), OptionalLong.of(limit), OptionalDouble.empty()),
                 true));
     }
 
+    @Override
+    public synchronized Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        MemoryTableHandle table = (MemoryTableHandle) handle;
+
+        Map<ColumnHandle, Type> columnTypes = tables.get(table.getId()).getColumns().stream()
+                .collect(toMap(ColumnInfo::getHandle, column -> column.getMetadata().getType()));
+        List<MemorySortItem> sortOrder = sortItems.stream()
+                .map(sortItem -> {
+                    MemoryColumnHandle column = (MemoryColumnHandle) assignments.get(sortItem.getName());
+                    return new MemorySortItem(column.getColumnIndex(), columnTypes.get(column), sortItem.getSortOrder());
+                })
+                .collect(toImmutableList());
+
+        if (table.getSortOrder().isPresent()) {
+            if (!table.getSortOrder().get().equals(sortOrder) || table.getLimit().getAsLong() <= topNCount) {
+                return Optional.empty();
+            }
+        }
+        else if (table.getLimit().isPresent()) {
+            // the rows limited in arbitrary order can not be sorted
+            return Optional.empty();
+        }
+
+        // every split keeps its own top rows, which still have to be merged by the engine
+        return Optional.of(new TopNApplicationResult<>(
+                new MemoryTableHandle(table.getId(), OptionalLong.of(topNCount), table.getSampleRatio(), Optional.of(sortOrder)),
+                false));
+    }
+
     @Override
     public Optional<ConnectorTableHandle> applySample(ConnectorSession session, ConnectorTableHandle handle, SampleType sampleType, double sampleRatio)
     {
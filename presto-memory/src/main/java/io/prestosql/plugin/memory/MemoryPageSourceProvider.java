@@ -55,19 +55,34 @@ public final class MemoryPageSourceProvider
         int partNumber = memorySplit.getPartNumber();
         int totalParts = memorySplit.getTotalPartsPerWorker();
         long expectedRows = memorySplit.getExpectedRows();
-        OptionalDouble sampleRatio = ((MemoryTableHandle) table).getSampleRatio();
+        MemoryTableHandle memoryTable = (MemoryTableHandle) table;
+        OptionalDouble sampleRatio = memoryTable.getSampleRatio();
 
         List<Integer> columnIndexes = columns.stream()
                 .map(MemoryColumnHandle.class::cast)
                 .map(MemoryColumnHandle::getColumnIndex).collect(toList());
-        List<Page> pages = pagesStore.getPages(
-                tableId,
-                partNumber,
-                totalParts,
-                columnIndexes,
-                expectedRows,
-                memorySplit.getLimit(),
-                sampleRatio);
+        List<Page> pages;
+        if (memoryTable.getSortOrder().isPresent()) {
+            pages = pagesStore.getTopNPages(
+                    tableId,
+                    partNumber,
+                    totalParts,
+                    columnIndexes,
+                    expectedRows,
+                    memoryTable.getSortOrder().get(),
+                    memoryTable.getLimit().getAsLong(),
+                    sampleRatio);
+        }
+        else {
+            pages = pagesStore.getPages(
+                    tableId,
+                    partNumber,
+                    totalParts,
+                    columnIndexes,
+                    expectedRows,
+                    memorySplit.getLimit(),
+                    sampleRatio);
+        }
 
         return new FixedPageSource(pages);
     }
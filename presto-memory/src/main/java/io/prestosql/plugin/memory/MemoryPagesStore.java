@@ -24,15 +24,19 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalDouble;
 import java.util.OptionalLong;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.plugin.memory.MemoryErrorCode.MEMORY_LIMIT_EXCEEDED;
 import static io.prestosql.plugin.memory.MemoryErrorCode.MISSING_DATA;
 import static java.lang.String.format;
@@ -117,6 +121,85 @@ public class MemoryPagesStore
         return partitionedPages.build();
     }
 
+    /**
+     * Returns the first {@code count} rows of the part in the given order, while the rows of
+     * the other parts are not considered, so the results of all parts still have to be merged.
+     */
+    public synchronized List<Page> getTopNPages(
+            Long tableId,
+            int partNumber,
+            int totalParts,
+            List<Integer> columnIndexes,
+            long expectedRows,
+            List<MemorySortItem> sortOrder,
+            long count,
+            OptionalDouble sampleRatio)
+    {
+        List<Page> pages = getPages(tableId, partNumber, totalParts, allColumnIndexes(tableId), expectedRows, OptionalLong.empty(), sampleRatio);
+
+        // rows are addressed by the index of the page in the upper and the position in the lower bits
+        Comparator<Long> rowComparator = (left, right) -> compareRows(pages, sortOrder, left, right);
+        PriorityQueue<Long> topRows = new PriorityQueue<>(rowComparator.reversed());
+        for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+            for (int position = 0; position < pages.get(pageIndex).getPositionCount(); position++) {
+                long row = ((long) pageIndex << 32) | position;
+                if (topRows.size() < count) {
+                    topRows.add(row);
+                }
+                else if (rowComparator.compare(row, topRows.peek()) < 0) {
+                    topRows.poll();
+                    topRows.add(row);
+                }
+            }
+        }
+
+        long[] rows = topRows.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        ImmutableList.Builder<Page> topNPages = ImmutableList.builder();
+        int start = 0;
+        while (start < rows.length) {
+            int pageIndex = (int) (rows[start] >>> 32);
+            int end = start;
+            int[] positions = new int[rows.length - start];
+            while (end < rows.length && (int) (rows[end] >>> 32) == pageIndex) {
+                positions[end - start] = (int) rows[end];
+                end++;
+            }
+            topNPages.add(getColumns(pages.get(pageIndex).getPositions(positions, 0, end - start), columnIndexes));
+            start = end;
+        }
+        return topNPages.build();
+    }
+
+    private List<Integer> allColumnIndexes(Long tableId)
+    {
+        if (!contains(tableId) || tables.get(tableId).getPages().isEmpty()) {
+            return ImmutableList.of();
+        }
+        int channelCount = tables.get(tableId).getPages().get(0).getChannelCount();
+        return IntStream.range(0, channelCount).boxed().collect(toImmutableList());
+    }
+
+    private static int compareRows(List<Page> pages, List<MemorySortItem> sortOrder, long left, long right)
+    {
+        Page leftPage = pages.get((int) (left >>> 32));
+        Page rightPage = pages.get((int) (right >>> 32));
+        for (MemorySortItem sortItem : sortOrder) {
+            int compare = sortItem.getSortOrder().compareBlockValue(
+                    sortItem.getType(),
+                    leftPage.getBlock(sortItem.getColumnIndex()),
+                    (int) left,
+                    rightPage.getBlock(sortItem.getColumnIndex()),
+                    (int) right);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
     public synchronized boolean contains(Long tableId)
     {
         return tables.containsKey(tableId);
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.memory;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.type.Type;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+public final class MemorySortItem
+{
+    private final int columnIndex;
+    private final Type type;
+    private final SortOrder sortOrder;
+
+    @JsonCreator
+    public MemorySortItem(
+            @JsonProperty("columnIndex") int columnIndex,
+            @JsonProperty("type") Type type,
+            @JsonProperty("sortOrder") SortOrder sortOrder)
+    {
+        this.columnIndex = columnIndex;
+        this.type = requireNonNull(type, "type is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null");
+    }
+
+    @JsonProperty
+    public int getColumnIndex()
+    {
+        return columnIndex;
+    }
+
+    @JsonProperty
+    public Type getType()
+    {
+        return type;
+    }
+
+    @JsonProperty
+    public SortOrder getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        MemorySortItem that = (MemorySortItem) o;
+        return columnIndex == that.columnIndex &&
+                type.equals(that.type) &&
+                sortOrder == that.sortOrder;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(columnIndex, type, sortOrder);
+    }
+
+    @Override
+    public String toString()
+    {
+        return columnIndex + " " + sortOrder;
+    }
+}
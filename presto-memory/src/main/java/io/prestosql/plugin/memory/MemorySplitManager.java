@@ -55,7 +55,7 @@ public final class MemorySplitManager
             long rows = dataFragment.getRows();
             totalRows += rows;
 
-            if (table.getLimit().isPresent() && totalRows > table.getLimit().getAsLong()) {
+            if (table.getLimit().isPresent() && !table.getSortOrder().isPresent() && totalRows > table.getLimit().getAsLong()) {
                 rows -= totalRows - table.getLimit().getAsLong();
                 splits.add(new MemorySplit(table.getId(), 0, 1, dataFragment.getHostAddress(), rows, OptionalLong.of(rows)));
                 break;
@@ -15,9 +15,12 @@ package io.prestosql.plugin.memory;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalLong;
 
@@ -29,21 +32,30 @@ public final class MemoryTableHandle
     private final long id;
     private final OptionalLong limit;
     private final OptionalDouble sampleRatio;
+    // when present, the limit applies to the rows in this order
+    private final Optional<List<MemorySortItem>> sortOrder;
 
     public MemoryTableHandle(long id)
     {
         this(id, OptionalLong.empty(), OptionalDouble.empty());
     }
 
+    public MemoryTableHandle(long id, OptionalLong limit, OptionalDouble sampleRatio)
+    {
+        this(id, limit, sampleRatio, Optional.empty());
+    }
+
     @JsonCreator
     public MemoryTableHandle(
             @JsonProperty("id") long id,
             @JsonProperty("limit") OptionalLong limit,
-            @JsonProperty("sampleRatio") OptionalDouble sampleRatio)
+            @JsonProperty("sampleRatio") OptionalDouble sampleRatio,
+            @JsonProperty("sortOrder") Optional<List<MemorySortItem>> sortOrder)
     {
         this.id = id;
         this.limit = requireNonNull(limit, "limit is null");
         this.sampleRatio = requireNonNull(sampleRatio, "sampleRatio is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
     }
 
     @JsonProperty
@@ -64,6 +76,12 @@ public final class MemoryTableHandle
         return sampleRatio;
     }
 
+    @JsonProperty
+    public Optional<List<MemorySortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -76,13 +94,14 @@ public final class MemoryTableHandle
         MemoryTableHandle that = (MemoryTableHandle) o;
         return id == that.id &&
                 limit.equals(that.limit) &&
-                sampleRatio.equals(that.sampleRatio);
+                sampleRatio.equals(that.sampleRatio) &&
+                sortOrder.equals(that.sortOrder);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(id, limit, sampleRatio);
+        return Objects.hash(id, limit, sampleRatio, sortOrder);
     }
 
     @Override
@@ -92,6 +111,7 @@ public final class MemoryTableHandle
         builder.append(id);
         limit.ifPresent(value -> builder.append("(limit:" + value + ")"));
         sampleRatio.ifPresent(value -> builder.append("(sampleRatio:" + value + ")"));
+        sortOrder.ifPresent(value -> builder.append("(sortOrder:" + value + ")"));
         return builder.toString();
     }
 }
@@ -19,6 +19,7 @@ import io.airlift.units.DataSize;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
 import io.prestosql.spi.connector.ConnectorOutputTableHandle;
@@ -28,9 +29,14 @@ import io.prestosql.testing.TestingConnectorSession;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalLong;
+import java.util.Set;
 
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static io.prestosql.spi.block.SortOrder.DESC_NULLS_LAST;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -112,6 +118,21 @@ public class TestMemoryPagesStore
         assertTrue(pagesStore.contains(2L));
     }
 
+    @Test
+    public void testGetTopNPages()
+    {
+        createTable(0L, 0L);
+        insertToTable(0L, createPage(5L, 1L, 3L), 0L);
+        insertToTable(0L, createPage(4L, null, 2L), 0L);
+
+        List<MemorySortItem> sortOrder = ImmutableList.of(new MemorySortItem(0, BIGINT, ASC_NULLS_FIRST));
+        assertEquals(getValues(pagesStore.getTopNPages(0L, 0, 1, ImmutableList.of(0), 6, sortOrder, 3, OptionalDouble.empty())), ImmutableSet.of(Optional.empty(), Optional.of(1L), Optional.of(2L)));
+
+        sortOrder = ImmutableList.of(new MemorySortItem(0, BIGINT, DESC_NULLS_LAST));
+        assertEquals(getValues(pagesStore.getTopNPages(0L, 0, 1, ImmutableList.of(0), 6, sortOrder, 2, OptionalDouble.empty())), ImmutableSet.of(Optional.of(5L), Optional.of(4L)));
+        assertEquals(getValues(pagesStore.getTopNPages(0L, 0, 1, ImmutableList.of(0), 6, sortOrder, 10, OptionalDouble.empty())).size(), 6);
+    }
+
     @Test(expectedExceptions = PrestoException.class)
     public void testMemoryLimitExceeded()
     {
@@ -161,6 +182,32 @@ public class TestMemoryPagesStore
         return new Page(0, blockBuilder.build());
     }
 
+    private static Page createPage(Long... values)
+    {
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(values.length);
+        for (Long value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(blockBuilder, value);
+            }
+        }
+        return new Page(values.length, blockBuilder.build());
+    }
+
+    private static Set<Optional<Long>> getValues(List<Page> pages)
+    {
+        ImmutableSet.Builder<Optional<Long>> values = ImmutableSet.builder();
+        for (Page page : pages) {
+            Block block = page.getBlock(0);
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                values.add(block.isNull(position) ? Optional.empty() : Optional.of(BIGINT.getLong(block, position)));
+            }
+        }
+        return values.build();
+    }
+
     private static Page createOneMegaBytePage()
     {
         BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(POSITIONS_PER_PAGE);
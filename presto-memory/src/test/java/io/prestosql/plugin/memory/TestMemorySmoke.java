@@ -68,6 +68,25 @@ public class TestMemorySmoke
         assertQueryResult("SELECT count(*) FROM test_select", 75L);
     }
 
+    @Test
+    public void testTopN()
+    {
+        assertUpdate("CREATE TABLE test_topn AS SELECT * FROM tpch.tiny.orders", "SELECT count(*) FROM orders");
+
+        assertTopN("SELECT orderkey, totalprice FROM %s ORDER BY totalprice DESC LIMIT 10");
+        assertTopN("SELECT orderkey, orderstatus FROM %s ORDER BY orderstatus, orderkey DESC LIMIT 10");
+        assertTopN("SELECT orderkey, clerk FROM %s ORDER BY clerk DESC NULLS FIRST, custkey, orderkey LIMIT 1000");
+        assertTopN("SELECT * FROM (SELECT orderkey, custkey FROM %s ORDER BY custkey, orderkey LIMIT 100) ORDER BY custkey, orderkey LIMIT 10");
+
+        assertUpdate("DROP TABLE test_topn");
+    }
+
+    private void assertTopN(@Language("SQL") String sql)
+    {
+        assertQueryOrdered(format(sql, "test_topn"), format(sql, "orders"));
+        assertTrue(((String) computeActual("EXPLAIN " + format(sql, "test_topn")).getOnlyValue()).contains("sortOrder"), "topN was not pushed down: " + sql);
+    }
+
     @Test
     public void testCreateTableWithNoData()
     {
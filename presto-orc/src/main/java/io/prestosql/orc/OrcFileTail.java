@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.prestosql.orc.metadata.Footer;
+import io.prestosql.orc.metadata.Metadata;
+import io.prestosql.orc.metadata.PostScript;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The decoded tail of an ORC file: the post script, the footer and the stripe statistics.
+ * It does not depend on the data source it was read from, so it can be reused by all readers of the file.
+ */
+public class OrcFileTail
+{
+    private final PostScript postScript;
+    private final Footer footer;
+    private final Metadata metadata;
+    private final int serializedSize;
+
+    public OrcFileTail(PostScript postScript, Footer footer, Metadata metadata, int serializedSize)
+    {
+        this.postScript = requireNonNull(postScript, "postScript is null");
+        this.footer = requireNonNull(footer, "footer is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.serializedSize = serializedSize;
+    }
+
+    public PostScript getPostScript()
+    {
+        return postScript;
+    }
+
+    public Footer getFooter()
+    {
+        return footer;
+    }
+
+    public Metadata getMetadata()
+    {
+        return metadata;
+    }
+
+    /**
+     * Size of the tail in the file, including the post script
+     */
+    public int getSerializedSize()
+    {
+        return serializedSize;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("numberOfRows", footer.getNumberOfRows())
+                .add("stripes", footer.getStripes().size())
+                .add("serializedSize", serializedSize)
+                .toString();
+    }
+}
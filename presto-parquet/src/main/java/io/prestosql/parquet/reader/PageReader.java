@@ -23,8 +23,10 @@ import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkState;
 import static io.prestosql.parquet.ParquetCompressionUtils.decompress;
 import static java.lang.Math.toIntExact;
+import static java.util.Collections.unmodifiableList;
 
 class PageReader
 {
@@ -52,6 +54,35 @@ class PageReader
         return valueCount;
     }
 
+    /**
+     * Returns the pages that have not been read yet. The pages are still compressed,
+     * but their value counts and statistics are available.
+     */
+    public List<DataPage> getRemainingPages()
+    {
+        return unmodifiableList(compressedPages);
+    }
+
+    /**
+     * Returns the value count of the next page, or -1 if all pages have been read.
+     */
+    public int getNextPageValueCount()
+    {
+        if (compressedPages.isEmpty()) {
+            return -1;
+        }
+        return compressedPages.get(0).getValueCount();
+    }
+
+    /**
+     * Drops the next page without decompressing it.
+     */
+    public void skipNextPage()
+    {
+        checkState(!compressedPages.isEmpty(), "No more pages to skip");
+        compressedPages.remove(0);
+    }
+
     public DataPage readPage()
     {
         if (compressedPages.isEmpty()) {
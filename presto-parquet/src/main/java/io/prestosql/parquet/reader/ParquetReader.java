@@ -13,15 +13,21 @@
  */
 package io.prestosql.parquet.reader;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.parquet.DataPage;
+import io.prestosql.parquet.DataPageV1;
+import io.prestosql.parquet.DataPageV2;
 import io.prestosql.parquet.Field;
 import io.prestosql.parquet.GroupField;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.PrimitiveField;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
 import io.prestosql.spi.block.ArrayBlock;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RowBlock;
@@ -34,6 +40,7 @@ import it.unimi.dsi.fastutil.booleans.BooleanList;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
@@ -45,8 +52,10 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
 import static io.prestosql.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static io.prestosql.spi.type.StandardTypes.ARRAY;
@@ -68,12 +77,16 @@ public class ParquetReader
     private final List<PrimitiveColumnIO> columns;
     private final ParquetDataSource dataSource;
     private final AggregatedMemoryContext systemMemoryContext;
+    private final Predicate pagePredicate;
+    private final Set<ColumnDescriptor> pagePredicateColumns;
+    private final boolean failOnCorruptedParquetStatistics;
 
     private int currentBlock;
     private BlockMetaData currentBlockMetadata;
     private long currentPosition;
     private long currentGroupRowCount;
     private long nextRowInGroup;
+    private RowRanges currentGroupRowRanges;
     private int batchSize;
     private int nextBatchSize = INITIAL_BATCH_SIZE;
     private final PrimitiveColumnReader[] columnReaders;
@@ -89,15 +102,40 @@ public class ParquetReader
             ParquetDataSource dataSource,
             AggregatedMemoryContext systemMemoryContext,
             DataSize maxReadBlockSize)
+    {
+        this(messageColumnIO, blocks, dataSource, systemMemoryContext, maxReadBlockSize, Predicate.TRUE, ImmutableSet.of(), false);
+    }
+
+    /**
+     * @param pagePredicate predicate evaluated against the statistics of the data pages, to skip the pages
+     * of the flat columns in {@code pagePredicateColumns} that cannot match
+     */
+    public ParquetReader(MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            ParquetDataSource dataSource,
+            AggregatedMemoryContext systemMemoryContext,
+            DataSize maxReadBlockSize,
+            Predicate pagePredicate,
+            Set<ColumnDescriptor> pagePredicateColumns,
+            boolean failOnCorruptedParquetStatistics)
     {
         this.blocks = blocks;
         this.dataSource = requireNonNull(dataSource, "dataSource is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         this.maxReadBlockBytes = requireNonNull(maxReadBlockSize, "maxReadBlockSize is null").toBytes();
+        this.pagePredicate = requireNonNull(pagePredicate, "pagePredicate is null");
+        this.failOnCorruptedParquetStatistics = failOnCorruptedParquetStatistics;
         columns = messageColumnIO.getLeaves();
         columnReaders = new PrimitiveColumnReader[columns.size()];
         maxBytesPerCell = new long[columns.size()];
+        // only the pages of flat columns line up with rows
+        Set<ColumnDescriptor> predicateColumns = ImmutableSet.copyOf(requireNonNull(pagePredicateColumns, "pagePredicateColumns is null"));
+        this.pagePredicateColumns = columns.stream()
+                .map(PrimitiveColumnIO::getColumnDescriptor)
+                .filter(predicateColumns::contains)
+                .filter(column -> column.getMaxRepetitionLevel() == 0)
+                .collect(toImmutableSet());
     }
 
     @Override
@@ -114,14 +152,25 @@ public class ParquetReader
     }
 
     public int nextBatch()
+            throws IOException
     {
+        if (nextRowInGroup < currentGroupRowCount && currentGroupRowRanges.getNextMatchingRow(nextRowInGroup) < 0) {
+            // none of the remaining rows of the row group can match
+            currentPosition += currentGroupRowCount - nextRowInGroup;
+            nextRowInGroup = currentGroupRowCount;
+        }
         if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
             return -1;
         }
 
+        long nextMatchingRow = currentGroupRowRanges.getNextMatchingRow(nextRowInGroup);
+        if (nextMatchingRow > nextRowInGroup) {
+            skipRows(nextMatchingRow - nextRowInGroup);
+        }
+
         batchSize = toIntExact(min(nextBatchSize, maxBatchSize));
         nextBatchSize = min(batchSize * BATCH_SIZE_GROWTH_FACTOR, MAX_VECTOR_LENGTH);
-        batchSize = toIntExact(min(batchSize, currentGroupRowCount - nextRowInGroup));
+        batchSize = toIntExact(min(batchSize, currentGroupRowRanges.getRangeEnd(nextRowInGroup) - nextRowInGroup));
 
         nextRowInGroup += batchSize;
         currentPosition += batchSize;
@@ -130,21 +179,79 @@ public class ParquetReader
         return batchSize;
     }
 
+    private void skipRows(long rowCount)
+    {
+        nextRowInGroup += rowCount;
+        currentPosition += rowCount;
+        int skippedRows = toIntExact(rowCount);
+        Arrays.stream(columnReaders)
+                .forEach(reader -> reader.skipRows(skippedRows));
+    }
+
     private boolean advanceToNextRowGroup()
+            throws IOException
     {
+        while (currentBlock < blocks.size()) {
+            currentRowGroupMemoryContext.close();
+            currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+
+            currentBlockMetadata = blocks.get(currentBlock);
+            currentBlock = currentBlock + 1;
+
+            nextRowInGroup = 0L;
+            currentGroupRowCount = currentBlockMetadata.getRowCount();
+            initializeColumnReaders();
+            currentGroupRowRanges = getMatchingRowRanges();
+            if (!currentGroupRowRanges.isEmpty()) {
+                return true;
+            }
+            currentPosition += currentGroupRowCount;
+        }
         currentRowGroupMemoryContext.close();
         currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+        return false;
+    }
 
-        if (currentBlock == blocks.size()) {
-            return false;
+    /**
+     * Returns the rows of the current row group that can match the page predicate,
+     * according to the statistics of the data pages of the predicate columns.
+     */
+    private RowRanges getMatchingRowRanges()
+            throws IOException
+    {
+        RowRanges rowRanges = RowRanges.all(currentGroupRowCount);
+        for (PrimitiveColumnIO columnIO : columns) {
+            ColumnDescriptor columnDescriptor = columnIO.getColumnDescriptor();
+            if (!pagePredicateColumns.contains(columnDescriptor)) {
+                continue;
+            }
+            PrimitiveColumnReader columnReader = columnReaders[columnIO.getId()];
+            initializePageReader(columnReader, columnDescriptor);
+
+            RowRanges.Builder columnRowRanges = RowRanges.builder();
+            long pageStart = 0;
+            for (DataPage page : columnReader.getPageReader().getRemainingPages()) {
+                long pageEnd = pageStart + page.getValueCount();
+                Statistics<?> statistics = getStatistics(page);
+                if (statistics == null || pagePredicate.matches(page.getValueCount(), ImmutableMap.of(columnDescriptor, statistics), dataSource.getId(), failOnCorruptedParquetStatistics)) {
+                    columnRowRanges.add(pageStart, pageEnd);
+                }
+                pageStart = pageEnd;
+            }
+            rowRanges = rowRanges.intersect(columnRowRanges.build());
+            if (rowRanges.isEmpty()) {
+                break;
+            }
         }
-        currentBlockMetadata = blocks.get(currentBlock);
-        currentBlock = currentBlock + 1;
+        return rowRanges;
+    }
 
-        nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
-        initializeColumnReaders();
-        return true;
+    private static Statistics<?> getStatistics(DataPage page)
+    {
+        if (page instanceof DataPageV1) {
+            return ((DataPageV1) page).getStatistics();
+        }
+        return ((DataPageV2) page).getStatistics();
     }
 
     private ColumnChunk readArray(GroupField field)
@@ -210,17 +317,7 @@ public class ParquetReader
         ColumnDescriptor columnDescriptor = field.getDescriptor();
         int fieldId = field.getId();
         PrimitiveColumnReader columnReader = columnReaders[fieldId];
-        if (columnReader.getPageReader() == null) {
-            validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
-            ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
-            long startingPosition = metadata.getStartingPos();
-            int totalSize = toIntExact(metadata.getTotalSize());
-            byte[] buffer = allocateBlock(totalSize);
-            dataSource.readFully(startingPosition, buffer);
-            ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
-            ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
-            columnReader.setPageReader(columnChunk.readAllPages());
-        }
+        initializePageReader(columnReader, columnDescriptor);
         ColumnChunk columnChunk = columnReader.readPrimitive(field);
 
         // update max size per primitive column chunk
@@ -234,6 +331,23 @@ public class ParquetReader
         return columnChunk;
     }
 
+    private void initializePageReader(PrimitiveColumnReader columnReader, ColumnDescriptor columnDescriptor)
+            throws IOException
+    {
+        if (columnReader.getPageReader() != null) {
+            return;
+        }
+        validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
+        ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
+        long startingPosition = metadata.getStartingPos();
+        int totalSize = toIntExact(metadata.getTotalSize());
+        byte[] buffer = allocateBlock(totalSize);
+        dataSource.readFully(startingPosition, buffer);
+        ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
+        ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
+        columnReader.setPageReader(columnChunk.readAllPages());
+    }
+
     private byte[] allocateBlock(int length)
     {
         byte[] buffer = new byte[length];
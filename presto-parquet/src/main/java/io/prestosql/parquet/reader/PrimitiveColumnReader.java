@@ -152,6 +152,15 @@ public abstract class PrimitiveColumnReader
         nextBatchSize = batchSize;
     }
 
+    /**
+     * Skips {@code rowCount} rows after the rows of the pending batch, which are skipped as well.
+     */
+    public void skipRows(int rowCount)
+    {
+        readOffset = readOffset + nextBatchSize + rowCount;
+        nextBatchSize = 0;
+    }
+
     public ColumnDescriptor getDescriptor()
     {
         return columnDescriptor;
@@ -228,6 +237,13 @@ public abstract class PrimitiveColumnReader
         }
         int valuePosition = 0;
         while (valuePosition < readOffset) {
+            if (columnDescriptor.getMaxRepetitionLevel() == 0) {
+                // every value of a flat column is a row, so pages that are skipped entirely need not be decoded
+                valuePosition += skipWholePages(readOffset - valuePosition);
+                if (valuePosition == readOffset) {
+                    break;
+                }
+            }
             if (page == null) {
                 readNextPage();
             }
@@ -238,6 +254,29 @@ public abstract class PrimitiveColumnReader
         checkArgument(valuePosition == readOffset, "valuePosition %s must be equal to readOffset %s", valuePosition, readOffset);
     }
 
+    private int skipWholePages(int valuesToSkip)
+    {
+        int skipped = 0;
+        if (page != null) {
+            if (remainingValueCountInPage > valuesToSkip) {
+                return 0;
+            }
+            skipped = remainingValueCountInPage;
+            updateValueCounts(remainingValueCountInPage);
+            // the levels of the current value belong to the dropped page
+            definitionLevel = EMPTY_LEVEL_VALUE;
+            repetitionLevel = EMPTY_LEVEL_VALUE;
+        }
+        int pageValueCount = pageReader.getNextPageValueCount();
+        while (pageValueCount >= 0 && pageValueCount <= valuesToSkip - skipped) {
+            pageReader.skipNextPage();
+            skipped += pageValueCount;
+            currentValueCount += pageValueCount;
+            pageValueCount = pageReader.getNextPageValueCount();
+        }
+        return skipped;
+    }
+
     private boolean readNextPage()
     {
         verify(page == null, "readNextPage has to be called when page is null");
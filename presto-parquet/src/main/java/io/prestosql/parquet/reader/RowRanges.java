@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Sorted, disjoint ranges of rows within a row group that may contain rows matching a predicate.
+ * Each range is half open: {@code [start, end)}.
+ */
+public final class RowRanges
+{
+    private final long[] starts;
+    private final long[] ends;
+
+    private RowRanges(long[] starts, long[] ends)
+    {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static RowRanges all(long rowCount)
+    {
+        if (rowCount == 0) {
+            return new RowRanges(new long[0], new long[0]);
+        }
+        return new RowRanges(new long[] {0}, new long[] {rowCount});
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public boolean isEmpty()
+    {
+        return starts.length == 0;
+    }
+
+    public int getRangeCount()
+    {
+        return starts.length;
+    }
+
+    public long getRowCount()
+    {
+        long rowCount = 0;
+        for (int i = 0; i < starts.length; i++) {
+            rowCount += ends[i] - starts[i];
+        }
+        return rowCount;
+    }
+
+    /**
+     * Returns the first row at or after {@code row} that is in one of the ranges, or -1 if there is none.
+     */
+    public long getNextMatchingRow(long row)
+    {
+        int index = findRange(row);
+        if (index == starts.length) {
+            return -1;
+        }
+        return max(row, starts[index]);
+    }
+
+    /**
+     * Returns the end of the range containing {@code row}.
+     */
+    public long getRangeEnd(long row)
+    {
+        int index = findRange(row);
+        checkArgument(index < starts.length && starts[index] <= row, "row %s is not in a range", row);
+        return ends[index];
+    }
+
+    public RowRanges intersect(RowRanges other)
+    {
+        Builder builder = builder();
+        int left = 0;
+        int right = 0;
+        while (left < starts.length && right < other.starts.length) {
+            long start = max(starts[left], other.starts[right]);
+            long end = min(ends[left], other.ends[right]);
+            if (start < end) {
+                builder.add(start, end);
+            }
+            if (ends[left] < other.ends[right]) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    // index of the first range whose end is after row
+    private int findRange(long row)
+    {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= row) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString()
+    {
+        List<String> ranges = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            ranges.add("[" + starts[i] + ", " + ends[i] + ")");
+        }
+        return toStringHelper(this)
+                .add("ranges", ranges)
+                .toString();
+    }
+
+    public static class Builder
+    {
+        private final LongList starts = new LongArrayList();
+        private final LongList ends = new LongArrayList();
+
+        private Builder() {}
+
+        /**
+         * Adds the range {@code [start, end)}; ranges must be added in ascending order.
+         * Adjacent and overlapping ranges are merged.
+         */
+        public Builder add(long start, long end)
+        {
+            checkArgument(start <= end, "start %s is after end %s", start, end);
+            if (start == end) {
+                return this;
+            }
+            int last = starts.size() - 1;
+            if (last >= 0) {
+                checkArgument(start >= starts.getLong(last), "ranges must be added in ascending order");
+                if (start <= ends.getLong(last)) {
+                    ends.set(last, max(end, ends.getLong(last)));
+                    return this;
+                }
+            }
+            starts.add(start);
+            ends.add(end);
+            return this;
+        }
+
+        public RowRanges build()
+        {
+            return new RowRanges(starts.toLongArray(), ends.toLongArray());
+        }
+    }
+}
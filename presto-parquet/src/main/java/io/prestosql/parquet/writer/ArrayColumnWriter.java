@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.ColumnarArray;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarArray.toColumnarArray;
+import static java.util.Objects.requireNonNull;
+
+public class ArrayColumnWriter
+        implements ColumnWriter
+{
+    private final ColumnWriter elementWriter;
+    private final int definitionLevel;
+    private final int repetitionLevel;
+
+    /**
+     * @param definitionLevel the definition level of a non-null array
+     * @param repetitionLevel the repetition level of the repeated group holding the elements
+     */
+    public ArrayColumnWriter(ColumnWriter elementWriter, int definitionLevel, int repetitionLevel)
+    {
+        this.elementWriter = requireNonNull(elementWriter, "elementWriter is null");
+        this.definitionLevel = definitionLevel;
+        this.repetitionLevel = repetitionLevel;
+    }
+
+    @Override
+    public void writeBlock(Block block, ColumnEntries entries)
+            throws IOException
+    {
+        ColumnarArray columnarArray = toColumnarArray(block);
+
+        int[] offsets = new int[columnarArray.getPositionCount()];
+        int elementCount = 0;
+        for (int position = 0; position < columnarArray.getPositionCount(); position++) {
+            offsets[position] = elementCount;
+            elementCount += columnarArray.getLength(position);
+        }
+
+        ColumnEntries elementEntries = new ColumnEntries(entries.size() + elementCount);
+        for (int i = 0; i < entries.size(); i++) {
+            int position = entries.getPosition(i);
+            int parentRepetitionLevel = entries.getRepetitionLevel(i);
+            if (position == NO_POSITION || columnarArray.isNull(position)) {
+                elementEntries.add(NO_POSITION, entries.getDefinitionLevel(i), parentRepetitionLevel);
+                continue;
+            }
+            int length = columnarArray.getLength(position);
+            if (length == 0) {
+                elementEntries.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+            for (int element = 0; element < length; element++) {
+                elementEntries.add(offsets[position] + element, definitionLevel + 1, element == 0 ? parentRepetitionLevel : repetitionLevel);
+            }
+        }
+
+        elementWriter.writeBlock(columnarArray.getElementsBlock(), elementEntries);
+    }
+
+    @Override
+    public List<PrimitiveColumnWriter> getPrimitiveColumnWriters()
+    {
+        return elementWriter.getPrimitiveColumnWriters();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.Type;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The compressed pages of one column in a row group, kept in memory until the row group is written.
+ */
+public class BufferedColumnChunk
+{
+    private final ColumnDescriptor columnDescriptor;
+    private final CompressionCodecName compressionCodec;
+    private final Optional<Slice> dictionaryPage;
+    private final Slice dataPages;
+    private final long valueCount;
+    private final long uncompressedSize;
+    private final List<Encoding> encodings;
+    private final Statistics<?> statistics;
+
+    public BufferedColumnChunk(
+            ColumnDescriptor columnDescriptor,
+            CompressionCodecName compressionCodec,
+            Optional<Slice> dictionaryPage,
+            Slice dataPages,
+            long valueCount,
+            long uncompressedSize,
+            Set<Encoding> encodings,
+            Statistics<?> statistics)
+    {
+        this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.dictionaryPage = requireNonNull(dictionaryPage, "dictionaryPage is null");
+        this.dataPages = requireNonNull(dataPages, "dataPages is null");
+        this.valueCount = valueCount;
+        this.uncompressedSize = uncompressedSize;
+        this.encodings = ImmutableList.copyOf(requireNonNull(encodings, "encodings is null"));
+        this.statistics = requireNonNull(statistics, "statistics is null");
+    }
+
+    public Optional<Slice> getDictionaryPage()
+    {
+        return dictionaryPage;
+    }
+
+    public Slice getDataPages()
+    {
+        return dataPages;
+    }
+
+    public long getCompressedSize()
+    {
+        return dictionaryPage.map(Slice::length).orElse(0) + dataPages.length();
+    }
+
+    public long getUncompressedSize()
+    {
+        return uncompressedSize;
+    }
+
+    public Statistics<?> getStatistics()
+    {
+        return statistics;
+    }
+
+    /**
+     * Returns the metadata of this chunk once it is written at {@code offset} of the file.
+     */
+    public ColumnMetaData getColumnMetaData(long offset)
+    {
+        long dataPageOffset = offset + dictionaryPage.map(Slice::length).orElse(0);
+        ColumnMetaData metaData = new ColumnMetaData(
+                getFormatType(columnDescriptor),
+                encodings.stream()
+                        .map(PrimitiveColumnWriter::toFormatEncoding)
+                        .collect(toImmutableList()),
+                ImmutableList.copyOf(columnDescriptor.getPath()),
+                compressionCodec.getParquetCompressionCodec(),
+                valueCount,
+                uncompressedSize,
+                getCompressedSize(),
+                dataPageOffset);
+        if (dictionaryPage.isPresent()) {
+            metaData.setDictionary_page_offset(offset);
+        }
+        metaData.setStatistics(ParquetMetadataConverter.toParquetStatistics(statistics));
+        return metaData;
+    }
+
+    private static Type getFormatType(ColumnDescriptor columnDescriptor)
+    {
+        switch (columnDescriptor.getType()) {
+            case BINARY:
+                return Type.BYTE_ARRAY;
+            case INT64:
+                return Type.INT64;
+            case INT32:
+                return Type.INT32;
+            case BOOLEAN:
+                return Type.BOOLEAN;
+            case FLOAT:
+                return Type.FLOAT;
+            case DOUBLE:
+                return Type.DOUBLE;
+            case INT96:
+                return Type.INT96;
+            case FIXED_LEN_BYTE_ARRAY:
+                return Type.FIXED_LEN_BYTE_ARRAY;
+            default:
+                throw new IllegalArgumentException("Unknown type " + columnDescriptor.getType());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * The slots of a column at one level of the schema. Each slot either points at a position
+ * of the block of that level, or carries the levels of a null or empty ancestor.
+ */
+final class ColumnEntries
+{
+    static final int NO_POSITION = -1;
+
+    private int[] positions;
+    private int[] definitionLevels;
+    private int[] repetitionLevels;
+    private int size;
+
+    ColumnEntries(int expectedSize)
+    {
+        int capacity = Math.max(expectedSize, 16);
+        positions = new int[capacity];
+        definitionLevels = new int[capacity];
+        repetitionLevels = new int[capacity];
+    }
+
+    static ColumnEntries forPositions(int positionCount)
+    {
+        ColumnEntries entries = new ColumnEntries(positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            entries.add(position, 0, 0);
+        }
+        return entries;
+    }
+
+    void add(int position, int definitionLevel, int repetitionLevel)
+    {
+        if (size == positions.length) {
+            int capacity = size * 2;
+            positions = copyOf(positions, capacity);
+            definitionLevels = copyOf(definitionLevels, capacity);
+            repetitionLevels = copyOf(repetitionLevels, capacity);
+        }
+        positions[size] = position;
+        definitionLevels[size] = definitionLevel;
+        repetitionLevels[size] = repetitionLevel;
+        size++;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    int getPosition(int index)
+    {
+        return positions[index];
+    }
+
+    int getDefinitionLevel(int index)
+    {
+        return definitionLevels[index];
+    }
+
+    int getRepetitionLevel(int index)
+    {
+        return repetitionLevels[index];
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.ColumnarMap;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarMap.toColumnarMap;
+import static java.util.Objects.requireNonNull;
+
+public class MapColumnWriter
+        implements ColumnWriter
+{
+    private final ColumnWriter keyWriter;
+    private final ColumnWriter valueWriter;
+    private final int definitionLevel;
+    private final int repetitionLevel;
+
+    /**
+     * @param definitionLevel the definition level of a non-null map
+     * @param repetitionLevel the repetition level of the repeated group holding the entries
+     */
+    public MapColumnWriter(ColumnWriter keyWriter, ColumnWriter valueWriter, int definitionLevel, int repetitionLevel)
+    {
+        this.keyWriter = requireNonNull(keyWriter, "keyWriter is null");
+        this.valueWriter = requireNonNull(valueWriter, "valueWriter is null");
+        this.definitionLevel = definitionLevel;
+        this.repetitionLevel = repetitionLevel;
+    }
+
+    @Override
+    public void writeBlock(Block block, ColumnEntries entries)
+            throws IOException
+    {
+        ColumnarMap columnarMap = toColumnarMap(block);
+
+        int[] offsets = new int[columnarMap.getPositionCount()];
+        int entryCount = 0;
+        for (int position = 0; position < columnarMap.getPositionCount(); position++) {
+            offsets[position] = entryCount;
+            entryCount += columnarMap.getEntryCount(position);
+        }
+
+        ColumnEntries keyValueEntries = new ColumnEntries(entries.size() + entryCount);
+        for (int i = 0; i < entries.size(); i++) {
+            int position = entries.getPosition(i);
+            int parentRepetitionLevel = entries.getRepetitionLevel(i);
+            if (position == NO_POSITION || columnarMap.isNull(position)) {
+                keyValueEntries.add(NO_POSITION, entries.getDefinitionLevel(i), parentRepetitionLevel);
+                continue;
+            }
+            int length = columnarMap.getEntryCount(position);
+            if (length == 0) {
+                keyValueEntries.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+            for (int entry = 0; entry < length; entry++) {
+                keyValueEntries.add(offsets[position] + entry, definitionLevel + 1, entry == 0 ? parentRepetitionLevel : repetitionLevel);
+            }
+        }
+
+        keyWriter.writeBlock(columnarMap.getKeysBlock(), keyValueEntries);
+        valueWriter.writeBlock(columnarMap.getValuesBlock(), keyValueEntries);
+    }
+
+    @Override
+    public List<PrimitiveColumnWriter> getPrimitiveColumnWriters()
+    {
+        return ImmutableList.<PrimitiveColumnWriter>builder()
+                .addAll(keyWriter.getPrimitiveColumnWriters())
+                .addAll(valueWriter.getPrimitiveColumnWriters())
+                .build();
+    }
+}
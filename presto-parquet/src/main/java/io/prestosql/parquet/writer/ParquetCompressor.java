@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.util.Objects.requireNonNull;
+
+public final class ParquetCompressor
+{
+    private ParquetCompressor() {}
+
+    public static boolean isCompressionSupported(CompressionCodecName codec)
+    {
+        switch (requireNonNull(codec, "codec is null")) {
+            case UNCOMPRESSED:
+            case SNAPPY:
+            case GZIP:
+            case ZSTD:
+                return true;
+            default:
+                // LZ4 and LZO use the Hadoop block framing, which is not implemented here
+                return false;
+        }
+    }
+
+    public static Slice compress(CompressionCodecName codec, byte[] input)
+            throws IOException
+    {
+        switch (codec) {
+            case UNCOMPRESSED:
+                return wrappedBuffer(input);
+            case SNAPPY:
+                return compress(new SnappyCompressor(), input);
+            case ZSTD:
+                return compress(new ZstdCompressor(), input);
+            case GZIP:
+                return compressGzip(input);
+            default:
+                throw new IllegalArgumentException("Unsupported Parquet compression codec: " + codec);
+        }
+    }
+
+    private static Slice compress(Compressor compressor, byte[] input)
+    {
+        byte[] output = new byte[compressor.maxCompressedLength(input.length)];
+        int compressedSize = compressor.compress(input, 0, input.length, output, 0, output.length);
+        return wrappedBuffer(output, 0, compressedSize);
+    }
+
+    private static Slice compressGzip(byte[] input)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(input.length);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(input);
+        }
+        return output.slice();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.CharType;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.MapType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type.Repetition;
+import org.apache.parquet.schema.Types;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.OriginalType.DECIMAL;
+import static org.apache.parquet.schema.OriginalType.LIST;
+import static org.apache.parquet.schema.OriginalType.MAP;
+import static org.apache.parquet.schema.OriginalType.MAP_KEY_VALUE;
+import static org.apache.parquet.schema.OriginalType.UTF8;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT96;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+import static org.apache.parquet.schema.Type.Repetition.REPEATED;
+import static org.apache.parquet.schema.Type.Repetition.REQUIRED;
+
+/**
+ * Converts Presto types to the Parquet schema written by Hive, so the files stay readable by Hive.
+ */
+public final class ParquetSchemaConverter
+{
+    private static final String MESSAGE_NAME = "hive_schema";
+
+    private ParquetSchemaConverter() {}
+
+    public static MessageType convert(List<String> columnNames, List<Type> types)
+    {
+        requireNonNull(columnNames, "columnNames is null");
+        requireNonNull(types, "types is null");
+        checkArgument(columnNames.size() == types.size(), "columnNames and types size mismatch");
+
+        ImmutableList.Builder<org.apache.parquet.schema.Type> fields = ImmutableList.builder();
+        for (int i = 0; i < types.size(); i++) {
+            fields.add(convert(types.get(i), columnNames.get(i), OPTIONAL));
+        }
+        return new MessageType(MESSAGE_NAME, fields.build());
+    }
+
+    private static org.apache.parquet.schema.Type convert(Type type, String name, Repetition repetition)
+    {
+        if (type instanceof RowType) {
+            List<RowType.Field> fields = ((RowType) type).getFields();
+            ImmutableList.Builder<org.apache.parquet.schema.Type> fieldTypes = ImmutableList.builder();
+            for (int i = 0; i < fields.size(); i++) {
+                RowType.Field field = fields.get(i);
+                fieldTypes.add(convert(field.getType(), field.getName().orElse("field" + i), OPTIONAL));
+            }
+            return new GroupType(repetition, name, fieldTypes.build());
+        }
+        if (type instanceof ArrayType) {
+            GroupType bag = new GroupType(REPEATED, "bag", convert(((ArrayType) type).getElementType(), "array_element", OPTIONAL));
+            return new GroupType(repetition, name, LIST, bag);
+        }
+        if (type instanceof MapType) {
+            MapType mapType = (MapType) type;
+            GroupType keyValue = new GroupType(
+                    REPEATED,
+                    "map",
+                    MAP_KEY_VALUE,
+                    convert(mapType.getKeyType(), "key", REQUIRED),
+                    convert(mapType.getValueType(), "value", OPTIONAL));
+            return new GroupType(repetition, name, MAP, keyValue);
+        }
+        return convertPrimitive(type, name, repetition);
+    }
+
+    private static org.apache.parquet.schema.Type convertPrimitive(Type type, String name, Repetition repetition)
+    {
+        if (BOOLEAN.equals(type)) {
+            return Types.primitive(PrimitiveTypeName.BOOLEAN, repetition).named(name);
+        }
+        if (TINYINT.equals(type)) {
+            return Types.primitive(INT32, repetition).as(OriginalType.INT_8).named(name);
+        }
+        if (SMALLINT.equals(type)) {
+            return Types.primitive(INT32, repetition).as(OriginalType.INT_16).named(name);
+        }
+        if (INTEGER.equals(type)) {
+            return Types.primitive(INT32, repetition).named(name);
+        }
+        if (BIGINT.equals(type)) {
+            return Types.primitive(INT64, repetition).named(name);
+        }
+        if (REAL.equals(type)) {
+            return Types.primitive(PrimitiveTypeName.FLOAT, repetition).named(name);
+        }
+        if (DOUBLE.equals(type)) {
+            return Types.primitive(PrimitiveTypeName.DOUBLE, repetition).named(name);
+        }
+        if (DATE.equals(type)) {
+            return Types.primitive(INT32, repetition).as(OriginalType.DATE).named(name);
+        }
+        if (TIMESTAMP.equals(type)) {
+            return Types.primitive(INT96, repetition).named(name);
+        }
+        if (type instanceof DecimalType) {
+            DecimalType decimalType = (DecimalType) type;
+            return Types.primitive(FIXED_LEN_BYTE_ARRAY, repetition)
+                    .length(getDecimalByteLength(decimalType.getPrecision()))
+                    .as(DECIMAL)
+                    .precision(decimalType.getPrecision())
+                    .scale(decimalType.getScale())
+                    .named(name);
+        }
+        if (type instanceof VarcharType || type instanceof CharType) {
+            return Types.primitive(BINARY, repetition).as(UTF8).named(name);
+        }
+        if (VARBINARY.equals(type)) {
+            return Types.primitive(BINARY, repetition).named(name);
+        }
+        throw new PrestoException(NOT_SUPPORTED, "Unsupported type for Parquet writer: " + type);
+    }
+
+    /**
+     * Returns the smallest number of bytes holding any unscaled value of the precision as a signed big endian integer.
+     */
+    static int getDecimalByteLength(int precision)
+    {
+        int length = 1;
+        while (Math.pow(2, 8 * length - 1) < Math.pow(10, precision)) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.type.Type;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.KeyValue;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.parquet.writer.ColumnEntries.forPositions;
+import static io.prestosql.parquet.writer.ParquetCompressor.isCompressionSupported;
+import static io.prestosql.parquet.writer.ParquetWriters.createColumnWriters;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.column.ParquetProperties.WriterVersion.PARQUET_1_0;
+import static org.apache.parquet.format.Util.writeFileMetaData;
+
+/**
+ * Writes pages of Presto blocks to a Parquet file, column by column, without going through the
+ * Hadoop record writer and Hive SerDe objects.
+ */
+public class ParquetWriter
+        implements Closeable
+{
+    private static final Slice MAGIC = utf8Slice("PAR1");
+    private static final int PARQUET_FORMAT_VERSION = 1;
+    private static final String CREATED_BY = "presto";
+
+    private final OutputStreamSliceOutput output;
+    private final MessageType messageType;
+    private final List<ColumnWriter> columnWriters;
+    private final List<PrimitiveColumnWriter> primitiveColumnWriters;
+    private final long maxRowGroupSize;
+    private final int chunkMaxLogicalBytes;
+    private final Map<String, String> metadata;
+
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private long rowGroupRowCount;
+    private long totalRowCount;
+    private long bufferedBytes;
+    private boolean closed;
+
+    public ParquetWriter(
+            OutputStream outputStream,
+            List<String> columnNames,
+            List<Type> types,
+            ParquetWriterOptions options,
+            CompressionCodecName compressionCodec,
+            Map<String, String> metadata)
+    {
+        requireNonNull(outputStream, "outputStream is null");
+        requireNonNull(options, "options is null");
+        requireNonNull(compressionCodec, "compressionCodec is null");
+        checkArgument(isCompressionSupported(compressionCodec), "Unsupported Parquet compression codec: %s", compressionCodec);
+
+        this.output = new OutputStreamSliceOutput(outputStream);
+        this.messageType = ParquetSchemaConverter.convert(columnNames, types);
+
+        ParquetProperties parquetProperties = ParquetProperties.builder()
+                .withWriterVersion(PARQUET_1_0)
+                .withPageSize(toIntExact(options.getMaxPageSize().toBytes()))
+                .withDictionaryPageSize(toIntExact(options.getMaxDictionaryPageSize().toBytes()))
+                .withDictionaryEncoding(options.isDictionaryEnabled())
+                .build();
+        this.columnWriters = createColumnWriters(messageType, types, parquetProperties, compressionCodec);
+        this.primitiveColumnWriters = columnWriters.stream()
+                .flatMap(writer -> writer.getPrimitiveColumnWriters().stream())
+                .collect(toImmutableList());
+        this.maxRowGroupSize = options.getMaxRowGroupSize().toBytes();
+        // keep chunks below the page size so that pages are cut close to the threshold
+        this.chunkMaxLogicalBytes = max(1, toIntExact(options.getMaxPageSize().toBytes() / 2));
+        this.metadata = ImmutableMap.copyOf(requireNonNull(metadata, "metadata is null"));
+    }
+
+    /**
+     * Number of bytes already flushed to the output stream.
+     */
+    public long getWrittenBytes()
+    {
+        return output.longSize();
+    }
+
+    /**
+     * Number of pending bytes not yet flushed.
+     */
+    public long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    public long getRetainedBytes()
+    {
+        return output.getRetainedSize() +
+                primitiveColumnWriters.stream()
+                        .mapToLong(PrimitiveColumnWriter::getRetainedBytes)
+                        .sum();
+    }
+
+    public void write(Page page)
+            throws IOException
+    {
+        requireNonNull(page, "page is null");
+        checkState(!closed, "writer is closed");
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+
+        checkArgument(page.getChannelCount() == columnWriters.size());
+
+        while (page != null) {
+            int chunkRows = page.getPositionCount();
+            Page chunk = page;
+
+            // avoid chunk with huge logical size
+            while (chunkRows > 1 && chunk.getLogicalSizeInBytes() > chunkMaxLogicalBytes) {
+                chunkRows /= 2;
+                chunk = chunk.getRegion(0, chunkRows);
+            }
+
+            if (chunkRows < page.getPositionCount()) {
+                page = page.getRegion(chunkRows, page.getPositionCount() - chunkRows);
+            }
+            else {
+                page = null;
+            }
+
+            writeChunk(chunk);
+        }
+    }
+
+    private void writeChunk(Page chunk)
+            throws IOException
+    {
+        ColumnEntries entries = forPositions(chunk.getPositionCount());
+        for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+            columnWriters.get(channel).writeBlock(chunk.getBlock(channel), entries);
+        }
+        rowGroupRowCount += chunk.getPositionCount();
+
+        bufferedBytes = primitiveColumnWriters.stream()
+                .mapToLong(PrimitiveColumnWriter::getBufferedBytes)
+                .sum();
+        if (bufferedBytes >= maxRowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    private void flushRowGroup()
+            throws IOException
+    {
+        if (output.longSize() == 0) {
+            output.writeBytes(MAGIC);
+        }
+
+        ImmutableList.Builder<ColumnChunk> columnChunks = ImmutableList.builder();
+        long totalByteSize = 0;
+        for (PrimitiveColumnWriter writer : primitiveColumnWriters) {
+            BufferedColumnChunk bufferedChunk = writer.finishColumnChunk();
+            long offset = output.longSize();
+            bufferedChunk.getDictionaryPage().ifPresent(output::writeBytes);
+            output.writeBytes(bufferedChunk.getDataPages());
+
+            ColumnChunk columnChunk = new ColumnChunk(offset);
+            columnChunk.setMeta_data(bufferedChunk.getColumnMetaData(offset));
+            columnChunks.add(columnChunk);
+            totalByteSize += bufferedChunk.getUncompressedSize();
+        }
+
+        rowGroups.add(new RowGroup(columnChunks.build(), totalByteSize, rowGroupRowCount));
+        totalRowCount += rowGroupRowCount;
+        rowGroupRowCount = 0;
+        bufferedBytes = 0;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (OutputStreamSliceOutput output = this.output) {
+            if (rowGroupRowCount > 0) {
+                flushRowGroup();
+            }
+            if (output.longSize() == 0) {
+                output.writeBytes(MAGIC);
+            }
+
+            FileMetaData fileMetaData = new FileMetaData(
+                    PARQUET_FORMAT_VERSION,
+                    new ParquetMetadataConverter().toParquetSchema(messageType),
+                    totalRowCount,
+                    ImmutableList.copyOf(rowGroups));
+            fileMetaData.setCreated_by(CREATED_BY);
+            fileMetaData.setKey_value_metadata(metadata.entrySet().stream()
+                    .map(entry -> {
+                        KeyValue keyValue = new KeyValue(entry.getKey());
+                        keyValue.setValue(entry.getValue());
+                        return keyValue;
+                    })
+                    .collect(toImmutableList()));
+
+            long metadataStart = output.longSize();
+            writeFileMetaData(fileMetaData, output);
+            output.writeInt(toIntExact(output.longSize() - metadataStart));
+            output.writeBytes(MAGIC);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return messageType.toString();
+    }
+}
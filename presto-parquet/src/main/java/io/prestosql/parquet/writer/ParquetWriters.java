@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.MapType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+final class ParquetWriters
+{
+    private ParquetWriters() {}
+
+    static List<ColumnWriter> createColumnWriters(MessageType messageType, List<Type> types, ParquetProperties parquetProperties, CompressionCodecName compressionCodec)
+    {
+        checkArgument(messageType.getFieldCount() == types.size(), "schema and types size mismatch");
+        ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
+        for (int i = 0; i < types.size(); i++) {
+            columnWriters.add(createColumnWriter(
+                    types.get(i),
+                    messageType.getType(i),
+                    ImmutableList.of(),
+                    messageType,
+                    parquetProperties,
+                    compressionCodec));
+        }
+        return columnWriters.build();
+    }
+
+    private static ColumnWriter createColumnWriter(
+            Type type,
+            org.apache.parquet.schema.Type parquetType,
+            List<String> parentPath,
+            MessageType messageType,
+            ParquetProperties parquetProperties,
+            CompressionCodecName compressionCodec)
+    {
+        List<String> path = append(parentPath, parquetType.getName());
+
+        if (type instanceof RowType) {
+            GroupType groupType = parquetType.asGroupType();
+            List<Type> fieldTypes = type.getTypeParameters();
+            ImmutableList.Builder<ColumnWriter> fieldWriters = ImmutableList.builder();
+            for (int i = 0; i < fieldTypes.size(); i++) {
+                fieldWriters.add(createColumnWriter(fieldTypes.get(i), groupType.getType(i), path, messageType, parquetProperties, compressionCodec));
+            }
+            return new StructColumnWriter(fieldWriters.build(), getDefinitionLevel(messageType, path));
+        }
+        if (type instanceof ArrayType) {
+            GroupType repeatedType = parquetType.asGroupType().getType(0).asGroupType();
+            List<String> repeatedPath = append(path, repeatedType.getName());
+            ColumnWriter elementWriter = createColumnWriter(
+                    ((ArrayType) type).getElementType(),
+                    repeatedType.getType(0),
+                    repeatedPath,
+                    messageType,
+                    parquetProperties,
+                    compressionCodec);
+            return new ArrayColumnWriter(elementWriter, getDefinitionLevel(messageType, path), getRepetitionLevel(messageType, repeatedPath));
+        }
+        if (type instanceof MapType) {
+            MapType mapType = (MapType) type;
+            GroupType repeatedType = parquetType.asGroupType().getType(0).asGroupType();
+            List<String> repeatedPath = append(path, repeatedType.getName());
+            ColumnWriter keyWriter = createColumnWriter(mapType.getKeyType(), repeatedType.getType(0), repeatedPath, messageType, parquetProperties, compressionCodec);
+            ColumnWriter valueWriter = createColumnWriter(mapType.getValueType(), repeatedType.getType(1), repeatedPath, messageType, parquetProperties, compressionCodec);
+            return new MapColumnWriter(keyWriter, valueWriter, getDefinitionLevel(messageType, path), getRepetitionLevel(messageType, repeatedPath));
+        }
+
+        return new PrimitiveColumnWriter(
+                messageType.getColumnDescription(path.toArray(new String[0])),
+                ValueWriters.createValueWriter(type, parquetType.asPrimitiveType()),
+                parquetProperties,
+                compressionCodec);
+    }
+
+    private static int getDefinitionLevel(MessageType messageType, List<String> path)
+    {
+        return messageType.getMaxDefinitionLevel(path.toArray(new String[0]));
+    }
+
+    private static int getRepetitionLevel(MessageType messageType, List<String> path)
+    {
+        return messageType.getMaxRepetitionLevel(path.toArray(new String[0]));
+    }
+
+    private static List<String> append(List<String> path, String name)
+    {
+        return ImmutableList.<String>builder()
+                .addAll(path)
+                .add(name)
+                .build();
+    }
+}
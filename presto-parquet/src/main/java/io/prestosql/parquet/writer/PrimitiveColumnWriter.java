@@ -0,0 +1,232 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.format.DataPageHeader;
+import org.apache.parquet.format.DictionaryPageHeader;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.copyOf;
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.parquet.writer.ParquetCompressor.compress;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.format.Util.writePageHeader;
+
+public class PrimitiveColumnWriter
+        implements ColumnWriter
+{
+    private final ColumnDescriptor columnDescriptor;
+    private final ValueWriter valueWriter;
+    private final CompressionCodecName compressionCodec;
+    private final int maxPageSize;
+
+    private final ValuesWriter definitionLevelWriter;
+    private final ValuesWriter repetitionLevelWriter;
+    private final ValuesWriter valuesWriter;
+
+    // pages of the current column chunk, each preceded by its header
+    private final DynamicSliceOutput dataPages = new DynamicSliceOutput(1024);
+    private final Set<Encoding> encodings = new LinkedHashSet<>();
+
+    private Statistics<?> statistics;
+    // statistics of the current page, which are written to its header so that readers can skip the page
+    private Statistics<?> pageStatistics;
+    private int pageValueCount;
+    private long chunkValueCount;
+    private long chunkUncompressedSize;
+
+    public PrimitiveColumnWriter(
+            ColumnDescriptor columnDescriptor,
+            ValueWriter valueWriter,
+            ParquetProperties parquetProperties,
+            CompressionCodecName compressionCodec)
+    {
+        this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
+        this.valueWriter = requireNonNull(valueWriter, "valueWriter is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.maxPageSize = parquetProperties.getPageSizeThreshold();
+        this.definitionLevelWriter = parquetProperties.newDefinitionLevelWriter(columnDescriptor);
+        this.repetitionLevelWriter = parquetProperties.newRepetitionLevelWriter(columnDescriptor);
+        this.valuesWriter = parquetProperties.newValuesWriter(columnDescriptor);
+        this.statistics = Statistics.getStatsBasedOnType(columnDescriptor.getType());
+        this.pageStatistics = Statistics.getStatsBasedOnType(columnDescriptor.getType());
+    }
+
+    public ColumnDescriptor getColumnDescriptor()
+    {
+        return columnDescriptor;
+    }
+
+    @Override
+    public void writeBlock(Block block, ColumnEntries entries)
+            throws IOException
+    {
+        int maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+        for (int i = 0; i < entries.size(); i++) {
+            int position = entries.getPosition(i);
+            repetitionLevelWriter.writeInteger(entries.getRepetitionLevel(i));
+            if (position == NO_POSITION || block.isNull(position)) {
+                definitionLevelWriter.writeInteger(entries.getDefinitionLevel(i));
+                pageStatistics.incrementNumNulls();
+            }
+            else {
+                definitionLevelWriter.writeInteger(maxDefinitionLevel);
+                valueWriter.write(block, position, valuesWriter, pageStatistics);
+            }
+        }
+        pageValueCount += entries.size();
+
+        if (getCurrentPageBufferedBytes() >= maxPageSize) {
+            flushDataPage();
+        }
+    }
+
+    @Override
+    public List<PrimitiveColumnWriter> getPrimitiveColumnWriters()
+    {
+        return ImmutableList.of(this);
+    }
+
+    public long getBufferedBytes()
+    {
+        return dataPages.size() + getCurrentPageBufferedBytes();
+    }
+
+    public long getRetainedBytes()
+    {
+        return dataPages.getRetainedSize() +
+                definitionLevelWriter.getAllocatedSize() +
+                repetitionLevelWriter.getAllocatedSize() +
+                valuesWriter.getAllocatedSize();
+    }
+
+    /**
+     * Finishes the column chunk of the current row group and resets the writer for the next one.
+     */
+    public BufferedColumnChunk finishColumnChunk()
+            throws IOException
+    {
+        if (pageValueCount > 0) {
+            flushDataPage();
+        }
+
+        Optional<Slice> dictionaryPage = Optional.empty();
+        DictionaryPage dictionary = valuesWriter.toDictPageAndClose();
+        if (dictionary != null) {
+            byte[] uncompressed = dictionary.getBytes().toByteArray();
+            Slice compressed = compress(compressionCodec, uncompressed);
+
+            PageHeader header = new PageHeader(PageType.DICTIONARY_PAGE, uncompressed.length, compressed.length());
+            header.setDictionary_page_header(new DictionaryPageHeader(dictionary.getDictionarySize(), toFormatEncoding(dictionary.getEncoding())));
+
+            DynamicSliceOutput output = new DynamicSliceOutput(compressed.length() + 64);
+            writePageHeader(header, output);
+            chunkUncompressedSize += output.size() + uncompressed.length;
+            output.writeBytes(compressed);
+            dictionaryPage = Optional.of(output.slice());
+            encodings.add(dictionary.getEncoding());
+        }
+        valuesWriter.resetDictionary();
+
+        BufferedColumnChunk columnChunk = new BufferedColumnChunk(
+                columnDescriptor,
+                compressionCodec,
+                dictionaryPage,
+                copyOf(dataPages.slice()),
+                chunkValueCount,
+                chunkUncompressedSize,
+                encodings,
+                statistics);
+
+        dataPages.reset();
+        encodings.clear();
+        statistics = Statistics.getStatsBasedOnType(columnDescriptor.getType());
+        chunkValueCount = 0;
+        chunkUncompressedSize = 0;
+        return columnChunk;
+    }
+
+    private long getCurrentPageBufferedBytes()
+    {
+        return definitionLevelWriter.getBufferedSize() + repetitionLevelWriter.getBufferedSize() + valuesWriter.getBufferedSize();
+    }
+
+    private void flushDataPage()
+            throws IOException
+    {
+        byte[] uncompressed = BytesInput.concat(
+                repetitionLevelWriter.getBytes(),
+                definitionLevelWriter.getBytes(),
+                valuesWriter.getBytes())
+                .toByteArray();
+        Slice compressed = compress(compressionCodec, uncompressed);
+
+        DataPageHeader dataPageHeader = new DataPageHeader(
+                pageValueCount,
+                toFormatEncoding(valuesWriter.getEncoding()),
+                toFormatEncoding(definitionLevelWriter.getEncoding()),
+                toFormatEncoding(repetitionLevelWriter.getEncoding()));
+        dataPageHeader.setStatistics(ParquetMetadataConverter.toParquetStatistics(pageStatistics));
+        PageHeader header = new PageHeader(PageType.DATA_PAGE, uncompressed.length, compressed.length());
+        header.setData_page_header(dataPageHeader);
+
+        long headerStart = dataPages.size();
+        writePageHeader(header, dataPages);
+        chunkUncompressedSize += dataPages.size() - headerStart + uncompressed.length;
+        dataPages.writeBytes(compressed);
+
+        encodings.add(repetitionLevelWriter.getEncoding());
+        encodings.add(definitionLevelWriter.getEncoding());
+        encodings.add(valuesWriter.getEncoding());
+        chunkValueCount += pageValueCount;
+        pageValueCount = 0;
+        statistics.mergeStatistics(pageStatistics);
+        pageStatistics = Statistics.getStatsBasedOnType(columnDescriptor.getType());
+
+        repetitionLevelWriter.reset();
+        definitionLevelWriter.reset();
+        valuesWriter.reset();
+    }
+
+    static org.apache.parquet.format.Encoding toFormatEncoding(Encoding encoding)
+    {
+        return org.apache.parquet.format.Encoding.valueOf(encoding.name());
+    }
+
+    @Override
+    public String toString()
+    {
+        return columnDescriptor.toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.ColumnarRow;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarRow.toColumnarRow;
+import static java.util.Objects.requireNonNull;
+
+public class StructColumnWriter
+        implements ColumnWriter
+{
+    private final List<ColumnWriter> fieldWriters;
+    private final int definitionLevel;
+
+    /**
+     * @param definitionLevel the definition level of a non-null row
+     */
+    public StructColumnWriter(List<ColumnWriter> fieldWriters, int definitionLevel)
+    {
+        this.fieldWriters = ImmutableList.copyOf(requireNonNull(fieldWriters, "fieldWriters is null"));
+        this.definitionLevel = definitionLevel;
+    }
+
+    @Override
+    public void writeBlock(Block block, ColumnEntries entries)
+            throws IOException
+    {
+        ColumnarRow columnarRow = toColumnarRow(block);
+
+        // the field blocks only contain the non-null rows
+        int[] fieldPositions = new int[columnarRow.getPositionCount()];
+        int nonNullCount = 0;
+        for (int position = 0; position < columnarRow.getPositionCount(); position++) {
+            fieldPositions[position] = nonNullCount;
+            if (!columnarRow.isNull(position)) {
+                nonNullCount++;
+            }
+        }
+
+        ColumnEntries fieldEntries = new ColumnEntries(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            int position = entries.getPosition(i);
+            if (position == NO_POSITION || columnarRow.isNull(position)) {
+                fieldEntries.add(NO_POSITION, entries.getDefinitionLevel(i), entries.getRepetitionLevel(i));
+            }
+            else {
+                fieldEntries.add(fieldPositions[position], definitionLevel, entries.getRepetitionLevel(i));
+            }
+        }
+
+        for (int field = 0; field < fieldWriters.size(); field++) {
+            fieldWriters.get(field).writeBlock(columnarRow.getField(field), fieldEntries);
+        }
+    }
+
+    @Override
+    public List<PrimitiveColumnWriter> getPrimitiveColumnWriters()
+    {
+        return fieldWriters.stream()
+                .flatMap(writer -> writer.getPrimitiveColumnWriters().stream())
+                .collect(toImmutableList());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.CharType;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.parquet.ParquetTimestampUtils.getTimestampBinary;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.Decimals.decodeUnscaledValue;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+
+final class ValueWriters
+{
+    private ValueWriters() {}
+
+    public static ValueWriter createValueWriter(Type type, PrimitiveType parquetType)
+    {
+        requireNonNull(type, "type is null");
+        requireNonNull(parquetType, "parquetType is null");
+
+        if (BOOLEAN.equals(type)) {
+            return ValueWriters::writeBoolean;
+        }
+        if (TINYINT.equals(type) || SMALLINT.equals(type) || INTEGER.equals(type) || DATE.equals(type)) {
+            return (block, position, valuesWriter, statistics) -> writeInteger(valuesWriter, statistics, toIntExact(type.getLong(block, position)));
+        }
+        if (BIGINT.equals(type)) {
+            return ValueWriters::writeBigint;
+        }
+        if (REAL.equals(type)) {
+            return ValueWriters::writeReal;
+        }
+        if (DOUBLE.equals(type)) {
+            return ValueWriters::writeDouble;
+        }
+        if (TIMESTAMP.equals(type)) {
+            return ValueWriters::writeTimestamp;
+        }
+        if (type instanceof DecimalType) {
+            checkArgument(parquetType.getPrimitiveTypeName() == FIXED_LEN_BYTE_ARRAY, "Decimal must be written as FIXED_LEN_BYTE_ARRAY: %s", parquetType);
+            return new DecimalValueWriter((DecimalType) type, parquetType.getTypeLength());
+        }
+        if (type instanceof VarcharType || type instanceof CharType || VARBINARY.equals(type)) {
+            return (block, position, valuesWriter, statistics) -> writeBinary(valuesWriter, statistics, Binary.fromConstantByteArray(type.getSlice(block, position).getBytes()));
+        }
+        throw new PrestoException(NOT_SUPPORTED, "Unsupported type for Parquet writer: " + type);
+    }
+
+    private static void writeBoolean(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+    {
+        boolean value = BOOLEAN.getBoolean(block, position);
+        valuesWriter.writeBoolean(value);
+        statistics.updateStats(value);
+    }
+
+    private static void writeInteger(ValuesWriter valuesWriter, Statistics<?> statistics, int value)
+    {
+        valuesWriter.writeInteger(value);
+        statistics.updateStats(value);
+    }
+
+    private static void writeBigint(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+    {
+        long value = BIGINT.getLong(block, position);
+        valuesWriter.writeLong(value);
+        statistics.updateStats(value);
+    }
+
+    private static void writeReal(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+    {
+        float value = intBitsToFloat(toIntExact(REAL.getLong(block, position)));
+        valuesWriter.writeFloat(value);
+        statistics.updateStats(value);
+    }
+
+    private static void writeDouble(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+    {
+        double value = DOUBLE.getDouble(block, position);
+        valuesWriter.writeDouble(value);
+        statistics.updateStats(value);
+    }
+
+    private static void writeTimestamp(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+    {
+        // INT96 has no defined sort order, so only the null count is recorded
+        valuesWriter.writeBytes(getTimestampBinary(TIMESTAMP.getLong(block, position)));
+    }
+
+    private static void writeBinary(ValuesWriter valuesWriter, Statistics<?> statistics, Binary value)
+    {
+        valuesWriter.writeBytes(value);
+        statistics.updateStats(value);
+    }
+
+    private static class DecimalValueWriter
+            implements ValueWriter
+    {
+        private final DecimalType type;
+        private final int typeLength;
+
+        public DecimalValueWriter(DecimalType type, int typeLength)
+        {
+            this.type = requireNonNull(type, "type is null");
+            this.typeLength = typeLength;
+        }
+
+        @Override
+        public void write(Block block, int position, ValuesWriter valuesWriter, Statistics<?> statistics)
+        {
+            byte[] bytes = new byte[typeLength];
+            if (type.isShort()) {
+                long value = type.getLong(block, position);
+                for (int i = typeLength - 1; i >= 0; i--) {
+                    bytes[i] = (byte) value;
+                    value >>= 8;
+                }
+            }
+            else {
+                byte[] unscaledBytes = decodeUnscaledValue(type.getSlice(block, position)).toByteArray();
+                // sign extend the big endian two's complement representation to the fixed length
+                int padding = typeLength - unscaledBytes.length;
+                byte signByte = unscaledBytes[0] < 0 ? (byte) -1 : 0;
+                for (int i = 0; i < padding; i++) {
+                    bytes[i] = signByte;
+                }
+                System.arraycopy(unscaledBytes, 0, bytes, padding, unscaledBytes.length);
+            }
+            writeBinary(valuesWriter, statistics, Binary.fromConstantByteArray(bytes));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.predicate.Predicate;
+import io.prestosql.parquet.reader.MetadataReader;
+import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.parquet.writer.ParquetWriter;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.MapType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIO;
+import org.apache.parquet.io.GroupColumnIO;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.PrimitiveColumnIO;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getArrayElementColumn;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.ParquetTypeUtils.getMapKeyValueColumn;
+import static io.prestosql.parquet.ParquetTypeUtils.lookupColumnByName;
+import static io.prestosql.parquet.predicate.PredicateUtils.buildPredicate;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.io.ColumnIOUtil.columnDefinitionLevel;
+import static org.apache.parquet.io.ColumnIOUtil.columnRepetitionLevel;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+
+/**
+ * Writes Parquet files with {@link ParquetWriter} and reads them back with {@link ParquetReader}.
+ */
+public final class ParquetTestUtils
+{
+    private static final DataSize MAX_READ_BLOCK_SIZE = new DataSize(16, MEGABYTE);
+
+    private ParquetTestUtils() {}
+
+    public static void writeParquetFile(
+            File file,
+            List<String> columnNames,
+            List<Type> types,
+            ParquetWriterOptions options,
+            CompressionCodecName compressionCodec,
+            List<Page> pages)
+            throws IOException
+    {
+        try (ParquetWriter writer = new ParquetWriter(new FileOutputStream(file), columnNames, types, options, compressionCodec, ImmutableMap.of())) {
+            for (Page page : pages) {
+                writer.write(page);
+            }
+        }
+    }
+
+    public static ParquetMetadata readFooter(File file)
+            throws IOException
+    {
+        return MetadataReader.readFooter(FileSystem.getLocal(new Configuration()), new Path(file.toURI()), file.length());
+    }
+
+    /**
+     * @param pagePredicate domains of flat columns by name, used to skip the data pages that cannot match
+     */
+    public static ParquetReader createParquetReader(File file, ParquetMetadata parquetMetadata, Map<String, Domain> pagePredicate)
+            throws IOException
+    {
+        MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+        Map<List<String>, RichColumnDescriptor> descriptorsByPath = getDescriptors(fileSchema, fileSchema);
+        TupleDomain<ColumnDescriptor> parquetTupleDomain = TupleDomain.withColumnDomains(pagePredicate.entrySet().stream()
+                .collect(toImmutableMap(entry -> requireNonNull(descriptorsByPath.get(ImmutableList.of(entry.getKey())), "column not found"), Entry::getValue)));
+        Predicate parquetPredicate = buildPredicate(fileSchema, parquetTupleDomain, descriptorsByPath);
+
+        return new ParquetReader(
+                getColumnIO(fileSchema, fileSchema),
+                parquetMetadata.getBlocks(),
+                new FileParquetDataSource(file),
+                newSimpleAggregatedMemoryContext(),
+                MAX_READ_BLOCK_SIZE,
+                parquetPredicate,
+                parquetTupleDomain.getDomains().get().keySet(),
+                false);
+    }
+
+    public static List<Field> getFields(ParquetMetadata parquetMetadata, List<String> columnNames, List<Type> types)
+    {
+        checkArgument(columnNames.size() == types.size(), "columnNames and types size mismatch");
+        MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+        MessageColumnIO messageColumnIO = getColumnIO(fileSchema, fileSchema);
+        ImmutableList.Builder<Field> fields = ImmutableList.builder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            fields.add(constructField(types.get(i), lookupColumnByName(messageColumnIO, columnNames.get(i))));
+        }
+        return fields.build();
+    }
+
+    public static List<Page> readPages(ParquetReader reader, List<Field> fields)
+            throws IOException
+    {
+        List<Page> pages = new ArrayList<>();
+        for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+            Block[] blocks = new Block[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                blocks[i] = reader.readBlock(fields.get(i));
+            }
+            pages.add(new Page(batchSize, blocks));
+        }
+        return pages;
+    }
+
+    private static Field constructField(Type type, ColumnIO columnIO)
+    {
+        requireNonNull(columnIO, "columnIO is null");
+        boolean required = columnIO.getType().getRepetition() != OPTIONAL;
+        int repetitionLevel = columnRepetitionLevel(columnIO);
+        int definitionLevel = columnDefinitionLevel(columnIO);
+        if (type instanceof RowType) {
+            GroupColumnIO groupColumnIO = (GroupColumnIO) columnIO;
+            ImmutableList.Builder<Optional<Field>> fields = ImmutableList.builder();
+            for (RowType.Field field : ((RowType) type).getFields()) {
+                fields.add(Optional.of(constructField(field.getType(), lookupColumnByName(groupColumnIO, field.getName().get()))));
+            }
+            return new GroupField(type, repetitionLevel, definitionLevel, required, fields.build());
+        }
+        if (type instanceof MapType) {
+            GroupColumnIO keyValueColumnIO = getMapKeyValueColumn((GroupColumnIO) columnIO);
+            MapType mapType = (MapType) type;
+            return new GroupField(type, repetitionLevel, definitionLevel, required, ImmutableList.of(
+                    Optional.of(constructField(mapType.getKeyType(), keyValueColumnIO.getChild(0))),
+                    Optional.of(constructField(mapType.getValueType(), keyValueColumnIO.getChild(1)))));
+        }
+        if (type instanceof ArrayType) {
+            ColumnIO elementColumnIO = getArrayElementColumn(((GroupColumnIO) columnIO).getChild(0));
+            return new GroupField(type, repetitionLevel, definitionLevel, required, ImmutableList.of(
+                    Optional.of(constructField(((ArrayType) type).getElementType(), elementColumnIO))));
+        }
+        PrimitiveColumnIO primitiveColumnIO = (PrimitiveColumnIO) columnIO;
+        RichColumnDescriptor column = new RichColumnDescriptor(primitiveColumnIO.getColumnDescriptor(), columnIO.getType().asPrimitiveType());
+        return new PrimitiveField(type, repetitionLevel, definitionLevel, required, column, primitiveColumnIO.getId());
+    }
+
+    private static class FileParquetDataSource
+            implements ParquetDataSource
+    {
+        private final ParquetDataSourceId id;
+        private final byte[] data;
+        private long readBytes;
+
+        public FileParquetDataSource(File file)
+                throws IOException
+        {
+            this.id = new ParquetDataSourceId(file.getPath());
+            this.data = Files.readAllBytes(file.toPath());
+        }
+
+        @Override
+        public ParquetDataSourceId getId()
+        {
+            return id;
+        }
+
+        @Override
+        public long getReadBytes()
+        {
+            return readBytes;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getSize()
+        {
+            return data.length;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            System.arraycopy(data, toIntExact(position), buffer, bufferOffset, bufferLength);
+            readBytes += bufferLength;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.testng.annotations.Test;
 
 import java.sql.Timestamp;
 
+import static io.prestosql.parquet.ParquetTimestampUtils.getTimestampBinary;
 import static io.prestosql.parquet.ParquetTimestampUtils.getTimestampMillis;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static org.testng.Assert.assertEquals;
@@ -34,6 +35,16 @@ public class TestParquetTimestampUtils
         assertTimestampCorrect("2015-12-31 23:59:59.999999999");
     }
 
+    @Test
+    public void testGetTimestampBinary()
+    {
+        assertTimestampRoundTrip("2011-01-01 00:00:00.000");
+        assertTimestampRoundTrip("2001-01-01 01:01:01.001");
+        assertTimestampRoundTrip("2015-12-31 23:59:59.999");
+        assertTimestampRoundTrip("1969-12-31 23:59:59.999");
+        assertTimestampRoundTrip("1900-01-01 12:34:56.789");
+    }
+
     @Test
     public void testInvalidBinaryLength()
     {
@@ -54,4 +65,12 @@ public class TestParquetTimestampUtils
         long decodedTimestampMillis = getTimestampMillis(timestampBytes);
         assertEquals(decodedTimestampMillis, timestamp.getTime());
     }
+
+    private static void assertTimestampRoundTrip(String timestampString)
+    {
+        Timestamp timestamp = Timestamp.valueOf(timestampString);
+        Binary timestampBytes = getTimestampBinary(timestamp.getTime());
+        assertEquals(timestampBytes, NanoTimeUtils.getNanoTime(timestamp, false).toBinary());
+        assertEquals(getTimestampMillis(timestampBytes), timestamp.getTime());
+    }
 }
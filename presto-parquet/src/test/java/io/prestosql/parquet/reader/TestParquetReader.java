@@ -0,0 +1,192 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.Field;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.type.Type;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.parquet.ParquetTestUtils.createParquetReader;
+import static io.prestosql.parquet.ParquetTestUtils.getFields;
+import static io.prestosql.parquet.ParquetTestUtils.readFooter;
+import static io.prestosql.parquet.ParquetTestUtils.writeParquetFile;
+import static io.prestosql.spi.predicate.Domain.singleValue;
+import static io.prestosql.spi.predicate.Range.range;
+import static io.prestosql.spi.predicate.ValueSet.ofRanges;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetReader
+{
+    private static final int ROW_COUNT = 10_000;
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("key", "name", "value");
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, BIGINT);
+
+    private File tempDirectory;
+    private File file;
+    private ParquetMetadata parquetMetadata;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        tempDirectory = createTempDir();
+        file = new File(tempDirectory, "data.parquet");
+
+        // the key column is sorted, so a selective range on it only matches a few small pages
+        BlockBuilder keys = BIGINT.createBlockBuilder(null, ROW_COUNT);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, ROW_COUNT);
+        BlockBuilder values = BIGINT.createBlockBuilder(null, ROW_COUNT);
+        for (int row = 0; row < ROW_COUNT; row++) {
+            BIGINT.writeLong(keys, row);
+            VARCHAR.writeString(names, "name-" + row);
+            if (row % 7 == 0) {
+                values.appendNull();
+            }
+            else {
+                BIGINT.writeLong(values, row * 10L);
+            }
+        }
+        ParquetWriterOptions options = new ParquetWriterOptions()
+                .withMaxPageSize(new DataSize(1, KILOBYTE))
+                .withMaxRowGroupSize(new DataSize(64, MEGABYTE))
+                .withDictionaryEnabled(false);
+        writeParquetFile(file, COLUMN_NAMES, TYPES, options, SNAPPY, ImmutableList.of(new Page(keys.build(), names.build(), values.build())));
+
+        parquetMetadata = readFooter(file);
+        assertEquals(getOnlyElement(parquetMetadata.getBlocks()).getRowCount(), ROW_COUNT);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDirectory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testSelectivePredicateSkipsPages()
+            throws IOException
+    {
+        long readRows = assertRowsRead(ImmutableMap.of("key", Domain.create(ofRanges(range(BIGINT, 5000L, true, 5009L, true)), false)), 5000, 5010);
+        // only the pages holding the matching keys are read
+        assertTrue(readRows < ROW_COUNT / 10, "read " + readRows + " rows");
+    }
+
+    @Test
+    public void testDisjointRanges()
+            throws IOException
+    {
+        Domain domain = Domain.create(ofRanges(range(BIGINT, 100L, true, 104L, true), range(BIGINT, 9000L, true, 9004L, true)), false);
+        long readRows = assertRowsRead(ImmutableMap.of("key", domain), 100, 105, 9000, 9005);
+        assertTrue(readRows < ROW_COUNT / 10, "read " + readRows + " rows");
+    }
+
+    @Test
+    public void testNoMatchingPages()
+            throws IOException
+    {
+        try (ParquetReader reader = createParquetReader(file, parquetMetadata, ImmutableMap.of("key", singleValue(BIGINT, -1L)))) {
+            assertEquals(reader.nextBatch(), -1);
+            assertEquals(reader.getPosition(), ROW_COUNT);
+        }
+    }
+
+    @Test
+    public void testWithoutPagePredicate()
+            throws IOException
+    {
+        assertEquals(assertRowsRead(ImmutableMap.of(), 0, ROW_COUNT), ROW_COUNT);
+    }
+
+    /**
+     * Reads the file with the page predicate and checks that every row returned by the reader is correct and
+     * at its position in the file, and that the keys in the given ranges are all returned.
+     *
+     * @return the number of rows returned by the reader
+     */
+    private long assertRowsRead(Map<String, Domain> pagePredicate, long... expectedKeyRanges)
+            throws IOException
+    {
+        List<Field> fields = getFields(parquetMetadata, COLUMN_NAMES, TYPES);
+        long readRows = 0;
+        long matchingRows = 0;
+        try (ParquetReader reader = createParquetReader(file, parquetMetadata, pagePredicate)) {
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                long firstRow = reader.getPosition() - batchSize;
+                Block keys = reader.readBlock(fields.get(0));
+                Block names = reader.readBlock(fields.get(1));
+                Block values = reader.readBlock(fields.get(2));
+                for (int position = 0; position < batchSize; position++) {
+                    long row = firstRow + position;
+                    assertEquals(BIGINT.getLong(keys, position), row);
+                    assertEquals(VARCHAR.getSlice(names, position).toStringUtf8(), "name-" + row);
+                    if (row % 7 == 0) {
+                        assertTrue(values.isNull(position));
+                    }
+                    else {
+                        assertEquals(BIGINT.getLong(values, position), row * 10);
+                    }
+                    if (inRanges(row, expectedKeyRanges)) {
+                        matchingRows++;
+                    }
+                }
+                readRows += batchSize;
+            }
+            assertEquals(reader.getPosition(), ROW_COUNT);
+        }
+
+        long expectedMatchingRows = 0;
+        for (int i = 0; i < expectedKeyRanges.length; i += 2) {
+            expectedMatchingRows += expectedKeyRanges[i + 1] - expectedKeyRanges[i];
+        }
+        assertEquals(matchingRows, expectedMatchingRows);
+        return readRows;
+    }
+
+    private static boolean inRanges(long value, long... ranges)
+    {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (value >= ranges[i] && value < ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
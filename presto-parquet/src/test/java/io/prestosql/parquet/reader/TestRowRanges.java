@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestRowRanges
+{
+    @Test
+    public void testAll()
+    {
+        RowRanges ranges = RowRanges.all(100);
+        assertEquals(ranges.getRangeCount(), 1);
+        assertEquals(ranges.getRowCount(), 100);
+        assertEquals(ranges.getNextMatchingRow(0), 0);
+        assertEquals(ranges.getNextMatchingRow(99), 99);
+        assertEquals(ranges.getNextMatchingRow(100), -1);
+        assertEquals(ranges.getRangeEnd(42), 100);
+
+        assertTrue(RowRanges.all(0).isEmpty());
+    }
+
+    @Test
+    public void testBuilderMergesAdjacentRanges()
+    {
+        RowRanges ranges = RowRanges.builder()
+                .add(0, 10)
+                .add(10, 20)
+                .add(15, 25)
+                .add(30, 30)
+                .add(40, 50)
+                .build();
+        assertEquals(ranges.getRangeCount(), 2);
+        assertEquals(ranges.getRowCount(), 35);
+        assertEquals(ranges.getRangeEnd(0), 25);
+        assertEquals(ranges.getRangeEnd(45), 50);
+    }
+
+    @Test
+    public void testNextMatchingRow()
+    {
+        RowRanges ranges = RowRanges.builder()
+                .add(10, 20)
+                .add(40, 50)
+                .build();
+        assertEquals(ranges.getNextMatchingRow(0), 10);
+        assertEquals(ranges.getNextMatchingRow(15), 15);
+        assertEquals(ranges.getNextMatchingRow(20), 40);
+        assertEquals(ranges.getNextMatchingRow(49), 49);
+        assertEquals(ranges.getNextMatchingRow(50), -1);
+    }
+
+    @Test
+    public void testIntersect()
+    {
+        RowRanges left = RowRanges.builder()
+                .add(0, 10)
+                .add(20, 40)
+                .add(60, 70)
+                .build();
+        RowRanges right = RowRanges.builder()
+                .add(5, 25)
+                .add(35, 65)
+                .build();
+        RowRanges intersection = left.intersect(right);
+        assertEquals(intersection.getRangeCount(), 4);
+        assertEquals(intersection.getRowCount(), 5 + 5 + 5 + 5);
+        assertEquals(intersection.getNextMatchingRow(0), 5);
+        assertEquals(intersection.getRangeEnd(5), 10);
+        assertEquals(intersection.getNextMatchingRow(10), 20);
+        assertEquals(intersection.getRangeEnd(20), 25);
+        assertEquals(intersection.getNextMatchingRow(25), 35);
+        assertEquals(intersection.getRangeEnd(35), 40);
+        assertEquals(intersection.getNextMatchingRow(40), 60);
+        assertEquals(intersection.getRangeEnd(60), 65);
+
+        assertTrue(left.intersect(RowRanges.builder().add(10, 20).build()).isEmpty());
+        assertFalse(left.intersect(RowRanges.all(100)).isEmpty());
+    }
+}
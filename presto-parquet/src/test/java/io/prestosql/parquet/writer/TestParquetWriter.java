@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.testing.MaterializedResult;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.io.Files.createTempDir;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.parquet.ParquetTestUtils.createParquetReader;
+import static io.prestosql.parquet.ParquetTestUtils.getFields;
+import static io.prestosql.parquet.ParquetTestUtils.readFooter;
+import static io.prestosql.parquet.ParquetTestUtils.readPages;
+import static io.prestosql.parquet.ParquetTestUtils.writeParquetFile;
+import static io.prestosql.spi.type.DecimalType.createDecimalType;
+import static io.prestosql.spi.type.Decimals.writeBigDecimal;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TypeSignature.parseTypeSignature;
+import static io.prestosql.testing.MaterializedResult.resultBuilder;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.Collections.singletonMap;
+import static java.util.UUID.randomUUID;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.ZSTD;
+import static org.apache.parquet.schema.OriginalType.DECIMAL;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT96;
+import static org.testng.Assert.assertEquals;
+
+public class TestParquetWriter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final List<CompressionCodecName> COMPRESSION_CODECS = ImmutableList.of(UNCOMPRESSED, SNAPPY, GZIP, ZSTD);
+    // small pages and row groups, so that the values are split across several of them
+    private static final ParquetWriterOptions OPTIONS = new ParquetWriterOptions()
+            .withMaxPageSize(new DataSize(1, KILOBYTE))
+            .withMaxRowGroupSize(new DataSize(16, KILOBYTE));
+
+    private File tempDirectory;
+
+    @BeforeClass
+    public void setUp()
+    {
+        tempDirectory = createTempDir();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDirectory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testNestedTypes()
+            throws IOException
+    {
+        List<String> columnNames = ImmutableList.of("row_column", "array_column", "map_column", "nested_column");
+        List<Type> types = ImmutableList.of(
+                getType("row(a bigint,b varchar)"),
+                getType("array(bigint)"),
+                getType("map(varchar,bigint)"),
+                getType("array(row(x integer,y array(varchar)))"));
+
+        MaterializedResult.Builder expected = resultBuilder(SESSION, types);
+        for (int i = 0; i < 1000; i++) {
+            switch (i % 4) {
+                case 0:
+                    expected.row(
+                            ImmutableList.of((long) i, "value" + i),
+                            ImmutableList.of((long) i, i + 1L, i + 2L),
+                            ImmutableMap.of("a" + i, (long) i, "b" + i, i + 1L),
+                            ImmutableList.of(ImmutableList.of(i, ImmutableList.of("x", "y")), ImmutableList.of(i + 1, ImmutableList.of())));
+                    break;
+                case 1:
+                    // empty collections
+                    expected.row(ImmutableList.of(0L, ""), ImmutableList.of(), ImmutableMap.of(), ImmutableList.of());
+                    break;
+                case 2:
+                    // null fields and elements
+                    expected.row(
+                            Arrays.asList(null, "value" + i),
+                            Arrays.asList(null, (long) i),
+                            singletonMap("a" + i, null),
+                            Arrays.asList(null, Arrays.asList(null, Arrays.asList("z", null))));
+                    break;
+                default:
+                    expected.row(null, null, null, null);
+            }
+        }
+
+        assertRoundTrip(columnNames, types, expected.build().toPage());
+    }
+
+    @Test
+    public void testDecimals()
+            throws IOException
+    {
+        DecimalType shortDecimal = createDecimalType(10, 2);
+        DecimalType longDecimal = createDecimalType(38, 10);
+        DecimalType zeroScaleDecimal = createDecimalType(18, 0);
+        List<String> columnNames = ImmutableList.of("short_decimal", "long_decimal", "zero_scale_decimal");
+        List<Type> types = ImmutableList.of(shortDecimal, longDecimal, zeroScaleDecimal);
+
+        List<String> values = ImmutableList.of("0", "1", "-1", "12345.67", "-12345.67", "99999999.99", "-99999999.99", "0.01");
+        List<String> longValues = ImmutableList.of(
+                "0",
+                "1",
+                "-1",
+                "1234567890123456789012345678.0123456789",
+                "-1234567890123456789012345678.0123456789",
+                "9999999999999999999999999999.9999999999",
+                "-9999999999999999999999999999.9999999999",
+                "0.0000000001");
+        List<String> zeroScaleValues = ImmutableList.of("0", "1", "-1", "123456789012345678", "-123456789012345678", "999999999999999999", "-999999999999999999", "42");
+
+        BlockBuilder shortBlock = shortDecimal.createBlockBuilder(null, 1000);
+        BlockBuilder longBlock = longDecimal.createBlockBuilder(null, 1000);
+        BlockBuilder zeroScaleBlock = zeroScaleDecimal.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 9 == 8) {
+                shortBlock.appendNull();
+                longBlock.appendNull();
+                zeroScaleBlock.appendNull();
+                continue;
+            }
+            writeBigDecimal(shortDecimal, shortBlock, new BigDecimal(values.get(i % 9)).setScale(2));
+            writeBigDecimal(longDecimal, longBlock, new BigDecimal(longValues.get(i % 9)).setScale(10));
+            writeBigDecimal(zeroScaleDecimal, zeroScaleBlock, new BigDecimal(zeroScaleValues.get(i % 9)));
+        }
+
+        File file = assertRoundTrip(columnNames, types, new Page(shortBlock.build(), longBlock.build(), zeroScaleBlock.build()));
+
+        // decimals are written as fixed length byte arrays, like Hive does
+        MessageType schema = readFooter(file).getFileMetaData().getSchema();
+        for (int i = 0; i < columnNames.size(); i++) {
+            PrimitiveType column = schema.getType(columnNames.get(i)).asPrimitiveType();
+            DecimalType type = (DecimalType) types.get(i);
+            assertEquals(column.getPrimitiveTypeName(), FIXED_LEN_BYTE_ARRAY);
+            assertEquals(column.getOriginalType(), DECIMAL);
+            assertEquals(column.getDecimalMetadata().getPrecision(), type.getPrecision());
+            assertEquals(column.getDecimalMetadata().getScale(), type.getScale());
+        }
+    }
+
+    @Test
+    public void testTimestamps()
+            throws IOException
+    {
+        List<Long> values = ImmutableList.of(
+                0L,
+                1L,
+                -1L,
+                1_500_000_000_123L,
+                // before the epoch, but not on a day boundary
+                -86_400_001L,
+                // 0001-01-01 00:00:00.000 UTC
+                -62_135_596_800_000L,
+                // 9999-12-31 23:59:59.999 UTC
+                253_402_300_799_999L);
+
+        BlockBuilder block = TIMESTAMP.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 8 == 7) {
+                block.appendNull();
+            }
+            else {
+                TIMESTAMP.writeLong(block, values.get(i % 8) + i);
+            }
+        }
+
+        File file = assertRoundTrip(ImmutableList.of("timestamp_column"), ImmutableList.of(TIMESTAMP), new Page(block.build()));
+
+        // timestamps are written as INT96, like Hive does
+        assertEquals(readFooter(file).getFileMetaData().getSchema().getType("timestamp_column").asPrimitiveType().getPrimitiveTypeName(), INT96);
+    }
+
+    /**
+     * Writes the page with every supported compression codec, reads the file back and checks that the values
+     * did not change.
+     *
+     * @return the last file written
+     */
+    private File assertRoundTrip(List<String> columnNames, List<Type> types, Page page)
+            throws IOException
+    {
+        MaterializedResult expected = resultBuilder(SESSION, types).page(page).build();
+        File file = null;
+        for (CompressionCodecName compressionCodec : COMPRESSION_CODECS) {
+            file = new File(tempDirectory, randomUUID() + ".parquet");
+            writeParquetFile(file, columnNames, types, OPTIONS, compressionCodec, ImmutableList.of(page));
+
+            ParquetMetadata parquetMetadata = readFooter(file);
+
+            List<Page> pages;
+            try (ParquetReader reader = createParquetReader(file, parquetMetadata, ImmutableMap.of())) {
+                pages = readPages(reader, getFields(parquetMetadata, columnNames, types));
+            }
+            MaterializedResult actual = resultBuilder(SESSION, types).pages(pages).build();
+            assertEquals(actual.getMaterializedRows(), expected.getMaterializedRows(), "compression " + compressionCodec);
+        }
+        return file;
+    }
+
+    private static Type getType(String signature)
+    {
+        return METADATA.getType(parseTypeSignature(signature));
+    }
+}
@@ -30,14 +30,17 @@ import io.prestosql.plugin.jdbc.ColumnMapping;
 import io.prestosql.plugin.jdbc.DriverConnectionFactory;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
+import io.prestosql.plugin.jdbc.JdbcSortItem;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.plugin.jdbc.JdbcTypeHandle;
 import io.prestosql.plugin.jdbc.LongWriteFunction;
 import io.prestosql.plugin.jdbc.SliceWriteFunction;
 import io.prestosql.plugin.jdbc.WriteMapping;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.TableNotFoundException;
 import io.prestosql.spi.type.ArrayType;
@@ -326,6 +329,23 @@ public class PostgreSqlClient
         return true;
     }
 
+    @Override
+    protected boolean isJoinTypeSupported(JoinType joinType)
+    {
+        return true;
+    }
+
+    @Override
+    protected String toOrderByItem(JdbcSortItem sortItem)
+    {
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return format(
+                "%s %s %s",
+                quoted(sortItem.getColumn().getColumnName()),
+                sortOrder.isAscending() ? "ASC" : "DESC",
+                sortOrder.isNullsFirst() ? "NULLS FIRST" : "NULLS LAST");
+    }
+
     private static ColumnMapping timestampWithTimeZoneColumnMapping()
     {
         return ColumnMapping.longMapping(
@@ -17,7 +17,10 @@ import io.prestosql.plugin.jdbc.BaseJdbcClient;
 import io.prestosql.plugin.jdbc.BaseJdbcConfig;
 import io.prestosql.plugin.jdbc.DriverConnectionFactory;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
+import io.prestosql.plugin.jdbc.JdbcSortItem;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import org.postgresql.Driver;
 
@@ -83,4 +86,21 @@ public class RedshiftClient
     {
         return true;
     }
+
+    @Override
+    protected boolean isJoinTypeSupported(JoinType joinType)
+    {
+        return true;
+    }
+
+    @Override
+    protected String toOrderByItem(JdbcSortItem sortItem)
+    {
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return format(
+                "%s %s %s",
+                quoted(sortItem.getColumn().getColumnName()),
+                sortOrder.isAscending() ? "ASC" : "DESC",
+                sortOrder.isNullsFirst() ? "NULLS FIRST" : "NULLS LAST");
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.connector;
+
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+public class AggregateFunction
+{
+    private final String functionName;
+    private final Type outputType;
+    private final List<ConnectorExpression> inputs;
+    private final boolean distinct;
+
+    public AggregateFunction(String functionName, Type outputType, List<ConnectorExpression> inputs, boolean distinct)
+    {
+        this.functionName = requireNonNull(functionName, "functionName is null");
+        this.outputType = requireNonNull(outputType, "outputType is null");
+        this.inputs = unmodifiableList(new ArrayList<>(requireNonNull(inputs, "inputs is null")));
+        this.distinct = distinct;
+    }
+
+    public String getFunctionName()
+    {
+        return functionName;
+    }
+
+    public Type getOutputType()
+    {
+        return outputType;
+    }
+
+    public List<ConnectorExpression> getInputs()
+    {
+        return inputs;
+    }
+
+    public boolean isDistinct()
+    {
+        return distinct;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AggregateFunction that = (AggregateFunction) o;
+        return distinct == that.distinct &&
+                functionName.equals(that.functionName) &&
+                outputType.equals(that.outputType) &&
+                inputs.equals(that.inputs);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(functionName, outputType, inputs, distinct);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder()
+                .append(functionName)
+                .append('(');
+        if (distinct) {
+            builder.append("DISTINCT ");
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(inputs.get(i));
+        }
+        return builder.append(')').toString();
+    }
+}
@@ -15,6 +15,7 @@ package io.prestosql.spi.connector;
 
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.expression.ConnectorExpression;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.security.GrantInfo;
 import io.prestosql.spi.security.PrestoPrincipal;
@@ -713,4 +714,118 @@ public interface ConnectorMetadata
     {
         return Optional.empty();
     }
+
+    /**
+     * Attempt to push down the provided projections into the table.
+     * <p>
+     * Connectors can indicate whether they don't support projection pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports projection pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The {@link io.prestosql.spi.expression.Variable}s in the projections refer to the entries of the provided assignments.
+     * If the connector can produce some of the projections (or sub-expressions of them) directly,
+     * it should return a new handle for the derived table, the projections rewritten in terms of
+     * the variables of the returned {@link Assignment}s, and those assignments. The returned
+     * projections must be in the same order as the provided ones.
+     *
+     * @param projections the projections, with the variables referring to the assignments
+     * @param assignments the columns of the table, keyed by the variable names used in the projections
+     */
+    default Optional<ProjectionApplicationResult<ConnectorTableHandle>> applyProjection(ConnectorSession session, ConnectorTableHandle handle, List<ConnectorExpression> projections, Map<String, ColumnHandle> assignments)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to push down the aggregation into the table.
+     * <p>
+     * Connectors can indicate whether they don't support aggregation pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports aggregation pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The aggregation is only pushed if the connector can compute all of the aggregates for all of the grouping sets.
+     * The returned handle represents the aggregated relation: it produces one row per group, with the grouping
+     * columns and the columns of the returned {@link Assignment}s.
+     *
+     * @param aggregates the aggregate functions, with the variables referring to the assignments
+     * @param assignments the columns of the table, keyed by the variable names used in the aggregates
+     * @param groupingSets the grouping sets of the aggregation, a single empty set for a global aggregation
+     */
+    default Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to push down the TopN into the table.
+     * <p>
+     * Connectors can indicate whether they don't support TopN pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports TopN pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * If the connector could benefit from the information but can't guarantee that it will be able to produce
+     * fewer rows than the provided count, or that the rows are the top ones of the whole table, it should
+     * return a non-empty result containing a new handle for the derived table and the "topNGuaranteed" flag set to false.
+     * <p>
+     * If the connector can guarantee it will produce exactly the top rows of the table, it should return a
+     * non-empty result with the "topNGuaranteed" flag set to true.
+     *
+     * @param sortItems the sort keys, with the names referring to the assignments
+     * @param assignments the columns of the table, keyed by the names used in the sort items
+     */
+    default Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to push down the join of two tables of this connector into a single table.
+     * <p>
+     * Connectors can indicate whether they don't support join pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * The returned handle represents the joined relation, which produces exactly the rows of the join.
+     * Every column of both assignments must be mapped to a column of the returned handle.
+     *
+     * @param joinConditions the conjuncts of the join condition, each comparing an expression over the left table with one over the right table
+     * @param leftAssignments the columns of the left table, keyed by the variable names used in the join conditions
+     * @param rightAssignments the columns of the right table, keyed by the variable names used in the join conditions
+     */
+    default Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments)
+    {
+        return Optional.empty();
+    }
 }
@@ -13,6 +13,8 @@
  */
 package io.prestosql.spi.connector;
 
+import io.prestosql.spi.predicate.TupleDomain;
+
 import java.util.List;
 
 public interface ConnectorPageSourceProvider
@@ -30,6 +32,23 @@ public interface ConnectorPageSourceProvider
         return createPageSource(transaction, session, split, columns);
     }
 
+    /**
+     * @param columns columns that should show up in the output page, in this order
+     * @param dynamicFilter runtime predicate collected from the build side of a join,
+     * which the connector may use to prune data. Applying it is optional, since
+     * the engine still evaluates the join.
+     */
+    default ConnectorPageSource createPageSource(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorSplit split,
+            ConnectorTableHandle table,
+            List<ColumnHandle> columns,
+            TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(transaction, session, split, table, columns);
+    }
+
     /**
      * @param columns columns that should show up in the output page, in this order
      */
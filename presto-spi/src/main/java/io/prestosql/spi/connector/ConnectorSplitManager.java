@@ -13,6 +13,10 @@
  */
 package io.prestosql.spi.connector;
 
+import io.prestosql.spi.predicate.TupleDomain;
+
+import java.util.function.Supplier;
+
 public interface ConnectorSplitManager
 {
     @Deprecated
@@ -34,6 +38,22 @@ public interface ConnectorSplitManager
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * @param dynamicFilter supplier of the runtime predicate collected from the build side of joins.
+     * The predicate is {@link TupleDomain#all()} until the dynamic filters are collected, and can
+     * become narrower over time, so the connector should get it again before enumerating each
+     * partition. Applying it is optional, since the engine still evaluates the join.
+     */
+    default ConnectorSplitSource getSplits(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            SplitSchedulingStrategy splitSchedulingStrategy,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+    {
+        return getSplits(transaction, session, table, splitSchedulingStrategy);
+    }
+
     enum SplitSchedulingStrategy
     {
         UNGROUPED_SCHEDULING,
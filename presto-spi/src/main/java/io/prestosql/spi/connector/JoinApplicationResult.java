@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.connector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+public class JoinApplicationResult<T>
+{
+    private final T handle;
+    private final Map<ColumnHandle, ColumnHandle> leftColumnHandles;
+    private final Map<ColumnHandle, ColumnHandle> rightColumnHandles;
+
+    public JoinApplicationResult(T handle, Map<ColumnHandle, ColumnHandle> leftColumnHandles, Map<ColumnHandle, ColumnHandle> rightColumnHandles)
+    {
+        this.handle = requireNonNull(handle, "handle is null");
+        this.leftColumnHandles = unmodifiableMap(new HashMap<>(requireNonNull(leftColumnHandles, "leftColumnHandles is null")));
+        this.rightColumnHandles = unmodifiableMap(new HashMap<>(requireNonNull(rightColumnHandles, "rightColumnHandles is null")));
+    }
+
+    public T getHandle()
+    {
+        return handle;
+    }
+
+    /**
+     * Mapping of the columns of the left table to the columns of the returned handle.
+     * It must contain every column passed in the left assignments.
+     */
+    public Map<ColumnHandle, ColumnHandle> getLeftColumnHandles()
+    {
+        return leftColumnHandles;
+    }
+
+    /**
+     * Mapping of the columns of the right table to the columns of the returned handle.
+     * It must contain every column passed in the right assignments.
+     */
+    public Map<ColumnHandle, ColumnHandle> getRightColumnHandles()
+    {
+        return rightColumnHandles;
+    }
+}
@@ -26,6 +26,7 @@ import io.prestosql.plugin.jdbc.JdbcTypeHandle;
 import io.prestosql.plugin.jdbc.WriteMapping;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.CharType;
@@ -164,6 +165,19 @@ public class SqlServerClient
         return true;
     }
 
+    @Override
+    protected String countFunction()
+    {
+        // count returns an int in SQL Server
+        return "count_big";
+    }
+
+    @Override
+    protected boolean isJoinTypeSupported(JoinType joinType)
+    {
+        return true;
+    }
+
     private static String singleQuote(String... objects)
     {
         return singleQuote(DOT_JOINER.join(objects));
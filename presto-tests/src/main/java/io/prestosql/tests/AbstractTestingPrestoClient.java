@@ -161,7 +161,8 @@ public abstract class AbstractTestingPrestoClient<T>
                                         entry.getValue().getRole()))),
                 session.getIdentity().getExtraCredentials(),
                 session.getTransactionId().map(Object::toString).orElse(null),
-                clientRequestTimeout);
+                clientRequestTimeout,
+                false);
     }
 
     public List<QualifiedObjectName> listTables(Session session, String catalog, String schema)
@@ -81,7 +81,8 @@ public class TestFinalQueryInfo
                     ImmutableMap.of(),
                     ImmutableMap.of(),
                     null,
-                    new Duration(2, MINUTES));
+                    new Duration(2, MINUTES),
+                    false);
 
             // start query
             StatementClient client = newStatementClient(httpClient, clientSession, sql);